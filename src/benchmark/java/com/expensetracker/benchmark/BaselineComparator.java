@@ -0,0 +1,130 @@
+package com.expensetracker.benchmark;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Compares a JMH CSV result file (-rf csv) with the checked-in baseline and exits
+ * with status 1 if any benchmark got slower than the tolerance allows.
+ *
+ *   BaselineComparator <baseline.csv> <results.csv> [tolerancePercent]
+ *
+ * Rows are matched on benchmark name plus parameter values; benchmarks present in
+ * only one of the files are listed but never fail the check. Baseline numbers are
+ * only meaningful on comparable hardware, so refresh the baseline (copy the results
+ * file over it) when the machine running the check changes.
+ */
+public class BaselineComparator {
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 2) {
+            System.err.println("Usage: BaselineComparator <baseline.csv> <results.csv> [tolerancePercent]");
+            System.exit(2);
+        }
+        double tolerance = args.length > 2 ? Double.parseDouble(args[2]) : 25.0;
+
+        Map<String, Result> baseline = read(Paths.get(args[0]));
+        Map<String, Result> current = read(Paths.get(args[1]));
+
+        int regressions = 0;
+        for (Map.Entry<String, Result> entry : current.entrySet()) {
+            Result now = entry.getValue();
+            Result before = baseline.get(entry.getKey());
+            if (before == null) {
+                System.out.printf("  new        %s: %.3f %s%n", entry.getKey(), now.score, now.unit);
+                continue;
+            }
+            // Time per operation: lower is better. Throughput: higher is better.
+            double change = (now.score - before.score) / before.score * 100;
+            double slowdown = now.lowerIsBetter() ? change : -change;
+            boolean regressed = slowdown > tolerance;
+            if (regressed) regressions++;
+
+            System.out.printf("  %-10s %s: %.3f -> %.3f %s (%+.1f%%)%n",
+                    regressed ? "REGRESSED" : "ok", entry.getKey(), before.score, now.score, now.unit, change);
+        }
+        for (String missing : baseline.keySet()) {
+            if (!current.containsKey(missing)) {
+                System.out.println("  not run    " + missing);
+            }
+        }
+
+        if (regressions > 0) {
+            System.out.printf("%d benchmark(s) regressed by more than %.0f%%%n", regressions, tolerance);
+            System.exit(1);
+        }
+        System.out.printf("No regressions beyond %.0f%%%n", tolerance);
+    }
+
+    private static final class Result {
+        final String mode;
+        final double score;
+        final String unit;
+
+        Result(String mode, double score, String unit) {
+            this.mode = mode;
+            this.score = score;
+            this.unit = unit;
+        }
+
+        boolean lowerIsBetter() {
+            return !"thrpt".equals(mode);
+        }
+    }
+
+    private static Map<String, Result> read(Path file) throws IOException {
+        List<String> lines = Files.readAllLines(file, StandardCharsets.UTF_8);
+        Map<String, Result> results = new LinkedHashMap<>();
+        if (lines.isEmpty()) {
+            return results;
+        }
+
+        List<String> header = parseLine(lines.get(0));
+        int benchmarkCol = header.indexOf("Benchmark");
+        int modeCol = header.indexOf("Mode");
+        int scoreCol = header.indexOf("Score");
+        int unitCol = header.indexOf("Unit");
+
+        for (String line : lines.subList(1, lines.size())) {
+            if (line.isBlank()) continue;
+            List<String> cols = parseLine(line);
+
+            StringBuilder key = new StringBuilder(cols.get(benchmarkCol));
+            for (int i = 0; i < header.size(); i++) {
+                if (header.get(i).startsWith("Param: ") && i < cols.size() && !cols.get(i).isEmpty()) {
+                    key.append(' ').append(header.get(i).substring(7)).append('=').append(cols.get(i));
+                }
+            }
+            results.put(key.toString(),
+                    new Result(cols.get(modeCol), Double.parseDouble(cols.get(scoreCol)), cols.get(unitCol)));
+        }
+        return results;
+    }
+
+    // JMH quotes text columns; no field contains an embedded quote
+    private static List<String> parseLine(String line) {
+        List<String> cols = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (c == '"') {
+                quoted = !quoted;
+            } else if (c == ',' && !quoted) {
+                cols.add(field.toString());
+                field.setLength(0);
+            } else {
+                field.append(c);
+            }
+        }
+        cols.add(field.toString());
+        return cols;
+    }
+}
@@ -0,0 +1,69 @@
+package com.expensetracker.benchmark;
+
+import com.expensetracker.dto.TrendPoint;
+import com.expensetracker.util.ChartDataBuilder;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JSON building for the report charts: one point per day in the trend line,
+ * one slice per category in the pie.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class ChartDataBuilderBenchmark {
+
+    /** Points on the trend line (days in the report range, at most 2 years). */
+    @Param({"31", "365", "730"})
+    public int points;
+
+    private List<TrendPoint> trendData;
+    private Map<String, BigDecimal> categoryTotals;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42L);
+        LocalDate start = LocalDate.now().minusDays(points - 1);
+        trendData = new ArrayList<>(points);
+        for (int i = 0; i < points; i++) {
+            trendData.add(new TrendPoint(start.plusDays(i), BigDecimal.valueOf(random.nextInt(1_000_000), 2)));
+        }
+
+        categoryTotals = new LinkedHashMap<>();
+        for (int i = 1; i <= 10; i++) {
+            categoryTotals.put("Category " + i, BigDecimal.valueOf(random.nextInt(10_000_000), 2));
+        }
+    }
+
+    @Benchmark
+    public String lineChart() {
+        return ChartDataBuilder.buildLineChartData(trendData);
+    }
+
+    @Benchmark
+    public String pieChart() {
+        return ChartDataBuilder.buildPieChartData(categoryTotals);
+    }
+}
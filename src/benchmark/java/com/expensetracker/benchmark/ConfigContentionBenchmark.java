@@ -0,0 +1,57 @@
+package com.expensetracker.benchmark;
+
+import com.expensetracker.util.ConfigLoader;
+import com.expensetracker.util.HikariCPDataSource;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The two lookups every request makes many times (a config value, a pooled connection),
+ * called from 64 threads at once to expose any lock on their fast path.
+ *
+ * The connection benchmark needs a database; an in-memory H2 one is enough, with a pool
+ * large enough that no thread waits for a free connection:
+ *
+ *   DB_URL="jdbc:h2:mem:bench;DB_CLOSE_DELAY=-1" DB_USERNAME=sa DB_DRIVER=org.h2.Driver DB_POOL_SIZE=64 \
+ *     mvn -Pbenchmark test-compile exec:exec -Djmh.args="ConfigContentionBenchmark"
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Threads(64)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class ConfigContentionBenchmark {
+
+    @TearDown
+    public void tearDown() {
+        HikariCPDataSource.close();
+    }
+
+    @Benchmark
+    public int configLookup() {
+        // As in TokenUtil.isTokenExpired, on every token check
+        return ConfigLoader.getInt("security.token.expiry.hours", 24);
+    }
+
+    @Benchmark
+    public boolean borrowConnection() throws SQLException {
+        try (Connection conn = HikariCPDataSource.getConnection()) {
+            return conn.getAutoCommit();
+        }
+    }
+}
@@ -0,0 +1,158 @@
+package com.expensetracker.benchmark;
+
+import com.expensetracker.dto.ReportData;
+import com.expensetracker.model.Budget;
+import com.expensetracker.model.Category;
+import com.expensetracker.model.Expense;
+import com.expensetracker.service.CsvReportGenerator;
+import com.expensetracker.service.PdfReportGenerator;
+import com.expensetracker.service.ReportService;
+import com.expensetracker.util.JdbcMetrics;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.Date;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * CSV and PDF rendering of a full export, written to a discarding stream so only
+ * formatting, encoding and (for PDF) layout are measured.
+ *
+ * jdbcRead / jdbcReadInstrumented read the export's rows from an in-memory H2 table, plain and
+ * through {@link JdbcMetrics}, so the per-row cost of query instrumentation shows as their gap.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class ExportBenchmark {
+
+    @Param({"1000", "10000"})
+    public int expenseCount;
+
+    private SyntheticData data;
+    private Map<Integer, String> categoryMap;
+    private Map<Integer, BigDecimal> budgetMap;
+    private ReportData analytics;
+    private LocalDate from;
+    private LocalDate to;
+
+    private final CsvReportGenerator csvGenerator = new CsvReportGenerator();
+    private final PdfReportGenerator pdfGenerator = new PdfReportGenerator();
+
+    private Connection h2;
+
+    @Setup
+    public void setUp() throws SQLException {
+        data = new SyntheticData(expenseCount, 365, 42L);
+        from = data.getFrom();
+        to = data.getTo();
+
+        categoryMap = new HashMap<>();
+        for (Category category : data.getCategories()) {
+            categoryMap.put(category.getId(), category.getName());
+        }
+        budgetMap = new HashMap<>();
+        for (Budget budget : data.getBudgets()) {
+            budgetMap.putIfAbsent(budget.getCategoryId(), budget.getAmount());
+        }
+
+        // The PDF dashboard is drawn from the same analytics the export path computes
+        analytics = new ReportService(
+                new StubRepositories.Expenses(data),
+                new StubRepositories.Categories(data),
+                new StubRepositories.Budgets(data),
+                new StubRepositories.Rollups(data)).generateCustomReport(SyntheticData.USER_ID, from, to, null);
+
+        h2 = DriverManager.getConnection("jdbc:h2:mem:export_benchmark;DB_CLOSE_DELAY=-1", "sa", "");
+        try (Statement st = h2.createStatement()) {
+            st.execute("DROP TABLE IF EXISTS expenses");
+            st.execute("CREATE TABLE expenses (id BIGINT PRIMARY KEY, user_id BIGINT, description VARCHAR(255), "
+                    + "amount DECIMAL(10,2), category_id INT, expense_date DATE)");
+        }
+        try (PreparedStatement ps = h2.prepareStatement("INSERT INTO expenses VALUES (?, ?, ?, ?, ?, ?)")) {
+            for (Expense expense : data.getExpenses()) {
+                ps.setLong(1, expense.getId());
+                ps.setLong(2, expense.getUserId());
+                ps.setString(3, expense.getDescription());
+                ps.setBigDecimal(4, expense.getAmount());
+                ps.setInt(5, expense.getCategoryId());
+                ps.setDate(6, Date.valueOf(expense.getExpenseDate()));
+                ps.addBatch();
+            }
+            ps.executeBatch();
+        }
+    }
+
+    @TearDown
+    public void tearDown() throws SQLException {
+        h2.close();
+    }
+
+    @Benchmark
+    public long csv() throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(OutputStream.nullOutputStream(), StandardCharsets.UTF_8));
+        long rows = csvGenerator.generate(writer, data.getExpenses().iterator(), categoryMap, budgetMap);
+        writer.flush();
+        return rows;
+    }
+
+    @Benchmark
+    public void pdf() throws IOException {
+        // Newest first, as ExportService streams them for the PDF
+        pdfGenerator.generate(OutputStream.nullOutputStream(), data.getExpenses().reversed().iterator(),
+                categoryMap, analytics, from, to);
+    }
+
+    @Benchmark
+    public long jdbcRead() throws SQLException {
+        return readExpenses(h2);
+    }
+
+    @Benchmark
+    public long jdbcReadInstrumented() throws SQLException {
+        return readExpenses(JdbcMetrics.instrument(h2));
+    }
+
+    // Reads every column of every row, as the export's row mapper does
+    private static long readExpenses(Connection conn) throws SQLException {
+        long checksum = 0;
+        try (PreparedStatement ps = conn.prepareStatement("SELECT * FROM expenses ORDER BY expense_date, id");
+             ResultSet rs = ps.executeQuery()) {
+            while (rs.next()) {
+                checksum += rs.getLong("id") + rs.getLong("user_id") + rs.getString("description").length()
+                        + rs.getBigDecimal("amount").unscaledValue().longValue() + rs.getInt("category_id")
+                        + rs.getDate("expense_date").getTime();
+            }
+        }
+        return checksum;
+    }
+}
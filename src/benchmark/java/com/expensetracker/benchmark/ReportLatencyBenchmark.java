@@ -0,0 +1,86 @@
+package com.expensetracker.benchmark;
+
+import com.expensetracker.dto.PeriodTotals;
+import com.expensetracker.dto.ReportData;
+import com.expensetracker.model.Expense;
+import com.expensetracker.service.ReportService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Latency distribution (p50/p99 in the sample-time output) of a 730-day custom report
+ * when every query costs a simulated database round trip.
+ *
+ * The range is above report.parallel.min.days, so the top-expenses query overlaps the
+ * aggregate query. For the sequential baseline run the same benchmark with
+ * REPORT_PARALLEL_MIN_DAYS=1000 in the environment.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class ReportLatencyBenchmark {
+
+    private static final int RANGE_DAYS = 731; // The longest range a custom report accepts
+
+    @Param({"10000", "100000"})
+    public int expenseCount;
+
+    /** Simulated round trip added to each query, in milliseconds. */
+    @Param({"5"})
+    public int queryMillis;
+
+    private ReportService reportService;
+    private LocalDate from;
+    private LocalDate to;
+
+    @Setup
+    public void setUp() {
+        // Twice the range, so the comparison window has data too
+        SyntheticData data = new SyntheticData(expenseCount, 2 * RANGE_DAYS, 42L);
+        to = data.getTo();
+        from = to.minusDays(RANGE_DAYS - 1);
+
+        long roundTripNanos = TimeUnit.MILLISECONDS.toNanos(queryMillis);
+        StubRepositories.Expenses expenses = new StubRepositories.Expenses(data) {
+            @Override
+            public PeriodTotals findPeriodCategoryTotals(Long userId, LocalDate from, LocalDate to,
+                                                         LocalDate prevFrom, LocalDate prevTo, Integer categoryId) {
+                LockSupport.parkNanos(roundTripNanos);
+                return super.findPeriodCategoryTotals(userId, from, to, prevFrom, prevTo, categoryId);
+            }
+
+            @Override
+            public List<Expense> findTopExpensesByAmount(Long userId, LocalDate from, LocalDate to,
+                                                         Integer categoryId, int limit) {
+                LockSupport.parkNanos(roundTripNanos);
+                return super.findTopExpensesByAmount(userId, from, to, categoryId, limit);
+            }
+        };
+        reportService = new ReportService(expenses,
+                new StubRepositories.Categories(data),
+                new StubRepositories.Budgets(data),
+                new StubRepositories.Rollups(data));
+    }
+
+    @Benchmark
+    public ReportData customReport730Days() {
+        return reportService.generateCustomReport(SyntheticData.USER_ID, from, to, null);
+    }
+}
@@ -0,0 +1,77 @@
+package com.expensetracker.benchmark;
+
+import com.expensetracker.dto.CategoryPerformance;
+import com.expensetracker.dto.DaySpending;
+import com.expensetracker.dto.MonthlyTrend;
+import com.expensetracker.dto.ReportData;
+import com.expensetracker.service.ReportService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * ReportService over stub repositories: measures the aggregation, folding and DTO
+ * building that runs after the queries return.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class ReportServiceBenchmark {
+
+    @Param({"1000", "10000", "100000"})
+    public int expenseCount;
+
+    /** Days of history the expenses are spread over (ending today). */
+    @Param({"365"})
+    public int days;
+
+    private ReportService reportService;
+    private LocalDate today;
+
+    @Setup
+    public void setUp() {
+        SyntheticData data = new SyntheticData(expenseCount, days, 42L);
+        reportService = new ReportService(
+                new StubRepositories.Expenses(data),
+                new StubRepositories.Categories(data),
+                new StubRepositories.Budgets(data),
+                new StubRepositories.Rollups(data));
+        today = data.getTo();
+    }
+
+    @Benchmark
+    public ReportData customReport() {
+        return reportService.generateCustomReport(SyntheticData.USER_ID, today.minusDays(days - 1), today, null);
+    }
+
+    @Benchmark
+    public Map<LocalDate, DaySpending> heatmap() {
+        return reportService.generateHeatmapData(SyntheticData.USER_ID, today.getYear(), today.getMonthValue());
+    }
+
+    @Benchmark
+    public List<MonthlyTrend> monthlyTrend() {
+        return reportService.generateMonthlyTrendData(SyntheticData.USER_ID, 12);
+    }
+
+    @Benchmark
+    public List<CategoryPerformance> categoryPerformance() {
+        return reportService.generateCategoryPerformanceReport(SyntheticData.USER_ID, today.minusDays(89), today);
+    }
+}
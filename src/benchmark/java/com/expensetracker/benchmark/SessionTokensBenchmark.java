@@ -0,0 +1,59 @@
+package com.expensetracker.benchmark;
+
+import com.expensetracker.util.SessionTokens;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * What a stateless session costs per request: verifying the signed cookie, against reading
+ * the same two attributes from an in-memory container session.
+ *
+ * SessionTokens reads its keys from the configuration, so stateless sessions must be on:
+ *
+ *   SECURITY_SESSION_STATELESS=true SECURITY_SESSION_KEYS="k1:$(head -c 32 /dev/urandom | base64)" \
+ *     mvn -Pbenchmark test-compile exec:exec -Djmh.args="SessionTokensBenchmark"
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class SessionTokensBenchmark {
+
+    private SessionTokens tokens;
+    private String token;
+    private Map<String, Object> session;
+
+    @Setup
+    public void setUp() {
+        tokens = SessionTokens.get();
+        if (tokens == null) {
+            throw new IllegalStateException("Set SECURITY_SESSION_STATELESS=true and SECURITY_SESSION_KEYS (see class comment)");
+        }
+        token = tokens.issue(SyntheticData.USER_ID, true, "0b6f3c4e-1f2a-4d8e-9a55-0c1d2e3f4a5b");
+        session = new ConcurrentHashMap<>(Map.of("user", token, "csrfToken", "csrf"));
+    }
+
+    @Benchmark
+    public long verifyToken() {
+        return tokens.verify(token).getUserId();
+    }
+
+    @Benchmark
+    public int sessionLookup() {
+        return session.get("user").hashCode() + session.get("csrfToken").hashCode();
+    }
+}
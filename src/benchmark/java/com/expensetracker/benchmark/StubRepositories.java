@@ -0,0 +1,201 @@
+package com.expensetracker.benchmark;
+
+import com.expensetracker.dto.BudgetWindow;
+import com.expensetracker.dto.DailyCategoryTotal;
+import com.expensetracker.dto.PeriodTotals;
+import com.expensetracker.model.Budget;
+import com.expensetracker.model.Category;
+import com.expensetracker.model.Expense;
+import com.expensetracker.repository.BudgetRepository;
+import com.expensetracker.repository.CategoryRepository;
+import com.expensetracker.repository.ExpenseRepository;
+import com.expensetracker.repository.SpendingRollupRepository;
+import com.expensetracker.util.ExpenseSnapshot;
+import com.expensetracker.util.Money;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.function.Function;
+
+/**
+ * Repositories answering from a {@link SyntheticData} set instead of MySQL, so the
+ * benchmarks measure the service code and not the database or the network.
+ *
+ * Rows are kept date-ordered and date ranges are located by binary search, so the
+ * stubs themselves add as little as possible to the measured time. Only the methods
+ * the benchmarked code paths call are overridden; anything else would hit the
+ * (unconfigured) connection pool and fail loudly.
+ */
+public final class StubRepositories {
+
+    private StubRepositories() {}
+
+    public static class Expenses extends ExpenseRepository {
+        private static final Comparator<Expense> BY_AMOUNT = Comparator.comparing(Expense::getAmount);
+
+        private final SyntheticData data;
+
+        public Expenses(SyntheticData data) {
+            this.data = data;
+        }
+
+        @Override
+        public List<Expense> findByUserIdAndFilters(Long userId, LocalDate from, LocalDate to, Integer categoryId,
+                                                    BigDecimal minAmount, BigDecimal maxAmount, String keyword) {
+            List<Expense> range = range(data.getExpenses(), Expense::getExpenseDate, from, to);
+            if (categoryId == null) {
+                return new ArrayList<>(range);
+            }
+            return range.stream().filter(e -> categoryId.equals(e.getCategoryId())).toList();
+        }
+
+        @Override
+        public List<Expense> findTopExpensesByAmount(Long userId, LocalDate from, LocalDate to, Integer categoryId, int limit) {
+            // Bounded min-heap instead of a full sort, like the index-assisted LIMIT in MySQL
+            PriorityQueue<Expense> top = new PriorityQueue<>(limit + 1, BY_AMOUNT);
+            for (Expense e : range(data.getExpenses(), Expense::getExpenseDate, from, to)) {
+                if (categoryId != null && !categoryId.equals(e.getCategoryId())) continue;
+                top.offer(e);
+                if (top.size() > limit) top.poll();
+            }
+            List<Expense> result = new ArrayList<>(top);
+            result.sort(BY_AMOUNT.reversed());
+            return result;
+        }
+
+        @Override
+        public PeriodTotals findPeriodCategoryTotals(Long userId, LocalDate from, LocalDate to,
+                                                     LocalDate prevFrom, LocalDate prevTo, Integer categoryId) {
+            // Previous window collapses to one row per category, as the CASE bucket does in SQL
+            Map<Integer, DailyCategoryTotal> previous = new HashMap<>();
+            for (DailyCategoryTotal r : dayTotals(prevFrom, prevTo, categoryId)) {
+                previous.merge(r.getCategoryId(),
+                        new DailyCategoryTotal(prevFrom, r.getCategoryId(), r.getTotal(), r.getTransactionCount()),
+                        (a, b) -> new DailyCategoryTotal(prevFrom, a.getCategoryId(), a.getTotal().add(b.getTotal()),
+                                a.getTransactionCount() + b.getTransactionCount()));
+            }
+            return new PeriodTotals(dayTotals(from, to, categoryId), new ArrayList<>(previous.values()));
+        }
+
+        @Override
+        public LocalDate findEarliestExpenseDateByUserId(Long userId) {
+            return data.getExpenses().isEmpty() ? null : data.getExpenses().get(0).getExpenseDate();
+        }
+
+        private List<DailyCategoryTotal> dayTotals(LocalDate from, LocalDate to, Integer categoryId) {
+            List<DailyCategoryTotal> range = range(data.getDayTotals(), DailyCategoryTotal::getDate, from, to);
+            if (categoryId == null) {
+                return new ArrayList<>(range);
+            }
+            return range.stream().filter(r -> r.getCategoryId() == categoryId).toList();
+        }
+    }
+
+    public static class Categories extends CategoryRepository {
+        private final SyntheticData data;
+
+        public Categories(SyntheticData data) {
+            this.data = data;
+        }
+
+        @Override
+        public List<Category> findAllByUserId(Long userId) {
+            return new ArrayList<>(data.getCategories());
+        }
+    }
+
+    public static class Budgets extends BudgetRepository {
+        private final SyntheticData data;
+
+        public Budgets(SyntheticData data) {
+            this.data = data;
+        }
+
+        @Override
+        public List<Budget> findActiveByUserId(Long userId) {
+            return new ArrayList<>(data.getBudgets());
+        }
+    }
+
+    public static class Rollups extends SpendingRollupRepository {
+        private final SyntheticData data;
+        private final ExpenseSnapshot snapshot; // Built once, like a warm snapshot cache
+
+        public Rollups(SyntheticData data) {
+            this.data = data;
+            List<DailyCategoryTotal> rows = data.getDayTotals();
+            int[] days = new int[rows.size()];
+            int[] categories = new int[rows.size()];
+            long[] cents = new long[rows.size()];
+            int[] counts = new int[rows.size()];
+            for (int i = 0; i < rows.size(); i++) {
+                DailyCategoryTotal row = rows.get(i);
+                days[i] = (int) row.getDate().toEpochDay();
+                categories[i] = row.getCategoryId();
+                cents[i] = Money.toCents(row.getTotal());
+                counts[i] = row.getTransactionCount();
+            }
+            this.snapshot = new ExpenseSnapshot(days, categories, cents, counts);
+        }
+
+        @Override
+        public ExpenseSnapshot findSnapshot(Long userId) {
+            return snapshot;
+        }
+
+        @Override
+        public List<DailyCategoryTotal> findDailyCategoryTotals(Long userId, LocalDate from, LocalDate to) {
+            return new ArrayList<>(range(data.getDayTotals(), DailyCategoryTotal::getDate, from, to));
+        }
+
+        @Override
+        public List<DailyCategoryTotal> findMonthlyCategoryTotals(Long userId, LocalDate fromMonth, LocalDate toMonth) {
+            return new ArrayList<>(range(data.getMonthTotals(), DailyCategoryTotal::getDate, fromMonth, toMonth));
+        }
+
+        @Override
+        public BigDecimal sumAmountByCategoryAndDateRange(Long userId, Integer categoryId, LocalDate from, LocalDate to) {
+            return range(data.getDayTotals(), DailyCategoryTotal::getDate, from, to).stream()
+                    .filter(r -> r.getCategoryId() == categoryId)
+                    .map(DailyCategoryTotal::getTotal)
+                    .reduce(BigDecimal.ZERO, BigDecimal::add);
+        }
+
+        @Override
+        public Map<Long, BigDecimal> sumAmountByBudgetWindows(Long userId, List<BudgetWindow> windows) {
+            Map<Long, BigDecimal> spent = new HashMap<>();
+            for (BudgetWindow window : windows) {
+                spent.put(window.getBudgetId(),
+                        sumAmountByCategoryAndDateRange(userId, window.getCategoryId(), window.getStart(), window.getEnd()));
+            }
+            return spent;
+        }
+    }
+
+    /** The rows of a date-ordered list falling in [from, to], as a view. */
+    static <T> List<T> range(List<T> rows, Function<T, LocalDate> date, LocalDate from, LocalDate to) {
+        int start = firstIndexNotBefore(rows, date, from);
+        int end = firstIndexNotBefore(rows, date, to.plusDays(1));
+        return rows.subList(start, Math.max(start, end));
+    }
+
+    private static <T> int firstIndexNotBefore(List<T> rows, Function<T, LocalDate> date, LocalDate bound) {
+        int low = 0;
+        int high = rows.size();
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (date.apply(rows.get(mid)).isBefore(bound)) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+}
@@ -0,0 +1,103 @@
+package com.expensetracker.benchmark;
+
+import com.expensetracker.dto.DailyCategoryTotal;
+import com.expensetracker.model.Budget;
+import com.expensetracker.model.Category;
+import com.expensetracker.model.Expense;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.TreeMap;
+
+/**
+ * A reproducible, in-memory data set for one user: categories, budgets and
+ * {@code expenseCount} expenses spread over the {@code days} days ending today,
+ * plus the day and month rollups derived from them (what V10's tables would hold).
+ *
+ * The same seed always produces the same data, so runs are comparable.
+ */
+public class SyntheticData {
+
+    public static final Long USER_ID = 1L;
+
+    private static final String[] CATEGORY_NAMES = {
+            "Food", "Transport", "Shopping", "Entertainment", "Bills",
+            "Healthcare", "Education", "Travel", "Groceries", "Other"
+    };
+    private static final String[] WORDS = {
+            "coffee", "lunch", "uber", "metro", "rent", "electricity", "movie", "books",
+            "pharmacy", "flight", "hotel", "vegetables", "gift", "subscription", "fuel"
+    };
+
+    private final LocalDate from;
+    private final LocalDate to;
+    private final List<Category> categories = new ArrayList<>();
+    private final List<Budget> budgets = new ArrayList<>();
+    private final List<Expense> expenses;               // oldest first
+    private final List<DailyCategoryTotal> dayTotals;   // by date, then category
+    private final List<DailyCategoryTotal> monthTotals; // by month, then category
+
+    public SyntheticData(int expenseCount, int days, long seed) {
+        Random random = new Random(seed);
+        this.to = LocalDate.now();
+        this.from = to.minusDays(days - 1);
+
+        for (int i = 0; i < CATEGORY_NAMES.length; i++) {
+            Category category = new Category(CATEGORY_NAMES[i], USER_ID, true);
+            category.setId(i + 1);
+            categories.add(category);
+
+            // Every other category has a budget; alternate recurring and fixed-period ones
+            if (i % 2 == 0) {
+                Budget budget = new Budget(USER_ID, i + 1, BigDecimal.valueOf(500 + 250L * i), from);
+                budget.setId((long) i + 1);
+                budget.setRecurring(i % 4 == 0);
+                budgets.add(budget);
+            }
+        }
+
+        List<Expense> generated = new ArrayList<>(expenseCount);
+        for (int i = 0; i < expenseCount; i++) {
+            Expense expense = new Expense(USER_ID,
+                    WORDS[random.nextInt(WORDS.length)] + " " + WORDS[random.nextInt(WORDS.length)] + " #" + i,
+                    BigDecimal.valueOf(100 + random.nextInt(500_000), 2),
+                    1 + random.nextInt(CATEGORY_NAMES.length),
+                    from.plusDays(random.nextInt(days)));
+            expense.setId((long) i + 1);
+            generated.add(expense);
+        }
+        generated.sort(Comparator.comparing(Expense::getExpenseDate).thenComparing(Expense::getId));
+        this.expenses = Collections.unmodifiableList(generated);
+
+        this.dayTotals = rollup(false);
+        this.monthTotals = rollup(true);
+    }
+
+    private List<DailyCategoryTotal> rollup(boolean byMonth) {
+        Map<LocalDate, Map<Integer, DailyCategoryTotal>> totals = new TreeMap<>();
+        for (Expense e : expenses) {
+            LocalDate key = byMonth ? e.getExpenseDate().withDayOfMonth(1) : e.getExpenseDate();
+            DailyCategoryTotal row = totals.computeIfAbsent(key, k -> new TreeMap<>())
+                    .computeIfAbsent(e.getCategoryId(), id -> new DailyCategoryTotal(key, id, BigDecimal.ZERO, 0));
+            row.setTotal(row.getTotal().add(e.getAmount()));
+            row.setTransactionCount(row.getTransactionCount() + 1);
+        }
+        List<DailyCategoryTotal> rows = new ArrayList<>();
+        totals.values().forEach(byCategory -> rows.addAll(byCategory.values()));
+        return Collections.unmodifiableList(rows);
+    }
+
+    public LocalDate getFrom() { return from; }
+    public LocalDate getTo() { return to; }
+    public List<Category> getCategories() { return categories; }
+    public List<Budget> getBudgets() { return budgets; }
+    public List<Expense> getExpenses() { return expenses; }
+    public List<DailyCategoryTotal> getDayTotals() { return dayTotals; }
+    public List<DailyCategoryTotal> getMonthTotals() { return monthTotals; }
+}
@@ -0,0 +1,73 @@
+// Month-end burst: every user opens the dashboard, budgets and this month's report.
+//
+// Compares request threading modes (see TOMCAT_THREADS in the Dockerfile). Build and start
+// the stack once per mode, then run at each user count:
+//
+//   RATELIMIT_ENABLED=false TOMCAT_THREADS=platform docker compose up -d --build
+//   k6 run -e USERS=500  src/loadtest/month-end.js
+//   k6 run -e USERS=2000 src/loadtest/month-end.js
+//   RATELIMIT_ENABLED=false TOMCAT_THREADS=virtual docker compose up -d --build
+//   (same two runs)
+//
+// Compare http_reqs (throughput) and http_req_duration p(95)/p(99) between the runs.
+//
+// Rate limiting must be off: every virtual user logs in from this one machine, far past
+// RateLimitFilter's per-IP login limit, and the 429s would fail the http_req_failed threshold.
+//
+// Needs verified accounts loadtest1..loadtestN sharing one password (N = ACCOUNTS,
+// default 100); virtual users are spread over them round-robin.
+
+import http from 'k6/http';
+import { check, sleep } from 'k6';
+
+const BASE_URL = __ENV.BASE_URL || 'http://localhost:8080';
+const USERS = parseInt(__ENV.USERS || '500', 10);
+const ACCOUNTS = parseInt(__ENV.ACCOUNTS || '100', 10);
+const PASSWORD = __ENV.PASSWORD || 'LoadTest#2024';
+
+export const options = {
+    scenarios: {
+        monthEnd: {
+            executor: 'ramping-vus',
+            startVUs: 0,
+            stages: [
+                { duration: '30s', target: USERS },  // Ramp up
+                { duration: '2m', target: USERS },   // Hold the burst
+                { duration: '15s', target: 0 },
+            ],
+            gracefulRampDown: '15s',
+        },
+    },
+    thresholds: {
+        http_req_failed: ['rate<0.01'],
+    },
+};
+
+let loggedIn = false;
+
+function login() {
+    const form = http.get(`${BASE_URL}/login`);
+    const token = form.html().find('input[name=csrfToken]').first().attr('value');
+    const res = http.post(`${BASE_URL}/login`, {
+        username: `loadtest${(__VU % ACCOUNTS) + 1}`,
+        password: PASSWORD,
+        csrfToken: token,
+    });
+    loggedIn = check(res, { 'logged in': (r) => r.url.endsWith('/dashboard') });
+}
+
+export default function () {
+    if (!loggedIn) {
+        login();
+        if (!loggedIn) {
+            sleep(1);
+            return;
+        }
+    }
+
+    check(http.get(`${BASE_URL}/dashboard`), { 'dashboard 200': (r) => r.status === 200 });
+    check(http.get(`${BASE_URL}/budgets`), { 'budgets 200': (r) => r.status === 200 });
+    check(http.get(`${BASE_URL}/reports?reportType=THIS_MONTH`), { 'report 200': (r) => r.status === 200 });
+
+    sleep(1 + Math.random()); // Think time
+}
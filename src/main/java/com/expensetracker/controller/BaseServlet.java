@@ -2,6 +2,7 @@ package com.expensetracker.controller;
 
 import com.expensetracker.service.AuthService;
 import com.expensetracker.util.CSRFUtil;
+import com.expensetracker.util.RequestMetrics;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServlet;
 import jakarta.servlet.http.HttpServletRequest;
@@ -88,15 +89,46 @@ public abstract class BaseServlet extends HttpServlet {
     @Override
     protected final void doGet(HttpServletRequest req, HttpServletResponse resp) 
             throws ServletException, IOException {
+        RequestMetrics.Context metrics = RequestMetrics.begin(getClass().getSimpleName(), req);
+        HttpServletResponse timedResp = AuthService.withSessionToken(req, RequestMetrics.withServerTiming(resp, metrics));
+        try {
+            serveGet(RequestMetrics.timeViews(req, metrics), timedResp, metrics);
+        } finally {
+            AuthService.finishSessionToken(timedResp);
+            RequestMetrics.finishServerTiming(timedResp);
+            RequestMetrics.end(metrics, resp);
+        }
+    }
+
+    @Override
+    protected final void doPost(HttpServletRequest req, HttpServletResponse resp) 
+            throws ServletException, IOException {
+        RequestMetrics.Context metrics = RequestMetrics.begin(getClass().getSimpleName(), req);
+        HttpServletResponse timedResp = AuthService.withSessionToken(req, RequestMetrics.withServerTiming(resp, metrics));
+        try {
+            servePost(RequestMetrics.timeViews(req, metrics), timedResp, metrics);
+        } finally {
+            AuthService.finishSessionToken(timedResp);
+            RequestMetrics.finishServerTiming(timedResp);
+            RequestMetrics.end(metrics, resp);
+        }
+    }
+
+    private void serveGet(HttpServletRequest req, HttpServletResponse resp, RequestMetrics.Context metrics)
+            throws ServletException, IOException {
         try {
             if (requiresAuthentication()) {
                 // AUTHENTICATED ENDPOINT
+                metrics.authStarted();
+                AuthService.restoreSession(req);
                 AuthService.requireLogin(req, resp);
                 if(resp.isCommitted()) return;
                 Long userId = AuthService.getCurrentUserId(req.getSession());
+                metrics.authFinished();
                 handleAuthenticatedGet(req, resp, userId);
             } else {
                 // PUBLIC ENDPOINT
+                AuthService.restoreSession(req);
                 handlePublicGet(req, resp);
             }
         } catch (RuntimeException e) {
@@ -113,13 +145,14 @@ public abstract class BaseServlet extends HttpServlet {
         }
     }
 
-    @Override
-    protected final void doPost(HttpServletRequest req, HttpServletResponse resp) 
+    private void servePost(HttpServletRequest req, HttpServletResponse resp, RequestMetrics.Context metrics)
             throws ServletException, IOException {
         try {
 
             if (requiresAuthentication()) {
                 // AUTHENTICATED ENDPOINT
+                metrics.authStarted();
+                AuthService.restoreSession(req);
                 AuthService.requireLogin(req, resp);
                 if(resp.isCommitted()) return;
                 Long userId = AuthService.getCurrentUserId(req.getSession());
@@ -127,10 +160,12 @@ public abstract class BaseServlet extends HttpServlet {
                 if (requiresCsrfValidation() && !CSRFUtil.validateTokenOrError(req, resp)) {
                     return; // Already sent error response
                 }
+                metrics.authFinished();
 
                 handleAuthenticatedPost(req, resp, userId);
             } else {
                 // PUBLIC ENDPOINT
+                AuthService.restoreSession(req);
                 // Public endpoints still need CSRF for POST
                 if (requiresCsrfValidation() && !CSRFUtil.validateTokenOrError(req, resp)) {
                     return;
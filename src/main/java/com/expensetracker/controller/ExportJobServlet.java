@@ -0,0 +1,181 @@
+package com.expensetracker.controller;
+
+import com.expensetracker.model.ExportJob;
+import com.expensetracker.service.ExportJobService;
+
+// Logger Imports
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Background export jobs.
+ *
+ *   POST /expenses/export/jobs                 format=csv|pdf + list filters -> 202 {job}
+ *   GET  /expenses/export/jobs                 -> recent jobs [{job}, ...]
+ *   GET  /expenses/export/jobs/{id}            -> {job} (poll until status is DONE or FAILED)
+ *   GET  /expenses/export/jobs/{id}/download   -> the file, once DONE
+ *
+ * POST requires the usual csrfToken parameter.
+ */
+public class ExportJobServlet extends BaseServlet {
+
+    private static final Logger log = LoggerFactory.getLogger(ExportJobServlet.class);
+
+    private ExportJobService exportJobService;
+
+    @Override
+    public void init() throws ServletException {
+        this.exportJobService = (ExportJobService) getServletContext().getAttribute(ExportJobService.CONTEXT_ATTRIBUTE);
+        if (exportJobService == null) {
+            throw new ServletException("ExportJobService not initialized");
+        }
+    }
+
+    @Override
+    protected void handleAuthenticatedPost(HttpServletRequest req, HttpServletResponse resp, Long userId)
+            throws ServletException, IOException {
+
+        if (req.getPathInfo() != null && !"/".equals(req.getPathInfo())) {
+            resp.sendError(HttpServletResponse.SC_METHOD_NOT_ALLOWED);
+            return;
+        }
+
+        try {
+            ExportJob job = exportJobService.submit(userId, req.getParameter("format"), ExportServlet.parseFilter(req));
+            resp.setStatus(HttpServletResponse.SC_ACCEPTED);
+            resp.setHeader("Location", jobUrl(req, job));
+            writeJson(resp, toJson(req, job));
+        } catch (IllegalArgumentException e) {
+            writeError(resp, HttpServletResponse.SC_BAD_REQUEST, e.getMessage());
+        } catch (IllegalStateException e) {
+            log.warn("Export job rejected for user {}: {}", userId, e.getMessage());
+            resp.setHeader("Retry-After", "30");
+            writeError(resp, 429, e.getMessage());
+        }
+    }
+
+    @Override
+    protected void handleAuthenticatedGet(HttpServletRequest req, HttpServletResponse resp, Long userId)
+            throws ServletException, IOException {
+
+        String path = req.getPathInfo();
+        if (path == null || "/".equals(path)) {
+            List<ExportJob> jobs = exportJobService.findRecentJobs(userId);
+            StringBuilder json = new StringBuilder("[");
+            for (int i = 0; i < jobs.size(); i++) {
+                if (i > 0) json.append(',');
+                json.append(toJson(req, jobs.get(i)));
+            }
+            writeJson(resp, json.append(']').toString());
+            return;
+        }
+
+        // "/{id}" or "/{id}/download"
+        String[] parts = path.substring(1).split("/");
+        boolean download = parts.length == 2 && "download".equals(parts[1]);
+        if (parts.length > 2 || (parts.length == 2 && !download)) {
+            resp.sendError(HttpServletResponse.SC_NOT_FOUND);
+            return;
+        }
+
+        Optional<ExportJob> found = exportJobService.findJob(userId, parts[0]);
+        if (found.isEmpty()) {
+            writeError(resp, HttpServletResponse.SC_NOT_FOUND, "Export job not found or expired");
+            return;
+        }
+
+        ExportJob job = found.get();
+        if (download) {
+            sendFile(resp, job);
+        } else {
+            writeJson(resp, toJson(req, job));
+        }
+    }
+
+    private void sendFile(HttpServletResponse resp, ExportJob job) throws IOException {
+        if (job.getStatus() != ExportJob.Status.DONE) {
+            writeError(resp, HttpServletResponse.SC_CONFLICT, "Export is not ready (status " + job.getStatus() + ")");
+            return;
+        }
+        Path file = Paths.get(job.getFilePath());
+        if (!Files.isReadable(file)) {
+            writeError(resp, HttpServletResponse.SC_GONE, "Export file has expired");
+            return;
+        }
+
+        resp.setContentType("pdf".equals(job.getFormat()) ? "application/pdf" : "text/csv; charset=UTF-8");
+        resp.setHeader("Content-Disposition", "attachment; filename=\"" + job.getDownloadFileName() + "\"");
+        resp.setContentLengthLong(Files.size(file));
+        Files.copy(file, resp.getOutputStream());
+    }
+
+    // ==================== JSON ====================
+
+    private String jobUrl(HttpServletRequest req, ExportJob job) {
+        return req.getContextPath() + "/expenses/export/jobs/" + job.getId();
+    }
+
+    // Manual JSON construction to avoid external dependencies (see ChartDataBuilder)
+    private String toJson(HttpServletRequest req, ExportJob job) {
+        StringBuilder json = new StringBuilder("{");
+        json.append("\"id\":\"").append(job.getId()).append('"');
+        json.append(",\"format\":\"").append(job.getFormat()).append('"');
+        json.append(",\"status\":\"").append(job.getStatus()).append('"');
+        json.append(",\"createdAt\":").append(quoteOrNull(job.getCreatedAt()));
+        json.append(",\"finishedAt\":").append(quoteOrNull(job.getFinishedAt()));
+        json.append(",\"expiresAt\":").append(quoteOrNull(job.getExpiresAt()));
+        json.append(",\"rowCount\":").append(job.getRowCount());
+        json.append(",\"fileSize\":").append(job.getFileSize());
+        json.append(",\"error\":").append(quoteOrNull(job.getErrorMessage()));
+        json.append(",\"statusUrl\":\"").append(jobUrl(req, job)).append('"');
+        if (job.getStatus() == ExportJob.Status.DONE) {
+            json.append(",\"downloadUrl\":\"").append(jobUrl(req, job)).append("/download\"");
+        }
+        return json.append('}').toString();
+    }
+
+    private String quoteOrNull(Object value) {
+        if (value == null) return "null";
+        String s = value.toString();
+        StringBuilder quoted = new StringBuilder(s.length() + 2).append('"');
+        for (int i = 0; i < s.length(); i++) {
+            char c = s.charAt(i);
+            switch (c) {
+                case '"' -> quoted.append("\\\"");
+                case '\\' -> quoted.append("\\\\");
+                case '\n' -> quoted.append("\\n");
+                case '\r' -> quoted.append("\\r");
+                case '\t' -> quoted.append("\\t");
+                default -> {
+                    if (c < 0x20) quoted.append(String.format("\\u%04x", (int) c));
+                    else quoted.append(c);
+                }
+            }
+        }
+        return quoted.append('"').toString();
+    }
+
+    private void writeError(HttpServletResponse resp, int status, String message) throws IOException {
+        resp.setStatus(status);
+        writeJson(resp, "{\"error\":" + quoteOrNull(message) + "}");
+    }
+
+    private void writeJson(HttpServletResponse resp, String json) throws IOException {
+        resp.setContentType("application/json; charset=UTF-8");
+        try (PrintWriter writer = resp.getWriter()) {
+            writer.write(json);
+        }
+    }
+}
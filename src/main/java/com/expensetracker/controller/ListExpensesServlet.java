@@ -39,6 +39,7 @@ public class ListExpensesServlet extends BaseServlet {
         String pageSizeStr = req.getParameter("pageSize");
         String sortBy = req.getParameter("sortBy");
         String sortOrder = req.getParameter("sortOrder");
+        String cursor = req.getParameter("cursor");
 
         LocalDate from = (fromStr != null && !fromStr.isBlank()) ? LocalDate.parse(fromStr) : null;
         LocalDate to = (toStr != null && !toStr.isBlank()) ? LocalDate.parse(toStr) : null;
@@ -92,9 +93,13 @@ public class ListExpensesServlet extends BaseServlet {
                   userId, page, pageSize, from, to, categoryId);
 
         // 2. Load paginated expenses
-        PagedResult<Expense> pagedResult = expenseService.listExpensesPaginated(
-            userId, from, to, categoryId, minAmount, maxAmount, keyword, page, pageSize, sortBy, sortOrder
-        );
+        // Prev/Next links carry a keyset cursor (no OFFSET scan, no repeated COUNT);
+        // numbered, First and Last links use the page number.
+        PagedResult<Expense> pagedResult = (cursor != null && !cursor.isBlank())
+            ? expenseService.listExpensesByCursor(
+                userId, from, to, categoryId, minAmount, maxAmount, keyword, pageSize, sortBy, sortOrder, cursor)
+            : expenseService.listExpensesPaginated(
+                userId, from, to, categoryId, minAmount, maxAmount, keyword, page, pageSize, sortBy, sortOrder);
 
         // 3. Set attributes for JSP
         req.setAttribute("expenses", pagedResult.getItems());
@@ -106,6 +111,8 @@ public class ListExpensesServlet extends BaseServlet {
         req.setAttribute("hasPrevious", pagedResult.hasPrevious());
         req.setAttribute("startIndex", pagedResult.getStartIndex());
         req.setAttribute("endIndex", pagedResult.getEndIndex());
+        req.setAttribute("nextCursor", pagedResult.getNextCursor());
+        req.setAttribute("prevCursor", pagedResult.getPreviousCursor());
         
         // Load categories for filter dropdown
         req.setAttribute("categories", categoryService.listCategories(userId));
@@ -1,12 +1,14 @@
 package com.expensetracker.controller;
 
 import com.expensetracker.dto.LoginRequest;
+import com.expensetracker.model.Principal;
 import com.expensetracker.model.User;
 import com.expensetracker.repository.UserRepository;
 import com.expensetracker.service.UserService;
 import com.expensetracker.util.CSRFUtil;
 import com.expensetracker.util.ConfigLoader;
 import com.expensetracker.util.EmailUtil;
+import com.expensetracker.util.PasswordHasher;
 import com.expensetracker.util.TokenUtil;
 
 import jakarta.servlet.ServletException;
@@ -20,6 +22,7 @@ import org.slf4j.LoggerFactory;
 
 import java.io.IOException;
 import java.time.LocalDateTime;
+import java.util.concurrent.RejectedExecutionException;
 
 public class LoginServlet extends BaseServlet {
 
@@ -98,7 +101,7 @@ public class LoginServlet extends BaseServlet {
 
             // Create new session with new ID
             HttpSession newSession = req.getSession(true);
-            newSession.setAttribute("user", user);
+            newSession.setAttribute("user", Principal.of(user));
             
             // Generate new CSRF token
             CSRFUtil.generateToken(newSession);
@@ -162,6 +165,13 @@ public class LoginServlet extends BaseServlet {
                      user.getUsername());
             resp.sendRedirect(req.getContextPath() + "/dashboard");
 
+        } catch (RejectedExecutionException e) {
+            // Password checks are saturated (login burst): ask the client to back off
+            log.warn("Login for {} rejected: password hash pool saturated", username);
+            resp.setStatus(HttpServletResponse.SC_SERVICE_UNAVAILABLE);
+            resp.setHeader("Retry-After", "5");
+            handleLoginError(req, resp, loginRequest, PasswordHasher.BUSY_MESSAGE);
+
         } catch (IllegalStateException e) {
             // Unverified email
             log.warn("Login failed for {}: Email not verified", username);
@@ -1,7 +1,9 @@
 package com.expensetracker.controller;
 
-import com.expensetracker.model.User;
+import com.expensetracker.model.Principal;
 import com.expensetracker.repository.UserRepository;
+import com.expensetracker.service.AuthService;
+import com.expensetracker.util.TokenUtil;
 
 // Logger Imports
 import org.slf4j.Logger;
@@ -50,7 +52,7 @@ public class LogoutServlet extends BaseServlet {
         
         if (session != null) {
             // A. Retrieve User to clear DB token
-            User user = (User) session.getAttribute("user");
+            Principal user = AuthService.getCurrentUser(session);
             
             if (user != null) {
                 log.info("Logging out user: {}", user.getUsername());
@@ -65,6 +67,11 @@ public class LogoutServlet extends BaseServlet {
             log.debug("Session invalidated");
         } else {
             log.debug("No active session found during logout");
+            // No session to tell us who this is, but the cookie still logs its owner back in
+            String rememberToken = findRememberToken(req);
+            if (rememberToken != null) {
+                userRepository.clearRememberToken(TokenUtil.hashToken(rememberToken));
+            }
         }
 
         // 2. Kill the "Remember Me" Cookie in the browser
@@ -73,6 +80,7 @@ public class LogoutServlet extends BaseServlet {
         cookie.setMaxAge(0); // 0 = Delete immediately
         cookie.setPath("/"); // Must match the path used when creating it
         resp.addCookie(cookie);
+        AuthService.clearSessionToken(resp);
 
         // 3. Set cache control headers to prevent browser caching
         resp.setHeader("Cache-Control", "no-cache, no-store, must-revalidate");
@@ -82,4 +90,16 @@ public class LogoutServlet extends BaseServlet {
         // 4. Redirect to login page
         resp.sendRedirect(req.getContextPath() + "/login?loggedout=true");
     }
+
+    private String findRememberToken(HttpServletRequest req) {
+        Cookie[] cookies = req.getCookies();
+        if (cookies != null) {
+            for (Cookie c : cookies) {
+                if ("remember_token".equals(c.getName()) && !c.getValue().isEmpty()) {
+                    return c.getValue();
+                }
+            }
+        }
+        return null;
+    }
 }
\ No newline at end of file
@@ -0,0 +1,116 @@
+package com.expensetracker.controller;
+
+import com.expensetracker.filter.RateLimitFilter;
+import com.expensetracker.repository.CategoryRepository;
+import com.expensetracker.repository.SpendingRollupRepository;
+import com.expensetracker.repository.UserRepository;
+import com.expensetracker.util.ConfigLoader;
+import com.expensetracker.util.HikariCPDataSource;
+import com.expensetracker.util.JdbcMetrics;
+import com.expensetracker.util.PasswordHasher;
+import com.expensetracker.util.RequestMetrics;
+import com.expensetracker.util.TtlCache;
+import com.zaxxer.hikari.HikariPoolMXBean;
+
+// Logger Imports
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.util.Map;
+import java.util.function.ToLongFunction;
+
+/**
+ * Prometheus scrape endpoint: request phase times per servlet, query latency and rows per
+ * repository method, slow queries, connection-acquire wait, pool usage, password hashing
+ * and cache hit rates.
+ *
+ * A scraper cannot log in through the session form, so access is a bearer token
+ * (metrics.token). Without a configured token the endpoint does not exist.
+ */
+public class MetricsServlet extends BaseServlet {
+
+    private static final Logger log = LoggerFactory.getLogger(MetricsServlet.class);
+
+    // ==================== CONFIGURATION ====================
+
+    @Override
+    protected boolean requiresAuthentication() {
+        return false; // ✅ Bearer token instead of a session
+    }
+
+    // ==================== PUBLIC HANDLERS ====================
+
+    @Override
+    protected void handlePublicGet(HttpServletRequest req, HttpServletResponse resp) throws IOException {
+        String token = ConfigLoader.get("metrics.token", "");
+        if (token.isEmpty()) {
+            resp.sendError(HttpServletResponse.SC_NOT_FOUND);
+            return;
+        }
+
+        // 1. Constant-time token check
+        String header = req.getHeader("Authorization");
+        String presented = (header != null && header.startsWith("Bearer ")) ? header.substring(7).trim() : "";
+        if (!MessageDigest.isEqual(presented.getBytes(StandardCharsets.UTF_8), token.getBytes(StandardCharsets.UTF_8))) {
+            log.warn("Rejected metrics scrape from {}", req.getRemoteAddr());
+            resp.setHeader("WWW-Authenticate", "Bearer");
+            resp.sendError(HttpServletResponse.SC_UNAUTHORIZED);
+            return;
+        }
+
+        // 2. Render
+        StringBuilder out = new StringBuilder(16 * 1024);
+        RequestMetrics.writePrometheus(out);
+        JdbcMetrics.writePrometheus(out);
+        writePoolMetrics(out);
+        PasswordHasher.writePrometheus(out);
+        RateLimitFilter.writePrometheus(out);
+        writeCacheMetrics(out, Map.of(
+                "categories", CategoryRepository.cache(),
+                "report_snapshots", SpendingRollupRepository.snapshots(),
+                "remember_tokens", UserRepository.rememberTokens(),
+                "remember_tokens_invalid", UserRepository.invalidRememberTokens(),
+                "session_users", UserRepository.sessionUsers()));
+
+        resp.setContentType("text/plain; version=0.0.4; charset=utf-8");
+        resp.getWriter().write(out.toString());
+    }
+
+    // ==================== RENDERING ====================
+
+    private void writePoolMetrics(StringBuilder out) {
+        HikariPoolMXBean pool = HikariCPDataSource.getPoolStats();
+        if (pool == null) {
+            return; // No request has needed the database yet
+        }
+        out.append("# HELP expense_db_pool_connections Pooled connections by state\n");
+        out.append("# TYPE expense_db_pool_connections gauge\n");
+        out.append("expense_db_pool_connections{state=\"active\"} ").append(pool.getActiveConnections()).append('\n');
+        out.append("expense_db_pool_connections{state=\"idle\"} ").append(pool.getIdleConnections()).append('\n');
+        out.append("expense_db_pool_connections{state=\"total\"} ").append(pool.getTotalConnections()).append('\n');
+        out.append("# HELP expense_db_pool_pending_threads Threads waiting for a pooled connection\n");
+        out.append("# TYPE expense_db_pool_pending_threads gauge\n");
+        out.append("expense_db_pool_pending_threads ").append(pool.getThreadsAwaitingConnection()).append('\n');
+    }
+
+    // One family at a time: the text format wants every sample of a metric together
+    private void writeCacheMetrics(StringBuilder out, Map<String, TtlCache<?, ?>> caches) {
+        writeCacheFamily(out, caches, "expense_cache_hits_total", "counter", TtlCache::getHits);
+        writeCacheFamily(out, caches, "expense_cache_misses_total", "counter", TtlCache::getMisses);
+        writeCacheFamily(out, caches, "expense_cache_evictions_total", "counter", TtlCache::getEvictions);
+        writeCacheFamily(out, caches, "expense_cache_entries", "gauge", TtlCache::size);
+    }
+
+    private void writeCacheFamily(StringBuilder out, Map<String, TtlCache<?, ?>> caches, String metric, String type,
+                                  ToLongFunction<TtlCache<?, ?>> value) {
+        out.append("# TYPE ").append(metric).append(' ').append(type).append('\n');
+        caches.forEach((name, cache) -> out.append(metric).append("{cache=\"").append(name).append("\"} ")
+                .append(value.applyAsLong(cache)).append('\n'));
+    }
+}
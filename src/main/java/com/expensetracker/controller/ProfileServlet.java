@@ -1,7 +1,10 @@
 package com.expensetracker.controller;
 
+import com.expensetracker.model.Principal;
 import com.expensetracker.model.User;
+import com.expensetracker.service.AuthService;
 import com.expensetracker.service.UserService;
+import com.expensetracker.util.PasswordHasher;
 
 // Logger Imports
 import org.slf4j.Logger;
@@ -13,6 +16,7 @@ import jakarta.servlet.http.HttpServletResponse;
 import jakarta.servlet.http.HttpSession;
 
 import java.io.IOException;
+import java.util.concurrent.RejectedExecutionException;
 
 public class ProfileServlet extends BaseServlet {
 
@@ -88,7 +92,7 @@ public class ProfileServlet extends BaseServlet {
             // Update Session object so header/dashboard reflects changes immediately without re-login
             // We fetch the updated object fresh from DB
             User updatedUser = userService.getUserById(userId);
-            req.getSession().setAttribute("user", updatedUser);
+            req.getSession().setAttribute("user", Principal.of(updatedUser));
 
             req.getSession().setAttribute("successMessage", "Profile updated successfully!");
             resp.sendRedirect(req.getContextPath() + "/profile");
@@ -103,7 +107,7 @@ public class ProfileServlet extends BaseServlet {
     }
 
     private void handleChangePassword(HttpServletRequest req, HttpServletResponse resp, Long userId) 
-            throws IOException {
+            throws ServletException, IOException {
         
         String currentPassword = req.getParameter("currentPassword");
         String newPassword = req.getParameter("newPassword");
@@ -121,10 +125,20 @@ public class ProfileServlet extends BaseServlet {
 
             // Invalidate session (force re-login for security)
             req.getSession().invalidate();
+            AuthService.clearSessionToken(resp);
 
             // Redirect to login page
             resp.sendRedirect(req.getContextPath() + "/login");
 
+        } catch (RejectedExecutionException e) {
+            // Password hashing is saturated: render the page with a 503 instead of redirecting
+            log.warn("Password change for user {} rejected: password hash pool saturated", userId);
+            resp.setStatus(HttpServletResponse.SC_SERVICE_UNAVAILABLE);
+            resp.setHeader("Retry-After", "5");
+            req.setAttribute("error", PasswordHasher.BUSY_MESSAGE);
+            req.setAttribute("user", userService.getUserById(userId));
+            req.getRequestDispatcher("/WEB-INF/views/profile.jsp").forward(req, resp);
+
         } catch (IllegalArgumentException e) {
             log.warn("Password change failed for user {}: {}", userId, e.getMessage());
             req.getSession().setAttribute("error", e.getMessage());
@@ -6,6 +6,7 @@ import com.expensetracker.repository.UserRepository;
 import com.expensetracker.service.UserService;
 import com.expensetracker.util.CSRFUtil;
 import com.expensetracker.util.EmailUtil;
+import com.expensetracker.util.PasswordHasher;
 import com.expensetracker.util.TokenUtil;
 
 // Logger Imports
@@ -19,6 +20,7 @@ import jakarta.servlet.http.HttpSession;
 
 import java.io.IOException;
 import java.time.LocalDateTime;
+import java.util.concurrent.RejectedExecutionException;
 
 public class RegisterServlet extends BaseServlet {
 
@@ -112,6 +114,12 @@ public class RegisterServlet extends BaseServlet {
             req.setAttribute("email", user.getEmail());
             req.getRequestDispatcher("/WEB-INF/views/verification-pending.jsp").forward(req, resp);
 
+        } catch (RejectedExecutionException e) {
+            // Password hashing is saturated (registration burst): ask the client to back off
+            log.warn("Registration for {} rejected: password hash pool saturated", request.getUsername());
+            resp.setStatus(HttpServletResponse.SC_SERVICE_UNAVAILABLE);
+            resp.setHeader("Retry-After", "5");
+            handleError(req, resp, request, PasswordHasher.BUSY_MESSAGE);
         } catch (IllegalArgumentException e) {
             // Business Error (e.g., Username taken)
             log.warn("Registration failed: {}", e.getMessage());
@@ -3,8 +3,8 @@ package com.expensetracker.controller;
 import com.expensetracker.model.User;
 import com.expensetracker.repository.UserRepository;
 import com.expensetracker.util.CSRFUtil;
+import com.expensetracker.util.PasswordHasher;
 import com.expensetracker.util.TokenUtil;
-import org.mindrot.jbcrypt.BCrypt;
 
 // Logger Imports
 import org.slf4j.Logger;
@@ -17,6 +17,7 @@ import jakarta.servlet.http.HttpSession;
 
 import java.io.IOException;
 import java.util.Optional;
+import java.util.concurrent.RejectedExecutionException;
 
 public class ResetPasswordServlet extends BaseServlet {
 
@@ -112,7 +113,7 @@ public class ResetPasswordServlet extends BaseServlet {
 
         try {
             // 3. Hash New Password
-            String hashedPassword = BCrypt.hashpw(password, BCrypt.gensalt());
+            String hashedPassword = PasswordHasher.hash(password);
 
             // 4. Update Password in DB
             userRepo.updatePassword(user.getId(), hashedPassword);
@@ -127,6 +128,13 @@ public class ResetPasswordServlet extends BaseServlet {
             req.getSession().setAttribute("successMessage", "Password successfully reset! Please login.");
             resp.sendRedirect(req.getContextPath() + "/login");
 
+        } catch (RejectedExecutionException e) {
+            // Password hashing is saturated: ask the client to back off
+            log.warn("Password reset for user {} rejected: password hash pool saturated", user.getUsername());
+            resp.setStatus(HttpServletResponse.SC_SERVICE_UNAVAILABLE);
+            resp.setHeader("Retry-After", "5");
+            handleError(req, resp, rawToken, PasswordHasher.BUSY_MESSAGE);
+
         } catch (Exception e) {
             log.error("Error resetting password for user {}: {}", user.getUsername(), e.getMessage(), e);
             handleError(req, resp, rawToken, "An error occurred while resetting your password.");
@@ -1,10 +1,11 @@
 package com.expensetracker.controller;
 
 import com.expensetracker.dto.MonthlyTrend;
-import com.expensetracker.model.User;
+import com.expensetracker.model.Principal;
 import com.expensetracker.repository.BudgetRepository;
 import com.expensetracker.repository.CategoryRepository;
 import com.expensetracker.repository.ExpenseRepository;
+import com.expensetracker.service.AuthService;
 import com.expensetracker.service.ReportService;
 
 import jakarta.servlet.ServletException;
@@ -39,7 +40,7 @@ public class TrendServlet extends HttpServlet {
             throws ServletException, IOException {
         
         HttpSession session = request.getSession(false);
-        User user = (session != null) ? (User) session.getAttribute("user") : null;
+        Principal user = (session != null) ? AuthService.getCurrentUser(session) : null;
 
         if (user == null) {
             response.sendRedirect(request.getContextPath() + "/login");
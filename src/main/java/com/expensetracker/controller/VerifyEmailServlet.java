@@ -1,7 +1,9 @@
 package com.expensetracker.controller;
 
+import com.expensetracker.model.Principal;
 import com.expensetracker.model.User;
 import com.expensetracker.repository.UserRepository;
+import com.expensetracker.service.AuthService;
 import com.expensetracker.util.TokenUtil;
 
 // Logger Imports
@@ -94,7 +96,7 @@ public class VerifyEmailServlet extends BaseServlet {
     private void updateActiveSessionIfExists(HttpServletRequest req, User verifiedUser) {
         HttpSession session = req.getSession(false);
         if (session != null) {
-            User sessionUser = (User) session.getAttribute("user");
+            Principal sessionUser = AuthService.getCurrentUser(session);
             
             // Check if the logged-in user matches the one we just verified
             if (sessionUser != null && sessionUser.getId().equals(verifiedUser.getId())) {
@@ -102,10 +104,8 @@ public class VerifyEmailServlet extends BaseServlet {
                 // Clear the restriction flag
                 session.removeAttribute("needsVerification");
                 
-                // Update the User object in session with verified status
-                sessionUser.setEmailVerified(true);
-                sessionUser.setLegacyUnverified(false);
-                session.setAttribute("user", sessionUser);
+                // Update the session principal with verified status
+                session.setAttribute("user", sessionUser.withVerification(true, false));
                 
                 log.debug("Active session updated for user {} (verification restrictions removed)", verifiedUser.getUsername());
             }
@@ -0,0 +1,29 @@
+package com.expensetracker.dto;
+
+import java.time.LocalDate;
+
+// 12. BudgetWindow.java
+// The inclusive date range a budget's spend is measured over (current month for
+// recurring budgets, period start -> end/today for fixed ones).
+public class BudgetWindow {
+    private Long budgetId;
+    private Integer categoryId;
+    private LocalDate start;
+    private LocalDate end;
+
+    public BudgetWindow(Long budgetId, Integer categoryId, LocalDate start, LocalDate end) {
+        this.budgetId = budgetId;
+        this.categoryId = categoryId;
+        this.start = start;
+        this.end = end;
+    }
+
+    public Long getBudgetId() { return budgetId; }
+    public void setBudgetId(Long budgetId) { this.budgetId = budgetId; }
+    public Integer getCategoryId() { return categoryId; }
+    public void setCategoryId(Integer categoryId) { this.categoryId = categoryId; }
+    public LocalDate getStart() { return start; }
+    public void setStart(LocalDate start) { this.start = start; }
+    public LocalDate getEnd() { return end; }
+    public void setEnd(LocalDate end) { this.end = end; }
+}
@@ -0,0 +1,30 @@
+package com.expensetracker.dto;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+// 10. DailyCategoryTotal.java
+// One (date bucket, category) aggregate row: a day for the report engine and the daily
+// rollup, or the first day of the month for the monthly rollup.
+public class DailyCategoryTotal {
+    private LocalDate date;
+    private int categoryId;
+    private BigDecimal total;
+    private int transactionCount;
+
+    public DailyCategoryTotal(LocalDate date, int categoryId, BigDecimal total, int transactionCount) {
+        this.date = date;
+        this.categoryId = categoryId;
+        this.total = total;
+        this.transactionCount = transactionCount;
+    }
+
+    public LocalDate getDate() { return date; }
+    public void setDate(LocalDate date) { this.date = date; }
+    public int getCategoryId() { return categoryId; }
+    public void setCategoryId(int categoryId) { this.categoryId = categoryId; }
+    public BigDecimal getTotal() { return total; }
+    public void setTotal(BigDecimal total) { this.total = total; }
+    public int getTransactionCount() { return transactionCount; }
+    public void setTransactionCount(int transactionCount) { this.transactionCount = transactionCount; }
+}
@@ -0,0 +1,66 @@
+package com.expensetracker.dto;
+
+import com.expensetracker.model.Budget;
+import com.expensetracker.model.Category;
+import com.expensetracker.model.Expense;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+// 13. DashboardData.java
+// Everything the dashboard page shows, already aggregated (see DashboardService).
+public class DashboardData {
+    // All-time
+    private BigDecimal lifetimeTotal = BigDecimal.ZERO;
+    private int lifetimeCount;
+    private BigDecimal averageExpense = BigDecimal.ZERO;
+    private int categoriesUsed;
+
+    // This month vs the same days of last month
+    private BigDecimal currentMonthTotal = BigDecimal.ZERO;
+    private BigDecimal previousPeriodTotal = BigDecimal.ZERO;
+    private double trendPercentage;
+    private List<CategorySummary> currentMonthByCategory = new ArrayList<>(); // Highest first
+
+    // Charts: one point per month (oldest first) and per day for the sparkline
+    private List<TrendPoint> monthlyTotals = new ArrayList<>();
+    private List<Integer> monthlyCounts = new ArrayList<>();
+    private List<TrendPoint> recentDailyTotals = new ArrayList<>();
+
+    private List<Expense> recentExpenses = new ArrayList<>();
+    private List<Budget> topBudgets = new ArrayList<>(); // Highest % used first
+    private List<Category> categories = new ArrayList<>();
+
+    public BigDecimal getLifetimeTotal() { return lifetimeTotal; }
+    public void setLifetimeTotal(BigDecimal lifetimeTotal) { this.lifetimeTotal = lifetimeTotal; }
+    public int getLifetimeCount() { return lifetimeCount; }
+    public void setLifetimeCount(int lifetimeCount) { this.lifetimeCount = lifetimeCount; }
+    public BigDecimal getAverageExpense() { return averageExpense; }
+    public void setAverageExpense(BigDecimal averageExpense) { this.averageExpense = averageExpense; }
+    public int getCategoriesUsed() { return categoriesUsed; }
+    public void setCategoriesUsed(int categoriesUsed) { this.categoriesUsed = categoriesUsed; }
+
+    public BigDecimal getCurrentMonthTotal() { return currentMonthTotal; }
+    public void setCurrentMonthTotal(BigDecimal currentMonthTotal) { this.currentMonthTotal = currentMonthTotal; }
+    public BigDecimal getPreviousPeriodTotal() { return previousPeriodTotal; }
+    public void setPreviousPeriodTotal(BigDecimal previousPeriodTotal) { this.previousPeriodTotal = previousPeriodTotal; }
+    public double getTrendPercentage() { return trendPercentage; }
+    public void setTrendPercentage(double trendPercentage) { this.trendPercentage = trendPercentage; }
+    public List<CategorySummary> getCurrentMonthByCategory() { return currentMonthByCategory; }
+    public void setCurrentMonthByCategory(List<CategorySummary> currentMonthByCategory) { this.currentMonthByCategory = currentMonthByCategory; }
+
+    public List<TrendPoint> getMonthlyTotals() { return monthlyTotals; }
+    public void setMonthlyTotals(List<TrendPoint> monthlyTotals) { this.monthlyTotals = monthlyTotals; }
+    public List<Integer> getMonthlyCounts() { return monthlyCounts; }
+    public void setMonthlyCounts(List<Integer> monthlyCounts) { this.monthlyCounts = monthlyCounts; }
+    public List<TrendPoint> getRecentDailyTotals() { return recentDailyTotals; }
+    public void setRecentDailyTotals(List<TrendPoint> recentDailyTotals) { this.recentDailyTotals = recentDailyTotals; }
+
+    public List<Expense> getRecentExpenses() { return recentExpenses; }
+    public void setRecentExpenses(List<Expense> recentExpenses) { this.recentExpenses = recentExpenses; }
+    public List<Budget> getTopBudgets() { return topBudgets; }
+    public void setTopBudgets(List<Budget> topBudgets) { this.topBudgets = topBudgets; }
+    public List<Category> getCategories() { return categories; }
+    public void setCategories(List<Category> categories) { this.categories = categories; }
+}
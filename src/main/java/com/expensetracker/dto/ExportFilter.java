@@ -0,0 +1,45 @@
+package com.expensetracker.dto;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+// 11. ExportFilter.java
+// The expense-list filters an export was requested with. Every field is optional.
+public class ExportFilter {
+    private LocalDate from;
+    private LocalDate to;
+    private Integer categoryId;
+    private BigDecimal minAmount;
+    private BigDecimal maxAmount;
+    private String keyword;
+
+    public ExportFilter() {}
+
+    public ExportFilter(LocalDate from, LocalDate to, Integer categoryId,
+                        BigDecimal minAmount, BigDecimal maxAmount, String keyword) {
+        this.from = from;
+        this.to = to;
+        this.categoryId = categoryId;
+        this.minAmount = minAmount;
+        this.maxAmount = maxAmount;
+        this.keyword = keyword;
+    }
+
+    // Keyword or amount filters: the report engine's category analytics don't apply
+    public boolean hasAdvancedFilters() {
+        return (keyword != null && !keyword.trim().isEmpty()) || minAmount != null || maxAmount != null;
+    }
+
+    public LocalDate getFrom() { return from; }
+    public void setFrom(LocalDate from) { this.from = from; }
+    public LocalDate getTo() { return to; }
+    public void setTo(LocalDate to) { this.to = to; }
+    public Integer getCategoryId() { return categoryId; }
+    public void setCategoryId(Integer categoryId) { this.categoryId = categoryId; }
+    public BigDecimal getMinAmount() { return minAmount; }
+    public void setMinAmount(BigDecimal minAmount) { this.minAmount = minAmount; }
+    public BigDecimal getMaxAmount() { return maxAmount; }
+    public void setMaxAmount(BigDecimal maxAmount) { this.maxAmount = maxAmount; }
+    public String getKeyword() { return keyword; }
+    public void setKeyword(String keyword) { this.keyword = keyword; }
+}
@@ -0,0 +1,38 @@
+package com.expensetracker.dto;
+
+import com.expensetracker.util.Money;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+// 14. PeriodTotals.java
+// A report window and the window it is compared against, read in one grouped query:
+// (day, category) rows for the current window, one row per category for the previous one.
+public class PeriodTotals {
+    private List<DailyCategoryTotal> current = new ArrayList<>();
+    private List<DailyCategoryTotal> previous = new ArrayList<>(); // Dated at the previous window's start
+
+    public PeriodTotals() {}
+
+    public PeriodTotals(List<DailyCategoryTotal> current, List<DailyCategoryTotal> previous) {
+        this.current = current;
+        this.previous = previous;
+    }
+
+    public BigDecimal getPreviousTotal() {
+        if (previous.isEmpty()) {
+            return BigDecimal.ZERO;
+        }
+        long cents = 0;
+        for (DailyCategoryTotal row : previous) {
+            cents += Money.toCents(row.getTotal());
+        }
+        return Money.fromCents(cents);
+    }
+
+    public List<DailyCategoryTotal> getCurrent() { return current; }
+    public void setCurrent(List<DailyCategoryTotal> current) { this.current = current; }
+    public List<DailyCategoryTotal> getPrevious() { return previous; }
+    public void setPrevious(List<DailyCategoryTotal> previous) { this.previous = previous; }
+}
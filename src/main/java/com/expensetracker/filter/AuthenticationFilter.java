@@ -1,7 +1,8 @@
 package com.expensetracker.filter;
 
-import com.expensetracker.model.User;
+import com.expensetracker.model.Principal;
 import com.expensetracker.repository.UserRepository;
+import com.expensetracker.service.AuthService;
 import com.expensetracker.util.TokenUtil; 
 import jakarta.servlet.*;
 import jakarta.servlet.annotation.WebFilter;
@@ -25,7 +26,8 @@ public class AuthenticationFilter implements Filter {
         HttpServletRequest httpRequest = (HttpServletRequest) request;
         HttpServletResponse httpResponse = (HttpServletResponse) response;
         
-        // 1. Get session without creating one
+        // 1. Get session without creating one (rebuilt from the signed session cookie in stateless mode)
+        AuthService.restoreSession(httpRequest);
         HttpSession session = httpRequest.getSession(false);
         
         boolean isLoggedIn = (session != null && session.getAttribute("user") != null);
@@ -47,10 +49,10 @@ public class AuthenticationFilter implements Filter {
             if (rawToken != null && !rawToken.isEmpty()) {
                 String tokenHash = TokenUtil.hashToken(rawToken);
                 
-                Optional<User> userOpt = userRepository.findByRememberToken(tokenHash);
+                Optional<Principal> userOpt = userRepository.findByRememberToken(tokenHash);
                 
                 if (userOpt.isPresent()) {
-                    User user = userOpt.get();
+                    Principal user = userOpt.get();
 
                     // SUCCESS: Create a fresh session and log the user in
                     HttpSession newSession = httpRequest.getSession(true); // creates new if needed
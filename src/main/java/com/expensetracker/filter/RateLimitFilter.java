@@ -0,0 +1,164 @@
+package com.expensetracker.filter;
+
+import com.expensetracker.util.CSRFUtil;
+import com.expensetracker.util.ConfigLoader;
+import com.expensetracker.util.LocalRateLimitStore;
+import com.expensetracker.util.RateLimitStore;
+import jakarta.servlet.*;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Throttles form submissions (POST) to the login, registration, password-reset and
+ * resend-verification endpoints, each of which costs a BCrypt check or an email.
+ *
+ * Every endpoint has two sliding-window limits, per client IP and per account (the username
+ * or email in the form): ratelimit.<rule>.ip and ratelimit.<rule>.account attempts per
+ * ratelimit.<rule>.window.seconds; 0 turns a limit off. Over the limit the request never
+ * reaches the servlet: the form it came from is shown again with a 429, Retry-After and
+ * LIMITED_MESSAGE, as LoginServlet does for its own 503.
+ */
+public class RateLimitFilter implements Filter {
+
+    private static final Logger log = LoggerFactory.getLogger(RateLimitFilter.class);
+
+    public static final String LIMITED_MESSAGE = "Too many attempts. Please wait a moment and try again.";
+
+    // Servlet path -> rule (the resend form lives on the login page)
+    private static final Map<String, Rule> RULES = Map.of(
+            "/login", new Rule("login", "username", "login.jsp", 30, 10, 300),
+            "/register", new Rule("register", "email", "register.jsp", 10, 3, 3600),
+            "/forgot-password", new Rule("forgot", "email", "forgot-password.jsp", 10, 3, 3600),
+            "/resend-verification", new Rule("resend", "username", "login.jsp", 10, 3, 3600));
+
+    private static volatile RateLimitStore store;
+
+    private boolean enabled;
+    private boolean trustForwardedFor;
+
+    @Override
+    public void init(FilterConfig filterConfig) {
+        enabled = ConfigLoader.getBoolean("ratelimit.enabled", true);
+        trustForwardedFor = ConfigLoader.getBoolean("ratelimit.trust.forwarded.for", false);
+        store = createStore(ConfigLoader.get("ratelimit.store", ""));
+        log.info("Auth rate limiting {} ({})", enabled ? "enabled" : "disabled", store.getClass().getSimpleName());
+    }
+
+    @Override
+    public void doFilter(ServletRequest request, ServletResponse response, FilterChain chain)
+            throws IOException, ServletException {
+
+        HttpServletRequest req = (HttpServletRequest) request;
+        HttpServletResponse resp = (HttpServletResponse) response;
+
+        Rule rule = RULES.get(req.getServletPath());
+        if (!enabled || rule == null || !"POST".equals(req.getMethod())) {
+            chain.doFilter(request, response);
+            return;
+        }
+
+        // 1. Per IP first, so a flood from one address does not burn other people's account budgets
+        long retryAfterMillis = rule.acquire(store, "ip", clientIp(req), rule.ipLimit);
+
+        // 2. Per account (spread-out attempts against one username or mailbox)
+        if (retryAfterMillis == 0) {
+            String account = req.getParameter(rule.accountParam);
+            if (account != null && !account.isBlank()) {
+                retryAfterMillis = rule.acquire(store, "account", normalise(account), rule.accountLimit);
+            }
+        }
+
+        if (retryAfterMillis > 0) {
+            rule.rejected.increment();
+            long retryAfterSeconds = Math.max(1, TimeUnit.MILLISECONDS.toSeconds(retryAfterMillis + 999));
+            log.warn("Rate limited {} from {} (retry in {} s)", rule.name, req.getRemoteAddr(), retryAfterSeconds);
+            resp.setStatus(429);
+            resp.setHeader("Retry-After", String.valueOf(retryAfterSeconds));
+            req.setAttribute("error", LIMITED_MESSAGE);
+            req.setAttribute("csrfToken", CSRFUtil.getToken(req.getSession(true)));
+            req.getRequestDispatcher("/WEB-INF/views/" + rule.view).forward(req, resp);
+            return;
+        }
+        chain.doFilter(request, response);
+    }
+
+    // ==================== Helpers ====================
+
+    private String clientIp(HttpServletRequest req) {
+        if (trustForwardedFor) {
+            String forwarded = req.getHeader("X-Forwarded-For");
+            if (forwarded != null && !forwarded.isBlank()) {
+                int comma = forwarded.indexOf(',');
+                return (comma < 0 ? forwarded : forwarded.substring(0, comma)).trim();
+            }
+        }
+        return req.getRemoteAddr();
+    }
+
+    private static String normalise(String account) {
+        String key = account.trim().toLowerCase(Locale.ROOT);
+        return key.length() > 100 ? key.substring(0, 100) : key; // Bounds the memory one key can take
+    }
+
+    private static RateLimitStore createStore(String className) {
+        if (className.isBlank()) {
+            return new LocalRateLimitStore();
+        }
+        try {
+            return (RateLimitStore) Class.forName(className).getDeclaredConstructor().newInstance();
+        } catch (ReflectiveOperationException | ClassCastException e) {
+            throw new RuntimeException("Cannot create rate limit store: " + className, e);
+        }
+    }
+
+    /**
+     * Appends rejections per rule and tracked keys in the Prometheus text format.
+     */
+    public static void writePrometheus(StringBuilder out) {
+        out.append("# HELP expense_ratelimit_rejected_total Auth form submissions refused by the rate limiter\n");
+        out.append("# TYPE expense_ratelimit_rejected_total counter\n");
+        new TreeMap<>(RULES).values().forEach(rule -> out.append("expense_ratelimit_rejected_total{rule=\"")
+                .append(rule.name).append("\"} ").append(rule.rejected.sum()).append('\n'));
+
+        RateLimitStore current = store;
+        if (current != null && current.size() >= 0) {
+            out.append("# HELP expense_ratelimit_keys Rate limit counters held in memory\n");
+            out.append("# TYPE expense_ratelimit_keys gauge\n");
+            out.append("expense_ratelimit_keys ").append(current.size()).append('\n');
+        }
+    }
+
+    private static final class Rule {
+        final String name;
+        final String accountParam;
+        final String view;
+        final int ipLimit;
+        final int accountLimit;
+        final long windowMillis;
+        final LongAdder rejected = new LongAdder();
+
+        Rule(String name, String accountParam, String view,
+             int defaultIpLimit, int defaultAccountLimit, int defaultWindowSeconds) {
+            this.name = name;
+            this.accountParam = accountParam;
+            this.view = view;
+            this.ipLimit = ConfigLoader.getInt("ratelimit." + name + ".ip", defaultIpLimit);
+            this.accountLimit = ConfigLoader.getInt("ratelimit." + name + ".account", defaultAccountLimit);
+            this.windowMillis = TimeUnit.SECONDS.toMillis(
+                    ConfigLoader.getInt("ratelimit." + name + ".window.seconds", defaultWindowSeconds));
+        }
+
+        long acquire(RateLimitStore store, String kind, String value, int limit) {
+            return limit > 0 ? store.tryAcquire(name + ":" + kind + ":" + value, limit, windowMillis) : 0;
+        }
+    }
+}
@@ -1,6 +1,6 @@
 package com.expensetracker.filter;
 
-import com.expensetracker.model.User;
+import com.expensetracker.model.Principal;
 import com.expensetracker.repository.UserRepository;
 import jakarta.servlet.*;
 import jakarta.servlet.http.HttpServletRequest;
@@ -22,12 +22,12 @@ public class VerificationFilter implements Filter {
 
         // Only check if user is logged in
         if (session != null && session.getAttribute("user") != null) {
-            User sessionUser = (User) session.getAttribute("user");
+            Principal sessionUser = (Principal) session.getAttribute("user");
             
             // ═══════════════════════════════════════════════════════════
             // ✅ FIX: RE-CHECK DB STATUS (Handles Post-Verification Case)
             // ═══════════════════════════════════════════════════════════
-            User freshUser = userRepo.findById(sessionUser.getId()).orElse(null);
+            Principal freshUser = userRepo.findPrincipal(sessionUser.getId()).orElse(null);
             
             if (freshUser != null) {
                 boolean isVerified = freshUser.isEmailVerified();
@@ -37,10 +37,8 @@ public class VerificationFilter implements Filter {
                 if (isVerified || !isLegacy) {
                     session.removeAttribute("needsVerification");
                     
-                    // Also update session user object to avoid future lookups
-                    sessionUser.setEmailVerified(isVerified);
-                    sessionUser.setLegacyUnverified(isLegacy);
-                    session.setAttribute("user", sessionUser);
+                    // Also update session principal to avoid future lookups
+                    session.setAttribute("user", freshUser);
                     
                     // Allow request
                     chain.doFilter(request, response);
@@ -0,0 +1,88 @@
+package com.expensetracker.model;
+
+import com.expensetracker.dto.ExportFilter;
+
+import java.time.LocalDateTime;
+
+public class ExportJob {
+
+    public enum Status { QUEUED, RUNNING, DONE, FAILED }
+
+    private String id;
+    private Long userId;
+    private String format; // "csv" or "pdf"
+    private ExportFilter filter = new ExportFilter();
+    private Status status = Status.QUEUED;
+    private String filePath;
+    private Long fileSize;
+    private Long rowCount;
+    private String errorMessage;
+    private LocalDateTime createdAt;
+    private LocalDateTime startedAt;
+    private LocalDateTime finishedAt;
+    private LocalDateTime expiresAt;
+
+    public ExportJob() {}
+
+    public ExportJob(String id, Long userId, String format, ExportFilter filter) {
+        this.id = id;
+        this.userId = userId;
+        this.format = format;
+        this.filter = filter;
+    }
+
+    // Getters and Setters
+
+    public String getId() { return id; }
+    public void setId(String id) { this.id = id; }
+
+    public Long getUserId() { return userId; }
+    public void setUserId(Long userId) { this.userId = userId; }
+
+    public String getFormat() { return format; }
+    public void setFormat(String format) { this.format = format; }
+
+    public ExportFilter getFilter() { return filter; }
+    public void setFilter(ExportFilter filter) { this.filter = filter; }
+
+    public Status getStatus() { return status; }
+    public void setStatus(Status status) { this.status = status; }
+
+    public String getFilePath() { return filePath; }
+    public void setFilePath(String filePath) { this.filePath = filePath; }
+
+    public Long getFileSize() { return fileSize; }
+    public void setFileSize(Long fileSize) { this.fileSize = fileSize; }
+
+    public Long getRowCount() { return rowCount; }
+    public void setRowCount(Long rowCount) { this.rowCount = rowCount; }
+
+    public String getErrorMessage() { return errorMessage; }
+    public void setErrorMessage(String errorMessage) { this.errorMessage = errorMessage; }
+
+    public LocalDateTime getCreatedAt() { return createdAt; }
+    public void setCreatedAt(LocalDateTime createdAt) { this.createdAt = createdAt; }
+
+    public LocalDateTime getStartedAt() { return startedAt; }
+    public void setStartedAt(LocalDateTime startedAt) { this.startedAt = startedAt; }
+
+    public LocalDateTime getFinishedAt() { return finishedAt; }
+    public void setFinishedAt(LocalDateTime finishedAt) { this.finishedAt = finishedAt; }
+
+    public LocalDateTime getExpiresAt() { return expiresAt; }
+    public void setExpiresAt(LocalDateTime expiresAt) { this.expiresAt = expiresAt; }
+
+    // Domain Logic / Helper Methods
+
+    public boolean isFinished() {
+        return status == Status.DONE || status == Status.FAILED;
+    }
+
+    /**
+     * File name offered to the browser, e.g. expense_report_2024-05-01.csv
+     */
+    public String getDownloadFileName() {
+        LocalDateTime stamp = (createdAt != null) ? createdAt : LocalDateTime.now();
+        return "expense_report_" + stamp.toLocalDate() + "." + format;
+    }
+}
@@ -0,0 +1,58 @@
+package com.expensetracker.model;
+
+import java.io.Serializable;
+
+/**
+ * The logged-in user as kept in the HTTP session ("user" attribute): identity and the flags
+ * the filters check, without the password hash or any token. Immutable; replace the session
+ * attribute to change it.
+ */
+public final class Principal implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private final long id;
+    private final String username;
+    private final String fullName;
+    private final String email;
+    private final boolean emailVerified;
+    private final boolean legacyUnverified;
+
+    public Principal(long id, String username, String fullName, String email,
+                     boolean emailVerified, boolean legacyUnverified) {
+        this.id = id;
+        this.username = username;
+        this.fullName = fullName;
+        this.email = email;
+        this.emailVerified = emailVerified;
+        this.legacyUnverified = legacyUnverified;
+    }
+
+    public static Principal of(User user) {
+        return new Principal(user.getId(), user.getUsername(), user.getFullName(), user.getEmail(),
+                user.isEmailVerified(), user.isLegacyUnverified());
+    }
+
+    public Principal withVerification(boolean emailVerified, boolean legacyUnverified) {
+        return new Principal(id, username, fullName, email, emailVerified, legacyUnverified);
+    }
+
+    // ==================== Getters ====================
+
+    public Long getId() { return id; }
+
+    public String getUsername() { return username; }
+
+    public String getFullName() { return fullName; }
+
+    public String getEmail() { return email; }
+
+    public boolean isEmailVerified() { return emailVerified; }
+
+    public boolean isLegacyUnverified() { return legacyUnverified; }
+
+    @Override
+    public String toString() {
+        return "Principal{id=" + id + ", username='" + username + "'}";
+    }
+}
@@ -1,17 +1,39 @@
 package com.expensetracker.repository;
 
 import com.expensetracker.model.Category;
+import com.expensetracker.util.ConfigLoader;
 import com.expensetracker.util.HikariCPDataSource;
+import com.expensetracker.util.TtlCache;
 
 import java.sql.*;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.TimeUnit;
 
 public class CategoryRepository {
 
-    // 1. Get ALL categories for a user (ordered by name)
+    // Per-user category lists, shared by every service and servlet. Writes below
+    // invalidate the user's entry; the TTL bounds staleness across app instances.
+    private static final TtlCache<Long, List<Category>> CACHE = new TtlCache<>(
+            ConfigLoader.getInt("cache.categories.max.users", 10_000),
+            ConfigLoader.getInt("cache.categories.ttl.seconds", 300), TimeUnit.SECONDS);
+
+    // 1. Get ALL categories for a user (ordered by name), served from the cache when possible.
+    // The returned list is a fresh copy; the Category objects are shared and must not be modified.
     public List<Category> findAllByUserId(Long userId) {
+        return new ArrayList<>(CACHE.get(userId, this::loadAllByUserId));
+    }
+
+    public static void invalidateCache(Long userId) {
+        CACHE.invalidate(userId);
+    }
+
+    public static TtlCache<Long, List<Category>> cache() {
+        return CACHE;
+    }
+
+    private List<Category> loadAllByUserId(Long userId) {
         String sql = """
             SELECT * FROM categories
             WHERE user_id = ?
@@ -31,7 +53,7 @@ public class CategoryRepository {
         } catch (SQLException e) {
             throw new RuntimeException("Error loading categories for user: " + userId, e);
         }
-        return categories;
+        return List.copyOf(categories);
     }
 
     // 2. Find category by userId + name (case-insensitive) – for duplicate check
@@ -79,6 +101,8 @@ public class CategoryRepository {
                 throw new RuntimeException("Category '" + category.getName() + "' already exists");
             }
             throw new RuntimeException("Failed to save category", e);
+        } finally {
+            invalidateCache(category.getUserId());
         }
     }
 
@@ -98,6 +122,8 @@ public class CategoryRepository {
             }
         } catch (SQLException e) {
             throw new RuntimeException("Failed to delete category", e);
+        } finally {
+            invalidateCache(category.getUserId());
         }
     }
 
@@ -122,6 +148,8 @@ public class CategoryRepository {
 
         } catch (SQLException e) {
             throw new RuntimeException("Failed to update category", e);
+        } finally {
+            invalidateCache(category.getUserId());
         }
     }
 
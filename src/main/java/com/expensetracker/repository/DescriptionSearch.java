@@ -0,0 +1,131 @@
+package com.expensetracker.repository;
+
+import com.expensetracker.util.ConfigLoader;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * Builds the SQL for keyword search over expense descriptions.
+ *
+ * On MySQL the keyword is turned into a FULLTEXT BOOLEAN MODE query where every word
+ * is required and prefix-matched ("coff star" -> "+coff* +star*"), served by the
+ * ft_expense_description index (V11). Results can be ranked by MATCH() relevance.
+ *
+ * Words shorter than the InnoDB minimum token size are not in the index, so MATCH cannot
+ * require them. Each one (stopwords aside) is added as its own LOWER(description) LIKE
+ * '%word%' predicate beside the MATCH: "tv stand" finds descriptions containing "stand..."
+ * and "tv" anywhere, not every "stand..." description. The LIKE only filters the rows the
+ * index already narrowed down; ranking still uses MATCH() relevance alone.
+ *
+ * On other databases (H2 in tests), when search.fulltext.enabled=false, or when the
+ * keyword has no indexable word (all words shorter than the InnoDB minimum token
+ * size, or stopwords), it falls back to the old LOWER(description) LIKE '%kw%'.
+ */
+public final class DescriptionSearch {
+
+    // InnoDB default innodb_ft_min_token_size
+    private static final int MIN_TOKEN_LENGTH = ConfigLoader.getInt("search.fulltext.min.token", 3);
+
+    // InnoDB default stopword list: a required (+) stopword would never match
+    private static final Set<String> STOPWORDS = Set.of(
+            "a", "about", "an", "are", "as", "at", "be", "by", "com", "de", "en", "for",
+            "from", "how", "i", "in", "is", "it", "la", "of", "on", "or", "that", "the",
+            "this", "to", "was", "what", "when", "where", "who", "will", "with", "und", "www");
+
+    private static volatile Boolean fullTextEnabled;
+
+    private DescriptionSearch() {}
+
+    /**
+     * Appends the keyword predicate (if any) to a WHERE clause.
+     */
+    public static void appendKeywordFilter(StringBuilder whereClause, List<Object> params, String keyword) {
+        appendKeywordFilter(whereClause, params, keyword, isFullTextEnabled());
+    }
+
+    static void appendKeywordFilter(StringBuilder whereClause, List<Object> params, String keyword, boolean fullText) {
+        if (keyword == null || keyword.trim().isEmpty()) {
+            return;
+        }
+        String booleanQuery = fullText ? toBooleanQuery(keyword) : null;
+        if (booleanQuery != null) {
+            whereClause.append(" AND MATCH(description) AGAINST (? IN BOOLEAN MODE)");
+            params.add(booleanQuery);
+            for (String word : shortWords(keyword)) {
+                whereClause.append(" AND LOWER(description) LIKE ?");
+                params.add("%" + word + "%");
+            }
+        } else {
+            whereClause.append(" AND LOWER(description) LIKE ?");
+            params.add("%" + keyword.trim().toLowerCase() + "%");
+        }
+    }
+
+    /**
+     * ORDER BY expression ranking the best matches first (descending score).
+     * FULLTEXT uses MATCH() relevance; the LIKE fallback ranks descriptions that
+     * start with the keyword ahead of those that merely contain it.
+     */
+    public static void appendRelevanceOrder(StringBuilder orderBy, List<Object> params, String keyword) {
+        String booleanQuery = isFullTextEnabled() ? toBooleanQuery(keyword) : null;
+        if (booleanQuery != null) {
+            orderBy.append("MATCH(description) AGAINST (? IN BOOLEAN MODE) DESC");
+            params.add(booleanQuery);
+        } else {
+            orderBy.append("CASE WHEN LOWER(description) LIKE ? THEN 0 ELSE 1 END ASC");
+            params.add(keyword.trim().toLowerCase() + "%");
+        }
+    }
+
+    /**
+     * Converts free text into a BOOLEAN MODE query: each indexable word becomes a
+     * required prefix term. Returns null if no word is indexable.
+     */
+    static String toBooleanQuery(String keyword) {
+        if (keyword == null) {
+            return null;
+        }
+        List<String> terms = new ArrayList<>();
+        for (String word : words(keyword)) {
+            if (word.length() >= MIN_TOKEN_LENGTH && !STOPWORDS.contains(word)) {
+                terms.add("+" + word + "*");
+            }
+        }
+        return terms.isEmpty() ? null : String.join(" ", terms);
+    }
+
+    /**
+     * The words of the keyword too short for the FULLTEXT index (stopwords excluded),
+     * which the MATCH query above cannot require.
+     */
+    static List<String> shortWords(String keyword) {
+        List<String> shortWords = new ArrayList<>();
+        for (String word : words(keyword)) {
+            if (!word.isEmpty() && word.length() < MIN_TOKEN_LENGTH && !STOPWORDS.contains(word)
+                    && !shortWords.contains(word)) {
+                shortWords.add(word);
+            }
+        }
+        return shortWords;
+    }
+
+    // Split on anything that is not a letter or digit – this also strips the
+    // BOOLEAN MODE operators (+ - < > ( ) ~ * " @) from user input.
+    private static String[] words(String keyword) {
+        return keyword.toLowerCase(Locale.ROOT).split("[^\\p{L}\\p{N}]+");
+    }
+
+    static boolean isFullTextEnabled() {
+        Boolean enabled = fullTextEnabled;
+        if (enabled == null) {
+            String driver = ConfigLoader.get("db.driver", "com.mysql.cj.jdbc.Driver");
+            enabled = driver.toLowerCase(Locale.ROOT).contains("mysql")
+                    && ConfigLoader.getBoolean("search.fulltext.enabled", true);
+            fullTextEnabled = enabled;
+        }
+        return enabled;
+    }
+}
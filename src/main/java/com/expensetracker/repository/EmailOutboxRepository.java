@@ -0,0 +1,203 @@
+package com.expensetracker.repository;
+
+import com.expensetracker.model.OutboxEmail;
+import com.expensetracker.util.HikariCPDataSource;
+
+import java.sql.*;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+public class EmailOutboxRepository {
+
+    public OutboxEmail save(OutboxEmail email) {
+        String sql = """
+                INSERT INTO email_outbox (recipient, subject, html_body, status, attempts, next_attempt_at, created_at)
+                VALUES (?, ?, ?, ?, ?, ?, ?)
+                """;
+
+        LocalDateTime now = LocalDateTime.now();
+        if (email.getCreatedAt() == null) {
+            email.setCreatedAt(now);
+        }
+        if (email.getNextAttemptAt() == null) {
+            email.setNextAttemptAt(now);
+        }
+
+        try (Connection conn = HikariCPDataSource.getConnection();
+             PreparedStatement ps = conn.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
+
+            ps.setString(1, email.getRecipient());
+            ps.setString(2, truncate(email.getSubject(), 255));
+            ps.setString(3, email.getHtmlBody());
+            ps.setString(4, email.getStatus().name());
+            ps.setInt(5, email.getAttempts());
+            ps.setTimestamp(6, Timestamp.valueOf(email.getNextAttemptAt()));
+            ps.setTimestamp(7, Timestamp.valueOf(email.getCreatedAt()));
+            ps.executeUpdate();
+
+            try (ResultSet keys = ps.getGeneratedKeys()) {
+                if (keys.next()) {
+                    email.setId(keys.getLong(1));
+                }
+            }
+            return email;
+        } catch (SQLException e) {
+            throw new RuntimeException("Error queuing email to: " + email.getRecipient(), e);
+        }
+    }
+
+    /**
+     * Claims a due, queued email for sending and counts the attempt. Empty if it is not
+     * due yet or was already claimed, so an email offered twice (queue and poll) is sent once.
+     */
+    public Optional<OutboxEmail> claim(long id) {
+        String claimSql = """
+                UPDATE email_outbox SET status = 'SENDING', attempts = attempts + 1
+                WHERE id = ? AND status = 'QUEUED' AND next_attempt_at <= ?
+                """;
+        String selectSql = "SELECT * FROM email_outbox WHERE id = ?";
+
+        try (Connection conn = HikariCPDataSource.getConnection()) {
+            try (PreparedStatement ps = conn.prepareStatement(claimSql)) {
+                ps.setLong(1, id);
+                ps.setTimestamp(2, Timestamp.valueOf(LocalDateTime.now()));
+                if (ps.executeUpdate() != 1) {
+                    return Optional.empty();
+                }
+            }
+            try (PreparedStatement ps = conn.prepareStatement(selectSql)) {
+                ps.setLong(1, id);
+                try (ResultSet rs = ps.executeQuery()) {
+                    return rs.next() ? Optional.of(mapRowToOutboxEmail(rs)) : Optional.empty();
+                }
+            }
+        } catch (SQLException e) {
+            throw new RuntimeException("Error claiming email: " + id, e);
+        }
+    }
+
+    // Finished rows keep only metadata: the body holds live verification / reset links, which
+    // the users table deliberately stores only as hashes
+    public void markSent(long id) {
+        String sql = "UPDATE email_outbox SET status = 'SENT', html_body = '', sent_at = ?, last_error = NULL WHERE id = ?";
+
+        try (Connection conn = HikariCPDataSource.getConnection();
+             PreparedStatement ps = conn.prepareStatement(sql)) {
+
+            ps.setTimestamp(1, Timestamp.valueOf(LocalDateTime.now()));
+            ps.setLong(2, id);
+            ps.executeUpdate();
+        } catch (SQLException e) {
+            throw new RuntimeException("Error completing email: " + id, e);
+        }
+    }
+
+    /**
+     * Puts a failed send back in the queue, to be picked up by the poll at nextAttemptAt.
+     */
+    public void markRetry(long id, LocalDateTime nextAttemptAt, String error) {
+        String sql = "UPDATE email_outbox SET status = 'QUEUED', next_attempt_at = ?, last_error = ? WHERE id = ?";
+
+        try (Connection conn = HikariCPDataSource.getConnection();
+             PreparedStatement ps = conn.prepareStatement(sql)) {
+
+            ps.setTimestamp(1, Timestamp.valueOf(nextAttemptAt));
+            ps.setString(2, truncate(error, 255));
+            ps.setLong(3, id);
+            ps.executeUpdate();
+        } catch (SQLException e) {
+            throw new RuntimeException("Error rescheduling email: " + id, e);
+        }
+    }
+
+    public void markFailed(long id, String error) {
+        String sql = "UPDATE email_outbox SET status = 'FAILED', html_body = '', last_error = ? WHERE id = ?";
+
+        try (Connection conn = HikariCPDataSource.getConnection();
+             PreparedStatement ps = conn.prepareStatement(sql)) {
+
+            ps.setString(1, truncate(error, 255));
+            ps.setLong(2, id);
+            ps.executeUpdate();
+        } catch (SQLException e) {
+            throw new RuntimeException("Error failing email: " + id, e);
+        }
+    }
+
+    public List<Long> findDueIds(LocalDateTime now, int limit) {
+        String sql = """
+                SELECT id FROM email_outbox
+                WHERE status = 'QUEUED' AND next_attempt_at <= ?
+                ORDER BY next_attempt_at ASC, id ASC
+                LIMIT ?
+                """;
+        List<Long> ids = new ArrayList<>();
+
+        try (Connection conn = HikariCPDataSource.getConnection();
+             PreparedStatement ps = conn.prepareStatement(sql)) {
+
+            ps.setTimestamp(1, Timestamp.valueOf(now));
+            ps.setInt(2, limit);
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    ids.add(rs.getLong("id"));
+                }
+            }
+        } catch (SQLException e) {
+            throw new RuntimeException("Error finding due emails", e);
+        }
+        return ids;
+    }
+
+    /**
+     * Puts emails that were SENDING when the application stopped back in the queue.
+     * One of them may have reached the server already; a duplicate beats a lost reset link.
+     * @return number of emails re-queued
+     */
+    public int requeueInterrupted() {
+        String sql = "UPDATE email_outbox SET status = 'QUEUED' WHERE status = 'SENDING'";
+
+        try (Connection conn = HikariCPDataSource.getConnection();
+             PreparedStatement ps = conn.prepareStatement(sql)) {
+            return ps.executeUpdate();
+        } catch (SQLException e) {
+            throw new RuntimeException("Error re-queuing interrupted emails", e);
+        }
+    }
+
+    public int deleteFinishedBefore(LocalDateTime cutoff) {
+        String sql = "DELETE FROM email_outbox WHERE status IN ('SENT', 'FAILED') AND created_at < ?";
+
+        try (Connection conn = HikariCPDataSource.getConnection();
+             PreparedStatement ps = conn.prepareStatement(sql)) {
+
+            ps.setTimestamp(1, Timestamp.valueOf(cutoff));
+            return ps.executeUpdate();
+        } catch (SQLException e) {
+            throw new RuntimeException("Error deleting old emails", e);
+        }
+    }
+
+    private String truncate(String value, int maxLength) {
+        if (value == null || value.length() <= maxLength) return value;
+        return value.substring(0, maxLength);
+    }
+
+    private OutboxEmail mapRowToOutboxEmail(ResultSet rs) throws SQLException {
+        OutboxEmail email = new OutboxEmail(rs.getString("recipient"), rs.getString("subject"), rs.getString("html_body"));
+        email.setId(rs.getLong("id"));
+        email.setStatus(OutboxEmail.Status.valueOf(rs.getString("status")));
+        email.setAttempts(rs.getInt("attempts"));
+        email.setNextAttemptAt(toLocalDateTime(rs.getTimestamp("next_attempt_at")));
+        email.setLastError(rs.getString("last_error"));
+        email.setCreatedAt(toLocalDateTime(rs.getTimestamp("created_at")));
+        email.setSentAt(toLocalDateTime(rs.getTimestamp("sent_at")));
+        return email;
+    }
+
+    private LocalDateTime toLocalDateTime(Timestamp ts) {
+        return ts != null ? ts.toLocalDateTime() : null;
+    }
+}
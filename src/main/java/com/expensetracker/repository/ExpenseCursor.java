@@ -0,0 +1,85 @@
+package com.expensetracker.repository;
+
+import com.expensetracker.model.Expense;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * Forward-only, streaming view over an expense query (see ExpenseRepository#openCursor).
+ *
+ * Rows are fetched from the database in batches of the statement's fetch size, so
+ * memory stays flat no matter how many rows the query returns. The cursor owns its
+ * pooled connection until {@link #close()} – always use it in try-with-resources.
+ */
+public class ExpenseCursor implements Iterator<Expense>, AutoCloseable {
+
+    @FunctionalInterface
+    interface RowMapper {
+        Expense map(ResultSet rs) throws SQLException;
+    }
+
+    private final Connection conn;
+    private final PreparedStatement ps;
+    private final ResultSet rs;
+    private final RowMapper mapper;
+
+    private Expense next;
+    private boolean finished;
+    private long rowCount;
+
+    ExpenseCursor(Connection conn, PreparedStatement ps, ResultSet rs, RowMapper mapper) {
+        this.conn = conn;
+        this.ps = ps;
+        this.rs = rs;
+        this.mapper = mapper;
+    }
+
+    @Override
+    public boolean hasNext() {
+        if (next != null) return true;
+        if (finished) return false;
+        try {
+            if (rs.next()) {
+                next = mapper.map(rs);
+                rowCount++;
+                return true;
+            }
+            finished = true;
+            return false;
+        } catch (SQLException e) {
+            finished = true;
+            throw new RuntimeException("Error streaming expenses", e);
+        }
+    }
+
+    @Override
+    public Expense next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        Expense current = next;
+        next = null;
+        return current;
+    }
+
+    /**
+     * Number of rows read from the database so far.
+     */
+    public long getRowCount() {
+        return rowCount;
+    }
+
+    @Override
+    public void close() {
+        try (conn; ps; rs) {
+            finished = true;
+        } catch (SQLException e) {
+            throw new RuntimeException("Error closing expense cursor", e);
+        }
+    }
+}
@@ -1,20 +1,28 @@
 package com.expensetracker.repository;
 
+import com.expensetracker.dto.DailyCategoryTotal;
+import com.expensetracker.dto.PeriodTotals;
 import com.expensetracker.model.Expense;
+import com.expensetracker.service.TransactionManager;
 import com.expensetracker.util.HikariCPDataSource;
+import com.expensetracker.util.PageCursor;
 import com.expensetracker.util.PagedResult;
 
 import java.math.BigDecimal;
 import java.sql.*;
 import java.time.LocalDate;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
 
 public class ExpenseRepository {
 
+    private final SpendingRollupRepository rollupRepository = new SpendingRollupRepository();
+
     // 1. Get ALL expenses for a user (ordered by date desc)
     public List<Expense> findAllByUserId(Long userId) {
         String sql = """
@@ -57,36 +65,45 @@ public class ExpenseRepository {
     }
 
     // 3. Save (INSERT) new expense – returns expense with generated ID
+    // The spend rollups are updated in the same transaction.
     public Expense save(Expense expense) {
         String sql = """
             INSERT INTO expenses (user_id, description, amount, category_id, expense_date)
             VALUES (?, ?, ?, ?, ?)
             """;
 
-        try (Connection conn = HikariCPDataSource.getConnection();
-             PreparedStatement ps = conn.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
+        long writeStartedAt = SpendingRollupRepository.snapshotClock();
+        List<DailyCategoryTotal> deltas = new ArrayList<>();
+        TransactionManager.executeInTransaction(conn -> {
+            try (PreparedStatement ps = conn.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
 
-            ps.setLong(1, expense.getUserId());
-            ps.setString(2, expense.getDescription());
-            ps.setBigDecimal(3, expense.getAmount());
-            ps.setInt(4, expense.getCategoryId());
-            ps.setDate(5, Date.valueOf(expense.getExpenseDate()));
+                ps.setLong(1, expense.getUserId());
+                ps.setString(2, expense.getDescription());
+                ps.setBigDecimal(3, expense.getAmount());
+                ps.setInt(4, expense.getCategoryId());
+                ps.setDate(5, Date.valueOf(expense.getExpenseDate()));
 
-            ps.executeUpdate();
+                ps.executeUpdate();
 
-            try (ResultSet keys = ps.getGeneratedKeys()) {
-                if (keys.next()) {
-                    expense.setId(keys.getLong(1));
+                try (ResultSet keys = ps.getGeneratedKeys()) {
+                    if (keys.next()) {
+                        expense.setId(keys.getLong(1));
+                    }
                 }
-            }
-            return expense;
 
-        } catch (SQLException e) {
-            throw new RuntimeException("Failed to save expense", e);
-        }
+                applyRollupDelta(conn, deltas, expense.getUserId(), expense.getCategoryId(),
+                        expense.getExpenseDate(), expense.getAmount(), 1);
+
+            } catch (SQLException e) {
+                throw new RuntimeException("Failed to save expense", e);
+            }
+        });
+        rollupRepository.patchSnapshot(expense.getUserId(), writeStartedAt, deltas);
+        return expense;
     }
 
     // 4. Update existing expense
+    // The old row is locked first so the rollup delta is computed from what is actually replaced.
     public Expense update(Expense expense) {
         String sql = """
             UPDATE expenses
@@ -94,44 +111,79 @@ public class ExpenseRepository {
             WHERE id = ? AND user_id = ?
             """;
 
-        try (Connection conn = HikariCPDataSource.getConnection();
-             PreparedStatement ps = conn.prepareStatement(sql)) {
+        long writeStartedAt = SpendingRollupRepository.snapshotClock();
+        List<DailyCategoryTotal> deltas = new ArrayList<>();
+        TransactionManager.executeInTransaction(conn -> {
+            try {
+                Expense old = lockForUpdate(conn, expense.getId(), expense.getUserId())
+                        .orElseThrow(() -> new RuntimeException("Expense not found or you don't own it"));
+
+                try (PreparedStatement ps = conn.prepareStatement(sql)) {
+                    ps.setString(1, expense.getDescription());
+                    ps.setBigDecimal(2, expense.getAmount());
+                    ps.setInt(3, expense.getCategoryId());
+                    ps.setDate(4, Date.valueOf(expense.getExpenseDate()));
+                    ps.setLong(5, expense.getId());
+                    ps.setLong(6, expense.getUserId());
+
+                    int updated = ps.executeUpdate();
+                    if (updated == 0) {
+                        throw new RuntimeException("Expense not found or you don't own it");
+                    }
+                }
 
-            ps.setString(1, expense.getDescription());
-            ps.setBigDecimal(2, expense.getAmount());
-            ps.setInt(3, expense.getCategoryId());
-            ps.setDate(4, Date.valueOf(expense.getExpenseDate()));
-            ps.setLong(5, expense.getId());
-            ps.setLong(6, expense.getUserId());
+                boolean sameBucket = old.getCategoryId().equals(expense.getCategoryId())
+                        && old.getExpenseDate().equals(expense.getExpenseDate());
+                if (sameBucket) {
+                    BigDecimal diff = expense.getAmount().subtract(old.getAmount());
+                    if (diff.signum() != 0) {
+                        applyRollupDelta(conn, deltas, expense.getUserId(), expense.getCategoryId(),
+                                expense.getExpenseDate(), diff, 0);
+                    }
+                } else {
+                    applyRollupDelta(conn, deltas, expense.getUserId(), old.getCategoryId(),
+                            old.getExpenseDate(), old.getAmount().negate(), -1);
+                    applyRollupDelta(conn, deltas, expense.getUserId(), expense.getCategoryId(),
+                            expense.getExpenseDate(), expense.getAmount(), 1);
+                }
 
-            int updated = ps.executeUpdate();
-            if (updated == 0) {
-                throw new RuntimeException("Expense not found or you don't own it");
+            } catch (SQLException e) {
+                throw new RuntimeException("Failed to update expense", e);
             }
-            return expense;
-
-        } catch (SQLException e) {
-            throw new RuntimeException("Failed to update expense", e);
-        }
+        });
+        rollupRepository.patchSnapshot(expense.getUserId(), writeStartedAt, deltas);
+        return expense;
     }
 
     // 5. Delete expense (only if owned by user)
     public void delete(Long expenseId, Long userId) {
         String sql = "DELETE FROM expenses WHERE id = ? AND user_id = ?";
 
-        try (Connection conn = HikariCPDataSource.getConnection();
-             PreparedStatement ps = conn.prepareStatement(sql)) {
+        long writeStartedAt = SpendingRollupRepository.snapshotClock();
+        List<DailyCategoryTotal> deltas = new ArrayList<>();
+        TransactionManager.executeInTransaction(conn -> {
+            try {
+                Expense old = lockForUpdate(conn, expenseId, userId)
+                        .orElseThrow(() -> new RuntimeException("Expense not found or you don't own it"));
 
-            ps.setLong(1, expenseId);
-            ps.setLong(2, userId);
+                try (PreparedStatement ps = conn.prepareStatement(sql)) {
+                    ps.setLong(1, expenseId);
+                    ps.setLong(2, userId);
+
+                    int deleted = ps.executeUpdate();
+                    if (deleted == 0) {
+                        throw new RuntimeException("Expense not found or you don't own it");
+                    }
+                }
 
-            int deleted = ps.executeUpdate();
-            if (deleted == 0) {
-                throw new RuntimeException("Expense not found or you don't own it");
+                applyRollupDelta(conn, deltas, userId, old.getCategoryId(),
+                        old.getExpenseDate(), old.getAmount().negate(), -1);
+
+            } catch (SQLException e) {
+                throw new RuntimeException("Failed to delete expense", e);
             }
-        } catch (SQLException e) {
-            throw new RuntimeException("Failed to delete expense", e);
-        }
+        });
+        rollupRepository.patchSnapshot(userId, writeStartedAt, deltas);
     }
 
     // 6. Get expenses by category and user
@@ -170,30 +222,7 @@ public class ExpenseRepository {
         List<Object> params = new ArrayList<>();
         params.add(userId);
 
-        if (from != null) {
-            sql.append(" AND expense_date >= ?");
-            params.add(Date.valueOf(from));
-        }
-        if (to != null) {
-            sql.append(" AND expense_date <= ?");
-            params.add(Date.valueOf(to));
-        }
-        if (categoryId != null) {
-            sql.append(" AND category_id = ?");
-            params.add(categoryId);
-        }
-        if (minAmount != null) {
-            sql.append(" AND amount >= ?");
-            params.add(minAmount);
-        }
-        if (maxAmount != null) {
-            sql.append(" AND amount <= ?");
-            params.add(maxAmount);
-        }
-        if (keyword != null && !keyword.trim().isEmpty()) {
-            sql.append(" AND LOWER(description) LIKE ?");
-            params.add("%" + keyword.trim().toLowerCase() + "%");
-        }
+        appendFilters(sql, params, from, to, categoryId, minAmount, maxAmount, keyword);
         String column = "expense_date";
         String order = "DESC";
         sql.append(" ORDER BY ").append(column).append(" ").append(order);
@@ -216,6 +245,38 @@ public class ExpenseRepository {
         }
         return expenses;
     }
+    // 7b. Stream expenses with filters through a forward-only cursor (exports).
+    // The caller must close the returned cursor; it holds a pooled connection until then.
+    public ExpenseCursor openCursor(Long userId, LocalDate from, LocalDate to, Integer categoryId,
+                                    BigDecimal minAmount, BigDecimal maxAmount, String keyword,
+                                    boolean oldestFirst) {
+        StringBuilder sql = new StringBuilder("SELECT * FROM expenses WHERE user_id = ?");
+        List<Object> params = new ArrayList<>();
+        params.add(userId);
+        appendFilters(sql, params, from, to, categoryId, minAmount, maxAmount, keyword);
+        sql.append(oldestFirst ? " ORDER BY expense_date ASC, id ASC" : " ORDER BY expense_date DESC, id ASC");
+
+        Connection conn = null;
+        PreparedStatement ps = null;
+        try {
+            conn = HikariCPDataSource.getConnection();
+            ps = conn.prepareStatement(sql.toString(), ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+            // Streams the result instead of buffering it all in the driver; the cursor owns the
+            // connection until it is closed, so nothing else needs it meanwhile
+            ps.setFetchSize(HikariCPDataSource.streamingFetchSize());
+            setParameters(ps, params);
+            return new ExpenseCursor(conn, ps, ps.executeQuery(), this::mapRowToExpense);
+        } catch (SQLException e) {
+            try {
+                if (ps != null) ps.close();
+                if (conn != null) conn.close();
+            } catch (SQLException suppressed) {
+                e.addSuppressed(suppressed);
+            }
+            throw new RuntimeException("Error opening expense stream", e);
+        }
+    }
+
     public BigDecimal sumAmountByCategoryAndDateRange(Long userId, Integer categoryId, LocalDate from, LocalDate to) {
         String sql = "SELECT SUM(amount) FROM expenses WHERE user_id = ? AND category_id = ? AND expense_date BETWEEN ? AND ?";
         try (Connection conn = HikariCPDataSource.getConnection();
@@ -273,52 +334,10 @@ public class ExpenseRepository {
         StringBuilder whereClause = new StringBuilder("WHERE user_id = ?");
         List<Object> params = new ArrayList<>();
         params.add(userId);
-        
-        if (from != null) {
-            whereClause.append(" AND expense_date >= ?");
-            params.add(Date.valueOf(from));
-        }
-        if (to != null) {
-            whereClause.append(" AND expense_date <= ?");
-            params.add(Date.valueOf(to));
-        }
-        if (categoryId != null) {
-            whereClause.append(" AND category_id = ?");
-            params.add(categoryId);
-        }
-        // Amount Range Filters --
-        if (minAmount != null) {
-            whereClause.append(" AND amount >= ?");
-            params.add(minAmount);
-        }
-        if (maxAmount != null) {
-            whereClause.append(" AND amount <= ?");
-            params.add(maxAmount);
-        }
-
-        // Keyword Search (Case Insensitive) --
-        if (keyword != null && !keyword.trim().isEmpty()) {
-            whereClause.append(" AND LOWER(description) LIKE ?");
-            params.add("%" + keyword.trim().toLowerCase() + "%");
-        }
+        appendFilters(whereClause, params, from, to, categoryId, minAmount, maxAmount, keyword);
         
         // Step 2: Get total count (for pagination metadata)
-        String countSql = "SELECT COUNT(*) FROM expenses " + whereClause;
-        long totalCount = 0;
-        
-        try (Connection conn = HikariCPDataSource.getConnection();
-            PreparedStatement ps = conn.prepareStatement(countSql)) {
-            
-            setParameters(ps, params);
-            
-            try (ResultSet rs = ps.executeQuery()) {
-                if (rs.next()) {
-                    totalCount = rs.getLong(1);
-                }
-            }
-        } catch (SQLException e) {
-            throw new RuntimeException("Error counting expenses", e);
-        }
+        long totalCount = countMatching(whereClause, params);
 
         // Optimization: If count is 0, don't query data
         if (totalCount == 0) {
@@ -330,8 +349,17 @@ public class ExpenseRepository {
         String safeCol = resolveSortColumn(sortBy);
         String safeOrder = resolveSortOrder(sortOrder);
 
+        // Keyword searches rank by relevance unless the user picked a sort column
+        boolean byRelevance = isRelevanceSort(sortBy, keyword);
+        String orderBy = orderByClause(safeCol, "DESC".equals(safeOrder));
+        if (byRelevance) {
+            StringBuilder relevance = new StringBuilder(" ORDER BY ");
+            DescriptionSearch.appendRelevanceOrder(relevance, params, keyword);
+            orderBy = relevance + ", expense_date DESC, id ASC";
+        }
+
         String dataSql = "SELECT * FROM expenses " + whereClause + 
-                        " ORDER BY " + safeCol + " " + safeOrder + ", created_at DESC" +
+                        orderBy +
                         " LIMIT ? OFFSET ?";
         
         List<Expense> expenses = new ArrayList<>();
@@ -355,8 +383,148 @@ public class ExpenseRepository {
         } catch (SQLException e) {
             throw new RuntimeException("Error loading paginated expenses", e);
         }
-        
-        return new PagedResult<>(expenses, page, pageSize, totalCount);
+
+        // Relevance scores cannot be seeked on, so ranked results stay in page-number mode
+        if (expenses.isEmpty() || byRelevance) {
+            return new PagedResult<>(expenses, page, pageSize, totalCount);
+        }
+
+        // Hand out cursors so Next/Prev from a numbered page continue in keyset mode
+        int filterHash = filterHash(from, to, categoryId, minAmount, maxAmount, keyword, pageSize);
+        int totalPages = (int) Math.ceil((double) totalCount / pageSize);
+        String prevCursor = page > 1
+                ? cursorFor(expenses.get(0), PageCursor.Direction.PREVIOUS, safeCol, safeOrder, page - 1, totalCount, filterHash)
+                : null;
+        String nextCursor = page < totalPages
+                ? cursorFor(expenses.get(expenses.size() - 1), PageCursor.Direction.NEXT, safeCol, safeOrder, page + 1, totalCount, filterHash)
+                : null;
+
+        return new PagedResult<>(expenses, page, pageSize, totalCount, prevCursor, nextCursor);
+    }
+
+    /**
+     * Keyset (seek) pagination: instead of OFFSET, the page continues after/before the
+     * row encoded in the cursor token, so deep pages cost the same as the first one.
+     * The COUNT(*) runs only for the first page; later pages reuse the count carried in
+     * the token. A missing, malformed or stale token (filters/sort changed) restarts at page 1.
+     *
+     * Rows are ordered by the sort column, then by id in the opposite direction, which for
+     * the default date sort is exactly the idx_user_date_id (user_id, expense_date DESC, id) order.
+     *
+     * @param cursorToken - token from PagedResult#getNextCursor / #getPreviousCursor (nullable)
+     */
+    public PagedResult<Expense> findByUserIdAndFiltersKeyset(
+            Long userId,
+            LocalDate from,
+            LocalDate to,
+            Integer categoryId,
+            BigDecimal minAmount,
+            BigDecimal maxAmount,
+            String keyword,
+            int pageSize,
+            String sortBy,
+            String sortOrder,
+            String cursorToken) {
+
+        if (pageSize < 1) pageSize = 20;
+        if (pageSize > 100) pageSize = 100;
+
+        if (isRelevanceSort(sortBy, keyword)) {
+            PageCursor relevanceCursor = PageCursor.decode(cursorToken);
+            int page = relevanceCursor != null ? relevanceCursor.getPage() : 1;
+            return findByUserIdAndFiltersPaginated(userId, from, to, categoryId, minAmount, maxAmount, keyword,
+                    page, pageSize, sortBy, sortOrder);
+        }
+
+        StringBuilder whereClause = new StringBuilder("WHERE user_id = ?");
+        List<Object> params = new ArrayList<>();
+        params.add(userId);
+        appendFilters(whereClause, params, from, to, categoryId, minAmount, maxAmount, keyword);
+
+        String safeCol = resolveSortColumn(sortBy);
+        String safeOrder = resolveSortOrder(sortOrder);
+        int filterHash = filterHash(from, to, categoryId, minAmount, maxAmount, keyword, pageSize);
+
+        PageCursor cursor = PageCursor.decode(cursorToken);
+        Object seekValue = null;
+        if (cursor != null) {
+            boolean sameQuery = cursor.getFilterHash() == filterHash
+                    && cursor.getSortColumn().equals(safeCol)
+                    && cursor.getSortOrder().equals(safeOrder);
+            seekValue = sameQuery ? parseSortValue(safeCol, cursor.getLastValue()) : null;
+            if (seekValue == null) {
+                cursor = null; // Stale or tampered token – start over
+            }
+        }
+
+        long totalCount = cursor != null ? cursor.getTotalItems() : countMatching(whereClause, params);
+        if (cursor == null && totalCount == 0) {
+            return new PagedResult<>(new ArrayList<>(), 1, pageSize, 0);
+        }
+
+        int page = cursor != null ? cursor.getPage() : 1;
+        boolean backwards = cursor != null && cursor.getDirection() == PageCursor.Direction.PREVIOUS;
+        // Effective scan direction of the sort column (reversed when walking back)
+        boolean descending = "DESC".equals(safeOrder) != backwards;
+
+        if (cursor != null) {
+            if (descending) {
+                whereClause.append(" AND (").append(safeCol).append(" < ? OR (")
+                           .append(safeCol).append(" = ? AND id > ?))");
+            } else {
+                whereClause.append(" AND (").append(safeCol).append(" > ? OR (")
+                           .append(safeCol).append(" = ? AND id < ?))");
+            }
+            params.add(seekValue);
+            params.add(seekValue);
+            params.add(cursor.getLastId());
+        }
+
+        // One extra row tells us whether another page exists in the scan direction
+        String dataSql = "SELECT * FROM expenses " + whereClause + orderByClause(safeCol, descending) + " LIMIT ?";
+        params.add(pageSize + 1);
+
+        List<Expense> expenses = new ArrayList<>();
+        try (Connection conn = HikariCPDataSource.getConnection();
+             PreparedStatement ps = conn.prepareStatement(dataSql)) {
+
+            setParameters(ps, params);
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    expenses.add(mapRowToExpense(rs));
+                }
+            }
+        } catch (SQLException e) {
+            throw new RuntimeException("Error loading paginated expenses", e);
+        }
+
+        boolean more = expenses.size() > pageSize;
+        if (more) {
+            expenses.remove(expenses.size() - 1);
+        }
+        if (backwards) {
+            Collections.reverse(expenses);
+            // Keep the page number honest if rows were added/removed in the meantime
+            page = more ? Math.max(page, 2) : 1;
+        }
+
+        boolean hasPrevious = backwards ? more : page > 1;
+        boolean hasNext = backwards || more;
+
+        String prevCursor = null;
+        String nextCursor = null;
+        if (!expenses.isEmpty()) {
+            if (hasPrevious) {
+                prevCursor = cursorFor(expenses.get(0), PageCursor.Direction.PREVIOUS,
+                        safeCol, safeOrder, page - 1, totalCount, filterHash);
+            }
+            if (hasNext) {
+                nextCursor = cursorFor(expenses.get(expenses.size() - 1), PageCursor.Direction.NEXT,
+                        safeCol, safeOrder, page + 1, totalCount, filterHash);
+            }
+        }
+
+        return new PagedResult<>(expenses, page, pageSize, totalCount, prevCursor, nextCursor);
     }
 
 
@@ -506,7 +674,146 @@ public class ExpenseRepository {
             throw new RuntimeException("Error fetching earliest expense date", e);
         }
         // Return null if no expenses exist yet
-        return null; 
+        return null;
+    }
+
+    // 16. A report window and its comparison window in one round trip (CASE-bucketed GROUP BY).
+    // Current rows keep their day; previous rows collapse to one per category, dated prevFrom.
+    // The previous window must end before the current one starts.
+    public PeriodTotals findPeriodCategoryTotals(Long userId, LocalDate from, LocalDate to,
+                                                 LocalDate prevFrom, LocalDate prevTo, Integer categoryId) {
+        StringBuilder sql = new StringBuilder("""
+            SELECT CASE WHEN expense_date >= ? THEN expense_date ELSE ? END AS bucket,
+                   category_id, SUM(amount) AS total, COUNT(*) AS txn_count
+            FROM expenses
+            WHERE user_id = ?
+              AND ((expense_date >= ? AND expense_date <= ?) OR (expense_date >= ? AND expense_date <= ?))
+            """);
+
+        List<Object> params = new ArrayList<>();
+        params.add(Date.valueOf(from));
+        params.add(Date.valueOf(prevFrom));
+        params.add(userId);
+        params.add(Date.valueOf(from));
+        params.add(Date.valueOf(to));
+        params.add(Date.valueOf(prevFrom));
+        params.add(Date.valueOf(prevTo));
+        if (categoryId != null) {
+            sql.append(" AND category_id = ?");
+            params.add(categoryId);
+        }
+        sql.append(" GROUP BY bucket, category_id ORDER BY bucket");
+
+        List<DailyCategoryTotal> current = new ArrayList<>();
+        List<DailyCategoryTotal> previous = new ArrayList<>();
+        try (Connection conn = HikariCPDataSource.getConnection();
+             PreparedStatement ps = conn.prepareStatement(sql.toString())) {
+
+            setParameters(ps, params);
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    DailyCategoryTotal row = new DailyCategoryTotal(
+                            rs.getDate("bucket").toLocalDate(),
+                            rs.getInt("category_id"),
+                            rs.getBigDecimal("total"),
+                            rs.getInt("txn_count"));
+                    if (row.getDate().isBefore(from)) {
+                        previous.add(row);
+                    } else {
+                        current.add(row);
+                    }
+                }
+            }
+        } catch (SQLException e) {
+            throw new RuntimeException("Error aggregating report periods for user: " + userId, e);
+        }
+        return new PeriodTotals(current, previous);
+    }
+
+    // 16b. Total amount matching the full list filters (keyword / amount range included)
+    public BigDecimal sumAmountByUserIdAndFilters(Long userId, LocalDate from, LocalDate to, Integer categoryId,
+                                                  BigDecimal minAmount, BigDecimal maxAmount, String keyword) {
+        StringBuilder sql = new StringBuilder("SELECT SUM(amount) FROM expenses WHERE user_id = ?");
+        List<Object> params = new ArrayList<>();
+        params.add(userId);
+        appendFilters(sql, params, from, to, categoryId, minAmount, maxAmount, keyword);
+
+        try (Connection conn = HikariCPDataSource.getConnection();
+             PreparedStatement ps = conn.prepareStatement(sql.toString())) {
+
+            setParameters(ps, params);
+            try (ResultSet rs = ps.executeQuery()) {
+                if (rs.next()) {
+                    BigDecimal sum = rs.getBigDecimal(1);
+                    return sum != null ? sum : BigDecimal.ZERO;
+                }
+            }
+        } catch (SQLException e) {
+            throw new RuntimeException("Error summing filtered expenses for user: " + userId, e);
+        }
+        return BigDecimal.ZERO;
+    }
+
+    // 17. Top N expenses by amount with optional category filter.
+    // Ties keep the newest-first order that findByUserIdAndFilters returns.
+    public List<Expense> findTopExpensesByAmount(Long userId, LocalDate from, LocalDate to, Integer categoryId, int limit) {
+        StringBuilder sql = new StringBuilder("""
+            SELECT * FROM expenses
+            WHERE user_id = ? AND expense_date >= ? AND expense_date <= ?
+            """);
+
+        List<Object> params = new ArrayList<>();
+        params.add(userId);
+        params.add(Date.valueOf(from));
+        params.add(Date.valueOf(to));
+        if (categoryId != null) {
+            sql.append(" AND category_id = ?");
+            params.add(categoryId);
+        }
+        sql.append(" ORDER BY amount DESC, expense_date DESC LIMIT ?");
+        params.add(limit);
+
+        List<Expense> expenses = new ArrayList<>();
+        try (Connection conn = HikariCPDataSource.getConnection();
+             PreparedStatement ps = conn.prepareStatement(sql.toString())) {
+
+            setParameters(ps, params);
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    expenses.add(mapRowToExpense(rs));
+                }
+            }
+        } catch (SQLException e) {
+            throw new RuntimeException("Error loading top expenses for user: " + userId, e);
+        }
+        return expenses;
+    }
+
+    // 18. Most recent N expenses (dashboard), in the expense list's default order
+    // so it reads straight off idx_user_date_id (user_id, expense_date DESC, id).
+    public List<Expense> findRecentByUserId(Long userId, int limit) {
+        String sql = """
+            SELECT * FROM expenses
+            WHERE user_id = ?
+            ORDER BY expense_date DESC, id
+            LIMIT ?
+            """;
+
+        List<Expense> expenses = new ArrayList<>();
+        try (Connection conn = HikariCPDataSource.getConnection();
+             PreparedStatement ps = conn.prepareStatement(sql)) {
+
+            ps.setLong(1, userId);
+            ps.setInt(2, limit);
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    expenses.add(mapRowToExpense(rs));
+                }
+            }
+        } catch (SQLException e) {
+            throw new RuntimeException("Error loading recent expenses for user: " + userId, e);
+        }
+        return expenses;
     }
 
     // ==================================================================================
@@ -537,6 +844,123 @@ public class ExpenseRepository {
         if (sortOrder == null || sortOrder.isBlank()) return "DESC";
         return sortOrder.equalsIgnoreCase("ASC") ? "ASC" : "DESC";
     }
+    // Helper: reads and row-locks the current version of an expense inside a transaction
+    private Optional<Expense> lockForUpdate(Connection conn, Long expenseId, Long userId) throws SQLException {
+        String sql = "SELECT * FROM expenses WHERE id = ? AND user_id = ? FOR UPDATE";
+        try (PreparedStatement ps = conn.prepareStatement(sql)) {
+            ps.setLong(1, expenseId);
+            ps.setLong(2, userId);
+            try (ResultSet rs = ps.executeQuery()) {
+                return rs.next() ? Optional.of(mapRowToExpense(rs)) : Optional.empty();
+            }
+        }
+    }
+
+    // Helper: applies a rollup delta and records it for the post-commit snapshot patch
+    private void applyRollupDelta(Connection conn, List<DailyCategoryTotal> deltas, Long userId, int categoryId,
+                                  LocalDate expenseDate, BigDecimal amountDelta, int countDelta) throws SQLException {
+        rollupRepository.applyDelta(conn, userId, categoryId, expenseDate, amountDelta, countDelta);
+        deltas.add(new DailyCategoryTotal(expenseDate, categoryId, amountDelta, countDelta));
+    }
+
+    /**
+     * Appends the optional list filters shared by the list, paginated and keyset queries.
+     */
+    private void appendFilters(StringBuilder whereClause, List<Object> params, LocalDate from, LocalDate to,
+                               Integer categoryId, BigDecimal minAmount, BigDecimal maxAmount, String keyword) {
+        if (from != null) {
+            whereClause.append(" AND expense_date >= ?");
+            params.add(Date.valueOf(from));
+        }
+        if (to != null) {
+            whereClause.append(" AND expense_date <= ?");
+            params.add(Date.valueOf(to));
+        }
+        if (categoryId != null) {
+            whereClause.append(" AND category_id = ?");
+            params.add(categoryId);
+        }
+        // Amount Range Filters --
+        if (minAmount != null) {
+            whereClause.append(" AND amount >= ?");
+            params.add(minAmount);
+        }
+        if (maxAmount != null) {
+            whereClause.append(" AND amount <= ?");
+            params.add(maxAmount);
+        }
+        // Keyword Search (FULLTEXT on MySQL, LIKE fallback elsewhere) --
+        DescriptionSearch.appendKeywordFilter(whereClause, params, keyword);
+    }
+
+    /**
+     * Relevance ranking applies to keyword searches that did not ask for a specific column.
+     */
+    private boolean isRelevanceSort(String sortBy, String keyword) {
+        boolean hasKeyword = keyword != null && !keyword.trim().isEmpty();
+        return hasKeyword && (sortBy == null || sortBy.isBlank() || sortBy.trim().equalsIgnoreCase("relevance"));
+    }
+
+    private long countMatching(CharSequence whereClause, List<Object> params) {
+        String countSql = "SELECT COUNT(*) FROM expenses " + whereClause;
+        try (Connection conn = HikariCPDataSource.getConnection();
+             PreparedStatement ps = conn.prepareStatement(countSql)) {
+
+            setParameters(ps, params);
+            try (ResultSet rs = ps.executeQuery()) {
+                return rs.next() ? rs.getLong(1) : 0;
+            }
+        } catch (SQLException e) {
+            throw new RuntimeException("Error counting expenses", e);
+        }
+    }
+
+    /**
+     * Total order used by both pagination modes: sort column, then id in the opposite
+     * direction so the date sort walks idx_user_date_id without a filesort.
+     */
+    private String orderByClause(String safeCol, boolean descending) {
+        return descending
+                ? " ORDER BY " + safeCol + " DESC, id ASC"
+                : " ORDER BY " + safeCol + " ASC, id DESC";
+    }
+
+    private int filterHash(LocalDate from, LocalDate to, Integer categoryId, BigDecimal minAmount,
+                           BigDecimal maxAmount, String keyword, int pageSize) {
+        String normalizedKeyword = (keyword != null && !keyword.trim().isEmpty()) ? keyword.trim().toLowerCase() : null;
+        return Objects.hash(from, to, categoryId,
+                minAmount != null ? minAmount.toPlainString() : null,
+                maxAmount != null ? maxAmount.toPlainString() : null,
+                normalizedKeyword, pageSize);
+    }
+
+    private String cursorFor(Expense edge, PageCursor.Direction direction, String safeCol, String safeOrder,
+                             int page, long totalCount, int filterHash) {
+        String value = switch (safeCol) {
+            case "amount" -> edge.getAmount().toPlainString();
+            case "category_id" -> String.valueOf(edge.getCategoryId());
+            case "description" -> edge.getDescription();
+            default -> edge.getExpenseDate().toString();
+        };
+        return new PageCursor(direction, safeCol, safeOrder, value, edge.getId(), page, totalCount, filterHash).encode();
+    }
+
+    /**
+     * Converts a cursor's sort value back into a JDBC parameter; null if it does not parse.
+     */
+    private Object parseSortValue(String safeCol, String value) {
+        try {
+            return switch (safeCol) {
+                case "amount" -> new BigDecimal(value);
+                case "category_id" -> Integer.valueOf(value);
+                case "description" -> value;
+                default -> Date.valueOf(LocalDate.parse(value));
+            };
+        } catch (RuntimeException e) {
+            return null;
+        }
+    }
+
     private void setParameters(PreparedStatement ps, List<Object> params) throws SQLException {
         for (int i = 0; i < params.size(); i++) {
             ps.setObject(i + 1, params.get(i));
@@ -0,0 +1,277 @@
+package com.expensetracker.repository;
+
+import com.expensetracker.dto.ExportFilter;
+import com.expensetracker.model.ExportJob;
+import com.expensetracker.util.HikariCPDataSource;
+
+import java.sql.*;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+public class ExportJobRepository {
+
+    public ExportJob save(ExportJob job) {
+        String sql = """
+                INSERT INTO export_jobs (id, user_id, format, date_from, date_to, category_id,
+                                         min_amount, max_amount, keyword, status, created_at)
+                VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)
+                """;
+
+        if (job.getCreatedAt() == null) {
+            job.setCreatedAt(LocalDateTime.now());
+        }
+        ExportFilter filter = job.getFilter();
+
+        try (Connection conn = HikariCPDataSource.getConnection();
+             PreparedStatement ps = conn.prepareStatement(sql)) {
+
+            ps.setString(1, job.getId());
+            ps.setLong(2, job.getUserId());
+            ps.setString(3, job.getFormat());
+            ps.setDate(4, filter.getFrom() != null ? Date.valueOf(filter.getFrom()) : null);
+            ps.setDate(5, filter.getTo() != null ? Date.valueOf(filter.getTo()) : null);
+            ps.setObject(6, filter.getCategoryId(), Types.INTEGER);
+            ps.setBigDecimal(7, filter.getMinAmount());
+            ps.setBigDecimal(8, filter.getMaxAmount());
+            ps.setString(9, filter.getKeyword());
+            ps.setString(10, job.getStatus().name());
+            ps.setTimestamp(11, Timestamp.valueOf(job.getCreatedAt()));
+
+            ps.executeUpdate();
+            return job;
+        } catch (SQLException e) {
+            throw new RuntimeException("Error saving export job for user: " + job.getUserId(), e);
+        }
+    }
+
+    public Optional<ExportJob> findByIdAndUserId(String id, Long userId) {
+        String sql = "SELECT * FROM export_jobs WHERE id = ? AND user_id = ?";
+
+        try (Connection conn = HikariCPDataSource.getConnection();
+             PreparedStatement ps = conn.prepareStatement(sql)) {
+
+            ps.setString(1, id);
+            ps.setLong(2, userId);
+            try (ResultSet rs = ps.executeQuery()) {
+                if (rs.next()) {
+                    return Optional.of(mapRowToExportJob(rs));
+                }
+            }
+        } catch (SQLException e) {
+            throw new RuntimeException("Error finding export job: " + id, e);
+        }
+        return Optional.empty();
+    }
+
+    public Optional<ExportJob> findById(String id) {
+        String sql = "SELECT * FROM export_jobs WHERE id = ?";
+
+        try (Connection conn = HikariCPDataSource.getConnection();
+             PreparedStatement ps = conn.prepareStatement(sql)) {
+
+            ps.setString(1, id);
+            try (ResultSet rs = ps.executeQuery()) {
+                if (rs.next()) {
+                    return Optional.of(mapRowToExportJob(rs));
+                }
+            }
+        } catch (SQLException e) {
+            throw new RuntimeException("Error finding export job: " + id, e);
+        }
+        return Optional.empty();
+    }
+
+    public List<ExportJob> findRecentByUserId(Long userId, int limit) {
+        String sql = "SELECT * FROM export_jobs WHERE user_id = ? ORDER BY created_at DESC LIMIT ?";
+        List<ExportJob> jobs = new ArrayList<>();
+
+        try (Connection conn = HikariCPDataSource.getConnection();
+             PreparedStatement ps = conn.prepareStatement(sql)) {
+
+            ps.setLong(1, userId);
+            ps.setInt(2, limit);
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    jobs.add(mapRowToExportJob(rs));
+                }
+            }
+        } catch (SQLException e) {
+            throw new RuntimeException("Error listing export jobs for user: " + userId, e);
+        }
+        return jobs;
+    }
+
+    // Jobs that still occupy one of the user's concurrent export slots
+    public int countActiveByUserId(Long userId) {
+        String sql = "SELECT COUNT(*) FROM export_jobs WHERE user_id = ? AND status IN ('QUEUED', 'RUNNING')";
+
+        try (Connection conn = HikariCPDataSource.getConnection();
+             PreparedStatement ps = conn.prepareStatement(sql)) {
+
+            ps.setLong(1, userId);
+            try (ResultSet rs = ps.executeQuery()) {
+                return rs.next() ? rs.getInt(1) : 0;
+            }
+        } catch (SQLException e) {
+            throw new RuntimeException("Error counting export jobs for user: " + userId, e);
+        }
+    }
+
+    /**
+     * Claims a queued job. Returns false if it was already claimed (or is gone),
+     * so a job re-queued after a restart is never rendered twice.
+     */
+    public boolean markRunning(String id) {
+        String sql = "UPDATE export_jobs SET status = 'RUNNING', started_at = ? WHERE id = ? AND status = 'QUEUED'";
+
+        try (Connection conn = HikariCPDataSource.getConnection();
+             PreparedStatement ps = conn.prepareStatement(sql)) {
+
+            ps.setTimestamp(1, Timestamp.valueOf(LocalDateTime.now()));
+            ps.setString(2, id);
+            return ps.executeUpdate() == 1;
+        } catch (SQLException e) {
+            throw new RuntimeException("Error starting export job: " + id, e);
+        }
+    }
+
+    public void markDone(String id, String filePath, long fileSize, long rowCount, LocalDateTime expiresAt) {
+        String sql = """
+                UPDATE export_jobs
+                SET status = 'DONE', file_path = ?, file_size = ?, row_count = ?, finished_at = ?, expires_at = ?
+                WHERE id = ?
+                """;
+
+        try (Connection conn = HikariCPDataSource.getConnection();
+             PreparedStatement ps = conn.prepareStatement(sql)) {
+
+            ps.setString(1, filePath);
+            ps.setLong(2, fileSize);
+            ps.setLong(3, rowCount);
+            ps.setTimestamp(4, Timestamp.valueOf(LocalDateTime.now()));
+            ps.setTimestamp(5, Timestamp.valueOf(expiresAt));
+            ps.setString(6, id);
+            ps.executeUpdate();
+        } catch (SQLException e) {
+            throw new RuntimeException("Error completing export job: " + id, e);
+        }
+    }
+
+    public void markFailed(String id, String errorMessage, LocalDateTime expiresAt) {
+        String sql = """
+                UPDATE export_jobs
+                SET status = 'FAILED', error_message = ?, finished_at = ?, expires_at = ?
+                WHERE id = ?
+                """;
+
+        try (Connection conn = HikariCPDataSource.getConnection();
+             PreparedStatement ps = conn.prepareStatement(sql)) {
+
+            ps.setString(1, truncate(errorMessage, 255));
+            ps.setTimestamp(2, Timestamp.valueOf(LocalDateTime.now()));
+            ps.setTimestamp(3, Timestamp.valueOf(expiresAt));
+            ps.setString(4, id);
+            ps.executeUpdate();
+        } catch (SQLException e) {
+            throw new RuntimeException("Error failing export job: " + id, e);
+        }
+    }
+
+    /**
+     * Puts jobs that were RUNNING when the application stopped back in the queue.
+     * @return number of jobs re-queued
+     */
+    public int requeueInterrupted() {
+        String sql = "UPDATE export_jobs SET status = 'QUEUED', started_at = NULL WHERE status = 'RUNNING'";
+
+        try (Connection conn = HikariCPDataSource.getConnection();
+             PreparedStatement ps = conn.prepareStatement(sql)) {
+            return ps.executeUpdate();
+        } catch (SQLException e) {
+            throw new RuntimeException("Error re-queuing interrupted export jobs", e);
+        }
+    }
+
+    public List<String> findQueuedIds() {
+        String sql = "SELECT id FROM export_jobs WHERE status = 'QUEUED' ORDER BY created_at ASC";
+        List<String> ids = new ArrayList<>();
+
+        try (Connection conn = HikariCPDataSource.getConnection();
+             PreparedStatement ps = conn.prepareStatement(sql);
+             ResultSet rs = ps.executeQuery()) {
+            while (rs.next()) {
+                ids.add(rs.getString("id"));
+            }
+        } catch (SQLException e) {
+            throw new RuntimeException("Error finding queued export jobs", e);
+        }
+        return ids;
+    }
+
+    public List<ExportJob> findExpired(LocalDateTime now) {
+        String sql = "SELECT * FROM export_jobs WHERE status IN ('DONE', 'FAILED') AND expires_at < ?";
+        List<ExportJob> jobs = new ArrayList<>();
+
+        try (Connection conn = HikariCPDataSource.getConnection();
+             PreparedStatement ps = conn.prepareStatement(sql)) {
+
+            ps.setTimestamp(1, Timestamp.valueOf(now));
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    jobs.add(mapRowToExportJob(rs));
+                }
+            }
+        } catch (SQLException e) {
+            throw new RuntimeException("Error finding expired export jobs", e);
+        }
+        return jobs;
+    }
+
+    public boolean deleteById(String id) {
+        String sql = "DELETE FROM export_jobs WHERE id = ?";
+
+        try (Connection conn = HikariCPDataSource.getConnection();
+             PreparedStatement ps = conn.prepareStatement(sql)) {
+
+            ps.setString(1, id);
+            return ps.executeUpdate() > 0;
+        } catch (SQLException e) {
+            throw new RuntimeException("Error deleting export job: " + id, e);
+        }
+    }
+
+    private String truncate(String value, int maxLength) {
+        if (value == null || value.length() <= maxLength) return value;
+        return value.substring(0, maxLength);
+    }
+
+    private ExportJob mapRowToExportJob(ResultSet rs) throws SQLException {
+        ExportFilter filter = new ExportFilter();
+        Date from = rs.getDate("date_from");
+        if (from != null) filter.setFrom(from.toLocalDate());
+        Date to = rs.getDate("date_to");
+        if (to != null) filter.setTo(to.toLocalDate());
+        filter.setCategoryId(rs.getObject("category_id") != null ? rs.getInt("category_id") : null);
+        filter.setMinAmount(rs.getBigDecimal("min_amount"));
+        filter.setMaxAmount(rs.getBigDecimal("max_amount"));
+        filter.setKeyword(rs.getString("keyword"));
+
+        ExportJob job = new ExportJob(rs.getString("id"), rs.getLong("user_id"), rs.getString("format"), filter);
+        job.setStatus(ExportJob.Status.valueOf(rs.getString("status")));
+        job.setFilePath(rs.getString("file_path"));
+        job.setFileSize(rs.getObject("file_size") != null ? rs.getLong("file_size") : null);
+        job.setRowCount(rs.getObject("row_count") != null ? rs.getLong("row_count") : null);
+        job.setErrorMessage(rs.getString("error_message"));
+        job.setCreatedAt(toLocalDateTime(rs.getTimestamp("created_at")));
+        job.setStartedAt(toLocalDateTime(rs.getTimestamp("started_at")));
+        job.setFinishedAt(toLocalDateTime(rs.getTimestamp("finished_at")));
+        job.setExpiresAt(toLocalDateTime(rs.getTimestamp("expires_at")));
+        return job;
+    }
+
+    private LocalDateTime toLocalDateTime(Timestamp ts) {
+        return ts != null ? ts.toLocalDateTime() : null;
+    }
+}
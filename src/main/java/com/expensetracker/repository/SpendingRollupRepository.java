@@ -0,0 +1,423 @@
+package com.expensetracker.repository;
+
+import com.expensetracker.dto.BudgetWindow;
+import com.expensetracker.dto.DailyCategoryTotal;
+import com.expensetracker.service.TransactionManager;
+import com.expensetracker.util.ConfigLoader;
+import com.expensetracker.util.ExpenseSnapshot;
+import com.expensetracker.util.HikariCPDataSource;
+import com.expensetracker.util.Money;
+import com.expensetracker.util.TtlCache;
+
+import java.math.BigDecimal;
+import java.sql.*;
+import java.time.LocalDate;
+import java.time.temporal.TemporalAdjusters;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Reads and maintains the per-user/category spend rollups
+ * (user_category_day_totals and user_category_month_totals, see V10).
+ *
+ * The write methods take the caller's Connection so that ExpenseRepository can
+ * apply deltas inside the same transaction as the expense change itself.
+ */
+public class SpendingRollupRepository {
+
+    // Per-user columnar copies of the day rollup for in-memory analytics. Expense writes
+    // patch the user's entry after commit (see patchSnapshot); the TTL bounds staleness
+    // across app instances.
+    private static final TtlCache<Long, ExpenseSnapshot> SNAPSHOTS = new TtlCache<>(
+            ConfigLoader.getInt("cache.snapshots.max.users", 1_000),
+            ConfigLoader.getInt("cache.snapshots.ttl.seconds", 300), TimeUnit.SECONDS);
+
+    // ==================================================================================
+    // WRITE PATH (called inside ExpenseRepository transactions)
+    // ==================================================================================
+
+    /**
+     * Adds (or with negative values, removes) an amount and transaction count
+     * to the day and month buckets of a single expense.
+     */
+    public void applyDelta(Connection conn, Long userId, int categoryId, LocalDate expenseDate,
+                           BigDecimal amountDelta, int countDelta) throws SQLException {
+        String daySql = """
+            INSERT INTO user_category_day_totals (user_id, category_id, expense_date, total, txn_count)
+            VALUES (?, ?, ?, ?, ?)
+            ON DUPLICATE KEY UPDATE total = total + VALUES(total), txn_count = txn_count + VALUES(txn_count)
+            """;
+        String monthSql = """
+            INSERT INTO user_category_month_totals (user_id, category_id, month_start, total, txn_count)
+            VALUES (?, ?, ?, ?, ?)
+            ON DUPLICATE KEY UPDATE total = total + VALUES(total), txn_count = txn_count + VALUES(txn_count)
+            """;
+
+        upsert(conn, daySql, userId, categoryId, expenseDate, amountDelta, countDelta);
+        upsert(conn, monthSql, userId, categoryId, expenseDate.withDayOfMonth(1), amountDelta, countDelta);
+
+        // Drop emptied buckets so readers never see zero-count rows
+        if (countDelta < 0) {
+            deleteEmpty(conn, "DELETE FROM user_category_day_totals " +
+                    "WHERE user_id = ? AND category_id = ? AND expense_date = ? AND txn_count <= 0",
+                    userId, categoryId, expenseDate);
+            deleteEmpty(conn, "DELETE FROM user_category_month_totals " +
+                    "WHERE user_id = ? AND category_id = ? AND month_start = ? AND txn_count <= 0",
+                    userId, categoryId, expenseDate.withDayOfMonth(1));
+        }
+    }
+
+    /**
+     * Recomputes both rollups for one user from the expenses table.
+     */
+    public void rebuildForUser(Long userId) {
+        TransactionManager.executeInTransaction(conn -> {
+            executeForUser(conn, "DELETE FROM user_category_day_totals WHERE user_id = ?", userId);
+            executeForUser(conn, "DELETE FROM user_category_month_totals WHERE user_id = ?", userId);
+            executeForUser(conn, """
+                INSERT INTO user_category_day_totals (user_id, category_id, expense_date, total, txn_count)
+                SELECT user_id, category_id, expense_date, SUM(amount), COUNT(*)
+                FROM expenses WHERE user_id = ?
+                GROUP BY user_id, category_id, expense_date
+                """, userId);
+            executeForUser(conn, """
+                INSERT INTO user_category_month_totals (user_id, category_id, month_start, total, txn_count)
+                SELECT user_id, category_id, DATE_FORMAT(expense_date, '%Y-%m-01'), SUM(amount), COUNT(*)
+                FROM expenses WHERE user_id = ?
+                GROUP BY user_id, category_id, DATE_FORMAT(expense_date, '%Y-%m-01')
+                """, userId);
+        });
+        SNAPSHOTS.invalidate(userId);
+    }
+
+    /**
+     * Ids of every user that owns at least one expense or rollup row (used by the backfill command).
+     */
+    public List<Long> findUserIdsToRebuild() {
+        String sql = """
+            SELECT user_id FROM expenses
+            UNION
+            SELECT user_id FROM user_category_day_totals
+            """;
+
+        List<Long> ids = new ArrayList<>();
+        try (Connection conn = HikariCPDataSource.getConnection();
+             PreparedStatement ps = conn.prepareStatement(sql);
+             ResultSet rs = ps.executeQuery()) {
+            while (rs.next()) {
+                ids.add(rs.getLong(1));
+            }
+        } catch (SQLException e) {
+            throw new RuntimeException("Error listing users for rollup rebuild", e);
+        }
+        return ids;
+    }
+
+    // ==================================================================================
+    // SNAPSHOT CACHE
+    // ==================================================================================
+
+    /**
+     * The user's whole day rollup as primitive columns, loaded once and then served from memory.
+     */
+    public ExpenseSnapshot findSnapshot(Long userId) {
+        return SNAPSHOTS.get(userId, this::loadSnapshot);
+    }
+
+    /**
+     * Clock reading to take before an expense write whose deltas will be passed to {@link #patchSnapshot}.
+     */
+    public static long snapshotClock() {
+        return SNAPSHOTS.now();
+    }
+
+    /**
+     * Applies committed rollup deltas (date, category, amount, count) to the user's cached snapshot.
+     * A snapshot loaded after the write began may already include them and is dropped instead.
+     */
+    public void patchSnapshot(Long userId, long writeStartedAt, List<DailyCategoryTotal> deltas) {
+        SNAPSHOTS.update(userId, writeStartedAt, snapshot -> {
+            for (DailyCategoryTotal delta : deltas) {
+                snapshot = snapshot.withDelta(delta.getDate(), delta.getCategoryId(),
+                        Money.toCents(delta.getTotal()), delta.getTransactionCount());
+            }
+            return snapshot;
+        });
+    }
+
+    public static TtlCache<Long, ExpenseSnapshot> snapshots() {
+        return SNAPSHOTS;
+    }
+
+    private ExpenseSnapshot loadSnapshot(Long userId) {
+        String sql = """
+            SELECT expense_date, category_id, total, txn_count
+            FROM user_category_day_totals
+            WHERE user_id = ?
+            ORDER BY expense_date, category_id
+            """;
+
+        int size = 0;
+        int[] days = new int[256];
+        int[] categories = new int[256];
+        long[] cents = new long[256];
+        int[] counts = new int[256];
+        try (Connection conn = HikariCPDataSource.getConnection();
+             PreparedStatement ps = conn.prepareStatement(sql)) {
+
+            ps.setLong(1, userId);
+            ps.setFetchSize(HikariCPDataSource.streamingFetchSize());
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    if (size == days.length) {
+                        int grown = size * 2;
+                        days = Arrays.copyOf(days, grown);
+                        categories = Arrays.copyOf(categories, grown);
+                        cents = Arrays.copyOf(cents, grown);
+                        counts = Arrays.copyOf(counts, grown);
+                    }
+                    days[size] = Math.toIntExact(rs.getDate(1).toLocalDate().toEpochDay());
+                    categories[size] = rs.getInt(2);
+                    cents[size] = Money.toCents(rs.getBigDecimal(3));
+                    counts[size] = rs.getInt(4);
+                    size++;
+                }
+            }
+        } catch (SQLException e) {
+            throw new RuntimeException("Error loading spend snapshot for user: " + userId, e);
+        }
+        return new ExpenseSnapshot(Arrays.copyOf(days, size), Arrays.copyOf(categories, size),
+                Arrays.copyOf(cents, size), Arrays.copyOf(counts, size));
+    }
+
+    // ==================================================================================
+    // READ PATH
+    // ==================================================================================
+
+    /**
+     * Monthly totals per category; the returned date is the first day of the month.
+     */
+    public List<DailyCategoryTotal> findMonthlyCategoryTotals(Long userId, LocalDate fromMonth, LocalDate toMonth) {
+        String sql = """
+            SELECT month_start, category_id, total, txn_count
+            FROM user_category_month_totals
+            WHERE user_id = ? AND month_start >= ? AND month_start <= ?
+            ORDER BY month_start
+            """;
+        return findTotals(sql, userId, fromMonth.withDayOfMonth(1), toMonth.withDayOfMonth(1));
+    }
+
+    /**
+     * Daily totals per category for an inclusive date range.
+     */
+    public List<DailyCategoryTotal> findDailyCategoryTotals(Long userId, LocalDate from, LocalDate to) {
+        String sql = """
+            SELECT expense_date, category_id, total, txn_count
+            FROM user_category_day_totals
+            WHERE user_id = ? AND expense_date >= ? AND expense_date <= ?
+            ORDER BY expense_date
+            """;
+        return findTotals(sql, userId, from, to);
+    }
+
+    /**
+     * All-time totals per category (one row per category the user has spent in),
+     * folded from the month rollup. The returned date is the first month with spend.
+     */
+    public List<DailyCategoryTotal> findLifetimeCategoryTotals(Long userId) {
+        String sql = """
+            SELECT MIN(month_start), category_id, SUM(total), SUM(txn_count)
+            FROM user_category_month_totals
+            WHERE user_id = ?
+            GROUP BY category_id
+            """;
+
+        List<DailyCategoryTotal> rows = new ArrayList<>();
+        try (Connection conn = HikariCPDataSource.getConnection();
+             PreparedStatement ps = conn.prepareStatement(sql)) {
+
+            ps.setLong(1, userId);
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    rows.add(new DailyCategoryTotal(
+                            rs.getDate(1).toLocalDate(),
+                            rs.getInt(2),
+                            rs.getBigDecimal(3),
+                            rs.getInt(4)));
+                }
+            }
+        } catch (SQLException e) {
+            throw new RuntimeException("Error reading spend rollup for user: " + userId, e);
+        }
+        return rows;
+    }
+
+    /**
+     * Spend for one category over an inclusive range. Whole calendar months are read
+     * from the month rollup, the partial months at either edge from the day rollup.
+     */
+    public BigDecimal sumAmountByCategoryAndDateRange(Long userId, Integer categoryId, LocalDate from, LocalDate to) {
+        if (from.isAfter(to)) {
+            return BigDecimal.ZERO;
+        }
+
+        LocalDate firstFullMonth = from.getDayOfMonth() == 1 ? from : from.with(TemporalAdjusters.firstDayOfNextMonth());
+        LocalDate lastFullMonthEnd = to.equals(to.with(TemporalAdjusters.lastDayOfMonth()))
+                ? to
+                : to.withDayOfMonth(1).minusDays(1);
+
+        StringBuilder sql = new StringBuilder("SELECT SUM(total) FROM (");
+        List<Object> params = new ArrayList<>();
+
+        if (firstFullMonth.isAfter(lastFullMonthEnd)) {
+            // No complete month inside the range – the day rollup covers it all
+            sql.append("SELECT total FROM user_category_day_totals " +
+                       "WHERE user_id = ? AND category_id = ? AND expense_date >= ? AND expense_date <= ?");
+            params.add(userId);
+            params.add(categoryId);
+            params.add(Date.valueOf(from));
+            params.add(Date.valueOf(to));
+        } else {
+            sql.append("SELECT total FROM user_category_month_totals " +
+                       "WHERE user_id = ? AND category_id = ? AND month_start >= ? AND month_start <= ?");
+            params.add(userId);
+            params.add(categoryId);
+            params.add(Date.valueOf(firstFullMonth));
+            params.add(Date.valueOf(lastFullMonthEnd.withDayOfMonth(1)));
+
+            sql.append(" UNION ALL SELECT total FROM user_category_day_totals " +
+                       "WHERE user_id = ? AND category_id = ? " +
+                       "AND ((expense_date >= ? AND expense_date < ?) OR (expense_date > ? AND expense_date <= ?))");
+            params.add(userId);
+            params.add(categoryId);
+            params.add(Date.valueOf(from));
+            params.add(Date.valueOf(firstFullMonth));
+            params.add(Date.valueOf(lastFullMonthEnd));
+            params.add(Date.valueOf(to));
+        }
+        sql.append(") spend");
+
+        try (Connection conn = HikariCPDataSource.getConnection();
+             PreparedStatement ps = conn.prepareStatement(sql.toString())) {
+
+            for (int i = 0; i < params.size(); i++) {
+                ps.setObject(i + 1, params.get(i));
+            }
+            try (ResultSet rs = ps.executeQuery()) {
+                if (rs.next()) {
+                    BigDecimal sum = rs.getBigDecimal(1);
+                    return sum != null ? sum : BigDecimal.ZERO;
+                }
+            }
+        } catch (SQLException e) {
+            throw new RuntimeException("Error reading spend rollup for user: " + userId, e);
+        }
+        return BigDecimal.ZERO;
+    }
+
+    /**
+     * Spend for several budgets in one round trip: the budget windows are sent as a
+     * derived table and joined to the day rollup, grouped by budget.
+     * Budgets with no spend in their window are absent from the result.
+     */
+    public Map<Long, BigDecimal> sumAmountByBudgetWindows(Long userId, List<BudgetWindow> windows) {
+        Map<Long, BigDecimal> spent = new HashMap<>();
+        if (windows.isEmpty()) {
+            return spent;
+        }
+
+        StringBuilder sql = new StringBuilder("SELECT w.budget_id, SUM(d.total) AS spent FROM (");
+        List<Object> params = new ArrayList<>();
+        for (int i = 0; i < windows.size(); i++) {
+            BudgetWindow window = windows.get(i);
+            if (i > 0) sql.append(" UNION ALL ");
+            sql.append("SELECT CAST(? AS SIGNED) AS budget_id, CAST(? AS SIGNED) AS category_id, " +
+                       "CAST(? AS DATE) AS start_date, CAST(? AS DATE) AS end_date");
+            params.add(window.getBudgetId());
+            params.add(window.getCategoryId());
+            params.add(Date.valueOf(window.getStart()));
+            params.add(Date.valueOf(window.getEnd()));
+        }
+        sql.append(") w JOIN user_category_day_totals d " +
+                   "ON d.user_id = ? AND d.category_id = w.category_id " +
+                   "AND d.expense_date >= w.start_date AND d.expense_date <= w.end_date " +
+                   "GROUP BY w.budget_id");
+        params.add(userId);
+
+        try (Connection conn = HikariCPDataSource.getConnection();
+             PreparedStatement ps = conn.prepareStatement(sql.toString())) {
+
+            for (int i = 0; i < params.size(); i++) {
+                ps.setObject(i + 1, params.get(i));
+            }
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    spent.put(rs.getLong("budget_id"), rs.getBigDecimal("spent"));
+                }
+            }
+        } catch (SQLException e) {
+            throw new RuntimeException("Error reading budget spend for user: " + userId, e);
+        }
+        return spent;
+    }
+
+    // ==================================================================================
+    // HELPERS
+    // ==================================================================================
+
+    private List<DailyCategoryTotal> findTotals(String sql, Long userId, LocalDate from, LocalDate to) {
+        List<DailyCategoryTotal> rows = new ArrayList<>();
+        try (Connection conn = HikariCPDataSource.getConnection();
+             PreparedStatement ps = conn.prepareStatement(sql)) {
+
+            ps.setLong(1, userId);
+            ps.setDate(2, Date.valueOf(from));
+            ps.setDate(3, Date.valueOf(to));
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    rows.add(new DailyCategoryTotal(
+                            rs.getDate(1).toLocalDate(),
+                            rs.getInt(2),
+                            rs.getBigDecimal(3),
+                            rs.getInt(4)));
+                }
+            }
+        } catch (SQLException e) {
+            throw new RuntimeException("Error reading spend rollup for user: " + userId, e);
+        }
+        return rows;
+    }
+
+    private void upsert(Connection conn, String sql, Long userId, int categoryId, LocalDate bucket,
+                        BigDecimal amount, int count) throws SQLException {
+        try (PreparedStatement ps = conn.prepareStatement(sql)) {
+            ps.setLong(1, userId);
+            ps.setInt(2, categoryId);
+            ps.setDate(3, Date.valueOf(bucket));
+            ps.setBigDecimal(4, amount);
+            ps.setInt(5, count);
+            ps.executeUpdate();
+        }
+    }
+
+    private void deleteEmpty(Connection conn, String sql, Long userId, int categoryId, LocalDate bucket)
+            throws SQLException {
+        try (PreparedStatement ps = conn.prepareStatement(sql)) {
+            ps.setLong(1, userId);
+            ps.setInt(2, categoryId);
+            ps.setDate(3, Date.valueOf(bucket));
+            ps.executeUpdate();
+        }
+    }
+
+    private void executeForUser(Connection conn, String sql, Long userId) throws SQLException {
+        try (PreparedStatement ps = conn.prepareStatement(sql)) {
+            ps.setLong(1, userId);
+            ps.executeUpdate();
+        }
+    }
+}
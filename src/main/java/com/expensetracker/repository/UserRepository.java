@@ -1,23 +1,72 @@
 package com.expensetracker.repository;
 
+import com.expensetracker.model.Principal;
 import com.expensetracker.model.User;
 import com.expensetracker.util.ConfigLoader;
 import com.expensetracker.util.HikariCPDataSource;
+import com.expensetracker.util.TtlCache;
 
 import java.sql.*;
 import java.time.LocalDateTime;
 import java.time.ZoneOffset;
+import java.util.Locale;
 import java.util.Optional;
+import java.util.concurrent.TimeUnit;
 
 public class UserRepository {
 
+    // Column lists: nothing reads the remember/reset token columns back, and the session only
+    // ever needs the principal
+    private static final String PRINCIPAL_COLUMNS =
+            "id, username, full_name, email, email_verified, legacy_unverified";
+    private static final String ACCOUNT_COLUMNS = PRINCIPAL_COLUMNS
+            + ", password, phone, created_at, updated_at, verification_token_hash, token_created_at";
+
+    // Remember-me logins (AuthenticationFilter), keyed by token hash, so a restart does not send
+    // every returning user to the database at once. Tokens that matched nothing are remembered
+    // in their own, smaller cache so a flood of bogus cookies cannot push out the valid ones.
+    private static final TtlCache<String, RememberedLogin> REMEMBER_TOKENS = new TtlCache<>(
+            ConfigLoader.getInt("cache.remember.max.tokens", 50_000),
+            ConfigLoader.getInt("cache.remember.ttl.seconds", 300), TimeUnit.SECONDS);
+    private static final TtlCache<String, Boolean> INVALID_REMEMBER_TOKENS = new TtlCache<>(
+            ConfigLoader.getInt("cache.remember.invalid.max.tokens", 10_000),
+            ConfigLoader.getInt("cache.remember.invalid.ttl.seconds", 60), TimeUnit.SECONDS);
+
+    // Principals rebuilt from a signed session cookie on a node that has no session for them
+    private static final TtlCache<Long, Principal> SESSION_USERS = new TtlCache<>(
+            ConfigLoader.getInt("cache.session.users.max", 50_000),
+            ConfigLoader.getInt("cache.session.users.ttl.seconds", 300), TimeUnit.SECONDS);
+
+    private static final class RememberedLogin {
+        final Principal principal;
+        final LocalDateTime expiresAt;
+
+        RememberedLogin(Principal principal, LocalDateTime expiresAt) {
+            this.principal = principal;
+            this.expiresAt = expiresAt;
+        }
+    }
+
+    public static TtlCache<String, ?> rememberTokens() {
+        return REMEMBER_TOKENS;
+    }
+
+    public static TtlCache<String, ?> invalidRememberTokens() {
+        return INVALID_REMEMBER_TOKENS;
+    }
+
+    public static TtlCache<Long, ?> sessionUsers() {
+        return SESSION_USERS;
+    }
+
     // 1. Find by username (case-insensitive)
     public Optional<User> findByUsernameIgnoreCase(String username) {
-        String sql = "SELECT * FROM users WHERE LOWER(username) = LOWER(?)";
+        // username_lower is a generated, indexed column (V14), so this is an index lookup
+        String sql = "SELECT " + ACCOUNT_COLUMNS + " FROM users WHERE username_lower = ?";
         try (Connection conn = HikariCPDataSource.getConnection();
              PreparedStatement ps = conn.prepareStatement(sql)) {
 
-            ps.setString(1, username);
+            ps.setString(1, username.toLowerCase(Locale.ROOT));
             try (ResultSet rs = ps.executeQuery()) {
                 return rs.next() ? Optional.of(mapRowToUser(rs)) : Optional.empty();
             }
@@ -30,11 +79,11 @@ public class UserRepository {
     public Optional<User> findByEmailIgnoreCase(String email) {
         if (email == null || email.isBlank()) return Optional.empty();
 
-        String sql = "SELECT * FROM users WHERE LOWER(email) = LOWER(?)";
+        String sql = "SELECT " + ACCOUNT_COLUMNS + " FROM users WHERE email_lower = ?";
         try (Connection conn = HikariCPDataSource.getConnection();
              PreparedStatement ps = conn.prepareStatement(sql)) {
 
-            ps.setString(1, email);
+            ps.setString(1, email.toLowerCase(Locale.ROOT));
             try (ResultSet rs = ps.executeQuery()) {
                 return rs.next() ? Optional.of(mapRowToUser(rs)) : Optional.empty();
             }
@@ -92,7 +141,7 @@ public class UserRepository {
 
     // 4. Find by ID
     public Optional<User> findById(Long id) {
-        String sql = "SELECT * FROM users WHERE id = ?";
+        String sql = "SELECT " + ACCOUNT_COLUMNS + " FROM users WHERE id = ?";
         try (Connection conn = HikariCPDataSource.getConnection();
              PreparedStatement ps = conn.prepareStatement(sql)) {
 
@@ -107,7 +156,7 @@ public class UserRepository {
 
     // 4.5 NEW: Find by Verification Token Hash (For clicking the email link)
     public Optional<User> findByTokenHash(String tokenHash) {
-        String sql = "SELECT * FROM users WHERE verification_token_hash = ?";
+        String sql = "SELECT " + ACCOUNT_COLUMNS + " FROM users WHERE verification_token_hash = ?";
         
         try (Connection conn = HikariCPDataSource.getConnection();
              PreparedStatement ps = conn.prepareStatement(sql)) {
@@ -128,10 +177,13 @@ public class UserRepository {
      */
     public void updateRememberToken(Long userId, String tokenHash, LocalDateTime expiresAt) {
         String sql = "UPDATE users SET remember_token = ?, remember_expires_at = ? WHERE id = ?";
+        String previousToken;
 
         try (Connection conn = HikariCPDataSource.getConnection();
              PreparedStatement ps = conn.prepareStatement(sql)) {
 
+            previousToken = currentRememberToken(conn, userId);
+
             // 1. Set Token Hash (or null)
             ps.setString(1, tokenHash);
 
@@ -150,15 +202,59 @@ public class UserRepository {
         } catch (SQLException e) {
             throw new RuntimeException("Failed to update remember token for user ID: " + userId, e);
         }
+
+        // 4. The user's previous token is dead now; the new one may have been cached as invalid
+        forgetSessionUser(userId, previousToken);
+        if (tokenHash != null) {
+            INVALID_REMEMBER_TOKENS.invalidate(tokenHash);
+        }
     }
 
     /**
      * 6. Find by Valid Remember Token
-     * Checks if token matches AND if it has not expired yet.
+     * Checks if token matches AND if it has not expired yet. Served from the token caches when
+     * possible.
+     */
+    public Optional<Principal> findByRememberToken(String tokenHash) {
+        if (INVALID_REMEMBER_TOKENS.getIfPresent(tokenHash) != null) {
+            return Optional.empty();
+        }
+
+        RememberedLogin remembered = REMEMBER_TOKENS.get(tokenHash, this::loadRememberedLogin);
+        if (remembered == null) {
+            INVALID_REMEMBER_TOKENS.put(tokenHash, Boolean.TRUE);
+            return Optional.empty();
+        }
+        // A cached entry can outlive the token itself
+        if (!remembered.expiresAt.isAfter(LocalDateTime.now())) {
+            REMEMBER_TOKENS.invalidate(tokenHash);
+            return Optional.empty();
+        }
+        return Optional.of(remembered.principal);
+    }
+
+    /**
+     * 6b. Revoke a Remember Token by its hash (logout without a session)
      */
-    public Optional<User> findByRememberToken(String tokenHash) {
+    public void clearRememberToken(String tokenHash) {
+        String sql = "UPDATE users SET remember_token = NULL, remember_expires_at = NULL WHERE remember_token = ?";
+
+        try (Connection conn = HikariCPDataSource.getConnection();
+             PreparedStatement ps = conn.prepareStatement(sql)) {
+
+            ps.setString(1, tokenHash);
+            ps.executeUpdate();
+
+        } catch (SQLException e) {
+            throw new RuntimeException("Failed to clear remember token", e);
+        }
+        REMEMBER_TOKENS.invalidate(tokenHash);
+    }
+
+    private RememberedLogin loadRememberedLogin(String tokenHash) {
         // The SQL handles the expiry check for us -> fast & efficient
-        String sql = "SELECT * FROM users WHERE remember_token = ? AND remember_expires_at > CURRENT_TIMESTAMP";
+        String sql = "SELECT " + PRINCIPAL_COLUMNS + ", remember_expires_at FROM users"
+                + " WHERE remember_token = ? AND remember_expires_at > CURRENT_TIMESTAMP";
 
         try (Connection conn = HikariCPDataSource.getConnection();
              PreparedStatement ps = conn.prepareStatement(sql)) {
@@ -166,13 +262,60 @@ public class UserRepository {
             ps.setString(1, tokenHash);
 
             try (ResultSet rs = ps.executeQuery()) {
-                return rs.next() ? Optional.of(mapRowToUser(rs)) : Optional.empty();
+                return rs.next()
+                        ? new RememberedLogin(mapRowToPrincipal(rs), rs.getTimestamp("remember_expires_at").toLocalDateTime())
+                        : null;
             }
         } catch (SQLException e) {
             throw new RuntimeException("Error finding user by remember token", e);
         }
     }
 
+    /**
+     * 6c. Find the Principal of a user by ID
+     * Always reads the database; see findSessionUser for the cached variant.
+     */
+    public Optional<Principal> findPrincipal(long userId) {
+        String sql = "SELECT " + PRINCIPAL_COLUMNS + " FROM users WHERE id = ?";
+
+        try (Connection conn = HikariCPDataSource.getConnection();
+             PreparedStatement ps = conn.prepareStatement(sql)) {
+
+            ps.setLong(1, userId);
+
+            try (ResultSet rs = ps.executeQuery()) {
+                return rs.next() ? Optional.of(mapRowToPrincipal(rs)) : Optional.empty();
+            }
+        } catch (SQLException e) {
+            throw new RuntimeException("Error finding principal by ID: " + userId, e);
+        }
+    }
+
+    /**
+     * 6d. Find the Principal of a user by ID, cached
+     * For rebuilding a session from a signed session cookie.
+     */
+    public Optional<Principal> findSessionUser(long userId) {
+        return Optional.ofNullable(SESSION_USERS.get(userId, id -> findPrincipal(id).orElse(null)));
+    }
+
+    // The remember token a user has now, read before a write so its cache entry can be dropped by key
+    private static String currentRememberToken(Connection conn, long userId) throws SQLException {
+        try (PreparedStatement ps = conn.prepareStatement("SELECT remember_token FROM users WHERE id = ?")) {
+            ps.setLong(1, userId);
+            try (ResultSet rs = ps.executeQuery()) {
+                return rs.next() ? rs.getString(1) : null;
+            }
+        }
+    }
+
+    private static void forgetSessionUser(long userId, String rememberToken) {
+        if (rememberToken != null) {
+            REMEMBER_TOKENS.invalidate(rememberToken);
+        }
+        SESSION_USERS.invalidate(userId);
+    }
+
     /**
      * 7. Update Reset Token (Forgot Password)
      * Sets the token hash and expiration. Pass nulls to clear them (after successful reset).
@@ -206,7 +349,7 @@ public class UserRepository {
      */
     // UserRepository.java - findByValidResetToken()
     public Optional<User> findByValidResetToken(String tokenHash) {
-        String sql = "SELECT * FROM users WHERE reset_token = ? AND reset_expires_at > UTC_TIMESTAMP()";
+        String sql = "SELECT " + ACCOUNT_COLUMNS + " FROM users WHERE reset_token = ? AND reset_expires_at > UTC_TIMESTAMP()";
 
         try (Connection conn = HikariCPDataSource.getConnection();
             PreparedStatement ps = conn.prepareStatement(sql)) {
@@ -238,10 +381,12 @@ public class UserRepository {
                 updated_at = CURRENT_TIMESTAMP
             WHERE id = ?
             """;
+        String rememberToken;
             
         try (Connection conn = HikariCPDataSource.getConnection();
              PreparedStatement ps = conn.prepareStatement(sql)) {
             
+            rememberToken = currentRememberToken(conn, user.getId());
             ps.setBoolean(1, user.isEmailVerified());
             ps.setString(2, user.getVerificationTokenHash());
             
@@ -261,6 +406,7 @@ public class UserRepository {
         } catch (SQLException e) {
             throw new RuntimeException("Failed to update verification status", e);
         }
+        forgetSessionUser(user.getId(), rememberToken);
     }
 
     /**
@@ -273,10 +419,12 @@ public class UserRepository {
             SET full_name = ?, email = ?, phone = ?, updated_at = CURRENT_TIMESTAMP
             WHERE id = ?
             """;
+        String rememberToken;
 
         try (Connection conn = HikariCPDataSource.getConnection();
             PreparedStatement ps = conn.prepareStatement(sql)) {
 
+            rememberToken = currentRememberToken(conn, user.getId());
             ps.setString(1, user.getFullName());
             ps.setString(2, user.getEmail());
             ps.setString(3, user.getPhone());
@@ -297,6 +445,7 @@ public class UserRepository {
             }
             throw new RuntimeException("Failed to update user profile", e);
         }
+        forgetSessionUser(user.getId(), rememberToken); // Cached name and email are stale
     }
 
     /**
@@ -326,6 +475,27 @@ public class UserRepository {
         }
     }
 
+    /**
+     * Replaces the hash only if it is still the one that was checked (login rehash),
+     * so a password changed in the meantime is never overwritten
+     * @return true if the hash was replaced
+     */
+    public boolean updatePasswordIfUnchanged(Long userId, String expectedHash, String newHash) {
+        String sql = "UPDATE users SET password = ? WHERE id = ? AND password = ?";
+
+        try (Connection conn = HikariCPDataSource.getConnection();
+            PreparedStatement ps = conn.prepareStatement(sql)) {
+
+            ps.setString(1, newHash);
+            ps.setLong(2, userId);
+            ps.setString(3, expectedHash);
+            return ps.executeUpdate() == 1;
+
+        } catch (SQLException e) {
+            throw new RuntimeException("Failed to upgrade password hash", e);
+        }
+    }
+
     /**
      * Check if email is already used by another user
      * Used for validation when updating profile
@@ -365,17 +535,6 @@ public class UserRepository {
         ts = rs.getTimestamp("updated_at");
         if (ts != null) user.setUpdatedAt(ts.toLocalDateTime());
 
-        //Remember Me Token
-        user.setRememberToken(rs.getString("remember_token"));
-        
-        Timestamp exp = rs.getTimestamp("remember_expires_at");
-        if (exp != null) user.setRememberExpiresAt(exp.toLocalDateTime());
-
-        // Reset Token 
-        user.setResetToken(rs.getString("reset_token"));
-        Timestamp resetExp = rs.getTimestamp("reset_expires_at");
-        if (resetExp != null) user.setResetExpiresAt(resetExp.toLocalDateTime());
-
         user.setEmailVerified(rs.getBoolean("email_verified"));
         user.setVerificationTokenHash(rs.getString("verification_token_hash"));
         
@@ -388,4 +547,9 @@ public class UserRepository {
 
         return user;
     }
+
+    private Principal mapRowToPrincipal(ResultSet rs) throws SQLException {
+        return new Principal(rs.getLong("id"), rs.getString("username"), rs.getString("full_name"),
+                rs.getString("email"), rs.getBoolean("email_verified"), rs.getBoolean("legacy_unverified"));
+    }
 }
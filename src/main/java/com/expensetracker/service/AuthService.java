@@ -1,21 +1,33 @@
 package com.expensetracker.service;
 
-import com.expensetracker.model.User;
+import com.expensetracker.model.Principal;
+import com.expensetracker.repository.UserRepository;
+import com.expensetracker.util.CSRFUtil;
+import com.expensetracker.util.SessionTokens;
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.http.Cookie;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpServletResponseWrapper;
 import jakarta.servlet.http.HttpSession;
 import java.io.IOException;
+import java.io.PrintWriter;
 
 public final class AuthService {
 
+    private static final String CLAIMS_ATTR = "sessionTokenClaims";
+    private static final String RESTORED_ATTR = "sessionTokenRestored";
+
+    private static final UserRepository userRepository = new UserRepository();
+
     private AuthService() {}
 
-    public static User getCurrentUser(HttpSession session) {
-        return (User) session.getAttribute("user");
+    public static Principal getCurrentUser(HttpSession session) {
+        return (Principal) session.getAttribute("user");
     }
 
     public static Long getCurrentUserId(HttpSession session) {
-        User user = getCurrentUser(session);
+        Principal user = getCurrentUser(session);
         return user != null ? user.getId() : null;
     }
 
@@ -28,4 +40,174 @@ public final class AuthService {
             response.sendRedirect(request.getContextPath() + "/login");
         }
     }
-}
\ No newline at end of file
+
+    // ==================== Stateless sessions ====================
+    // With security.session.stateless on, the signed session_token cookie is the source of truth
+    // and the container session is only a per-node copy of it: any node rebuilds the session from
+    // the cookie, so no sticky sessions or session replication are needed. Off by default.
+
+    /**
+     * Brings this node's session in line with the request's session cookie: rebuilds it when the
+     * request was last served by another node, and drops a logged-in session the cookie no longer
+     * backs (logged out elsewhere). Runs once per request; a no-op in container-session mode.
+     */
+    public static void restoreSession(HttpServletRequest req) {
+        SessionTokens tokens = SessionTokens.get();
+        if (tokens == null || req.getAttribute(RESTORED_ATTR) != null) {
+            return;
+        }
+        req.setAttribute(RESTORED_ATTR, Boolean.TRUE);
+
+        SessionTokens.Claims claims = tokens.verify(findCookie(req));
+        HttpSession session = req.getSession(false);
+        Principal sessionUser = session != null ? getCurrentUser(session) : null;
+
+        if (sessionUser != null && (claims == null || claims.getUserId() != sessionUser.getId())) {
+            session.invalidate();
+            session = null;
+        }
+        if (claims == null) {
+            return;
+        }
+        req.setAttribute(CLAIMS_ATTR, claims);
+
+        if (claims.getUserId() > 0 && (session == null || getCurrentUser(session) == null)) {
+            Principal user = userRepository.findSessionUser(claims.getUserId()).orElse(null);
+            if (user == null) {
+                return; // Account deleted since the cookie was issued
+            }
+            session = req.getSession(true);
+            session.setAttribute("user", user.withVerification(claims.isEmailVerified(), user.isLegacyUnverified()));
+        } else if (session == null) {
+            session = req.getSession(true);
+        }
+        session.setAttribute("csrfToken", claims.getCsrfToken());
+    }
+
+    /**
+     * Wraps the response so the session cookie is (re)issued before the response commits,
+     * whenever the session's user, verification flag or CSRF token has moved on from it.
+     */
+    public static HttpServletResponse withSessionToken(HttpServletRequest req, HttpServletResponse resp) {
+        return SessionTokens.get() != null ? new SessionTokenResponse(req, resp) : resp;
+    }
+
+    /**
+     * Issues the session cookie on a response that has not written anything.
+     */
+    public static void finishSessionToken(HttpServletResponse resp) {
+        if (resp instanceof SessionTokenResponse wrapped) {
+            wrapped.syncToken();
+        }
+    }
+
+    public static void clearSessionToken(HttpServletResponse resp) {
+        Cookie cookie = new Cookie(SessionTokens.COOKIE_NAME, "");
+        cookie.setMaxAge(0);
+        cookie.setPath("/");
+        resp.addCookie(cookie);
+    }
+
+    private static void syncSessionToken(HttpServletRequest req, HttpServletResponse resp) {
+        SessionTokens tokens = SessionTokens.get();
+        HttpSession session = req.getSession(false);
+        if (tokens == null || session == null) {
+            return;
+        }
+
+        Principal user;
+        String csrfToken;
+        try {
+            user = getCurrentUser(session);
+            csrfToken = (String) session.getAttribute("csrfToken");
+        } catch (IllegalStateException e) {
+            return; // Invalidated during the request (logout)
+        }
+        if (user == null && csrfToken == null) {
+            return; // Nothing worth carrying to another node
+        }
+        if (csrfToken == null) {
+            csrfToken = CSRFUtil.generateToken(session);
+        }
+
+        long userId = user != null ? user.getId() : 0;
+        boolean verified = user != null && user.isEmailVerified();
+        Object restored = req.getAttribute(CLAIMS_ATTR);
+        SessionTokens.Claims claims = restored instanceof SessionTokens.Claims c ? c : tokens.verify(findCookie(req));
+        if (claims != null && claims.getUserId() == userId && claims.isEmailVerified() == verified
+                && csrfToken.equals(claims.getCsrfToken()) && !tokens.needsRefresh(claims)) {
+            return;
+        }
+
+        Cookie cookie = new Cookie(SessionTokens.COOKIE_NAME, tokens.issue(userId, verified, csrfToken));
+        cookie.setHttpOnly(true);
+        cookie.setPath("/");
+        cookie.setSecure(req.isSecure());
+        resp.addCookie(cookie); // No max age: the token's own expiry ends the session
+    }
+
+    private static String findCookie(HttpServletRequest req) {
+        Cookie[] cookies = req.getCookies();
+        if (cookies != null) {
+            for (Cookie c : cookies) {
+                if (SessionTokens.COOKIE_NAME.equals(c.getName())) {
+                    return c.getValue();
+                }
+            }
+        }
+        return null;
+    }
+
+    private static final class SessionTokenResponse extends HttpServletResponseWrapper {
+        private final HttpServletRequest req;
+        private boolean synced;
+
+        SessionTokenResponse(HttpServletRequest req, HttpServletResponse resp) {
+            super(resp);
+            this.req = req;
+        }
+
+        void syncToken() {
+            if (!synced && !isCommitted()) {
+                synced = true;
+                syncSessionToken(req, (HttpServletResponse) getResponse());
+            }
+        }
+
+        @Override
+        public PrintWriter getWriter() throws IOException {
+            syncToken();
+            return super.getWriter();
+        }
+
+        @Override
+        public ServletOutputStream getOutputStream() throws IOException {
+            syncToken();
+            return super.getOutputStream();
+        }
+
+        @Override
+        public void sendRedirect(String location) throws IOException {
+            syncToken();
+            super.sendRedirect(location);
+        }
+
+        @Override
+        public void sendError(int sc) throws IOException {
+            syncToken();
+            super.sendError(sc);
+        }
+
+        @Override
+        public void sendError(int sc, String msg) throws IOException {
+            syncToken();
+            super.sendError(sc, msg);
+        }
+
+        @Override
+        public void flushBuffer() throws IOException {
+            syncToken();
+            super.flushBuffer();
+        }
+    }
+}
@@ -1,26 +1,36 @@
 package com.expensetracker.service;
 
+import com.expensetracker.dto.BudgetWindow;
 import com.expensetracker.model.Budget;
 import com.expensetracker.model.Expense;
 import com.expensetracker.repository.BudgetRepository;
 import com.expensetracker.repository.CategoryRepository;
 import com.expensetracker.repository.ExpenseRepository;
+import com.expensetracker.repository.SpendingRollupRepository;
 
 import java.math.BigDecimal;
 import java.math.RoundingMode;
 import java.time.LocalDate;
 import java.util.List;
+import java.util.Map;
 
 public class BudgetService {
 
     private final BudgetRepository budgetRepository;
     private final CategoryRepository categoryRepository;
     private final ExpenseRepository expenseRepository;
+    private final SpendingRollupRepository rollupRepository;
 
     public BudgetService(BudgetRepository budgetRepo, CategoryRepository categoryRepo, ExpenseRepository expenseRepo) {
+        this(budgetRepo, categoryRepo, expenseRepo, new SpendingRollupRepository());
+    }
+
+    public BudgetService(BudgetRepository budgetRepo, CategoryRepository categoryRepo, ExpenseRepository expenseRepo,
+                         SpendingRollupRepository rollupRepo) {
         this.budgetRepository = budgetRepo;
         this.categoryRepository = categoryRepo;
         this.expenseRepository = expenseRepo;
+        this.rollupRepository = rollupRepo;
     }
 
     public Budget createBudget(Long userId, Integer categoryId, BigDecimal amount, 
@@ -62,10 +72,13 @@ public class BudgetService {
     public List<Budget> getActiveBudgets(Long userId) {
         List<Budget> budgets = budgetRepository.findActiveByUserId(userId);
         
-        // Enrich with spent amounts
+        // Enrich with spent amounts – one grouped query for all budgets
+        List<BudgetWindow> windows = budgets.stream().map(this::windowFor).toList();
+        Map<Long, BigDecimal> spentByBudget = rollupRepository.sumAmountByBudgetWindows(userId, windows);
+
         for (Budget budget : budgets) {
-            BigDecimal spent = calculateSpentAmount(userId, budget);
-            budget.setSpentAmount(spent != null ? spent : BigDecimal.ZERO);
+            BigDecimal spent = spentByBudget.getOrDefault(budget.getId(), BigDecimal.ZERO);
+            budget.setSpentAmount(spent);
 
                     if (budget.getAmount().compareTo(BigDecimal.ZERO) > 0) {
                         double percentage = spent.divide(budget.getAmount(), 4, RoundingMode.HALF_UP)
@@ -133,6 +146,18 @@ public class BudgetService {
     }
 
     private BigDecimal calculateSpentAmount(Long userId, Budget budget) {
+        BudgetWindow window = windowFor(budget);
+
+        // Reads the spend rollups (whole months + edge days) instead of raw expense rows
+        return rollupRepository.sumAmountByCategoryAndDateRange(
+                userId, 
+                window.getCategoryId(), 
+                window.getStart(), 
+                window.getEnd()
+        );
+    }
+
+    private BudgetWindow windowFor(Budget budget) {
         LocalDate effectiveStart;
         if (budget.isRecurring()) {
             // Assuming monthly recurring
@@ -145,12 +170,6 @@ public class BudgetService {
         if (end == null) {
             end = LocalDate.now(); 
         }
-        
-        return expenseRepository.sumAmountByCategoryAndDateRange(
-                userId, 
-                budget.getCategoryId(), 
-                effectiveStart, 
-                end
-        );
+        return new BudgetWindow(budget.getId(), budget.getCategoryId(), effectiveStart, end);
     }
 }
\ No newline at end of file
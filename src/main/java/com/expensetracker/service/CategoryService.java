@@ -30,7 +30,7 @@ public class CategoryService {
         if (cat != null && !cat.getId().equals(categoryId))
             throw new IllegalArgumentException("Category name already exists");
 
-        // Load the existing category
+        // Load the existing category (cached instance – don't modify it in place)
         Category existing = repo.findAllByUserId(userId).stream()
             .filter(c -> c.getId().equals(categoryId))
             .findFirst()
@@ -39,9 +39,10 @@ public class CategoryService {
         if (existing.isDefaultCategory())
             throw new IllegalArgumentException("Cannot rename default category");
 
-        existing.setName(newName);
+        Category renamed = new Category(newName, userId, false);
+        renamed.setId(existing.getId());
 
-        repo.update(existing); // <-- FIXED
+        repo.update(renamed); // <-- FIXED
     }
 
 
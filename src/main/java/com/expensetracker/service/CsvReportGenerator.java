@@ -0,0 +1,137 @@
+package com.expensetracker.service;
+
+import com.expensetracker.model.Expense;
+import com.expensetracker.util.Money;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+
+/**
+ * Writes the cumulative budget CSV export one row at a time.
+ *
+ * Expenses must arrive oldest first (ExpenseRepository#openCursor with oldestFirst=true).
+ * Cumulative spend is tracked per category for the current month only and reset when
+ * the month changes, so memory depends on the number of categories, not on the number
+ * of rows. Fields are written straight to the (buffered) writer instead of going
+ * through printf/String.format.
+ */
+public class CsvReportGenerator {
+
+    static final String HEADER = "Date,Description,Category,Amount,Budget Limit,Cumulative Spend,Remaining Balance,Status";
+
+    private static final String NEWLINE = System.lineSeparator();
+
+    /**
+     * @return the number of expense rows written
+     */
+    public long generate(Writer writer, Iterator<Expense> expenses,
+                         Map<Integer, String> categoryMap, Map<Integer, BigDecimal> budgetMap) throws IOException {
+        writer.write('\ufeff'); // BOM for Excel compatibility
+        writer.write(HEADER);
+        writer.write(NEWLINE);
+
+        // Running totals (cents) for the month currently being written: categoryId -> cumulative spend.
+        // Budget limits are converted once; each row then costs no BigDecimal arithmetic.
+        Map<Integer, long[]> runningTotals = new HashMap<>();
+        Map<Integer, Long> budgetCents = new HashMap<>();
+        for (Map.Entry<Integer, BigDecimal> budget : budgetMap.entrySet()) {
+            budgetCents.put(budget.getKey(), Money.toCents(budget.getValue()));
+        }
+        int currentYear = -1;
+        int currentMonth = -1;
+        long rows = 0;
+
+        while (expenses.hasNext()) {
+            Expense e = expenses.next();
+            LocalDate date = e.getExpenseDate();
+            if (date.getYear() != currentYear || date.getMonthValue() != currentMonth) {
+                runningTotals.clear();
+                currentYear = date.getYear();
+                currentMonth = date.getMonthValue();
+            }
+
+            Integer catId = e.getCategoryId();
+            BigDecimal amount = e.getAmount();
+
+            writer.write(date.toString());
+            writer.write(',');
+            writeQuoted(writer, e.getDescription());
+            writer.write(',');
+            writeField(writer, categoryMap.getOrDefault(catId, "Uncategorized"));
+            writer.write(',');
+            writer.write(amount.setScale(2, RoundingMode.HALF_UP).toPlainString());
+            writer.write(',');
+
+            Long limitCents = budgetCents.get(catId);
+            if (limitCents == null) {
+                writer.write("N/A,N/A,N/A,N/A");
+            } else {
+                long[] running = runningTotals.computeIfAbsent(catId, k -> new long[1]);
+                running[0] += Money.toCents(amount);
+                long currentCents = running[0];
+
+                writer.write(budgetMap.get(catId).toString());
+                writer.write(',');
+                writer.write(Money.toPlainString(currentCents));
+                writer.write(',');
+                writer.write(Money.toPlainString(limitCents - currentCents));
+                writer.write(',');
+                if (limitCents <= 0) {
+                    writer.write("0%");
+                } else {
+                    // Cumulative spend as a percentage of the limit, in hundredths of a percent
+                    long percentage = Money.divideToHundredths(currentCents * 100, limitCents);
+                    if (percentage > 100_00) {
+                        writer.write("EXCEEDED (");
+                        writer.write(Money.toPlainString(percentage));
+                        writer.write("%)");
+                    } else {
+                        writer.write(Money.toPlainString(percentage));
+                        writer.write('%');
+                    }
+                }
+            }
+            writer.write(NEWLINE);
+            rows++;
+        }
+        return rows;
+    }
+
+    /**
+     * Always-quoted field with embedded quotes doubled (descriptions are free text).
+     */
+    private void writeQuoted(Writer writer, String value) throws IOException {
+        writer.write('"');
+        if (value != null) {
+            int start = 0;
+            int quote;
+            while ((quote = value.indexOf('"', start)) >= 0) {
+                writer.write(value, start, quote - start + 1);
+                writer.write('"');
+                start = quote + 1;
+            }
+            writer.write(value, start, value.length() - start);
+        }
+        writer.write('"');
+    }
+
+    /**
+     * Field that is only quoted when it would otherwise break the row.
+     */
+    private void writeField(Writer writer, String value) throws IOException {
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == ',' || c == '"' || c == '\n' || c == '\r') {
+                writeQuoted(writer, value);
+                return;
+            }
+        }
+        writer.write(value);
+    }
+}
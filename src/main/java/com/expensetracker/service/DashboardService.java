@@ -0,0 +1,253 @@
+package com.expensetracker.service;
+
+import com.expensetracker.dto.CategorySummary;
+import com.expensetracker.dto.DailyCategoryTotal;
+import com.expensetracker.dto.DashboardData;
+import com.expensetracker.dto.TrendPoint;
+import com.expensetracker.model.Budget;
+import com.expensetracker.model.Category;
+import com.expensetracker.model.Expense;
+import com.expensetracker.repository.BudgetRepository;
+import com.expensetracker.repository.CategoryRepository;
+import com.expensetracker.repository.ExpenseRepository;
+import com.expensetracker.repository.SpendingRollupRepository;
+import com.expensetracker.util.ConfigLoader;
+import com.expensetracker.util.Money;
+import com.expensetracker.util.RequestMetrics;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.time.format.TextStyle;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.function.Supplier;
+
+/**
+ * Builds the dashboard from small, bounded reads instead of the user's full expense history:
+ *
+ *   - day rollup from the 1st of last month to today (this month, last month to date, sparkline)
+ *   - month rollup for the bar chart months
+ *   - all-time totals per category (month rollup, grouped)
+ *   - the few most recent expenses
+ *   - active budgets with their spend (two queries, see BudgetService)
+ *
+ * The reads are independent, so they run concurrently on virtual threads; the page waits
+ * for the slowest one instead of their sum. A shared semaphore caps how many pooled
+ * connections dashboards can hold at once (dashboard.fetch.permits, half of db.pool.size by
+ * default); reads beyond it park cheaply instead of queueing behind a slow dashboard on a
+ * fixed set of threads.
+ */
+public class DashboardService {
+
+    private static final int CHART_MONTHS = 6;
+    private static final int SPARKLINE_DAYS = 7;
+    private static final int RECENT_EXPENSES = 5;
+    private static final int TOP_BUDGETS = 5;
+
+    // Tasks only wait on JDBC, so virtual threads; the permits bound their connections instead
+    private static final ExecutorService FETCH_EXECUTOR = Executors.newVirtualThreadPerTaskExecutor();
+    private static final Semaphore FETCH_PERMITS = new Semaphore(ConfigLoader.getInt("dashboard.fetch.permits",
+            Math.max(1, ConfigLoader.getInt("db.pool.size", 10) / 2)), true);
+
+    private final ExpenseRepository expenseRepository;
+    private final CategoryRepository categoryRepository;
+    private final SpendingRollupRepository rollupRepository;
+    private final BudgetService budgetService;
+    private final ExecutorService executor;
+
+    public DashboardService() {
+        this(new ExpenseRepository(), new CategoryRepository(), new BudgetRepository(), new SpendingRollupRepository(),
+                FETCH_EXECUTOR);
+    }
+
+    DashboardService(ExpenseRepository expenseRepository, CategoryRepository categoryRepository,
+                     BudgetRepository budgetRepository, SpendingRollupRepository rollupRepository,
+                     ExecutorService executor) {
+        this.expenseRepository = expenseRepository;
+        this.categoryRepository = categoryRepository;
+        this.rollupRepository = rollupRepository;
+        this.budgetService = new BudgetService(budgetRepository, categoryRepository, expenseRepository, rollupRepository);
+        this.executor = executor;
+    }
+
+    public DashboardData getDashboard(Long userId) {
+        LocalDate today = LocalDate.now();
+        LocalDate monthStart = today.withDayOfMonth(1);
+        // Same comparison as the "This Month" report: month to date vs the same span last month
+        LocalDate prevStart = monthStart.minusMonths(1);
+        LocalDate prevEnd = today.minusMonths(1);
+        LocalDate chartStart = monthStart.minusMonths(CHART_MONTHS - 1);
+        LocalDate sparklineStart = today.minusDays(SPARKLINE_DAYS - 1);
+
+        // 1. Independent reads, in parallel
+        CompletableFuture<List<Category>> categoriesF = async(() -> categoryRepository.findAllByUserId(userId));
+        CompletableFuture<List<DailyCategoryTotal>> dailyF = async(() -> rollupRepository.findDailyCategoryTotals(userId, prevStart, today));
+        CompletableFuture<List<DailyCategoryTotal>> monthlyF = async(() -> rollupRepository.findMonthlyCategoryTotals(userId, chartStart, monthStart));
+        CompletableFuture<List<DailyCategoryTotal>> lifetimeF = async(() -> rollupRepository.findLifetimeCategoryTotals(userId));
+        CompletableFuture<List<Expense>> recentF = async(() -> expenseRepository.findRecentByUserId(userId, RECENT_EXPENSES));
+        CompletableFuture<List<Budget>> budgetsF = async(() -> budgetService.getActiveBudgets(userId));
+
+        List<Category> categories = join(categoriesF);
+        Map<Integer, String> categoryNames = new HashMap<>();
+        for (Category category : categories) {
+            categoryNames.put(category.getId(), category.getName());
+        }
+
+        DashboardData data = new DashboardData();
+        data.setCategories(categories);
+
+        // 2. All-time stats (sums are kept in cents and converted once; see Money)
+        long lifetimeCents = 0;
+        int lifetimeCount = 0;
+        List<DailyCategoryTotal> lifetime = join(lifetimeF);
+        for (DailyCategoryTotal row : lifetime) {
+            lifetimeCents += Money.toCents(row.getTotal());
+            lifetimeCount += row.getTransactionCount();
+        }
+        BigDecimal lifetimeTotal = lifetime.isEmpty() ? BigDecimal.ZERO : Money.fromCents(lifetimeCents);
+        data.setLifetimeTotal(lifetimeTotal);
+        data.setLifetimeCount(lifetimeCount);
+        data.setCategoriesUsed(lifetime.size());
+        data.setAverageExpense(lifetimeCount > 0
+                ? lifetimeTotal.divide(BigDecimal.valueOf(lifetimeCount), 2, RoundingMode.HALF_UP)
+                : BigDecimal.ZERO);
+
+        // 3. This month, last month to date and the sparkline, from the day rollup
+        long currentCents = 0;
+        long previousCents = 0;
+        boolean anyCurrent = false;
+        boolean anyPrevious = false;
+        Map<Integer, long[]> monthByCategory = new HashMap<>(); // categoryId -> {cents, count}
+        long[] recentCents = new long[SPARKLINE_DAYS];
+        boolean[] recentSeen = new boolean[SPARKLINE_DAYS];
+
+        for (DailyCategoryTotal row : join(dailyF)) {
+            LocalDate date = row.getDate();
+            long cents = Money.toCents(row.getTotal());
+            if (!date.isBefore(monthStart)) {
+                currentCents += cents;
+                anyCurrent = true;
+                long[] cell = monthByCategory.computeIfAbsent(row.getCategoryId(), k -> new long[2]);
+                cell[0] += cents;
+                cell[1] += row.getTransactionCount();
+            } else if (!date.isAfter(prevEnd)) {
+                previousCents += cents;
+                anyPrevious = true;
+            }
+            if (!date.isBefore(sparklineStart)) {
+                int day = (int) ChronoUnit.DAYS.between(sparklineStart, date);
+                recentCents[day] += cents;
+                recentSeen[day] = true;
+            }
+        }
+        BigDecimal currentTotal = anyCurrent ? Money.fromCents(currentCents) : BigDecimal.ZERO;
+        BigDecimal previousTotal = anyPrevious ? Money.fromCents(previousCents) : BigDecimal.ZERO;
+        data.setCurrentMonthTotal(currentTotal);
+        data.setPreviousPeriodTotal(previousTotal);
+        data.setTrendPercentage(percentChange(currentTotal, previousTotal));
+        data.setCurrentMonthByCategory(categoryBreakdown(monthByCategory, currentTotal, categoryNames));
+
+        List<TrendPoint> sparkline = new ArrayList<>();
+        for (int day = 0; day < SPARKLINE_DAYS; day++) {
+            BigDecimal amount = recentSeen[day] ? Money.fromCents(recentCents[day]) : BigDecimal.ZERO;
+            sparkline.add(new TrendPoint(sparklineStart.plusDays(day), amount));
+        }
+        data.setRecentDailyTotals(sparkline);
+
+        // 4. Bar chart: one bucket per month, oldest first
+        long[] monthCents = new long[CHART_MONTHS];
+        int[] monthCounts = new int[CHART_MONTHS];
+        boolean[] monthSeen = new boolean[CHART_MONTHS];
+        for (DailyCategoryTotal row : join(monthlyF)) {
+            int i = (int) ChronoUnit.MONTHS.between(chartStart, row.getDate());
+            monthCents[i] += Money.toCents(row.getTotal());
+            monthCounts[i] += row.getTransactionCount();
+            monthSeen[i] = true;
+        }
+        List<TrendPoint> monthlyPoints = new ArrayList<>();
+        List<Integer> monthlyCounts = new ArrayList<>();
+        for (int i = 0; i < CHART_MONTHS; i++) {
+            LocalDate month = chartStart.plusMonths(i);
+            String label = month.getMonth().getDisplayName(TextStyle.SHORT, Locale.ENGLISH) + " " + month.getYear();
+            monthlyPoints.add(new TrendPoint(label, monthSeen[i] ? Money.fromCents(monthCents[i]) : BigDecimal.ZERO));
+            monthlyCounts.add(monthCounts[i]);
+        }
+        data.setMonthlyTotals(monthlyPoints);
+        data.setMonthlyCounts(monthlyCounts);
+
+        // 5. Recent expenses and the riskiest budgets
+        data.setRecentExpenses(join(recentF));
+        data.setTopBudgets(join(budgetsF).stream()
+                .sorted(Comparator.comparingDouble(DashboardService::usedRatio).reversed())
+                .limit(TOP_BUDGETS)
+                .toList());
+
+        return data;
+    }
+
+    // ==================== Helpers ====================
+
+    private List<CategorySummary> categoryBreakdown(Map<Integer, long[]> totals, BigDecimal grandTotal,
+                                                    Map<Integer, String> categoryNames) {
+        List<CategorySummary> breakdown = new ArrayList<>();
+        for (Map.Entry<Integer, long[]> entry : totals.entrySet()) {
+            BigDecimal total = Money.fromCents(entry.getValue()[0]);
+            double percentage = grandTotal.compareTo(BigDecimal.ZERO) > 0
+                    ? total.divide(grandTotal, 4, RoundingMode.HALF_UP).doubleValue() * 100
+                    : 0.0;
+            breakdown.add(new CategorySummary(
+                    categoryNames.getOrDefault(entry.getKey(), "Uncategorized"),
+                    total, percentage, (int) entry.getValue()[1]));
+        }
+        breakdown.sort(Comparator.comparing(CategorySummary::getTotal).reversed());
+        return breakdown;
+    }
+
+    private static double percentChange(BigDecimal current, BigDecimal previous) {
+        if (previous.compareTo(BigDecimal.ZERO) != 0) {
+            return current.subtract(previous).divide(previous, 4, RoundingMode.HALF_UP).doubleValue() * 100;
+        }
+        return current.compareTo(BigDecimal.ZERO) > 0 ? 100.0 : 0.0;
+    }
+
+    private static double usedRatio(Budget budget) {
+        return budget.getAmount().signum() > 0
+                ? budget.getSpentAmount().doubleValue() / budget.getAmount().doubleValue()
+                : 0;
+    }
+
+    private <T> CompletableFuture<T> async(Supplier<T> read) {
+        // Keeps the fetch counted against the request that asked for it
+        return CompletableFuture.supplyAsync(RequestMetrics.propagate(() -> {
+            FETCH_PERMITS.acquireUninterruptibly();
+            try {
+                return read.get();
+            } finally {
+                FETCH_PERMITS.release();
+            }
+        }), executor);
+    }
+
+    // Surfaces the repository's own RuntimeException rather than a CompletionException wrapper
+    private static <T> T join(CompletableFuture<T> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+}
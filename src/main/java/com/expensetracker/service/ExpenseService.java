@@ -131,4 +131,26 @@ public class ExpenseService {
             userId, from, to, categoryId, minAmount, maxAmount, keyword, page, pageSize, sortBy, sortOrder
         );
     }
-}
\ No newline at end of file
+
+    /**
+     * Keyset variant of {@link #listExpensesPaginated}: continues from an opaque cursor
+     * token instead of an OFFSET (see ExpenseRepository#findByUserIdAndFiltersKeyset).
+     */
+    public PagedResult<Expense> listExpensesByCursor(
+            Long userId,
+            LocalDate from,
+            LocalDate to,
+            Integer categoryId,
+            BigDecimal minAmount,
+            BigDecimal maxAmount,
+            String keyword,
+            int pageSize,
+            String sortBy,
+            String sortOrder,
+            String cursor) {
+
+        return expenseRepo.findByUserIdAndFiltersKeyset(
+            userId, from, to, categoryId, minAmount, maxAmount, keyword, pageSize, sortBy, sortOrder, cursor
+        );
+    }
+}
@@ -0,0 +1,273 @@
+package com.expensetracker.service;
+
+import com.expensetracker.dto.ExportFilter;
+import com.expensetracker.model.ExportJob;
+import com.expensetracker.repository.ExportJobRepository;
+import com.expensetracker.util.ConfigLoader;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Background CSV/PDF exports.
+ *
+ * Jobs are persisted in export_jobs and rendered by a small, bounded worker pool
+ * into files under export.jobs.dir. Rendering is CPU and memory heavy (PDF), so the
+ * pool is deliberately small and its queue bounded; per-user limits stop a single
+ * account from filling it. Finished files are deleted after export.jobs.ttl.minutes.
+ *
+ * On startup, jobs left QUEUED or RUNNING by a previous process are queued again.
+ * This assumes a single application instance owns the export directory.
+ */
+public class ExportJobService {
+
+    private static final Logger log = LoggerFactory.getLogger(ExportJobService.class);
+
+    /** ServletContext attribute holding the application-wide instance (see ExportJobInitializer). */
+    public static final String CONTEXT_ATTRIBUTE = ExportJobService.class.getName();
+
+    private static final int RECENT_JOBS_LIMIT = 20;
+
+    private final ExportJobRepository jobRepo;
+    private final ExportService exportService;
+    private final Path storageDir;
+    private final int maxActivePerUser;
+    private final Duration ttl;
+    private final ThreadPoolExecutor workers;
+    private final ScheduledExecutorService janitor;
+
+    // Serializes the check-then-insert of the per-user limit within this instance. A fixed set of
+    // stripes keyed by user id keeps memory flat; users sharing a stripe only wait on each other's
+    // two short queries.
+    private static final int SUBMIT_LOCK_STRIPES = 64;
+    private final ReentrantLock[] submitLocks = new ReentrantLock[SUBMIT_LOCK_STRIPES];
+
+    public ExportJobService() {
+        this(new ExportJobRepository(), new ExportService(),
+                Paths.get(ConfigLoader.get("export.jobs.dir",
+                        Paths.get(System.getProperty("java.io.tmpdir"), "expense-tracker-exports").toString())),
+                ConfigLoader.getInt("export.jobs.workers", 2),
+                ConfigLoader.getInt("export.jobs.queue.capacity", 100),
+                ConfigLoader.getInt("export.jobs.max.per.user", 2),
+                Duration.ofMinutes(ConfigLoader.getInt("export.jobs.ttl.minutes", 60)));
+    }
+
+    ExportJobService(ExportJobRepository jobRepo, ExportService exportService, Path storageDir,
+                     int workerCount, int queueCapacity, int maxActivePerUser, Duration ttl) {
+        this.jobRepo = jobRepo;
+        this.exportService = exportService;
+        this.storageDir = storageDir;
+        this.maxActivePerUser = maxActivePerUser;
+        this.ttl = ttl;
+        this.workers = new ThreadPoolExecutor(workerCount, workerCount, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), daemonThreads("export-worker-"));
+        this.janitor = Executors.newSingleThreadScheduledExecutor(daemonThreads("export-janitor-"));
+        for (int i = 0; i < SUBMIT_LOCK_STRIPES; i++) {
+            submitLocks[i] = new ReentrantLock();
+        }
+    }
+
+    // ==================== Lifecycle ====================
+
+    /**
+     * Creates the export directory, recovers jobs left over from the last run and schedules
+     * TTL cleanup. Recovery runs here, before the service is published and takes submissions,
+     * so every RUNNING row it re-queues belongs to a previous process, never to one of this
+     * instance's workers (ExportJobInitializer is ordered after FlywayInitializer in web.xml).
+     */
+    public void start(long cleanupIntervalMinutes) throws IOException {
+        Files.createDirectories(storageDir);
+        recoverQuietly();
+        janitor.scheduleWithFixedDelay(this::cleanupQuietly,
+                cleanupIntervalMinutes, cleanupIntervalMinutes, TimeUnit.MINUTES);
+        log.info("Export jobs started: dir={}, workers={}, maxPerUser={}, ttl={}",
+                storageDir, workers.getMaximumPoolSize(), maxActivePerUser, ttl);
+    }
+
+    public void shutdown() {
+        janitor.shutdownNow();
+        workers.shutdownNow();
+        try {
+            if (!workers.awaitTermination(10, TimeUnit.SECONDS)) {
+                log.warn("Export workers did not stop in time; running jobs will be re-queued on next start");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    // ==================== Public API ====================
+
+    /**
+     * Persists a new job and queues it.
+     * @throws IllegalArgumentException for an unknown format
+     * @throws IllegalStateException if the user already has the maximum number of
+     *         unfinished jobs, or the queue is full
+     */
+    public ExportJob submit(Long userId, String format, ExportFilter filter) {
+        String normalized = (format == null) ? "" : format.trim().toLowerCase();
+        if (!"csv".equals(normalized) && !"pdf".equals(normalized)) {
+            throw new IllegalArgumentException("Invalid format. Use 'csv' or 'pdf'.");
+        }
+
+        ExportJob job = new ExportJob(UUID.randomUUID().toString(), userId, normalized, filter);
+        // A lock, not a monitor: the check and insert are JDBC calls, which must not pin a virtual thread
+        ReentrantLock submitLock = submitLocks[(Long.hashCode(userId) & 0x7fffffff) % SUBMIT_LOCK_STRIPES];
+        submitLock.lock();
+        try {
+            if (jobRepo.countActiveByUserId(userId) >= maxActivePerUser) {
+                throw new IllegalStateException("You already have " + maxActivePerUser
+                        + " exports in progress. Please wait for them to finish.");
+            }
+            jobRepo.save(job);
+        } finally {
+            submitLock.unlock();
+        }
+
+        if (!dispatch(job.getId())) {
+            throw new IllegalStateException("The export queue is full. Please try again later.");
+        }
+        log.info("Queued {} export job {} for user {}", normalized, job.getId(), userId);
+        return job;
+    }
+
+    public Optional<ExportJob> findJob(Long userId, String jobId) {
+        return jobRepo.findByIdAndUserId(jobId, userId);
+    }
+
+    public List<ExportJob> findRecentJobs(Long userId) {
+        return jobRepo.findRecentByUserId(userId, RECENT_JOBS_LIMIT);
+    }
+
+    // ==================== Worker ====================
+
+    private boolean dispatch(String jobId) {
+        try {
+            workers.execute(() -> run(jobId));
+            return true;
+        } catch (RejectedExecutionException e) {
+            log.warn("Export queue full, rejecting job {}", jobId);
+            jobRepo.markFailed(jobId, "The export queue is full. Please try again later.", LocalDateTime.now().plus(ttl));
+            return false;
+        }
+    }
+
+    void run(String jobId) {
+        // Claim first: a job that was re-queued after a restart may already be dispatched
+        if (!jobRepo.markRunning(jobId)) {
+            return;
+        }
+        ExportJob job = jobRepo.findById(jobId).orElse(null);
+        if (job == null) {
+            return;
+        }
+
+        Path partFile = storageDir.resolve(jobId + ".part");
+        Path targetFile = storageDir.resolve(jobId + "." + job.getFormat());
+        try {
+            long rows;
+            try (OutputStream out = new BufferedOutputStream(Files.newOutputStream(partFile))) {
+                rows = "pdf".equals(job.getFormat())
+                        ? exportService.writePdf(job.getUserId(), job.getFilter(), out)
+                        : exportService.writeCsv(job.getUserId(), job.getFilter(), out);
+            }
+            Files.move(partFile, targetFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+
+            jobRepo.markDone(jobId, targetFile.toString(), Files.size(targetFile), rows, LocalDateTime.now().plus(ttl));
+            log.info("Export job {} finished ({} rows)", jobId, rows);
+        } catch (Exception e) {
+            log.error("Export job {} failed: {}", jobId, e.getMessage(), e);
+            deleteQuietly(partFile);
+            deleteQuietly(targetFile);
+            jobRepo.markFailed(jobId, "Export failed. Please try again.", LocalDateTime.now().plus(ttl));
+        }
+    }
+
+    // ==================== Recovery & Cleanup ====================
+
+    void recover() {
+        int interrupted = jobRepo.requeueInterrupted();
+        List<String> queued = jobRepo.findQueuedIds();
+        if (interrupted > 0 || !queued.isEmpty()) {
+            log.info("Recovering export jobs: {} interrupted, {} queued", interrupted, queued.size());
+        }
+        for (String jobId : queued) {
+            dispatch(jobId);
+        }
+    }
+
+    /**
+     * Deletes finished jobs whose TTL has passed, together with their files.
+     * @return number of jobs removed
+     */
+    int cleanupExpired() {
+        int removed = 0;
+        for (ExportJob job : jobRepo.findExpired(LocalDateTime.now())) {
+            if (job.getFilePath() != null) {
+                deleteQuietly(Paths.get(job.getFilePath()));
+            }
+            if (jobRepo.deleteById(job.getId())) {
+                removed++;
+            }
+        }
+        if (removed > 0) {
+            log.info("Removed {} expired export job(s)", removed);
+        }
+        return removed;
+    }
+
+    private void recoverQuietly() {
+        try {
+            recover();
+        } catch (RuntimeException e) {
+            log.error("Export job recovery failed: {}", e.getMessage(), e);
+        }
+    }
+
+    private void cleanupQuietly() {
+        try {
+            cleanupExpired();
+        } catch (RuntimeException e) {
+            log.error("Export job cleanup failed: {}", e.getMessage(), e);
+        }
+    }
+
+    private void deleteQuietly(Path file) {
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            log.warn("Could not delete export file {}: {}", file, e.getMessage());
+        }
+    }
+
+    private static ThreadFactory daemonThreads(String prefix) {
+        AtomicInteger counter = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, prefix + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+}
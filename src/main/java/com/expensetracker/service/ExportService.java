@@ -0,0 +1,146 @@
+package com.expensetracker.service;
+
+import com.expensetracker.dto.ExportFilter;
+import com.expensetracker.dto.ReportData;
+import com.expensetracker.model.Budget;
+import com.expensetracker.model.Category;
+import com.expensetracker.repository.BudgetRepository;
+import com.expensetracker.repository.CategoryRepository;
+import com.expensetracker.repository.ExpenseCursor;
+import com.expensetracker.repository.ExpenseRepository;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * Renders CSV and PDF exports to an output stream.
+ *
+ * Shared by the synchronous download (ExportServlet) and background export jobs
+ * (ExportJobService), so both produce the same file for the same filters.
+ */
+public class ExportService {
+
+    private static final Logger log = LoggerFactory.getLogger(ExportService.class);
+
+    private static final int WRITE_BUFFER_SIZE = 16 * 1024;
+
+    private final ExpenseRepository expenseRepo;
+    private final CategoryRepository categoryRepo;
+    private final BudgetRepository budgetRepo;
+    private final ReportService reportService;
+    private final CsvReportGenerator csvReportGenerator = new CsvReportGenerator();
+    private final PdfReportGenerator pdfReportGenerator = new PdfReportGenerator();
+
+    public ExportService() {
+        this(new ExpenseRepository(), new CategoryRepository(), new BudgetRepository());
+    }
+
+    public ExportService(ExpenseRepository expenseRepo, CategoryRepository categoryRepo, BudgetRepository budgetRepo) {
+        this.expenseRepo = expenseRepo;
+        this.categoryRepo = categoryRepo;
+        this.budgetRepo = budgetRepo;
+        this.reportService = new ReportService(expenseRepo, categoryRepo, budgetRepo);
+    }
+
+    /**
+     * Writes the cumulative budget CSV. The stream is flushed but not closed.
+     * @return the number of expense rows written
+     */
+    public long writeCsv(Long userId, ExportFilter filter, OutputStream out) throws IOException {
+        log.debug("Generating Cumulative CSV for user {}", userId);
+
+        // Lookup data (small: one row per category / active budget)
+        Map<Integer, String> categoryMap = findCategoryNames(userId);
+
+        Map<Integer, BigDecimal> budgetMap = budgetRepo.findActiveByUserId(userId).stream()
+                .collect(Collectors.toMap(Budget::getCategoryId, Budget::getAmount, (first, second) -> first));
+
+        // Rows come oldest -> newest straight from the database cursor,
+        // so the running balance is correct and the export never sits in memory.
+        try (ExpenseCursor cursor = openCursor(userId, filter, true)) {
+            Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), WRITE_BUFFER_SIZE);
+            long rows = csvReportGenerator.generate(writer, cursor, categoryMap, budgetMap);
+            writer.flush();
+            return rows;
+        }
+    }
+
+    /**
+     * Writes the PDF statement (KPI dashboard + transaction table).
+     * @return the number of expense rows written
+     */
+    public long writePdf(Long userId, ExportFilter filter, OutputStream out) throws IOException {
+        log.debug("Generating PDF for user {}", userId);
+
+        Map<Integer, String> categoryMap = findCategoryNames(userId);
+
+        // SMART ANALYTICS LOGIC
+        LocalDate reportStart = filter.getFrom();
+        LocalDate reportEnd = (filter.getTo() != null) ? filter.getTo() : LocalDate.now();
+        ReportData analytics;
+
+        if (filter.hasAdvancedFilters()) {
+            // CASE A: Filtered View -> Calculate simple totals manually
+            analytics = new ReportData();
+
+            if (reportStart == null) {
+                // Try to fetch the first-ever expense date
+                LocalDate earliest = expenseRepo.findEarliestExpenseDateByUserId(userId);
+                reportStart = (earliest != null) ? earliest : reportEnd.withDayOfMonth(1);
+            }
+
+            BigDecimal totalFiltered = expenseRepo.sumAmountByUserIdAndFilters(userId, filter.getFrom(), filter.getTo(),
+                    filter.getCategoryId(), filter.getMinAmount(), filter.getMaxAmount(), filter.getKeyword());
+            analytics.setTotalSpending(totalFiltered);
+
+            // Calculate simplistic average
+            long days = ChronoUnit.DAYS.between(reportStart, reportEnd) + 1;
+            BigDecimal avg = (days > 0)
+                ? totalFiltered.divide(BigDecimal.valueOf(days), 2, RoundingMode.HALF_UP)
+                : BigDecimal.ZERO;
+            analytics.setAveragePerDay(avg);
+
+            // Empty Comparison/Trends
+            analytics.setCategoryBreakdown(List.of());
+
+        } else {
+            // CASE B: Standard View -> Use full powerful ReportService
+            if (reportStart == null) {
+                LocalDate earliest = expenseRepo.findEarliestExpenseDateByUserId(userId);
+                if (earliest != null) {
+                    reportStart = earliest;
+                }
+            }
+            analytics = reportService.generateCustomReport(userId, reportStart, reportEnd, filter.getCategoryId());
+        }
+
+        try (ExpenseCursor cursor = openCursor(userId, filter, false)) {
+            pdfReportGenerator.generate(out, cursor, categoryMap, analytics, reportStart, reportEnd);
+            return cursor.getRowCount();
+        }
+    }
+
+    private ExpenseCursor openCursor(Long userId, ExportFilter filter, boolean oldestFirst) {
+        return expenseRepo.openCursor(userId, filter.getFrom(), filter.getTo(), filter.getCategoryId(),
+                filter.getMinAmount(), filter.getMaxAmount(), filter.getKeyword(), oldestFirst);
+    }
+
+    private Map<Integer, String> findCategoryNames(Long userId) {
+        return categoryRepo.findAllByUserId(userId).stream()
+                .collect(Collectors.toMap(Category::getId, Category::getName));
+    }
+}
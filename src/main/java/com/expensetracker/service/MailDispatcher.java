@@ -0,0 +1,381 @@
+package com.expensetracker.service;
+
+import com.expensetracker.model.OutboxEmail;
+import com.expensetracker.repository.EmailOutboxRepository;
+import com.expensetracker.util.ConfigLoader;
+
+import jakarta.mail.Message;
+import jakarta.mail.MessagingException;
+import jakarta.mail.Session;
+import jakarta.mail.Transport;
+import jakarta.mail.internet.AddressException;
+import jakarta.mail.internet.InternetAddress;
+import jakarta.mail.internet.MimeMessage;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.UnsupportedEncodingException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.Properties;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Background delivery of outgoing mail through the email_outbox table.
+ *
+ * {@link #submit} writes the email to the outbox and hands its id to a bounded in-memory
+ * queue; a single sender thread drains the queue in batches over one SMTP connection that
+ * stays open between messages (closed after mail.smtp.idle.seconds, renewed every
+ * mail.smtp.max.per.connection messages). When the queue is full the email simply waits in
+ * the outbox, which the sender also polls for retries and for mail left over from a previous
+ * run, so a burst or an SMTP outage never blocks a request or loses a message.
+ *
+ * Failed sends are retried with exponential backoff (mail.retry.base.seconds, doubling) up to
+ * mail.max.attempts, then marked FAILED. This assumes a single application instance.
+ */
+public class MailDispatcher {
+
+    private static final Logger log = LoggerFactory.getLogger(MailDispatcher.class);
+
+    private static final Duration MAX_BACKOFF = Duration.ofHours(1);
+
+    private final EmailOutboxRepository outboxRepo;
+    private final SmtpSettings smtp;
+    private final Session session;
+    private final BlockingQueue<Long> queue;
+    private final int batchSize;
+    private final int maxAttempts;
+    private final Duration retryBase;
+    private final Duration pollInterval;
+    private final ExecutorService sender;
+    private final ScheduledExecutorService janitor;
+
+    private volatile boolean running;
+    // Set once restart recovery has run (and so the table exists); until then only the queue is served
+    private volatile boolean outboxReady;
+
+    // Sender thread only
+    private Transport transport;
+    private int sentOnConnection;
+    private long lastUsedNanos;
+    private long lastPollNanos;
+
+    private final AtomicLong sentCount = new AtomicLong();
+    private final AtomicLong connectionsOpened = new AtomicLong();
+
+    /**
+     * SMTP server, credentials and connection reuse limits.
+     */
+    static final class SmtpSettings {
+        final String host;
+        final int port;
+        final String username; // Empty: no authentication
+        final String password;
+        final InternetAddress from;
+        final int maxPerConnection;
+        final Duration idleTimeout;
+
+        SmtpSettings(String host, int port, String username, String password, InternetAddress from,
+                     int maxPerConnection, Duration idleTimeout) {
+            this.host = host;
+            this.port = port;
+            this.username = username;
+            this.password = password;
+            this.from = from;
+            this.maxPerConnection = maxPerConnection;
+            this.idleTimeout = idleTimeout;
+        }
+
+        static SmtpSettings fromConfig() {
+            String username = ConfigLoader.get("email.smtp.username", "");
+            String address = username.isEmpty() ? ConfigLoader.get("email.from.address", "") : username;
+            InternetAddress from;
+            try {
+                from = new InternetAddress(address, ConfigLoader.get("email.from.name", "ExpenseTracker"), "UTF-8");
+            } catch (UnsupportedEncodingException e) {
+                throw new RuntimeException("Failed to create From address", e);
+            }
+            return new SmtpSettings(
+                    ConfigLoader.get("email.smtp.host", "localhost"),
+                    ConfigLoader.getInt("email.smtp.port", 587),
+                    username,
+                    ConfigLoader.get("email.smtp.password", ""),
+                    from,
+                    ConfigLoader.getInt("mail.smtp.max.per.connection", 100),
+                    Duration.ofSeconds(ConfigLoader.getInt("mail.smtp.idle.seconds", 30)));
+        }
+    }
+
+    public MailDispatcher() {
+        this(new EmailOutboxRepository(), SmtpSettings.fromConfig(),
+                ConfigLoader.getInt("mail.queue.capacity", 1000),
+                ConfigLoader.getInt("mail.batch.size", 50),
+                ConfigLoader.getInt("mail.max.attempts", 6),
+                Duration.ofSeconds(ConfigLoader.getInt("mail.retry.base.seconds", 30)),
+                Duration.ofSeconds(ConfigLoader.getInt("mail.poll.interval.seconds", 5)));
+    }
+
+    MailDispatcher(EmailOutboxRepository outboxRepo, SmtpSettings smtp, int queueCapacity, int batchSize,
+                   int maxAttempts, Duration retryBase, Duration pollInterval) {
+        this.outboxRepo = outboxRepo;
+        this.smtp = smtp;
+        this.session = createSession(smtp);
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        this.batchSize = batchSize;
+        this.maxAttempts = maxAttempts;
+        this.retryBase = retryBase;
+        this.pollInterval = pollInterval;
+        this.sender = Executors.newSingleThreadExecutor(daemonThreads("mail-sender-"));
+        this.janitor = Executors.newSingleThreadScheduledExecutor(daemonThreads("mail-janitor-"));
+    }
+
+    // ==================== Lifecycle ====================
+
+    /**
+     * Starts the sender and schedules restart recovery and cleanup of old outbox rows.
+     * Recovery is delayed so it runs after the Flyway migrations have created the table.
+     */
+    public void start(long recoveryDelaySeconds, int retentionDays) {
+        running = true;
+        sender.execute(this::sendLoop);
+        janitor.schedule(this::recoverQuietly, recoveryDelaySeconds, TimeUnit.SECONDS);
+        janitor.scheduleWithFixedDelay(() -> cleanupQuietly(retentionDays), 1, 24, TimeUnit.HOURS);
+        log.info("Mail dispatcher started: smtp={}:{}, queue={}, batch={}, maxAttempts={}",
+                smtp.host, smtp.port, queue.remainingCapacity(), batchSize, maxAttempts);
+    }
+
+    public void shutdown() {
+        running = false;
+        janitor.shutdownNow();
+        sender.shutdownNow();
+        try {
+            if (!sender.awaitTermination(10, TimeUnit.SECONDS)) {
+                log.warn("Mail sender did not stop in time; unsent mail stays in the outbox");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    // ==================== Public API ====================
+
+    /**
+     * Persists an email to the outbox and queues it for the sender.
+     * @throws RuntimeException if the outbox row cannot be written
+     */
+    public void submit(String toEmail, String subject, String htmlContent) {
+        OutboxEmail email = outboxRepo.save(new OutboxEmail(toEmail, subject, htmlContent));
+        if (!queue.offer(email.getId())) {
+            // Backpressure: the row is already durable, the next outbox poll picks it up
+            log.warn("Mail queue full, email {} to {} will be sent from the outbox", email.getId(), toEmail);
+        }
+    }
+
+    long getSentCount() {
+        return sentCount.get();
+    }
+
+    long getConnectionsOpened() {
+        return connectionsOpened.get();
+    }
+
+    // ==================== Sender ====================
+
+    private void sendLoop() {
+        List<Long> batch = new ArrayList<>(batchSize);
+        while (running) {
+            try {
+                batch.clear();
+                Long first = queue.poll(pollInterval.toMillis(), TimeUnit.MILLISECONDS);
+                if (first != null) {
+                    batch.add(first);
+                    queue.drainTo(batch, batchSize - 1);
+                }
+                // The outbox holds retries, overflow and mail from before a restart; poll it
+                // when idle, and at least every poll interval under load so it cannot starve
+                if (outboxReady && (first == null || System.nanoTime() - lastPollNanos >= pollInterval.toNanos())) {
+                    lastPollNanos = System.nanoTime();
+                    batch.addAll(outboxRepo.findDueIds(LocalDateTime.now(), batchSize));
+                }
+                sendBatch(batch);
+                closeIfIdle();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            } catch (RuntimeException e) {
+                // Database trouble: the rows stay QUEUED, so the next poll retries them
+                log.error("Mail dispatch failed: {}", e.getMessage(), e);
+            }
+        }
+        closeTransport();
+    }
+
+    void sendBatch(List<Long> ids) {
+        for (Long id : ids) {
+            // Claim first: an id can arrive from both the queue and the outbox poll
+            Optional<OutboxEmail> claimed = outboxRepo.claim(id);
+            claimed.ifPresent(this::send);
+        }
+    }
+
+    private void send(OutboxEmail email) {
+        try {
+            deliver(toMessage(email));
+            outboxRepo.markSent(email.getId());
+            sentCount.incrementAndGet();
+            log.debug("Email {} sent to {} | {}", email.getId(), email.getRecipient(), email.getSubject());
+        } catch (AddressException e) {
+            // Retrying will not fix a malformed address
+            log.error("Email {} has an invalid recipient {}: {}", email.getId(), email.getRecipient(), e.getMessage());
+            outboxRepo.markFailed(email.getId(), e.getMessage());
+        } catch (MessagingException e) {
+            if (email.getAttempts() >= maxAttempts) {
+                log.error("Email {} to {} failed after {} attempts: {}",
+                        email.getId(), email.getRecipient(), email.getAttempts(), e.getMessage());
+                outboxRepo.markFailed(email.getId(), e.getMessage());
+            } else {
+                LocalDateTime nextAttempt = LocalDateTime.now().plus(backoff(email.getAttempts()));
+                log.warn("Email {} to {} failed (attempt {}), retrying at {}: {}",
+                        email.getId(), email.getRecipient(), email.getAttempts(), nextAttempt, e.getMessage());
+                outboxRepo.markRetry(email.getId(), nextAttempt, e.getMessage());
+            }
+        }
+    }
+
+    // Reuses the open connection; a server may have dropped it while idle, so a failure on a
+    // reused connection is retried once on a fresh one before it counts as an attempt
+    private void deliver(MimeMessage message) throws MessagingException {
+        boolean reused = transport != null;
+        try {
+            connectedTransport().sendMessage(message, message.getAllRecipients());
+        } catch (MessagingException e) {
+            closeTransport();
+            if (!reused) {
+                throw e;
+            }
+            try {
+                connectedTransport().sendMessage(message, message.getAllRecipients());
+            } catch (MessagingException retryFailure) {
+                closeTransport();
+                throw retryFailure;
+            }
+        }
+        sentOnConnection++;
+        lastUsedNanos = System.nanoTime();
+        if (sentOnConnection >= smtp.maxPerConnection) {
+            closeTransport();
+        }
+    }
+
+    private Transport connectedTransport() throws MessagingException {
+        if (transport == null) {
+            Transport fresh = session.getTransport("smtp");
+            fresh.connect(smtp.host, smtp.port,
+                    smtp.username.isEmpty() ? null : smtp.username,
+                    smtp.username.isEmpty() ? null : smtp.password);
+            transport = fresh;
+            sentOnConnection = 0;
+            connectionsOpened.incrementAndGet();
+        }
+        return transport;
+    }
+
+    private void closeIfIdle() {
+        if (transport != null && System.nanoTime() - lastUsedNanos >= smtp.idleTimeout.toNanos()) {
+            closeTransport();
+        }
+    }
+
+    private void closeTransport() {
+        if (transport != null) {
+            try {
+                transport.close();
+            } catch (MessagingException e) {
+                log.debug("Error closing SMTP connection: {}", e.getMessage());
+            }
+            transport = null;
+        }
+    }
+
+    private MimeMessage toMessage(OutboxEmail email) throws MessagingException {
+        MimeMessage message = new MimeMessage(session);
+        message.setFrom(smtp.from);
+        message.setRecipients(Message.RecipientType.TO, InternetAddress.parse(email.getRecipient()));
+        message.setSubject(email.getSubject(), "UTF-8");
+        message.setContent(email.getHtmlBody(), "text/html; charset=utf-8");
+        message.saveChanges(); // Transport.send does this implicitly, sendMessage does not
+        return message;
+    }
+
+    private Duration backoff(int attempts) {
+        Duration delay = retryBase.multipliedBy(1L << Math.min(attempts - 1, 20));
+        return delay.compareTo(MAX_BACKOFF) > 0 ? MAX_BACKOFF : delay;
+    }
+
+    // ==================== Recovery & Cleanup ====================
+
+    void recover() {
+        int interrupted = outboxRepo.requeueInterrupted();
+        if (interrupted > 0) {
+            log.info("Re-queued {} email(s) interrupted by the last shutdown", interrupted);
+        }
+        outboxReady = true;
+    }
+
+    private void recoverQuietly() {
+        try {
+            recover();
+        } catch (RuntimeException e) {
+            log.error("Mail outbox recovery failed: {}", e.getMessage(), e);
+        }
+    }
+
+    private void cleanupQuietly(int retentionDays) {
+        try {
+            int removed = outboxRepo.deleteFinishedBefore(LocalDateTime.now().minusDays(retentionDays));
+            if (removed > 0) {
+                log.info("Removed {} old outbox email(s)", removed);
+            }
+        } catch (RuntimeException e) {
+            log.error("Mail outbox cleanup failed: {}", e.getMessage(), e);
+        }
+    }
+
+    private static Session createSession(SmtpSettings smtp) {
+        Properties props = new Properties();
+        props.put("mail.smtp.auth", String.valueOf(!smtp.username.isEmpty()));
+        props.put("mail.smtp.starttls.enable", "true");
+        props.put("mail.smtp.host", smtp.host);
+        props.put("mail.smtp.port", String.valueOf(smtp.port));
+        // A hung server must not stall the sender thread forever
+        props.put("mail.smtp.connectiontimeout", "10000");
+        props.put("mail.smtp.timeout", "10000");
+        props.put("mail.smtp.writetimeout", "10000");
+
+        // Uncomment the next line only when troubleshooting connection / TLS issues
+        // props.put("mail.debug", "true");
+
+        return Session.getInstance(props);
+    }
+
+    private static ThreadFactory daemonThreads(String prefix) {
+        AtomicInteger counter = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, prefix + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+}
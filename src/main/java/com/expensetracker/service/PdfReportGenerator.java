@@ -3,6 +3,8 @@ package com.expensetracker.service;
 import com.expensetracker.model.Expense;
 import com.expensetracker.dto.ReportData;
 import com.expensetracker.dto.CategorySummary;
+import com.expensetracker.util.ConfigLoader;
+import org.apache.pdfbox.io.MemoryUsageSetting;
 import org.apache.pdfbox.pdmodel.PDDocument;
 import org.apache.pdfbox.pdmodel.PDPage;
 import org.apache.pdfbox.pdmodel.PDPageContentStream;
@@ -13,8 +15,11 @@ import org.apache.pdfbox.pdmodel.font.Standard14Fonts;
 import jakarta.servlet.http.HttpServletResponse;
 import java.awt.Color;
 import java.io.IOException;
+import java.io.OutputStream;
+import java.math.RoundingMode;
 import java.time.LocalDate;
 import java.time.format.DateTimeFormatter;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 
@@ -31,17 +36,42 @@ public class PdfReportGenerator {
     private static final Color COL_TEXT = new Color(35, 37, 40);       // Dark Grey
     private static final Color COL_GRAY = Color.GRAY;
 
-    // Helper to get Standard Fonts in PDFBox 3.0
-    private PDType1Font getFont(Standard14Fonts.FontName name) {
-        return new PDType1Font(name);
+    private static final DateTimeFormatter ROW_DATE_FORMAT = DateTimeFormatter.ofPattern("MMM dd");
+
+    // Above this many bytes, PDFBox spills page content streams to a temp file instead of the heap
+    private static final long MAX_MAIN_MEMORY_BYTES =
+            ConfigLoader.getInt("export.pdf.max.memory.mb", 8) * 1024L * 1024L;
+
+    /**
+     * Standard fonts for one document. Created once per document so every row reuses
+     * the same font resource instead of building a new PDType1Font per call.
+     */
+    private static final class Fonts {
+        final PDType1Font regular = new PDType1Font(Standard14Fonts.FontName.HELVETICA);
+        final PDType1Font bold = new PDType1Font(Standard14Fonts.FontName.HELVETICA_BOLD);
     }
 
     public void generate(HttpServletResponse response, List<Expense> expenses, 
                          Map<Integer, String> categoryMap, ReportData analytics,
                          LocalDate from, LocalDate to) throws IOException {
-        
-        try (PDDocument document = new PDDocument()) {
-            
+        response.setContentType("application/pdf");
+        response.setHeader("Content-Disposition", "attachment; filename=\"Analysis_Report.pdf\"");
+        generate(response.getOutputStream(), expenses.iterator(), categoryMap, analytics, from, to);
+    }
+
+    /**
+     * Draws the report while consuming the expenses one at a time (e.g. from an
+     * ExpenseCursor), then writes the document to {@code out}. Finished page content
+     * is kept in PDFBox's scratch cache, which moves to a temp file once it exceeds
+     * export.pdf.max.memory.mb, so the heap does not grow with the row count.
+     */
+    public void generate(OutputStream out, Iterator<Expense> expenses,
+                         Map<Integer, String> categoryMap, ReportData analytics,
+                         LocalDate from, LocalDate to) throws IOException {
+
+        try (PDDocument document = new PDDocument(MemoryUsageSetting.setupMixed(MAX_MAIN_MEMORY_BYTES).streamCache)) {
+            Fonts fonts = new Fonts();
+
             // 1. Setup First Page
             PDPage page = new PDPage(PDRectangle.A4);
             document.addPage(page);
@@ -53,25 +83,27 @@ public class PdfReportGenerator {
             int y = Y_TOP_FIRST_PAGE;
 
             // 2. Draw Dashboard (Only on First Page)
-            drawHeader(contentStream, y, from, to);
+            drawHeader(contentStream, fonts, y, from, to);
             y -= 60;
 
             if (analytics != null) {
-                y = drawKPICards(contentStream, y, analytics);
+                y = drawKPICards(contentStream, fonts, y, analytics);
                 y -= 20; 
-                y = drawCategoryBars(contentStream, y, analytics.getCategoryBreakdown());
+                y = drawCategoryBars(contentStream, fonts, y, analytics.getCategoryBreakdown());
                 y -= 40; 
             }
 
             // 3. Draw Table Header (Initial)
-            drawTableHeader(contentStream, y);
+            drawTableHeader(contentStream, fonts, y);
             y -= 20;
 
             // 4. Draw Rows with Pagination Logic
-            contentStream.setFont(getFont(Standard14Fonts.FontName.HELVETICA), 10);
+            contentStream.setFont(fonts.regular, 10);
             contentStream.setNonStrokingColor(COL_TEXT);
 
-            for (Expense e : expenses) {
+            while (expenses.hasNext()) {
+                Expense e = expenses.next();
+
                 // --- PAGINATION LOGIC START ---
                 // If we are too close to the bottom (Margin + Footer space)
                 if (y < MARGIN + 20) {
@@ -89,23 +121,23 @@ public class PdfReportGenerator {
                     y = Y_TOP_SUBSEQUENT_PAGES;
 
                     // E. Re-draw Table Header on the new page
-                    drawTableHeader(contentStream, y);
+                    drawTableHeader(contentStream, fonts, y);
                     y -= 20;
 
                     // F. Re-apply Fonts (Context is lost on new stream)
-                    contentStream.setFont(getFont(Standard14Fonts.FontName.HELVETICA), 10);
+                    contentStream.setFont(fonts.regular, 10);
                     contentStream.setNonStrokingColor(COL_TEXT);
                 }
                 // --- PAGINATION LOGIC END ---
 
-                String date = e.getExpenseDate().format(DateTimeFormatter.ofPattern("MMM dd"));
+                String date = e.getExpenseDate().format(ROW_DATE_FORMAT);
                 String cat = categoryMap.getOrDefault(e.getCategoryId(), "-");
                 // Truncate Description to fit column
                 String desc = e.getDescription();
                 if (desc != null && desc.length() > 28) {
                     desc = desc.substring(0, 25) + "...";
                 }
-                String amt = String.format("%.2f", e.getAmount());
+                String amt = e.getAmount().setScale(2, RoundingMode.HALF_UP).toPlainString();
 
                 drawRow(contentStream, y, date, cat, desc, amt);
                 y -= 20;
@@ -115,38 +147,36 @@ public class PdfReportGenerator {
             contentStream.close();
 
             // 5. Send to Browser
-            response.setContentType("application/pdf");
-            response.setHeader("Content-Disposition", "attachment; filename=\"Analysis_Report.pdf\"");
-            document.save(response.getOutputStream());
+            document.save(out);
         }
     }
 
     // --- DRAWING HELPERS ---
 
-    private void drawHeader(PDPageContentStream stream, int y, LocalDate from, LocalDate to) throws IOException {
+    private void drawHeader(PDPageContentStream stream, Fonts fonts, int y, LocalDate from, LocalDate to) throws IOException {
         stream.beginText();
-        stream.setFont(getFont(Standard14Fonts.FontName.HELVETICA_BOLD), 24);
+        stream.setFont(fonts.bold, 24);
         stream.setNonStrokingColor(COL_PRIMARY);
         stream.newLineAtOffset(MARGIN, y);
         stream.showText("Financial Statement");
         stream.endText();
 
         stream.beginText();
-        stream.setFont(getFont(Standard14Fonts.FontName.HELVETICA), 12);
+        stream.setFont(fonts.regular, 12);
         stream.setNonStrokingColor(COL_GRAY);
         stream.newLineAtOffset(MARGIN, y - 20);
         stream.showText("Period: " + from.toString() + " to " + to.toString());
         stream.endText();
     }
 
-    private int drawKPICards(PDPageContentStream stream, int y, ReportData data) throws IOException {
+    private int drawKPICards(PDPageContentStream stream, Fonts fonts, int y, ReportData data) throws IOException {
         int cardHeight = 50;
         
         // Card 1: Total
-        drawCard(stream, MARGIN, y, "TOTAL SPENT", "Rs. " + data.getTotalSpending());
+        drawCard(stream, fonts, MARGIN, y, "TOTAL SPENT", "Rs. " + data.getTotalSpending());
         
         // Card 2: Daily Avg
-        drawCard(stream, MARGIN + 170, y, "DAILY AVG", "Rs. " + data.getAveragePerDay());
+        drawCard(stream, fonts, MARGIN + 170, y, "DAILY AVG", "Rs. " + data.getAveragePerDay());
         
         // Card 3: Trend
         String trend = "N/A";
@@ -155,12 +185,12 @@ public class PdfReportGenerator {
             String arrow = (chg > 0) ? "+" : ""; // up or down arrow
             trend = arrow + String.format("%.1f", chg) + "% vs last";
         }
-        drawCard(stream, MARGIN + 340, y, "TREND", trend);
+        drawCard(stream, fonts, MARGIN + 340, y, "TREND", trend);
 
         return y - cardHeight;
     }
 
-    private void drawCard(PDPageContentStream stream, int x, int y, String label, String value) throws IOException {
+    private void drawCard(PDPageContentStream stream, Fonts fonts, int x, int y, String label, String value) throws IOException {
         // Draw Box
         stream.setNonStrokingColor(COL_ACCENT);
         stream.addRect(x, y - 40, 150, 40);
@@ -169,7 +199,7 @@ public class PdfReportGenerator {
         // Label
         stream.beginText();
         stream.setNonStrokingColor(COL_PRIMARY);
-        stream.setFont(getFont(Standard14Fonts.FontName.HELVETICA_BOLD), 8);
+        stream.setFont(fonts.bold, 8);
         stream.newLineAtOffset(x + 10, y - 12);
         stream.showText(label);
         stream.endText();
@@ -177,17 +207,17 @@ public class PdfReportGenerator {
         // Value
         stream.beginText();
         stream.setNonStrokingColor(COL_TEXT);
-        stream.setFont(getFont(Standard14Fonts.FontName.HELVETICA_BOLD), 14);
+        stream.setFont(fonts.bold, 14);
         stream.newLineAtOffset(x + 10, y - 30);
         stream.showText(value);
         stream.endText();
     }
 
-    private int drawCategoryBars(PDPageContentStream stream, int y, List<CategorySummary> cats) throws IOException {
+    private int drawCategoryBars(PDPageContentStream stream, Fonts fonts, int y, List<CategorySummary> cats) throws IOException {
         if (cats == null || cats.isEmpty()) return y;
 
         stream.beginText();
-        stream.setFont(getFont(Standard14Fonts.FontName.HELVETICA_BOLD), 12);
+        stream.setFont(fonts.bold, 12);
         stream.setNonStrokingColor(COL_TEXT);
         stream.newLineAtOffset(MARGIN, y);
         stream.showText("Top Spending Categories");
@@ -201,7 +231,7 @@ public class PdfReportGenerator {
             
             // Text Label
             stream.beginText();
-            stream.setFont(getFont(Standard14Fonts.FontName.HELVETICA), 10);
+            stream.setFont(fonts.regular, 10);
             stream.newLineAtOffset(MARGIN, y);
             stream.showText(cat.getCategoryName());
             stream.endText();
@@ -217,7 +247,7 @@ public class PdfReportGenerator {
             // Percentage Text
             stream.beginText();
             stream.setNonStrokingColor(COL_GRAY);
-            stream.setFont(getFont(Standard14Fonts.FontName.HELVETICA), 9);
+            stream.setFont(fonts.regular, 9);
             stream.newLineAtOffset(MARGIN + 100 + barWidth + 5, y);
             stream.showText(String.format("%.1f%%", percent));
             stream.endText();
@@ -227,9 +257,9 @@ public class PdfReportGenerator {
         return y;
     }
 
-    private void drawTableHeader(PDPageContentStream stream, int y) throws IOException {
+    private void drawTableHeader(PDPageContentStream stream, Fonts fonts, int y) throws IOException {
         stream.setNonStrokingColor(COL_TEXT);
-        stream.setFont(getFont(Standard14Fonts.FontName.HELVETICA_BOLD), 10);
+        stream.setFont(fonts.bold, 10);
         
         // Draw Text
         stream.beginText();
@@ -7,6 +7,11 @@ import com.expensetracker.model.Expense;
 import com.expensetracker.repository.BudgetRepository;
 import com.expensetracker.repository.CategoryRepository;
 import com.expensetracker.repository.ExpenseRepository;
+import com.expensetracker.repository.SpendingRollupRepository;
+import com.expensetracker.util.ConfigLoader;
+import com.expensetracker.util.ExpenseSnapshot;
+import com.expensetracker.util.Money;
+import com.expensetracker.util.RequestMetrics;
 
 import java.math.BigDecimal;
 import java.math.RoundingMode;
@@ -16,6 +21,10 @@ import java.time.format.TextStyle;
 import java.time.temporal.ChronoUnit;
 import java.time.temporal.TemporalAdjusters;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 import java.util.stream.Collectors;
 
 public class ReportService {
@@ -23,13 +32,31 @@ public class ReportService {
     private final ExpenseRepository expenseRepository;
     private final CategoryRepository categoryRepository;
     private final BudgetRepository budgetRepository;
+    private final SpendingRollupRepository rollupRepository;
+    private final BudgetService budgetService;
+
+    private static final int TOP_EXPENSES_LIMIT = 10;
+    // Reports spanning at least this many days fetch their top rows concurrently with the aggregates
+    private static final int PARALLEL_MIN_DAYS = ConfigLoader.getInt("report.parallel.min.days", 92);
+    // Tasks only wait on JDBC, so virtual threads; the connection pool bounds how many run at once
+    private static final ExecutorService REPORT_EXECUTOR = Executors.newVirtualThreadPerTaskExecutor();
+    private static final int MAX_DENSE_SLOT_SPAN = 4096; // Category id range the monthly trend indexes directly
 
     public ReportService(ExpenseRepository expenseRepository, 
                          CategoryRepository categoryRepository,
                          BudgetRepository budgetRepository) {
+        this(expenseRepository, categoryRepository, budgetRepository, new SpendingRollupRepository());
+    }
+
+    public ReportService(ExpenseRepository expenseRepository,
+                         CategoryRepository categoryRepository,
+                         BudgetRepository budgetRepository,
+                         SpendingRollupRepository rollupRepository) {
         this.expenseRepository = expenseRepository;
         this.categoryRepository = categoryRepository;
         this.budgetRepository = budgetRepository;
+        this.rollupRepository = rollupRepository;
+        this.budgetService = new BudgetService(budgetRepository, categoryRepository, expenseRepository, rollupRepository);
     }
 
     // ==================================================================================
@@ -61,15 +88,37 @@ public class ReportService {
             throw new IllegalArgumentException("Date range cannot exceed 2 years");
         }
 
-        // 2. Fetch Expenses & Categories
-        List<Expense> expenses = expenseRepository.findByUserIdAndFilters(userId, startDate, endDate, categoryId, null, null, null);
+        // 2. Previous period: same duration shifted back
+        long daysInRange = ChronoUnit.DAYS.between(startDate, endDate) + 1;
+        return buildPeriodReport(userId, startDate, endDate,
+                startDate.minusDays(daysInRange), startDate.minusDays(1), categoryId);
+    }
+
+    // Shared by all report entry points: one grouped query covers the report window and the
+    // window it is compared against, so a report is one aggregate read plus the top rows.
+    private ReportData buildPeriodReport(Long userId, LocalDate startDate, LocalDate endDate,
+                                         LocalDate prevStart, LocalDate prevEnd, Integer categoryId) {
+        long daysInRange = ChronoUnit.DAYS.between(startDate, endDate) + 1;
+
+        // 0. Long ranges: start the top-rows query now so it runs beside the aggregate query
+        //    (short ones wait for the aggregates and skip it when there is nothing to rank)
+        CompletableFuture<List<Expense>> topRowsF = daysInRange >= PARALLEL_MIN_DAYS
+                ? CompletableFuture.supplyAsync(RequestMetrics.propagate(() -> expenseRepository.findTopExpensesByAmount(
+                        userId, startDate, endDate, categoryId, TOP_EXPENSES_LIMIT)), REPORT_EXECUTOR)
+                : null;
+
+        // 1. Fetch grouped (date, category) aggregates for both windows & Categories
+        // Totals, breakdown, trend and day-of-week are all folded from this one grouped result;
+        // only the top rows are loaded as full Expense objects.
+        PeriodTotals periodTotals =
+                expenseRepository.findPeriodCategoryTotals(userId, startDate, endDate, prevStart, prevEnd, categoryId);
         
         // Fetch categories to map IDs to Names (Resolving "Expense does not have getCategory" issue)
         List<Category> userCategories = categoryRepository.findAllByUserId(userId);
         Map<Integer, String> categoryNameMap = userCategories.stream()
                 .collect(Collectors.toMap(Category::getId, Category::getName));
 
-        // 3. Initialize Report Data
+        // 2. Initialize Report Data
         ReportData report = new ReportData();
         report.setStartDate(startDate);
         report.setEndDate(endDate);
@@ -81,49 +130,70 @@ public class ReportService {
             }
         }
 
-        // 4. Calculate Basic Metrics
-        BigDecimal totalSpending = expenses.stream()
-                .map(Expense::getAmount)
-                .reduce(BigDecimal.ZERO, BigDecimal::add);
-        
-        long daysInRange = ChronoUnit.DAYS.between(startDate, endDate) + 1;
+        // 3. Single pass over the aggregate rows, summing cents (converted once per bucket below)
+        long totalCents = 0;
+        int transactionCount = 0;
+        Map<String, long[]> categoryTotals = new HashMap<>(); // name -> {cents, count}
+        long[] dailyCents = new long[(int) daysInRange];
+        int[] dailyCounts = new int[(int) daysInRange];
+        long[] dowCents = new long[7];
+        int[] dowCounts = new int[7];
+
+        for (DailyCategoryTotal row : periodTotals.getCurrent()) {
+            long cents = Money.toCents(row.getTotal());
+            String catName = categoryNameMap.getOrDefault(row.getCategoryId(), "Uncategorized");
+            int day = (int) ChronoUnit.DAYS.between(startDate, row.getDate());
+            int dow = row.getDate().getDayOfWeek().ordinal();
+
+            totalCents += cents;
+            transactionCount += row.getTransactionCount();
+            long[] category = categoryTotals.computeIfAbsent(catName, k -> new long[2]);
+            category[0] += cents;
+            category[1] += row.getTransactionCount();
+            dailyCents[day] += cents;
+            dailyCounts[day] += row.getTransactionCount();
+            dowCents[dow] += cents;
+            dowCounts[dow] += row.getTransactionCount();
+        }
+
+        BigDecimal totalSpending = transactionCount > 0 ? Money.fromCents(totalCents) : BigDecimal.ZERO;
         BigDecimal avgDaily = daysInRange > 0 
                 ? totalSpending.divide(BigDecimal.valueOf(daysInRange), 2, RoundingMode.HALF_UP) 
                 : BigDecimal.ZERO;
 
         report.setTotalSpending(totalSpending);
-        report.setTransactionCount(expenses.size());
+        report.setTransactionCount(transactionCount);
         report.setAveragePerDay(avgDaily);
         report.setAveragePerWeek(avgDaily.multiply(BigDecimal.valueOf(7))); 
         report.setAveragePerMonth(avgDaily.multiply(BigDecimal.valueOf(30)));
 
-        // 5. Category Breakdown
-        Map<String, List<Expense>> expensesByCategory = expenses.stream()
-                .collect(Collectors.groupingBy(e -> 
-                    categoryNameMap.getOrDefault(e.getCategoryId(), "Uncategorized")
-                ));
-
-        List<CategorySummary> categoryBreakdown = expensesByCategory.entrySet().stream()
+        // 4. Category Breakdown
+        final BigDecimal grandTotal = totalSpending;
+        List<CategorySummary> categoryBreakdown = categoryTotals.entrySet().stream()
                 .map(entry -> {
-                    BigDecimal catTotal = entry.getValue().stream()
-                            .map(Expense::getAmount)
-                            .reduce(BigDecimal.ZERO, BigDecimal::add);
-                    double percentage = totalSpending.compareTo(BigDecimal.ZERO) > 0
-                            ? catTotal.divide(totalSpending, 4, RoundingMode.HALF_UP).doubleValue() * 100
+                    BigDecimal catTotal = Money.fromCents(entry.getValue()[0]);
+                    double percentage = grandTotal.compareTo(BigDecimal.ZERO) > 0
+                            ? catTotal.divide(grandTotal, 4, RoundingMode.HALF_UP).doubleValue() * 100
                             : 0.0;
-                    return new CategorySummary(entry.getKey(), catTotal, percentage, entry.getValue().size());
+                    return new CategorySummary(entry.getKey(), catTotal, percentage, (int) entry.getValue()[1]);
                 })
                 .sorted((a, b) -> b.getTotal().compareTo(a.getTotal()))
                 .collect(Collectors.toList());
         report.setCategoryBreakdown(categoryBreakdown);
 
-        // 6. Top Expenses
-        List<ExpenseDetail> topExpenses = expenses.stream()
-                .sorted(Comparator.comparing(Expense::getAmount).reversed())
-                .limit(10)
+        // 5. Top Expenses (the only rows materialised as Expense objects)
+        List<Expense> topRows;
+        if (topRowsF != null) {
+            topRows = join(topRowsF);
+        } else if (transactionCount > 0) {
+            topRows = expenseRepository.findTopExpensesByAmount(userId, startDate, endDate, categoryId, TOP_EXPENSES_LIMIT);
+        } else {
+            topRows = Collections.emptyList();
+        }
+        List<ExpenseDetail> topExpenses = topRows.stream()
                 .map(e -> {
-                    double pct = totalSpending.compareTo(BigDecimal.ZERO) > 0
-                            ? e.getAmount().divide(totalSpending, 4, RoundingMode.HALF_UP).doubleValue() * 100
+                    double pct = grandTotal.compareTo(BigDecimal.ZERO) > 0
+                            ? e.getAmount().divide(grandTotal, 4, RoundingMode.HALF_UP).doubleValue() * 100
                             : 0.0;
                     // Fix: Pass name explicitly using the map
                     String catName = categoryNameMap.getOrDefault(e.getCategoryId(), "Uncategorized");
@@ -132,59 +202,32 @@ public class ReportService {
                 .collect(Collectors.toList());
         report.setTopExpenses(topExpenses);
 
-        // 7. Spending Trend
-        Map<LocalDate, BigDecimal> dailyTotals = expenses.stream()
-                .collect(Collectors.groupingBy(
-                        Expense::getExpenseDate,
-                        Collectors.reducing(BigDecimal.ZERO, Expense::getAmount, BigDecimal::add)
-                ));
-        
+        // 6. Spending Trend
         List<TrendPoint> trendData = new ArrayList<>();
-        for (LocalDate date = startDate; !date.isAfter(endDate); date = date.plusDays(1)) {
-            trendData.add(new TrendPoint(date, dailyTotals.getOrDefault(date, BigDecimal.ZERO)));
+        for (int day = 0; day < daysInRange; day++) {
+            BigDecimal amount = dailyCounts[day] > 0 ? Money.fromCents(dailyCents[day]) : BigDecimal.ZERO;
+            trendData.add(new TrendPoint(startDate.plusDays(day), amount));
         }
         report.setTrendData(trendData);
 
-        // 8. Day of Week Distribution
-        Map<String, BigDecimal> dowMap = expenses.stream()
-                .collect(Collectors.groupingBy(
-                        e -> e.getExpenseDate().getDayOfWeek().getDisplayName(TextStyle.FULL, Locale.ENGLISH),
-                        Collectors.reducing(BigDecimal.ZERO, Expense::getAmount, BigDecimal::add)
-                ));
+        // 7. Day of Week Distribution (only days that had spending)
+        Map<String, BigDecimal> dowMap = new HashMap<>();
+        for (DayOfWeek dow : DayOfWeek.values()) {
+            if (dowCounts[dow.ordinal()] > 0) {
+                dowMap.put(dow.getDisplayName(TextStyle.FULL, Locale.ENGLISH), Money.fromCents(dowCents[dow.ordinal()]));
+            }
+        }
         report.setDayOfWeekDistribution(dowMap);
 
-        // ==========================================================
-        // 9. NEW: Period Comparison Logic (Required for PDF Trend)
-        // ==========================================================
-        
-        // Calculate previous period dates (same duration shifted back)
-        LocalDate prevStart = startDate.minusDays(daysInRange);
-        LocalDate prevEnd = startDate.minusDays(1);
-
-        // Fetch expenses for the previous period using the same filter
-        List<Expense> prevExpenses = expenseRepository.findByUserIdAndFilters(userId, prevStart, prevEnd, categoryId, null, null, null);
-        
-        BigDecimal prevTotal = prevExpenses.stream()
-                .map(Expense::getAmount)
-                .reduce(BigDecimal.ZERO, BigDecimal::add);
+        // 8. Period Comparison (from the same query)
+        BigDecimal prevTotal = periodTotals.getPreviousTotal();
 
         PeriodComparison comparison = new PeriodComparison();
         comparison.setPreviousStartDate(prevStart);
         comparison.setPreviousEndDate(prevEnd);
         comparison.setPreviousTotal(prevTotal);
-
-        // Calculate Percentage Change
-        if (prevTotal.compareTo(BigDecimal.ZERO) > 0) {
-            BigDecimal diff = totalSpending.subtract(prevTotal);
-            double pctChange = diff.divide(prevTotal, 4, RoundingMode.HALF_UP).doubleValue() * 100;
-            comparison.setPercentageChange(pctChange);
-        } else if (totalSpending.compareTo(BigDecimal.ZERO) > 0) {
-            // If previous was 0 and current is > 0, it's a 100% increase (or treated as new spending)
-            comparison.setPercentageChange(100.0);
-        } else {
-            // Both zero
-            comparison.setPercentageChange(0.0);
-        }
+        comparison.setAbsoluteChange(totalSpending.subtract(prevTotal));
+        comparison.setPercentageChange(percentChange(totalSpending, prevTotal));
 
         report.setComparison(comparison);
 
@@ -196,83 +239,45 @@ public class ReportService {
     // ==================================================================================
 
     public ReportData generatePredefinedReport(Long userId, String reportType) {
-        LocalDate start, end;
-        LocalDate prevStart, prevEnd;
+        return generatePredefinedReportWithCategory(userId, reportType, null);
+    }
+
+    // Report window and comparison window for each predefined period (unknown types fall back to THIS_MONTH)
+    private static ReportPeriod resolvePeriod(String reportType) {
         LocalDate now = LocalDate.now();
+        LocalDate start, end;
 
         switch (reportType) {
             case "THIS_WEEK":
-                start = now.with(DayOfWeek.MONDAY); 
-                end = now;
-                prevStart = start.minusWeeks(1);
-                prevEnd = end.minusWeeks(1);
-                break;
-            case "THIS_MONTH":
-                start = now.withDayOfMonth(1);
+                start = now.with(DayOfWeek.MONDAY);
                 end = now;
-                prevStart = start.minusMonths(1);
-                prevEnd = end.minusMonths(1);
-                break;
+                return new ReportPeriod(start, end, start.minusWeeks(1), end.minusWeeks(1));
             case "LAST_MONTH":
                 start = now.minusMonths(1).withDayOfMonth(1);
                 end = now.minusMonths(1).with(TemporalAdjusters.lastDayOfMonth());
-                prevStart = start.minusMonths(1);
-                prevEnd = end.minusMonths(1);
-                break;
+                return new ReportPeriod(start, end, start.minusMonths(1), end.minusMonths(1));
             case "LAST_3_MONTHS":
                 start = now.minusMonths(3).withDayOfMonth(1);
                 end = now.minusMonths(1).with(TemporalAdjusters.lastDayOfMonth());
-                prevStart = start.minusMonths(3);
-                prevEnd = end.minusMonths(3);
-                break;
+                return new ReportPeriod(start, end, start.minusMonths(3), end.minusMonths(3));
             case "LAST_6_MONTHS":
                 start = now.minusMonths(6).withDayOfMonth(1);
                 end = now.minusMonths(1).with(TemporalAdjusters.lastDayOfMonth());
-                prevStart = start.minusMonths(6);
-                prevEnd = end.minusMonths(6);
-                break;
+                return new ReportPeriod(start, end, start.minusMonths(6), end.minusMonths(6));
             case "THIS_YEAR":
                 start = LocalDate.of(now.getYear(), 1, 1);
                 end = now;
-                prevStart = start.minusYears(1);
-                prevEnd = end.minusYears(1);
-                break;
+                return new ReportPeriod(start, end, start.minusYears(1), end.minusYears(1));
             case "LAST_YEAR":
                 start = LocalDate.of(now.getYear() - 1, 1, 1);
                 end = LocalDate.of(now.getYear() - 1, 12, 31);
-                prevStart = start.minusYears(1);
-                prevEnd = end.minusYears(1);
-                break;
+                return new ReportPeriod(start, end, start.minusYears(1), end.minusYears(1));
+            case "THIS_MONTH":
             default:
-                return generatePredefinedReport(userId, "THIS_MONTH");
-        }
-
-        ReportData reportData = generateCustomReport(userId, start, end, null);
-
-        // Comparison Logic
-        List<Expense> prevExpenses = expenseRepository.findByUserIdAndFilters(userId, prevStart, prevEnd, null, null, null, null);
-        BigDecimal prevTotal = prevExpenses.stream()
-                .map(Expense::getAmount)
-                .reduce(BigDecimal.ZERO, BigDecimal::add);
-
-        PeriodComparison comparison = new PeriodComparison();
-        comparison.setPreviousTotal(prevTotal);
-        
-        BigDecimal currentTotal = reportData.getTotalSpending();
-        BigDecimal diff = currentTotal.subtract(prevTotal);
-        comparison.setAbsoluteChange(diff);
-
-        if (prevTotal.compareTo(BigDecimal.ZERO) != 0) {
-            double pctChange = diff.divide(prevTotal, 4, RoundingMode.HALF_UP).doubleValue() * 100;
-            comparison.setPercentageChange(pctChange);
-        } else if (currentTotal.compareTo(BigDecimal.ZERO) > 0) {
-            comparison.setPercentageChange(100.0);
-        } else {
-            comparison.setPercentageChange(0.0);
+                start = now.withDayOfMonth(1);
+                end = now;
+                return new ReportPeriod(start, end, start.minusMonths(1), end.minusMonths(1));
         }
-
-        reportData.setComparison(comparison);
-        return reportData;
     }
 
     // ==================================================================================
@@ -281,85 +286,10 @@ public class ReportService {
 
     public ReportData generatePredefinedReportWithCategory(Long userId, String reportType, Integer categoryId) {
         String normalizedType = reportType != null ? reportType.toUpperCase() : "THIS_MONTH";
-        
-        LocalDate start, end;
-        LocalDate prevStart, prevEnd;
-        LocalDate now = LocalDate.now();
+        ReportPeriod period = resolvePeriod(normalizedType);
 
-        switch (reportType) {
-            case "THIS_WEEK":
-                start = now.with(DayOfWeek.MONDAY); 
-                end = now;
-                prevStart = start.minusWeeks(1);
-                prevEnd = end.minusWeeks(1);
-                break;
-            case "THIS_MONTH":
-                start = now.withDayOfMonth(1);
-                end = now;
-                prevStart = start.minusMonths(1);
-                prevEnd = end.minusMonths(1);
-                break;
-            case "LAST_MONTH":
-                start = now.minusMonths(1).withDayOfMonth(1);
-                end = now.minusMonths(1).with(TemporalAdjusters.lastDayOfMonth());
-                prevStart = start.minusMonths(1);
-                prevEnd = end.minusMonths(1);
-                break;
-            case "LAST_3_MONTHS":
-                start = now.minusMonths(3).withDayOfMonth(1);
-                end = now.minusMonths(1).with(TemporalAdjusters.lastDayOfMonth());
-                prevStart = start.minusMonths(3);
-                prevEnd = end.minusMonths(3);
-                break;
-            case "LAST_6_MONTHS":
-                start = now.minusMonths(6).withDayOfMonth(1);
-                end = now.minusMonths(1).with(TemporalAdjusters.lastDayOfMonth());
-                prevStart = start.minusMonths(6);
-                prevEnd = end.minusMonths(6);
-                break;
-            case "THIS_YEAR":
-                start = LocalDate.of(now.getYear(), 1, 1);
-                end = now;
-                prevStart = start.minusYears(1);
-                prevEnd = end.minusYears(1);
-                break;
-            case "LAST_YEAR":
-                start = LocalDate.of(now.getYear() - 1, 1, 1);
-                end = LocalDate.of(now.getYear() - 1, 12, 31);
-                prevStart = start.minusYears(1);
-                prevEnd = end.minusYears(1);
-                break;
-            default:
-                return generatePredefinedReport(userId, "THIS_MONTH");
-        }
-        
-        // ✅ KEY CHANGE: Pass categoryId to generateCustomReport
-        ReportData reportData = generateCustomReport(userId, start, end, categoryId);
-        
-        // Comparison Logic
-        List<Expense> prevExpenses = expenseRepository.findByUserIdAndFilters(userId, prevStart, prevEnd, null, null, null, null);
-        BigDecimal prevTotal = prevExpenses.stream()
-                .map(Expense::getAmount)
-                .reduce(BigDecimal.ZERO, BigDecimal::add);
-
-        PeriodComparison comparison = new PeriodComparison();
-        comparison.setPreviousTotal(prevTotal);
-        
-        BigDecimal currentTotal = reportData.getTotalSpending();
-        BigDecimal diff = currentTotal.subtract(prevTotal);
-        comparison.setAbsoluteChange(diff);
-
-        if (prevTotal.compareTo(BigDecimal.ZERO) != 0) {
-            double pctChange = diff.divide(prevTotal, 4, RoundingMode.HALF_UP).doubleValue() * 100;
-            comparison.setPercentageChange(pctChange);
-        } else if (currentTotal.compareTo(BigDecimal.ZERO) > 0) {
-            comparison.setPercentageChange(100.0);
-        } else {
-            comparison.setPercentageChange(0.0);
-        }
-
-        reportData.setComparison(comparison);   
-        return reportData;
+        // The comparison uses the same category filter as the report itself
+        return buildPeriodReport(userId, period.start, period.end, period.prevStart, period.prevEnd, categoryId);
     }
 
     // ==================================================================================
@@ -412,12 +342,24 @@ public class ReportService {
         LocalDate start = LocalDate.of(year, month, 1);
         LocalDate end = start.with(TemporalAdjusters.lastDayOfMonth());
 
-        List<Expense> expenses = expenseRepository.findByUserIdAndFilters(userId, start, end, null, null, null, null);
-        Map<LocalDate, List<Expense>> grouped = expenses.stream()
-                .collect(Collectors.groupingBy(Expense::getExpenseDate));
-
-        BigDecimal total = expenses.stream().map(Expense::getAmount).reduce(BigDecimal.ZERO, BigDecimal::add);
-        BigDecimal avgDaily = total.divide(BigDecimal.valueOf(end.getDayOfMonth()), 2, RoundingMode.HALF_UP);
+        // Scan the month's (day, category) buckets in the cached snapshot, summed as cents
+        ExpenseSnapshot snapshot = rollupRepository.findSnapshot(userId);
+        int daysInMonth = end.getDayOfMonth();
+        int firstDay = (int) start.toEpochDay();
+        long[] dailyCents = new long[daysInMonth + 1];
+        int[] dailyCounts = new int[daysInMonth + 1];
+        boolean[] hasRollup = new boolean[daysInMonth + 1];
+        long totalCents = 0;
+        for (int row = snapshot.firstRowOnOrAfter(start);
+             row < snapshot.size() && snapshot.epochDay(row) - firstDay < daysInMonth; row++) {
+            int day = snapshot.epochDay(row) - firstDay + 1;
+            long cents = snapshot.cents(row);
+            dailyCents[day] += cents;
+            dailyCounts[day] += snapshot.count(row);
+            hasRollup[day] = true;
+            totalCents += cents;
+        }
+        BigDecimal avgDaily = Money.fromCents(totalCents).divide(BigDecimal.valueOf(daysInMonth), 2, RoundingMode.HALF_UP);
 
         BigDecimal lowThresh = avgDaily.multiply(new BigDecimal("0.5"));
         BigDecimal medThresh = avgDaily.multiply(new BigDecimal("1.5"));
@@ -429,14 +371,12 @@ public class ReportService {
             DaySpending ds = new DaySpending();
             ds.setDate(date);
             
-            if (grouped.containsKey(date)) {
-                List<Expense> dailyExpenses = grouped.get(date);
-                BigDecimal dailyTotal = dailyExpenses.stream()
-                        .map(Expense::getAmount)
-                        .reduce(BigDecimal.ZERO, BigDecimal::add);
+            int day = date.getDayOfMonth();
+            if (hasRollup[day]) {
+                BigDecimal dailyTotal = Money.fromCents(dailyCents[day]);
                 
                 ds.setAmount(dailyTotal);
-                ds.setTransactionCount(dailyExpenses.size());
+                ds.setTransactionCount(dailyCounts[day]);
 
                 if (dailyTotal.compareTo(BigDecimal.ZERO) == 0) ds.setColorLevel("none");
                 else if (dailyTotal.compareTo(lowThresh) <= 0) ds.setColorLevel("low");
@@ -463,17 +403,24 @@ public class ReportService {
         LocalDate end = LocalDate.now().minusMonths(1).with(TemporalAdjusters.lastDayOfMonth());
         LocalDate start = end.minusMonths(numberOfMonths - 1).withDayOfMonth(1);
 
-        List<Expense> allExpenses = expenseRepository.findByUserIdAndFilters(userId, start, end, null, null, null, null);
+        // One pass over the cached snapshot: its rows are date-ordered, so each month is a contiguous run.
+        // Categories map to slots (one per category, plus a last "Uncategorized" one) to keep the loop primitive.
+        ExpenseSnapshot snapshot = rollupRepository.findSnapshot(userId);
         List<Category> allCategories = categoryRepository.findAllByUserId(userId);
-        
+
+        int[] slotIds = allCategories.stream().mapToInt(Category::getId).sorted().toArray();
         Map<Integer, String> categoryNameMap = allCategories.stream()
                 .collect(Collectors.toMap(Category::getId, Category::getName));
-        
-        Map<String, List<Expense>> groupedByMonth = allExpenses.stream()
-                .collect(Collectors.groupingBy(e -> 
-                    e.getExpenseDate().getMonth().getDisplayName(TextStyle.SHORT, Locale.ENGLISH) + " " + e.getExpenseDate().getYear()
-                ));
+        String[] slotNames = new String[slotIds.length + 1];
+        for (int slot = 0; slot < slotIds.length; slot++) {
+            slotNames[slot] = categoryNameMap.get(slotIds[slot]);
+        }
+        slotNames[slotIds.length] = "Uncategorized";
+        int[] slotById = denseSlotTable(slotIds);
+        long[] slotCents = new long[slotNames.length];
+        boolean[] slotSeen = new boolean[slotNames.length];
 
+        int row = snapshot.firstRowOnOrAfter(start);
         for (int i = 0; i < numberOfMonths; i++) {
             LocalDate currentMonth = start.plusMonths(i);
             String monthKey = currentMonth.getMonth().getDisplayName(TextStyle.SHORT, Locale.ENGLISH) + " " + currentMonth.getYear();
@@ -481,18 +428,24 @@ public class ReportService {
             MonthlyTrend trend = new MonthlyTrend();
             trend.setMonth(monthKey);
             
-            List<Expense> monthExpenses = groupedByMonth.getOrDefault(monthKey, Collections.emptyList());
-            
-            BigDecimal total = monthExpenses.stream()
-                    .map(Expense::getAmount)
-                    .reduce(BigDecimal.ZERO, BigDecimal::add);
+            Arrays.fill(slotCents, 0);
+            Arrays.fill(slotSeen, false);
+            int monthEnd = foldIntoSlots(snapshot, row, currentMonth.plusMonths(1).toEpochDay(),
+                    slotIds, slotById, slotCents, slotSeen);
+            boolean hasRows = monthEnd > row;
+            row = monthEnd;
+            long totalCents = 0;
+            for (long cents : slotCents) {
+                totalCents += cents;
+            }
+            BigDecimal total = hasRows ? Money.fromCents(totalCents) : BigDecimal.ZERO;
+            Map<String, BigDecimal> catTotals = new HashMap<>();
+            for (int slot = 0; slot < slotNames.length; slot++) {
+                if (slotSeen[slot]) {
+                    catTotals.merge(slotNames[slot], Money.fromCents(slotCents[slot]), BigDecimal::add);
+                }
+            }
             trend.setTotal(total);
-            
-            Map<String, BigDecimal> catTotals = monthExpenses.stream()
-                    .collect(Collectors.groupingBy(
-                            e -> categoryNameMap.getOrDefault(e.getCategoryId(), "Uncategorized"),
-                            Collectors.reducing(BigDecimal.ZERO, Expense::getAmount, BigDecimal::add)
-                    ));
             trend.setCategoryTotals(catTotals);
 
             if (i > 0) {
@@ -516,30 +469,38 @@ public class ReportService {
     // ==================================================================================
 
     public List<CategoryPerformance> generateCategoryPerformanceReport(Long userId, LocalDate startDate, LocalDate endDate) {
-        // 1. Fetch Expenses & Categories
-        List<Expense> currentExpenses = expenseRepository.findByUserIdAndFilters(userId, startDate, endDate, null, null, null, null);
+        // 1. Fetch the cached spend snapshot (covers this period and the previous one) & Categories
+        long days = ChronoUnit.DAYS.between(startDate, endDate) + 1;
+        LocalDate prevStart = startDate.minusDays(days);
+        ExpenseSnapshot snapshot = rollupRepository.findSnapshot(userId);
         List<Category> allCategories = categoryRepository.findAllByUserId(userId); 
         
-        // 2. Fetch Budgets
-        // Using findAllActiveByUserId as inferred from your functional Budget feature
-        List<Budget> activeBudgets = budgetRepository.findActiveByUserId(userId);
+        // 2. Fetch Budgets, with the spend of each budget's own window (one batched query)
+        List<Budget> activeBudgets = budgetService.getActiveBudgets(userId);
         Map<Integer, Budget> budgetMap = activeBudgets.stream()
                 .collect(Collectors.toMap(Budget::getCategoryId, b -> b, (b1, b2) -> b1)); // Merge duplicates if any
 
-        // 3. Previous Period Data
-        long days = ChronoUnit.DAYS.between(startDate, endDate) + 1;
-        LocalDate prevStart = startDate.minusDays(days);
-        LocalDate prevEnd = endDate.minusDays(days);
-        List<Expense> prevExpenses = expenseRepository.findByUserIdAndFilters(userId, prevStart, prevEnd, null,null, null, null);
-
-        BigDecimal totalSpent = currentExpenses.stream()
-                .map(Expense::getAmount)
-                .reduce(BigDecimal.ZERO, BigDecimal::add);
-
-        Map<Integer, List<Expense>> currentMap = currentExpenses.stream()
-                .collect(Collectors.groupingBy(Expense::getCategoryId));
-        Map<Integer, List<Expense>> prevMap = prevExpenses.stream()
-                .collect(Collectors.groupingBy(Expense::getCategoryId));
+        // 3. Fold the snapshot rows of both (adjacent) windows into per-category cells:
+        //    {cents, count} for this period, then the previous one
+        long startDay = startDate.toEpochDay();
+        long endDay = endDate.toEpochDay();
+        long totalCents = 0;
+        boolean hasCurrent = false;
+        Map<Integer, long[]> categoryCents = new HashMap<>();
+        for (int row = snapshot.firstRowOnOrAfter(prevStart);
+             row < snapshot.size() && snapshot.epochDay(row) <= endDay; row++) {
+            long[] cell = categoryCents.computeIfAbsent(snapshot.categoryId(row), k -> new long[4]);
+            if (snapshot.epochDay(row) >= startDay) {
+                totalCents += snapshot.cents(row);
+                hasCurrent = true;
+                cell[0] += snapshot.cents(row);
+                cell[1] += snapshot.count(row);
+            } else {
+                cell[2] += snapshot.cents(row);
+                cell[3] += snapshot.count(row);
+            }
+        }
+        BigDecimal totalSpent = hasCurrent ? Money.fromCents(totalCents) : BigDecimal.ZERO;
 
         List<CategoryPerformance> performanceList = new ArrayList<>();
 
@@ -548,26 +509,20 @@ public class ReportService {
             cp.setCategoryName(cat.getName());
 
             // --- Spending Metrics ---
-            List<Expense> catCurrent = currentMap.getOrDefault(cat.getId(), Collections.emptyList());
-            BigDecimal catTotal = catCurrent.stream().map(Expense::getAmount).reduce(BigDecimal.ZERO, BigDecimal::add);
+            long[] cell = categoryCents.get(cat.getId());
+            BigDecimal catTotal = cell != null && cell[1] > 0 ? Money.fromCents(cell[0]) : BigDecimal.ZERO;
+            int catCount = cell != null ? (int) cell[1] : 0;
             
             cp.setTotalSpent(catTotal);
-            cp.setTransactionCount(catCurrent.size());
-            cp.setAverageTransaction(catCurrent.isEmpty() ? BigDecimal.ZERO : 
-                catTotal.divide(BigDecimal.valueOf(catCurrent.size()), 2, RoundingMode.HALF_UP));
+            cp.setTransactionCount(catCount);
+            cp.setAverageTransaction(catCount == 0 ? BigDecimal.ZERO : 
+                catTotal.divide(BigDecimal.valueOf(catCount), 2, RoundingMode.HALF_UP));
 
             // --- Previous Period Comparison ---
-            List<Expense> catPrev = prevMap.getOrDefault(cat.getId(), Collections.emptyList());
-            BigDecimal prevTotal = catPrev.stream().map(Expense::getAmount).reduce(BigDecimal.ZERO, BigDecimal::add);
+            BigDecimal prevTotal = cell != null && cell[3] > 0 ? Money.fromCents(cell[2]) : BigDecimal.ZERO;
             cp.setPreviousPeriodSpent(prevTotal);
-
-            BigDecimal diff = catTotal.subtract(prevTotal);
-            cp.setChangeAmount(diff);
-            if (prevTotal.compareTo(BigDecimal.ZERO) != 0) {
-                cp.setChangePercent(diff.divide(prevTotal, 4, RoundingMode.HALF_UP).doubleValue() * 100);
-            } else {
-                cp.setChangePercent(catTotal.compareTo(BigDecimal.ZERO) > 0 ? 100.0 : 0.0);
-            }
+            cp.setChangeAmount(catTotal.subtract(prevTotal));
+            cp.setChangePercent(percentChange(catTotal, prevTotal));
 
             if (totalSpent.compareTo(BigDecimal.ZERO) > 0) {
                 cp.setPercentOfTotal(catTotal.divide(totalSpent, 4, RoundingMode.HALF_UP).doubleValue() * 100);
@@ -578,10 +533,12 @@ public class ReportService {
             // --- Budget Integration ---
             Budget budget = budgetMap.get(cat.getId());
             if (budget != null) {
+                // Measured like the budgets page: spend in the budget's window, not the report range
+                BigDecimal budgetSpent = budget.getSpentAmount();
                 cp.setBudgetAllocated(budget.getAmount());
-                cp.setBudgetRemaining(budget.getAmount().subtract(catTotal));
+                cp.setBudgetRemaining(budget.getAmount().subtract(budgetSpent));
                 
-                double pctUsed = catTotal.divide(budget.getAmount(), 4, RoundingMode.HALF_UP).doubleValue() * 100;
+                double pctUsed = budgetSpent.divide(budget.getAmount(), 4, RoundingMode.HALF_UP).doubleValue() * 100;
                 cp.setBudgetUsedPercent(pctUsed);
                 
                 if (pctUsed >= 100) cp.setBudgetStatus("over");
@@ -600,4 +557,81 @@ public class ReportService {
 
         return performanceList;
     }
-}
\ No newline at end of file
+
+    // ==================================================================================
+    // HELPERS
+    // ==================================================================================
+
+    // A report window and the window it is compared against
+    private static final class ReportPeriod {
+        final LocalDate start;
+        final LocalDate end;
+        final LocalDate prevStart;
+        final LocalDate prevEnd;
+
+        ReportPeriod(LocalDate start, LocalDate end, LocalDate prevStart, LocalDate prevEnd) {
+            this.start = start;
+            this.end = end;
+            this.prevStart = prevStart;
+            this.prevEnd = prevEnd;
+        }
+    }
+
+    // Slot of each category id, indexed by (id - smallest id), when the user's ids are close enough together
+    // for a lookup table; null otherwise. Ids without a category map to the last ("Uncategorized") slot.
+    private static int[] denseSlotTable(int[] sortedIds) {
+        if (sortedIds.length == 0 || sortedIds[sortedIds.length - 1] - sortedIds[0] >= MAX_DENSE_SLOT_SPAN) {
+            return null;
+        }
+        int[] table = new int[sortedIds[sortedIds.length - 1] - sortedIds[0] + 1];
+        Arrays.fill(table, sortedIds.length);
+        for (int slot = 0; slot < sortedIds.length; slot++) {
+            table[sortedIds[slot] - sortedIds[0]] = slot;
+        }
+        return table;
+    }
+
+    // Adds the cents of the snapshot rows from fromRow up to (excluding) untilEpochDay into the slot of each
+    // row's category (see generateMonthlyTrendData); returns the first row not folded. Kept out of the caller
+    // so the JIT compiles this loop on its own.
+    private static int foldIntoSlots(ExpenseSnapshot snapshot, int fromRow, long untilEpochDay,
+                                     int[] slotIds, int[] slotById, long[] slotCents, boolean[] slotSeen) {
+        int row = fromRow;
+        for (; row < snapshot.size() && snapshot.epochDay(row) < untilEpochDay; row++) {
+            int id = snapshot.categoryId(row);
+            int slot;
+            if (slotById != null) {
+                int offset = id - slotIds[0];
+                slot = offset >= 0 && offset < slotById.length ? slotById[offset] : slotIds.length;
+            } else {
+                slot = Arrays.binarySearch(slotIds, id);
+                if (slot < 0) {
+                    slot = slotIds.length; // Uncategorized
+                }
+            }
+            slotCents[slot] += snapshot.cents(row);
+            slotSeen[slot] = true;
+        }
+        return row;
+    }
+
+    // Surfaces the repository's own RuntimeException rather than a CompletionException wrapper
+    private static <T> T join(CompletableFuture<T> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    // Change vs the previous period in percent; spending from nothing counts as +100%
+    private static double percentChange(BigDecimal current, BigDecimal previous) {
+        if (previous.compareTo(BigDecimal.ZERO) != 0) {
+            return current.subtract(previous).divide(previous, 4, RoundingMode.HALF_UP).doubleValue() * 100;
+        }
+        return current.compareTo(BigDecimal.ZERO) > 0 ? 100.0 : 0.0;
+    }
+}
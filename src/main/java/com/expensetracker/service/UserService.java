@@ -4,7 +4,7 @@ import com.expensetracker.model.Category;
 import com.expensetracker.model.User;
 import com.expensetracker.repository.CategoryRepository;
 import com.expensetracker.repository.UserRepository;
-import org.mindrot.jbcrypt.BCrypt;
+import com.expensetracker.util.PasswordHasher;
 
 import jakarta.servlet.http.HttpSession;
 
@@ -43,7 +43,7 @@ public class UserService {
 
         User user = new User();
         user.setUsername(username);
-        user.setPassword(BCrypt.hashpw(password, BCrypt.gensalt(12)));
+        user.setPassword(PasswordHasher.hash(password));
         user.setFullName(fullName);
         user.setEmail(email);
         user.setPhone(phone);
@@ -75,8 +75,8 @@ public class UserService {
         User user = userRepo.findByUsernameIgnoreCase(username)
             .orElseThrow(() -> new IllegalArgumentException("Invalid username or password"));
 
-        // 3. Check Password
-        if (!BCrypt.checkpw(password, user.getPassword())) {
+        // 3. Check Password (on the hash pool; throws RejectedExecutionException when it is saturated)
+        if (!PasswordHasher.verify(password, user.getPassword())) {
             throw new IllegalArgumentException("Invalid username or password");
         }
 
@@ -91,7 +91,15 @@ public class UserService {
         }
         // ========================================================
         
-        // 4. Return the User
+        // 4. Upgrade a hash made with an older cost, off the request path
+        if (PasswordHasher.needsRehash(user.getPassword())) {
+            String oldHash = user.getPassword();
+            Long userId = user.getId();
+            PasswordHasher.rehashInBackground(password,
+                    newHash -> userRepo.updatePasswordIfUnchanged(userId, oldHash, newHash));
+        }
+
+        // 5. Return the User
         // The LoginServlet will take this object and put it into the Session.
         return user;
     }
@@ -158,7 +166,7 @@ public class UserService {
         User user = getUserById(userId);
         
         // Verify current password
-        if (!BCrypt.checkpw(currentPassword, user.getPassword())) {
+        if (!PasswordHasher.verify(currentPassword, user.getPassword())) {
             throw new IllegalArgumentException("Current password is incorrect");
         }
         
@@ -166,12 +174,12 @@ public class UserService {
         ValidationService.validatePassword(newPassword);
         
         // Check if new password is different from current
-        if (BCrypt.checkpw(newPassword, user.getPassword())) {
+        if (PasswordHasher.verify(newPassword, user.getPassword())) {
             throw new IllegalArgumentException("New password must be different from current password");
         }
         
         // Hash and update password
-        String hashedPassword = BCrypt.hashpw(newPassword, BCrypt.gensalt(12));
+        String hashedPassword = PasswordHasher.hash(newPassword);
         userRepo.updatePassword(userId, hashedPassword);
     }
 
@@ -59,4 +59,38 @@ public class ChartDataBuilder {
             "  }]" +
             "}", labels, data, colors);
     }
-}
\ No newline at end of file
+
+    // JSON array of strings, safe to inline in a <script> block (user text such as
+    // category names: quotes, backslashes, control chars and <, >, & are escaped)
+    public static String toJsonArray(List<String> values) {
+        StringBuilder json = new StringBuilder("[");
+        for (int i = 0; i < values.size(); i++) {
+            if (i > 0) json.append(", ");
+            json.append('"');
+            String value = values.get(i) == null ? "" : values.get(i);
+            for (int j = 0; j < value.length(); j++) {
+                char c = value.charAt(j);
+                switch (c) {
+                    case '"' -> json.append("\\\"");
+                    case '\\' -> json.append("\\\\");
+                    default -> {
+                        if (c < 0x20 || c == '<' || c == '>' || c == '&' || c == '\u2028' || c == '\u2029') {
+                            json.append(String.format("\\u%04x", (int) c));
+                        } else {
+                            json.append(c);
+                        }
+                    }
+                }
+            }
+            json.append('"');
+        }
+        return json.append(']').toString();
+    }
+
+    // JSON array of numbers (BigDecimal / Integer / Double)
+    public static String toJsonNumberArray(List<? extends Number> values) {
+        return values.stream()
+                .map(v -> v instanceof BigDecimal bd ? bd.toPlainString() : String.valueOf(v))
+                .collect(Collectors.joining(", ", "[", "]"));
+    }
+}
@@ -2,28 +2,91 @@ package com.expensetracker.util;
 
 import java.io.IOException;
 import java.io.InputStream;
+import java.util.HashMap;
+import java.util.Map;
 import java.util.Properties;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
 
 /**
  * Centralized configuration loader.
  * Loads properties from config.properties and environment variables.
  * Environment variables take precedence over config file.
+ *
+ * Everything is read once into an immutable {@link Snapshot}; after that a lookup is a
+ * volatile read plus a map hit, with no lock and no environment access.
  */
 public final class ConfigLoader {
-    
-    private static final Properties properties = new Properties();
-    private static boolean loaded = false;
+
+    private static volatile Snapshot snapshot;
+    // Only taken to build a snapshot. Not synchronized: loading reads a file, which would
+    // pin a virtual thread's carrier inside a monitor
+    private static final ReentrantLock lock = new ReentrantLock();
 
     private ConfigLoader() {
         // Utility class - prevent instantiation
     }
 
     /**
-     * Loads configuration on first access (lazy initialization)
+     * Config file and environment as read at load time. Keys in the file are resolved up front;
+     * other keys (set only in the environment) are resolved on first use and remembered.
      */
-    private static synchronized void loadIfNeeded() {
-        if (loaded) return;
-        
+    private static final class Snapshot {
+        private static final String MISSING = ""; // Blank values count as unset anyway
+
+        private final Map<String, String> fileValues;
+        private final Map<String, String> env;
+        private final ConcurrentHashMap<String, String> resolved = new ConcurrentHashMap<>();
+
+        Snapshot(Properties properties, Map<String, String> env) {
+            Map<String, String> values = new HashMap<>();
+            properties.stringPropertyNames().forEach(key -> values.put(key, properties.getProperty(key)));
+            this.fileValues = Map.copyOf(values);
+            this.env = env;
+            fileValues.keySet().forEach(this::value);
+        }
+
+        String value(String key) {
+            return resolved.computeIfAbsent(key, this::lookup);
+        }
+
+        private String lookup(String key) {
+            // 1. Check environment variable (convert dots to underscores, uppercase)
+            String envValue = env.get(key.replace(".", "_").toUpperCase());
+            if (envValue != null && !envValue.isBlank()) {
+                return envValue;
+            }
+
+            // 2. Check config.properties
+            String propValue = fileValues.get(key);
+            if (propValue != null && !propValue.isBlank()) {
+                return propValue;
+            }
+            return MISSING;
+        }
+    }
+
+    /**
+     * Loads configuration on first access (lazy initialization, double-checked)
+     */
+    private static Snapshot snapshot() {
+        Snapshot current = snapshot;
+        if (current != null) {
+            return current;
+        }
+        lock.lock();
+        try {
+            if (snapshot == null) {
+                snapshot = load();
+            }
+            return snapshot;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private static Snapshot load() {
+        Properties properties = new Properties();
         try (InputStream is = ConfigLoader.class.getClassLoader()
                 .getResourceAsStream("config.properties")) {
             
@@ -36,11 +99,10 @@ public final class ConfigLoader {
                 System.out.println("ℹ️ config.properties not found - using environment variables only");
             }
             
-            loaded = true;
-            
         } catch (IOException e) {
             throw new RuntimeException("Failed to load configuration", e);
         }
+        return new Snapshot(properties, System.getenv());
     }
 
     /**
@@ -52,23 +114,10 @@ public final class ConfigLoader {
      * @return Configuration value
      */
     public static String get(String key, String defaultValue) {
-        loadIfNeeded();
-        
-        // 1. Check environment variable (convert dots to underscores, uppercase)
-        String envKey = key.replace(".", "_").toUpperCase();
-        String envValue = System.getenv(envKey);
-        if (envValue != null && !envValue.isBlank()) {
-            return envValue;
-        }
-        
-        // 2. Check config.properties
-        String propValue = properties.getProperty(key);
-        if (propValue != null && !propValue.isBlank()) {
-            return propValue;
-        }
+        String value = snapshot().value(key);
         
         // 3. Return default
-        return defaultValue;
+        return value.isEmpty() ? defaultValue : value;
     }
 
     /**
@@ -109,9 +158,12 @@ public final class ConfigLoader {
     /**
      * Reloads configuration (useful for testing)
      */
-    public static synchronized void reload() {
-        properties.clear();
-        loaded = false;
-        loadIfNeeded();
+    public static void reload() {
+        lock.lock();
+        try {
+            snapshot = load();
+        } finally {
+            lock.unlock();
+        }
     }
-}
\ No newline at end of file
+}
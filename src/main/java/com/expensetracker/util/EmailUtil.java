@@ -1,31 +1,25 @@
 package com.expensetracker.util;
 
-import jakarta.mail.*;
-import jakarta.mail.internet.*;
-import java.util.Properties;
-import java.util.concurrent.CompletableFuture;
-import java.io.UnsupportedEncodingException;
+import com.expensetracker.model.OutboxEmail;
+import com.expensetracker.repository.EmailOutboxRepository;
+import com.expensetracker.service.MailDispatcher;
 
-public class EmailUtil {
-
-    private static String getSmtpHost() {
-        return ConfigLoader.get("email.smtp.host");
-    }
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
-    private static String getSmtpPort() {
-        return ConfigLoader.get("email.smtp.port");
-    }
+/**
+ * Builds the application's emails and hands them to the {@link MailDispatcher}, which
+ * persists them to the outbox and delivers them in the background.
+ */
+public class EmailUtil {
 
-    private static String getUsername() {
-        return ConfigLoader.get("email.smtp.username");
-    }
+    private static final Logger log = LoggerFactory.getLogger(EmailUtil.class);
 
-    private static String getPassword() {
-        return ConfigLoader.get("email.smtp.password");
-    }
+    // Set by MailDispatcherInitializer for the lifetime of the application
+    private static volatile MailDispatcher dispatcher;
 
-    private static String getFromName() {
-        return ConfigLoader.get("email.from.name", "ExpenseTracker");
+    public static void setDispatcher(MailDispatcher mailDispatcher) {
+        dispatcher = mailDispatcher;
     }
 
     /**
@@ -95,54 +89,19 @@ public class EmailUtil {
     //                Private Helpers
     // ────────────────────────────────────────────────
 
+    // Never throws: a mail problem must not fail the registration or reset request
     private static void sendAsync(String toEmail, String subject, String htmlContent) {
-        CompletableFuture.runAsync(() -> {
-            try {
-                sendEmailRaw(toEmail, subject, htmlContent);
-            } catch (MessagingException | UnsupportedEncodingException e) {
-                System.err.println("Failed to send email to " + toEmail);
-                System.err.println("Subject: " + subject);
-                e.printStackTrace();
-            }
-        });
-    }
-
-    private static void sendEmailRaw(String toEmail, String subject, String htmlContent) throws MessagingException, UnsupportedEncodingException {
-
-        Properties props = new Properties();
-        props.put("mail.smtp.auth", "true");
-        props.put("mail.smtp.starttls.enable", "true");
-        props.put("mail.smtp.host", getSmtpHost());
-        props.put("mail.smtp.port", getSmtpPort());
-
-        // Uncomment the next line only when troubleshooting connection / TLS issues
-        // props.put("mail.debug", "true");
-
-        Session session = Session.getInstance(props, new Authenticator() {
-            @Override
-            protected PasswordAuthentication getPasswordAuthentication() {
-                return new PasswordAuthentication(getUsername(), getPassword());
-            }
-        });
-
-        Message message = new MimeMessage(session);
-
-        // Better From header: "ExpenseTracker <your-email@...>"
-        // Replace the from block with:
-        InternetAddress from;
         try {
-            from = new InternetAddress(getUsername(), getFromName(), "UTF-8");  // explicitly specify charset
-        } catch (UnsupportedEncodingException e) {
-            throw new RuntimeException("Failed to create From address", e);
+            MailDispatcher current = dispatcher;
+            if (current != null) {
+                current.submit(toEmail, subject, htmlContent);
+            } else {
+                // Not started (e.g. during undeploy): the outbox keeps it for the next start
+                new EmailOutboxRepository().save(new OutboxEmail(toEmail, subject, htmlContent));
+                log.warn("Mail dispatcher not running, email to {} left in the outbox", toEmail);
+            }
+        } catch (RuntimeException e) {
+            log.error("Failed to queue email to {} | {}: {}", toEmail, subject, e.getMessage(), e);
         }
-        message.setFrom(from);
-
-        message.setRecipients(Message.RecipientType.TO, InternetAddress.parse(toEmail));
-        message.setSubject(subject);
-        message.setContent(htmlContent, "text/html; charset=utf-8");
-
-        Transport.send(message);
-
-        System.out.println("Email sent successfully → " + toEmail + " | " + subject);
     }
 }
\ No newline at end of file
@@ -0,0 +1,128 @@
+package com.expensetracker.util;
+
+import java.time.LocalDate;
+import java.util.Arrays;
+
+/**
+ * One user's spending as parallel primitive columns, for analytics that only need
+ * date, category and amount.
+ *
+ * Row i is the (day, category) bucket of the daily rollup: {@code epochDay[i]},
+ * {@code categoryId[i]}, the bucket total in {@code cents[i]} (see {@link Money}) and its
+ * expense {@code count[i]}. Rows are sorted by day, then category, so a date range is a
+ * binary search plus a sequential scan.
+ *
+ * Instances are immutable: {@link #withDelta} returns a patched copy, so readers never
+ * need a lock and a snapshot handed out keeps its contents.
+ */
+public final class ExpenseSnapshot {
+
+    public static final ExpenseSnapshot EMPTY = new ExpenseSnapshot(new int[0], new int[0], new long[0], new int[0]);
+
+    private final int[] epochDay;
+    private final int[] categoryId;
+    private final long[] cents;
+    private final int[] count;
+
+    /**
+     * Columns must have equal length and be sorted by (epochDay, categoryId); they are not copied.
+     */
+    public ExpenseSnapshot(int[] epochDay, int[] categoryId, long[] cents, int[] count) {
+        if (categoryId.length != epochDay.length || cents.length != epochDay.length || count.length != epochDay.length) {
+            throw new IllegalArgumentException("Snapshot columns must have the same length");
+        }
+        this.epochDay = epochDay;
+        this.categoryId = categoryId;
+        this.cents = cents;
+        this.count = count;
+    }
+
+    public int size() { return epochDay.length; }
+    public int epochDay(int row) { return epochDay[row]; }
+    public int categoryId(int row) { return categoryId[row]; }
+    public long cents(int row) { return cents[row]; }
+    public int count(int row) { return count[row]; }
+
+    /**
+     * Index of the first row on or after the date ({@link #size()} if there is none).
+     */
+    public int firstRowOnOrAfter(LocalDate date) {
+        return search(toEpochDay(date), Integer.MIN_VALUE);
+    }
+
+    /**
+     * Copy with one bucket adjusted, mirroring SpendingRollupRepository#applyDelta:
+     * a missing bucket is inserted and a bucket whose count drops to zero is removed.
+     */
+    public ExpenseSnapshot withDelta(LocalDate date, int category, long centsDelta, int countDelta) {
+        int day = toEpochDay(date);
+        int row = search(day, category);
+        boolean exists = row < size() && epochDay[row] == day && categoryId[row] == category;
+
+        if (exists) {
+            int newCount = count[row] + countDelta;
+            if (newCount <= 0) {
+                return new ExpenseSnapshot(remove(epochDay, row), remove(categoryId, row),
+                        remove(cents, row), remove(count, row));
+            }
+            long[] newCents = cents.clone();
+            int[] newCounts = count.clone();
+            newCents[row] += centsDelta;
+            newCounts[row] = newCount;
+            return new ExpenseSnapshot(epochDay, categoryId, newCents, newCounts);
+        }
+        if (countDelta <= 0) {
+            // Nothing to remove from; the database drops such buckets too
+            return this;
+        }
+        return new ExpenseSnapshot(insert(epochDay, row, day), insert(categoryId, row, category),
+                insert(cents, row, centsDelta), insert(count, row, countDelta));
+    }
+
+    // ==================== Helpers ====================
+
+    // First row whose (day, category) is >= the given key
+    private int search(int day, int category) {
+        int low = 0;
+        int high = size();
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (epochDay[mid] < day || (epochDay[mid] == day && categoryId[mid] < category)) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    private static int toEpochDay(LocalDate date) {
+        return Math.toIntExact(date.toEpochDay());
+    }
+
+    private static int[] insert(int[] column, int at, int value) {
+        int[] result = Arrays.copyOf(column, column.length + 1);
+        System.arraycopy(column, at, result, at + 1, column.length - at);
+        result[at] = value;
+        return result;
+    }
+
+    private static long[] insert(long[] column, int at, long value) {
+        long[] result = Arrays.copyOf(column, column.length + 1);
+        System.arraycopy(column, at, result, at + 1, column.length - at);
+        result[at] = value;
+        return result;
+    }
+
+    private static int[] remove(int[] column, int at) {
+        int[] result = Arrays.copyOf(column, column.length - 1);
+        System.arraycopy(column, at + 1, result, at, column.length - at - 1);
+        return result;
+    }
+
+    private static long[] remove(long[] column, int at) {
+        long[] result = Arrays.copyOf(column, column.length - 1);
+        System.arraycopy(column, at + 1, result, at, column.length - at - 1);
+        return result;
+    }
+}
@@ -0,0 +1,38 @@
+package com.expensetracker.util;
+
+import com.expensetracker.service.ExportJobService;
+
+import jakarta.servlet.ServletContextEvent;
+import jakarta.servlet.ServletContextListener;
+
+import java.io.IOException;
+
+/**
+ * Starts the background export workers with the application and stops them on undeploy.
+ * The running ExportJobService is published as a ServletContext attribute.
+ *
+ * Registered in web.xml after FlywayInitializer: start() recovers jobs from the export_jobs
+ * table, which must exist by then.
+ */
+public class ExportJobInitializer implements ServletContextListener {
+
+    private ExportJobService exportJobService;
+
+    @Override
+    public void contextInitialized(ServletContextEvent sce) {
+        exportJobService = new ExportJobService();
+        try {
+            exportJobService.start(ConfigLoader.getInt("export.jobs.cleanup.interval.minutes", 5));
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to initialize export job directory", e);
+        }
+        sce.getServletContext().setAttribute(ExportJobService.CONTEXT_ATTRIBUTE, exportJobService);
+    }
+
+    @Override
+    public void contextDestroyed(ServletContextEvent sce) {
+        if (exportJobService != null) {
+            exportJobService.shutdown();
+        }
+    }
+}
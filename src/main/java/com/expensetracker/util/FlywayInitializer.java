@@ -4,7 +4,6 @@ import org.flywaydb.core.Flyway;
 
 import jakarta.servlet.ServletContextEvent;
 import jakarta.servlet.ServletContextListener;
-import jakarta.servlet.annotation.WebListener;
 
 import java.io.IOException;
 import java.io.InputStream;
@@ -12,7 +11,7 @@ import java.nio.file.Files;
 import java.nio.file.Paths;
 import java.util.Properties;
 
-@WebListener
+// Registered first in web.xml: listeners that read the database at startup come after it
 public class FlywayInitializer implements ServletContextListener {
 
     @Override
@@ -2,16 +2,36 @@ package com.expensetracker.util;
 
 import com.zaxxer.hikari.HikariConfig;
 import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
 import java.sql.Connection;
 import java.sql.SQLException;
+import java.util.concurrent.locks.ReentrantLock;
 
 public class HikariCPDataSource {
 
     // ✅ FIXED: Changed from 'final' to allow lazy initialization
-    private static HikariDataSource dataSource = null;
+    // Volatile so getConnection() can read it without a lock once the pool exists
+    private static volatile HikariDataSource dataSource = null;
+
+    // Only taken to create or close the pool. A lock rather than synchronized: pool start-up
+    // opens connections, and a virtual thread blocking inside a monitor would pin its carrier
+    private static final ReentrantLock lock = new ReentrantLock();
 
     // ✅ FIXED: Removed static block - now loads on first use instead of class loading
-    private static synchronized HikariDataSource getDataSource() {
+    private static HikariDataSource getDataSource() {
+        HikariDataSource current = dataSource;
+        if (current != null) {
+            return current;
+        }
+        lock.lock();
+        try {
+            return initIfNeeded();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private static HikariDataSource initIfNeeded() {
         if (dataSource == null) {
             HikariConfig config = new HikariConfig();
             
@@ -38,14 +58,47 @@ public class HikariCPDataSource {
     }
 
     public static Connection getConnection() throws SQLException {
-        return getDataSource().getConnection();
+        HikariDataSource ds = getDataSource();
+        long start = System.nanoTime();
+        Connection conn = ds.getConnection();
+        JdbcMetrics.recordAcquire(System.nanoTime() - start);
+        return JdbcMetrics.instrument(conn);
+    }
+
+    /**
+     * Fetch size for a statement whose result is read as a stream (exports, snapshot loads).
+     *
+     * MySQL Connector/J buffers whole result sets unless the fetch size is Integer.MIN_VALUE,
+     * which streams rows over the open connection; the connection can run nothing else until
+     * the result set is closed. (useCursorFetch would batch instead, but it turns every
+     * statement on the pool into a server-side prepared one, a round trip more per query.)
+     * Other drivers honour an ordinary fetch size: db.stream.fetch.size.
+     */
+    public static int streamingFetchSize() {
+        if (ConfigLoader.get("db.driver", "com.mysql.cj.jdbc.Driver").contains("mysql")) {
+            return Integer.MIN_VALUE;
+        }
+        return ConfigLoader.getInt("db.stream.fetch.size", 500);
+    }
+
+    /**
+     * Live pool counters (active, idle, waiting threads), or null before the pool is created.
+     */
+    public static HikariPoolMXBean getPoolStats() {
+        HikariDataSource current = dataSource;
+        return current != null ? current.getHikariPoolMXBean() : null;
     }
 
     public static void close() {
-        if (dataSource != null && !dataSource.isClosed()) {
-            dataSource.close();
-            dataSource = null;
-            System.out.println("✅ HikariCP DataSource closed");
+        lock.lock();
+        try {
+            if (dataSource != null && !dataSource.isClosed()) {
+                dataSource.close();
+                dataSource = null;
+                System.out.println("✅ HikariCP DataSource closed");
+            }
+        } finally {
+            lock.unlock();
         }
     }
 }
\ No newline at end of file
@@ -0,0 +1,225 @@
+package com.expensetracker.util;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+/**
+ * Query instrumentation for every connection handed out by {@link HikariCPDataSource}.
+ *
+ * Connections and statements are wrapped in JDK proxies, so repositories need no changes: each
+ * statement execution is timed and counted under a query name, the repository method that
+ * prepared it (e.g. {@code ExpenseRepository.findTopExpensesByAmount}), and rows read from its
+ * result sets are counted by a {@link CountingResultSet}, which is called per row and so is
+ * not a proxy. Executions slower than db.slow.query.ms are logged with their SQL.
+ * Both are also added to the servlet request being served, if any (see {@link RequestMetrics}).
+ * Set db.metrics.enabled=false to hand out plain connections.
+ */
+public final class JdbcMetrics {
+
+    private static final Logger log = LoggerFactory.getLogger(JdbcMetrics.class);
+
+    private static final boolean ENABLED = ConfigLoader.getBoolean("db.metrics.enabled", true);
+    private static final long SLOW_QUERY_NANOS =
+            TimeUnit.MILLISECONDS.toNanos(ConfigLoader.getInt("db.slow.query.ms", 500));
+    // Dynamic SQL (optional filters) yields a bounded set of variants; this caps the name cache anyway
+    private static final int MAX_CACHED_SQL = 2_000;
+
+    private static final Set<String> EXECUTE_METHODS =
+            Set.of("execute", "executeQuery", "executeUpdate", "executeLargeUpdate", "executeBatch", "executeLargeBatch");
+
+    private static final Map<String, String> NAMES_BY_SQL = new ConcurrentHashMap<>();
+    private static final Map<String, QueryStats> QUERIES = new ConcurrentHashMap<>();
+    private static final LatencyHistogram ACQUIRE = new LatencyHistogram();
+
+    private JdbcMetrics() {}
+
+    private static final class QueryStats {
+        final LatencyHistogram latency = new LatencyHistogram();
+        final LongAdder rows = new LongAdder();
+        final LongAdder errors = new LongAdder();
+        final LongAdder slow = new LongAdder();
+    }
+
+    // ==================== Recording ====================
+
+    public static void recordAcquire(long nanos) {
+        ACQUIRE.record(nanos);
+    }
+
+    /**
+     * Wraps a pooled connection so its statements are measured (returns it as is when disabled).
+     */
+    public static Connection instrument(Connection connection) {
+        if (!ENABLED) {
+            return connection;
+        }
+        return proxy(Connection.class, connection, (target, method, args) -> {
+            Object result = invoke(target, method, args);
+            if (result instanceof CallableStatement cs && method.getName().equals("prepareCall")) {
+                // Proxied as the interface the caller asked for, so it can still be cast to it
+                String sql = (String) args[0];
+                return proxy(CallableStatement.class, cs, statementHandler(queryName(sql), sql));
+            }
+            if (result instanceof PreparedStatement ps && method.getName().equals("prepareStatement")) {
+                // The name is known now, the SQL is the first argument
+                String sql = (String) args[0];
+                return proxy(PreparedStatement.class, ps, statementHandler(queryName(sql), sql));
+            }
+            if (result instanceof Statement st && method.getName().equals("createStatement")) {
+                return proxy(Statement.class, st, statementHandler(null, null));
+            }
+            return result;
+        });
+    }
+
+    private static Handler statementHandler(String preparedName, String preparedSql) {
+        return (target, method, args) -> {
+            if (!EXECUTE_METHODS.contains(method.getName())) {
+                return invoke(target, method, args);
+            }
+            // Plain Statement: the SQL comes with the execute call
+            String sql = preparedSql != null ? preparedSql : (args != null && args.length > 0 ? (String) args[0] : "");
+            String name = preparedName != null ? preparedName : queryName(sql);
+            QueryStats stats = QUERIES.computeIfAbsent(name, k -> new QueryStats());
+            RequestMetrics.Context request = RequestMetrics.current();
+
+            long start = System.nanoTime();
+            Object result;
+            try {
+                result = invoke(target, method, args);
+            } catch (Throwable t) {
+                stats.errors.increment();
+                throw t;
+            } finally {
+                long elapsed = System.nanoTime() - start;
+                stats.latency.record(elapsed);
+                if (request != null) {
+                    request.recordQuery(elapsed);
+                }
+                if (elapsed >= SLOW_QUERY_NANOS) {
+                    stats.slow.increment();
+                    log.warn("Slow query {} took {} ms: {}", name, TimeUnit.NANOSECONDS.toMillis(elapsed),
+                            sql.replaceAll("\\s+", " ").trim());
+                }
+            }
+
+            if (result instanceof ResultSet rs) {
+                return new CountingResultSet(rs, stats.rows, request);
+            }
+            return result;
+        };
+    }
+
+    // Names a query after the repository method that prepared it (first application frame
+    // below the proxies), so the label stays stable while the SQL text changes
+    private static String queryName(String sql) {
+        String cached = NAMES_BY_SQL.get(sql);
+        if (cached != null) {
+            return cached;
+        }
+        String name = StackWalker.getInstance().walk(frames -> frames
+                .filter(f -> f.getClassName().startsWith("com.expensetracker.")
+                        && !f.getClassName().equals(JdbcMetrics.class.getName())
+                        && !f.getClassName().startsWith(JdbcMetrics.class.getName() + "$"))
+                .findFirst()
+                .map(f -> simpleName(f.getClassName()) + "." + methodName(f.getMethodName()))
+                .orElse("unknown"));
+        if (NAMES_BY_SQL.size() < MAX_CACHED_SQL) {
+            NAMES_BY_SQL.put(sql, name);
+        }
+        return name;
+    }
+
+    private static String simpleName(String className) {
+        String simple = className.substring(className.lastIndexOf('.') + 1);
+        int nested = simple.indexOf('$');
+        return nested > 0 ? simple.substring(0, nested) : simple;
+    }
+
+    // lambda$save$0 -> save (statements prepared inside a TransactionManager block)
+    private static String methodName(String method) {
+        if (method.startsWith("lambda$")) {
+            String rest = method.substring("lambda$".length());
+            int end = rest.indexOf('$');
+            return end > 0 ? rest.substring(0, end) : rest;
+        }
+        return method;
+    }
+
+    // ==================== Exposition ====================
+
+    /**
+     * Appends query latency, rows, errors, slow queries and connection-acquire wait in the
+     * Prometheus text format.
+     */
+    public static void writePrometheus(StringBuilder out) {
+        Map<String, QueryStats> queries = new TreeMap<>(QUERIES);
+
+        out.append("# HELP expense_db_query_seconds Statement execution time by repository method\n");
+        out.append("# TYPE expense_db_query_seconds histogram\n");
+        queries.forEach((name, stats) -> stats.latency.writePrometheus(out, "expense_db_query_seconds", label(name)));
+
+        writeCounter(out, queries, "expense_db_query_rows_total", "Rows read from query results", s -> s.rows);
+        writeCounter(out, queries, "expense_db_query_errors_total", "Statement executions that threw", s -> s.errors);
+        writeCounter(out, queries, "expense_db_slow_queries_total",
+                "Statement executions at or above db.slow.query.ms", s -> s.slow);
+
+        out.append("# HELP expense_db_connection_acquire_seconds Time spent waiting for a pooled connection\n");
+        out.append("# TYPE expense_db_connection_acquire_seconds histogram\n");
+        ACQUIRE.writePrometheus(out, "expense_db_connection_acquire_seconds", "");
+    }
+
+    private static void writeCounter(StringBuilder out, Map<String, QueryStats> queries, String metric, String help,
+                                     Function<QueryStats, LongAdder> counter) {
+        out.append("# HELP ").append(metric).append(' ').append(help).append('\n');
+        out.append("# TYPE ").append(metric).append(" counter\n");
+        queries.forEach((name, stats) -> out.append(metric).append('{').append(label(name)).append("} ")
+                .append(counter.apply(stats).sum()).append('\n'));
+    }
+
+    private static String label(String queryName) {
+        return "query=\"" + queryName.replace("\\", "\\\\").replace("\"", "\\\"") + "\"";
+    }
+
+    // ==================== Proxy plumbing ====================
+
+    @SuppressWarnings("unchecked")
+    private static <T> T proxy(Class<T> type, T target, Handler handler) {
+        return (T) Proxy.newProxyInstance(JdbcMetrics.class.getClassLoader(), new Class<?>[] { type },
+                (proxy, method, args) -> {
+                    if (method.getName().equals("unwrap") || method.getName().equals("isWrapperFor")) {
+                        return invoke(target, method, args);
+                    }
+                    return handler.handle(target, method, args);
+                });
+    }
+
+    @FunctionalInterface
+    private interface Handler {
+        Object handle(Object target, Method method, Object[] args) throws Throwable;
+    }
+
+    private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+}
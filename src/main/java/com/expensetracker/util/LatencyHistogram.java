@@ -0,0 +1,72 @@
+package com.expensetracker.util;
+
+import java.math.BigDecimal;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Fixed-bucket latency histogram with lock-free recording, rendered in the Prometheus
+ * text format (cumulative {@code _bucket} lines plus {@code _sum} and {@code _count}).
+ *
+ * Buckets run from 0.1 ms to 10 s, which covers everything from an index lookup (well
+ * under a millisecond on a warm buffer pool) to a large export query.
+ */
+public final class LatencyHistogram {
+
+    private static final long[] BOUNDS_MICROS = {
+            100, 250, 500, 1_000, 5_000, 10_000, 25_000, 50_000, 100_000, 250_000, 500_000,
+            1_000_000, 2_500_000, 5_000_000, 10_000_000 };
+    // le label values in seconds, as plain decimals (Double.toString would print 1.0E-4)
+    private static final String[] BOUND_LABELS = new String[BOUNDS_MICROS.length];
+
+    static {
+        for (int i = 0; i < BOUNDS_MICROS.length; i++) {
+            BOUND_LABELS[i] = BigDecimal.valueOf(BOUNDS_MICROS[i], 6).stripTrailingZeros().toPlainString();
+        }
+    }
+
+    private final LongAdder[] buckets = new LongAdder[BOUNDS_MICROS.length + 1]; // Last one is +Inf
+    private final LongAdder sumNanos = new LongAdder();
+
+    public LatencyHistogram() {
+        for (int i = 0; i < buckets.length; i++) {
+            buckets[i] = new LongAdder();
+        }
+    }
+
+    public void record(long nanos) {
+        // Prometheus buckets are "less than or equal": exactly 5 ms belongs in le="0.005"
+        int bucket = 0;
+        while (bucket < BOUNDS_MICROS.length && nanos > BOUNDS_MICROS[bucket] * 1_000) {
+            bucket++;
+        }
+        buckets[bucket].increment();
+        sumNanos.add(nanos);
+    }
+
+    public long getCount() {
+        long count = 0;
+        for (LongAdder bucket : buckets) {
+            count += bucket.sum();
+        }
+        return count;
+    }
+
+    /**
+     * Appends the histogram's sample lines (no HELP/TYPE header).
+     *
+     * @param labels already formatted label pairs, e.g. {@code query="UserRepository.findById"}, or empty
+     */
+    public void writePrometheus(StringBuilder out, String name, String labels) {
+        String prefix = labels.isEmpty() ? "" : labels + ",";
+        long cumulative = 0;
+        for (int i = 0; i < buckets.length; i++) {
+            cumulative += buckets[i].sum();
+            String le = i < BOUNDS_MICROS.length ? BOUND_LABELS[i] : "+Inf";
+            out.append(name).append("_bucket{").append(prefix).append("le=\"").append(le).append("\"} ")
+                    .append(cumulative).append('\n');
+        }
+        String braces = labels.isEmpty() ? "" : "{" + labels + "}";
+        out.append(name).append("_sum").append(braces).append(' ').append(sumNanos.sum() / 1e9).append('\n');
+        out.append(name).append("_count").append(braces).append(' ').append(cumulative).append('\n');
+    }
+}
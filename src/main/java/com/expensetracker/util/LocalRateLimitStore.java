@@ -0,0 +1,156 @@
+package com.expensetracker.util;
+
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * In-memory sliding-window rate limiter.
+ *
+ * Each key holds a sliding window counter: the attempts in the current fixed window plus the
+ * previous window's attempts weighted by how much of it still overlaps the sliding window.
+ * That is accurate to within a few percent of a true sliding log while costing one long per
+ * key. The window index and both counts are packed into one AtomicLong and updated by CAS,
+ * so counting never blocks.
+ *
+ * Keys are spread over STRIPES maps that each hold at most maxKeys / STRIPES entries. A stripe
+ * that overflows drops keys whose windows have passed and, if a flood of distinct keys keeps it
+ * full, arbitrary others; eviction only forgets counts, so it can under-limit but never block.
+ */
+public final class LocalRateLimitStore implements RateLimitStore {
+
+    private static final int STRIPES = 16;
+    private static final long MAX_COUNT = 0xFFFF;
+
+    private final Stripe[] stripes = new Stripe[STRIPES];
+    private final int maxKeysPerStripe;
+    private final LongSupplier clock;
+
+    public LocalRateLimitStore() {
+        this(ConfigLoader.getInt("ratelimit.max.keys", 100_000), System::currentTimeMillis);
+    }
+
+    LocalRateLimitStore(int maxKeys, LongSupplier clock) {
+        this.maxKeysPerStripe = Math.max(1, maxKeys / STRIPES);
+        this.clock = clock;
+        for (int i = 0; i < STRIPES; i++) {
+            stripes[i] = new Stripe();
+        }
+    }
+
+    @Override
+    public long tryAcquire(String key, int limit, long windowMillis) {
+        long now = clock.getAsLong();
+        Window window = window(key, windowMillis, now);
+        long index = now / windowMillis;
+        double elapsed = (double) (now % windowMillis) / windowMillis;
+
+        while (true) {
+            long state = window.get();
+            long stateIndex = state >>> 32;
+            if (stateIndex > index) {
+                index = stateIndex; // Another thread already moved to the next window
+                elapsed = 0;
+            }
+            long previous;
+            long current;
+            if (stateIndex == index) {
+                previous = (state >>> 16) & MAX_COUNT;
+                current = state & MAX_COUNT;
+            } else if (stateIndex == index - 1) {
+                previous = state & MAX_COUNT; // Last window's count slides into "previous"
+                current = 0;
+            } else {
+                previous = 0;
+                current = 0;
+            }
+
+            if (previous * (1 - elapsed) + current >= limit) {
+                return retryAfter(previous, current, limit, elapsed, now % windowMillis, windowMillis);
+            }
+            long next = (index << 32) | (previous << 16) | Math.min(current + 1, MAX_COUNT);
+            if (window.compareAndSet(state, next)) {
+                return 0;
+            }
+        }
+    }
+
+    @Override
+    public long size() {
+        long size = 0;
+        for (Stripe stripe : stripes) {
+            size += stripe.windows.size();
+        }
+        return size;
+    }
+
+    // ==================== Internals ====================
+
+    private static long retryAfter(long previous, long current, int limit, double elapsed,
+                                   long offsetMillis, long windowMillis) {
+        if (current < limit) {
+            // Wait for enough of the previous window to slide out
+            double needed = 1 - (double) (limit - current) / previous;
+            return Math.max(1, (long) Math.ceil((needed - elapsed) * windowMillis) + 1);
+        }
+        // This window alone is over the limit: wait for the next one, then for this
+        // window's count to slide out far enough
+        double needed = Math.max(0, 1 - (double) limit / current);
+        return (windowMillis - offsetMillis) + (long) Math.ceil(needed * windowMillis) + 1;
+    }
+
+    private Window window(String key, long windowMillis, long now) {
+        Stripe stripe = stripes[(key.hashCode() & 0x7fffffff) % STRIPES];
+        Window window = stripe.windows.get(key);
+        if (window != null) {
+            return window;
+        }
+        Window created = new Window(windowMillis, now);
+        window = stripe.windows.putIfAbsent(key, created);
+        if (window != null) {
+            return window;
+        }
+        if (stripe.windows.size() > maxKeysPerStripe) {
+            stripe.evict(now, maxKeysPerStripe);
+        }
+        return created;
+    }
+
+    // The packed state: window index (high 32 bits), previous count, current count (16 bits each)
+    private static final class Window extends AtomicLong {
+        final long windowMillis;
+
+        Window(long windowMillis, long now) {
+            super((now / windowMillis) << 32); // Empty, but not idle before its first count
+            this.windowMillis = windowMillis;
+        }
+
+        boolean isIdle(long now) {
+            return (get() >>> 32) < now / windowMillis - 1; // Both counted windows have passed
+        }
+    }
+
+    private static final class Stripe {
+        final Map<String, Window> windows = new ConcurrentHashMap<>();
+        final AtomicBoolean evicting = new AtomicBoolean();
+
+        void evict(long now, int maxKeys) {
+            if (!evicting.compareAndSet(false, true)) {
+                return; // Another thread is already at it
+            }
+            try {
+                windows.values().removeIf(window -> window.isIdle(now));
+                Iterator<Window> it = windows.values().iterator();
+                while (windows.size() > maxKeys && it.hasNext()) {
+                    it.next();
+                    it.remove();
+                }
+            } finally {
+                evicting.set(false);
+            }
+        }
+    }
+}
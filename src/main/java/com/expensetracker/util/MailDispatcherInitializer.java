@@ -0,0 +1,34 @@
+package com.expensetracker.util;
+
+import com.expensetracker.service.MailDispatcher;
+
+import jakarta.servlet.ServletContextEvent;
+import jakarta.servlet.ServletContextListener;
+import jakarta.servlet.annotation.WebListener;
+
+/**
+ * Starts the background mail sender with the application and stops it on undeploy.
+ * EmailUtil hands every outgoing email to the running dispatcher.
+ */
+@WebListener
+public class MailDispatcherInitializer implements ServletContextListener {
+
+    private MailDispatcher mailDispatcher;
+
+    @Override
+    public void contextInitialized(ServletContextEvent sce) {
+        mailDispatcher = new MailDispatcher();
+        mailDispatcher.start(
+                ConfigLoader.getInt("mail.recovery.delay.seconds", 30),
+                ConfigLoader.getInt("mail.outbox.retention.days", 7));
+        EmailUtil.setDispatcher(mailDispatcher);
+    }
+
+    @Override
+    public void contextDestroyed(ServletContextEvent sce) {
+        EmailUtil.setDispatcher(null);
+        if (mailDispatcher != null) {
+            mailDispatcher.shutdown();
+        }
+    }
+}
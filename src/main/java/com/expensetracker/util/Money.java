@@ -0,0 +1,58 @@
+package com.expensetracker.util;
+
+import java.math.BigDecimal;
+
+/**
+ * Amounts as {@code long} cents for aggregation loops.
+ *
+ * Every money column is DECIMAL(p,2), so a stored amount (or a SUM of them) is a whole
+ * number of cents. Summing cents in a {@code long} gives exactly the value that chained
+ * {@code BigDecimal.add} calls would, without a new BigDecimal per element; convert back
+ * with {@link #fromCents(long)} (scale 2, like the column) only when filling a DTO.
+ */
+public final class Money {
+
+    // Below 10^14 cents a double round-trips the unscaled value exactly (see toCents)
+    private static final int FAST_PATH_MAX_PRECISION = 14;
+
+    private Money() {}
+
+    /**
+     * @throws ArithmeticException if the amount has fractions of a cent or does not fit a long
+     */
+    public static long toCents(BigDecimal amount) {
+        if (amount.scale() == 2 && amount.precision() <= FAST_PATH_MAX_PRECISION) {
+            // For compact values doubleValue() is a single correctly rounded division with no
+            // allocation, and the error is far below half a cent, so rounding recovers it exactly.
+            return Math.round(amount.doubleValue() * 100);
+        }
+        return amount.movePointRight(2).longValueExact();
+    }
+
+    public static BigDecimal fromCents(long cents) {
+        return BigDecimal.valueOf(cents, 2);
+    }
+
+    /**
+     * Same text as {@code fromCents(cents).toPlainString()}.
+     */
+    public static String toPlainString(long cents) {
+        long abs = Math.abs(cents);
+        long fraction = abs % 100;
+        return (cents < 0 ? "-" : "") + (abs / 100) + (fraction < 10 ? ".0" : ".") + fraction;
+    }
+
+    /**
+     * {@code numerator / denominator} in hundredths, rounded HALF_UP, i.e. the unscaled value of
+     * {@code BigDecimal.divide(denominator, 2, RoundingMode.HALF_UP)} for a ratio of cents.
+     */
+    public static long divideToHundredths(long numerator, long denominator) {
+        long scaled = Math.multiplyExact(numerator, 100);
+        long quotient = scaled / denominator;
+        long remainder = scaled % denominator;
+        if (Math.abs(remainder) * 2 >= Math.abs(denominator)) {
+            quotient += Long.signum(scaled) * Long.signum(denominator);
+        }
+        return quotient;
+    }
+}
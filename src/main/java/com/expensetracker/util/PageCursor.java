@@ -0,0 +1,128 @@
+package com.expensetracker.util;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.Base64;
+
+/**
+ * Opaque continuation token for keyset (seek) pagination.
+ *
+ * A cursor remembers the sort key of the row at the edge of the page the user is
+ * looking at, plus the row id used as tiebreaker. It also carries the page number
+ * and the total count computed on the first page, so deep pages never re-run COUNT(*).
+ *
+ * The token is not signed: every query is still constrained by user_id, so a
+ * tampered token can only reposition a user within their own data. A token issued
+ * for a different filter/sort (see {@link #getFilterHash()}) is ignored by the repository.
+ */
+public final class PageCursor {
+
+    private static final byte VERSION = 1;
+
+    /** Direction of travel from the row stored in the cursor. */
+    public enum Direction { NEXT, PREVIOUS }
+
+    private final Direction direction;
+    private final String sortColumn;
+    private final String sortOrder;
+    private final String lastValue;
+    private final long lastId;
+    private final int page;
+    private final long totalItems;
+    private final int filterHash;
+
+    public PageCursor(Direction direction, String sortColumn, String sortOrder, String lastValue,
+                      long lastId, int page, long totalItems, int filterHash) {
+        this.direction = direction;
+        this.sortColumn = sortColumn;
+        this.sortOrder = sortOrder;
+        this.lastValue = lastValue;
+        this.lastId = lastId;
+        this.page = page;
+        this.totalItems = totalItems;
+        this.filterHash = filterHash;
+    }
+
+    // ==================== Encoding ====================
+
+    public String encode() {
+        try (ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+             DataOutputStream out = new DataOutputStream(bytes)) {
+            out.writeByte(VERSION);
+            out.writeByte(direction.ordinal());
+            out.writeUTF(sortColumn);
+            out.writeUTF(sortOrder);
+            out.writeUTF(lastValue);
+            out.writeLong(lastId);
+            out.writeInt(page);
+            out.writeLong(totalItems);
+            out.writeInt(filterHash);
+            out.flush();
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(bytes.toByteArray());
+        } catch (IOException e) {
+            throw new IllegalStateException("Failed to encode page cursor", e);
+        }
+    }
+
+    /**
+     * Decodes a token produced by {@link #encode()}.
+     * @return the cursor, or null if the token is missing or malformed
+     */
+    public static PageCursor decode(String token) {
+        if (token == null || token.isBlank()) {
+            return null;
+        }
+        try (DataInputStream in = new DataInputStream(
+                new ByteArrayInputStream(Base64.getUrlDecoder().decode(token.trim())))) {
+            if (in.readByte() != VERSION) {
+                return null;
+            }
+            int dir = in.readByte();
+            if (dir < 0 || dir >= Direction.values().length) {
+                return null;
+            }
+            PageCursor cursor = new PageCursor(Direction.values()[dir], in.readUTF(), in.readUTF(), in.readUTF(),
+                    in.readLong(), in.readInt(), in.readLong(), in.readInt());
+            return cursor.page >= 1 && cursor.totalItems >= 0 ? cursor : null;
+        } catch (IOException | IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    // ==================== Getters ====================
+
+    public Direction getDirection() {
+        return direction;
+    }
+
+    public String getSortColumn() {
+        return sortColumn;
+    }
+
+    public String getSortOrder() {
+        return sortOrder;
+    }
+
+    public String getLastValue() {
+        return lastValue;
+    }
+
+    public long getLastId() {
+        return lastId;
+    }
+
+    public int getPage() {
+        return page;
+    }
+
+    public long getTotalItems() {
+        return totalItems;
+    }
+
+    public int getFilterHash() {
+        return filterHash;
+    }
+}
@@ -13,6 +13,11 @@ public class PagedResult<T> {
     private final int pageSize;
     private final long totalItems;
     private final int totalPages;
+
+    // Keyset pagination: opaque tokens for the neighbouring pages (null = no such page)
+    private final boolean cursorMode;
+    private final String previousCursor;
+    private final String nextCursor;
     
     public PagedResult(List<T> items, int currentPage, int pageSize, long totalItems) {
         this.items = items;
@@ -20,6 +25,27 @@ public class PagedResult<T> {
         this.pageSize = pageSize;
         this.totalItems = totalItems;
         this.totalPages = (int) Math.ceil((double) totalItems / pageSize);
+        this.cursorMode = false;
+        this.previousCursor = null;
+        this.nextCursor = null;
+    }
+
+    /**
+     * Cursor-aware page. hasNext/hasPrevious follow the cursors, and totalItems may be
+     * a count cached from the first page, so totalPages never drops below the pages
+     * the user can actually reach.
+     */
+    public PagedResult(List<T> items, int currentPage, int pageSize, long totalItems,
+                       String previousCursor, String nextCursor) {
+        this.items = items;
+        this.currentPage = currentPage;
+        this.pageSize = pageSize;
+        this.totalItems = totalItems;
+        this.totalPages = Math.max((int) Math.ceil((double) totalItems / pageSize),
+                                   nextCursor != null ? currentPage + 1 : currentPage);
+        this.cursorMode = true;
+        this.previousCursor = previousCursor;
+        this.nextCursor = nextCursor;
     }
     
     // ==================== Getters ====================
@@ -43,15 +69,23 @@ public class PagedResult<T> {
     public int getTotalPages() {
         return totalPages;
     }
+
+    public String getPreviousCursor() {
+        return previousCursor;
+    }
+
+    public String getNextCursor() {
+        return nextCursor;
+    }
     
     // ==================== Helper Methods ====================
     
     public boolean hasNext() {
-        return currentPage < totalPages;
+        return cursorMode ? nextCursor != null : currentPage < totalPages;
     }
     
     public boolean hasPrevious() {
-        return currentPage > 1;
+        return cursorMode ? previousCursor != null : currentPage > 1;
     }
     
     public int getNextPage() {
@@ -71,7 +105,7 @@ public class PagedResult<T> {
     }
     
     public int getEndIndex() {
-        return Math.min(currentPage * pageSize, (int) totalItems);
+        return Math.min(currentPage * pageSize, (int) Math.max(totalItems, getStartIndex() - 1 + (isEmpty() ? 0 : items.size())));
     }
     
     @Override
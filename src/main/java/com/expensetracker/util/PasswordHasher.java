@@ -0,0 +1,197 @@
+package com.expensetracker.util;
+
+import org.mindrot.jbcrypt.BCrypt;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+
+/**
+ * BCrypt hashing and verification on a small dedicated pool instead of the request thread.
+ *
+ * Each call costs a few hundred milliseconds of CPU by design, so a burst of logins (or a
+ * credential-stuffing run) would otherwise occupy every request thread and starve ordinary
+ * page loads. The pool has security.hash.threads threads and a queue of
+ * security.hash.queue.capacity; when both are full, or a caller has waited
+ * security.hash.timeout.ms, the call fails fast with a {@link RejectedExecutionException}
+ * carrying a user-facing message.
+ *
+ * New hashes use security.bcrypt.cost. Hashes made with another cost are upgraded after a
+ * successful login via {@link #rehashInBackground}.
+ */
+public final class PasswordHasher {
+
+    private static final Logger log = LoggerFactory.getLogger(PasswordHasher.class);
+
+    public static final String BUSY_MESSAGE = "Too many sign-in attempts right now. Please try again in a moment.";
+
+    private static final int COST = ConfigLoader.getInt("security.bcrypt.cost", 12);
+
+    private static final HashPool POOL = new HashPool(
+            ConfigLoader.getInt("security.hash.threads", Math.max(1, Runtime.getRuntime().availableProcessors() / 2)),
+            ConfigLoader.getInt("security.hash.queue.capacity", 16),
+            ConfigLoader.getInt("security.hash.timeout.ms", 5000));
+
+    private static final LatencyHistogram HASH_TIME = new LatencyHistogram();
+    private static final LatencyHistogram VERIFY_TIME = new LatencyHistogram();
+
+    private PasswordHasher() {}
+
+    // ==================== Public API ====================
+
+    public static String hash(String password) {
+        return POOL.run(HASH_TIME, () -> BCrypt.hashpw(password, BCrypt.gensalt(COST)));
+    }
+
+    /**
+     * @throws IllegalArgumentException if the stored hash is not a BCrypt hash
+     */
+    public static boolean verify(String password, String storedHash) {
+        return POOL.run(VERIFY_TIME, () -> BCrypt.checkpw(password, storedHash));
+    }
+
+    /**
+     * True when the hash was made with a cost other than the configured one.
+     */
+    public static boolean needsRehash(String storedHash) {
+        // $2a$12$...: the cost is the two digits after the version
+        if (storedHash == null || storedHash.length() < 7 || storedHash.charAt(0) != '$') {
+            return false;
+        }
+        try {
+            return Integer.parseInt(storedHash.substring(4, 6)) != COST;
+        } catch (NumberFormatException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Hashes the password at the configured cost on the pool without waiting for it, then
+     * hands the new hash to {@code store}. Skipped when the pool is busy; the next login retries.
+     */
+    public static void rehashInBackground(String password, Consumer<String> store) {
+        try {
+            POOL.executor.execute(() -> {
+                try {
+                    long start = System.nanoTime();
+                    String upgraded = BCrypt.hashpw(password, BCrypt.gensalt(COST));
+                    HASH_TIME.record(System.nanoTime() - start);
+                    store.accept(upgraded);
+                } catch (RuntimeException e) {
+                    log.warn("Password rehash failed: {}", e.getMessage());
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            log.debug("Hash pool busy, password rehash postponed");
+        }
+    }
+
+    // ==================== Exposition ====================
+
+    /**
+     * Appends hash/verify latency, queue wait, queue depth and rejections in the
+     * Prometheus text format.
+     */
+    public static void writePrometheus(StringBuilder out) {
+        out.append("# HELP expense_password_hash_seconds BCrypt time on the hash pool by operation\n");
+        out.append("# TYPE expense_password_hash_seconds histogram\n");
+        HASH_TIME.writePrometheus(out, "expense_password_hash_seconds", "op=\"hash\"");
+        VERIFY_TIME.writePrometheus(out, "expense_password_hash_seconds", "op=\"verify\"");
+
+        out.append("# HELP expense_password_queue_wait_seconds Time a hash request waited for a pool thread\n");
+        out.append("# TYPE expense_password_queue_wait_seconds histogram\n");
+        POOL.queueWait.writePrometheus(out, "expense_password_queue_wait_seconds", "");
+
+        out.append("# HELP expense_password_queue_depth Hash requests waiting for a pool thread\n");
+        out.append("# TYPE expense_password_queue_depth gauge\n");
+        out.append("expense_password_queue_depth ").append(POOL.executor.getQueue().size()).append('\n');
+        out.append("# HELP expense_password_active_threads Pool threads currently hashing\n");
+        out.append("# TYPE expense_password_active_threads gauge\n");
+        out.append("expense_password_active_threads ").append(POOL.executor.getActiveCount()).append('\n');
+        out.append("# HELP expense_password_rejected_total Hash requests refused because the pool was saturated\n");
+        out.append("# TYPE expense_password_rejected_total counter\n");
+        out.append("expense_password_rejected_total ").append(POOL.rejected.sum()).append('\n');
+    }
+
+    // ==================== Execution ====================
+
+    /**
+     * The bounded pool calls wait on: fails fast once threads and queue are full, and gives
+     * up on a call that has not finished within the timeout. Package-private so tests can
+     * saturate a small one.
+     */
+    static final class HashPool {
+        final ThreadPoolExecutor executor;
+        final long timeoutMillis;
+        final LatencyHistogram queueWait = new LatencyHistogram();
+        final LongAdder rejected = new LongAdder();
+
+        HashPool(int threads, int queueCapacity, long timeoutMillis) {
+            this.executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                    new ArrayBlockingQueue<>(queueCapacity), daemonThreads(), new ThreadPoolExecutor.AbortPolicy());
+            this.timeoutMillis = timeoutMillis;
+        }
+
+        <T> T run(LatencyHistogram timing, Callable<T> task) {
+            long queuedAt = System.nanoTime();
+            Future<T> future;
+            try {
+                future = executor.submit(() -> {
+                    long start = System.nanoTime();
+                    queueWait.record(start - queuedAt);
+                    try {
+                        return task.call();
+                    } finally {
+                        timing.record(System.nanoTime() - start);
+                    }
+                });
+            } catch (RejectedExecutionException e) {
+                rejected.increment();
+                log.warn("Hash pool saturated ({} queued), rejecting", executor.getQueue().size());
+                throw new RejectedExecutionException(BUSY_MESSAGE, e);
+            }
+
+            try {
+                return future.get(timeoutMillis, TimeUnit.MILLISECONDS);
+            } catch (TimeoutException e) {
+                future.cancel(true);
+                rejected.increment();
+                log.warn("Gave up on a password hash after {} ms in the pool", timeoutMillis);
+                throw new RejectedExecutionException(BUSY_MESSAGE, e);
+            } catch (InterruptedException e) {
+                future.cancel(true);
+                Thread.currentThread().interrupt();
+                throw new RuntimeException("Interrupted while checking password", e);
+            } catch (ExecutionException e) {
+                if (e.getCause() instanceof RuntimeException cause) {
+                    throw cause;
+                }
+                throw new RuntimeException("Password hashing failed", e.getCause());
+            }
+        }
+
+        void shutdownNow() {
+            executor.shutdownNow();
+        }
+    }
+
+    private static ThreadFactory daemonThreads() {
+        AtomicInteger counter = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, "password-hash-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+}
@@ -0,0 +1,25 @@
+package com.expensetracker.util;
+
+/**
+ * Where rate-limit counters live. {@link LocalRateLimitStore} keeps them in this JVM, which
+ * limits per node; a multi-node deployment can plug in a shared store (Redis, a database
+ * table) via ratelimit.store, as long as it has a public no-argument constructor.
+ */
+public interface RateLimitStore {
+
+    /**
+     * Counts one attempt for the key if fewer than {@code limit} attempts were made in the
+     * last {@code windowMillis}.
+     *
+     * @return 0 if the attempt is allowed, otherwise the milliseconds until one would be
+     *         (rejected attempts are not counted)
+     */
+    long tryAcquire(String key, int limit, long windowMillis);
+
+    /**
+     * Number of keys currently tracked, or -1 if the store cannot tell cheaply.
+     */
+    default long size() {
+        return -1;
+    }
+}
@@ -0,0 +1,352 @@
+package com.expensetracker.util;
+
+import jakarta.servlet.RequestDispatcher;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.ServletRequest;
+import jakarta.servlet.ServletResponse;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletRequestWrapper;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpServletResponseWrapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.slf4j.MDC;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Per-request phase timing for {@code BaseServlet}: wall time split into auth, database,
+ * application and view (JSP forward) phases, plus the JDBC calls and rows each request made.
+ *
+ * The current request lives in a thread local that {@link JdbcMetrics} reports into, so
+ * queries are attributed without touching the repositories. Work handed to another thread
+ * must go through {@link #propagate(Supplier)} to stay attributed. Each finished request is
+ * logged with its numbers in the MDC, added to per-servlet totals served by /admin/metrics,
+ * and summarised in a Server-Timing header (http.server.timing.enabled).
+ */
+public final class RequestMetrics {
+
+    private static final Logger log = LoggerFactory.getLogger(RequestMetrics.class);
+
+    private static final boolean SERVER_TIMING = ConfigLoader.getBoolean("http.server.timing.enabled", true);
+
+    private static final ThreadLocal<Context> CURRENT = new ThreadLocal<>();
+    private static final Map<String, ServletStats> SERVLETS = new ConcurrentHashMap<>();
+
+    private RequestMetrics() {}
+
+    // ==================== Per-request context ====================
+
+    public static final class Context {
+        private final String servlet;
+        private final long startNanos = System.nanoTime();
+        private final LongAdder dbNanos = new LongAdder();
+        private final LongAdder dbCalls = new LongAdder();
+        private final LongAdder rows = new LongAdder();
+        // Written by the request thread only
+        private long authStartNanos;
+        private long authNanos;
+        private long authDbNanos;
+        private long viewNanos;
+
+        private Context(String servlet) {
+            this.servlet = servlet;
+        }
+
+        public void authStarted() {
+            authStartNanos = System.nanoTime();
+            authDbNanos = -dbNanos.sum();
+        }
+
+        public void authFinished() {
+            if (authStartNanos != 0) {
+                authNanos += System.nanoTime() - authStartNanos;
+                authDbNanos += dbNanos.sum(); // DB time spent inside the auth phase (remember-me lookup)
+                authStartNanos = 0;
+            }
+        }
+
+        void recordQuery(long nanos) {
+            dbNanos.add(nanos);
+            dbCalls.increment();
+        }
+
+        void recordRow() {
+            rows.increment();
+        }
+
+        public long getDbCalls() {
+            return dbCalls.sum();
+        }
+
+        public long getRows() {
+            return rows.sum();
+        }
+
+        // Application time: whatever the wall clock spent outside auth, JDBC and the view.
+        // Queries run beside each other (dashboard, long reports) can add up past the wall clock.
+        private long appNanos(long totalNanos) {
+            return Math.max(0, totalNanos - authNanos - viewNanos - (dbNanos.sum() - authDbNanos));
+        }
+
+        String serverTiming() {
+            long total = System.nanoTime() - startNanos;
+            return "auth;dur=" + millis(authNanos)
+                    + ", db;dur=" + millis(dbNanos.sum()) + ";desc=\"" + dbCalls.sum() + " queries, " + rows.sum() + " rows\""
+                    + ", app;dur=" + millis(appNanos(total))
+                    + ", total;dur=" + millis(total);
+        }
+    }
+
+    private static final class ServletStats {
+        final LatencyHistogram latency = new LatencyHistogram();
+        final LongAdder authNanos = new LongAdder();
+        final LongAdder dbNanos = new LongAdder();
+        final LongAdder appNanos = new LongAdder();
+        final LongAdder viewNanos = new LongAdder();
+        final LongAdder dbCalls = new LongAdder();
+        final LongAdder rows = new LongAdder();
+    }
+
+    /**
+     * Starts timing a request on the current thread.
+     */
+    public static Context begin(String servlet, HttpServletRequest req) {
+        Context context = new Context(servlet);
+        CURRENT.set(context);
+        MDC.put("request", req.getMethod() + " " + req.getServletPath());
+        return context;
+    }
+
+    /**
+     * Records the finished request, logs its summary and clears the thread's state.
+     */
+    public static void end(Context context, HttpServletResponse resp) {
+        context.authFinished(); // Still open when the auth check itself answered (redirect to login)
+        long total = System.nanoTime() - context.startNanos;
+        long app = context.appNanos(total);
+        try {
+            ServletStats stats = SERVLETS.computeIfAbsent(context.servlet, k -> new ServletStats());
+            stats.latency.record(total);
+            stats.authNanos.add(context.authNanos);
+            stats.dbNanos.add(context.dbNanos.sum());
+            stats.appNanos.add(app);
+            stats.viewNanos.add(context.viewNanos);
+            stats.dbCalls.add(context.dbCalls.sum());
+            stats.rows.add(context.rows.sum());
+
+            MDC.put("db.calls", Long.toString(context.dbCalls.sum()));
+            MDC.put("db.rows", Long.toString(context.rows.sum()));
+            MDC.put("db.ms", millis(context.dbNanos.sum()));
+            MDC.put("total.ms", millis(total));
+            log.debug("{} status={} total={}ms auth={}ms db={}ms ({} calls, {} rows) app={}ms view={}ms",
+                    context.servlet, resp.getStatus(), millis(total), millis(context.authNanos),
+                    millis(context.dbNanos.sum()), context.dbCalls.sum(), context.rows.sum(),
+                    millis(app), millis(context.viewNanos));
+        } finally {
+            CURRENT.remove();
+            MDC.remove("request");
+            MDC.remove("db.calls");
+            MDC.remove("db.rows");
+            MDC.remove("db.ms");
+            MDC.remove("total.ms");
+        }
+    }
+
+    /**
+     * The request being served on this thread, or null outside a servlet request.
+     */
+    public static Context current() {
+        return CURRENT.get();
+    }
+
+    /**
+     * Carries the caller's request (and its log context) into a task run on another thread.
+     */
+    public static <T> Supplier<T> propagate(Supplier<T> task) {
+        Context context = CURRENT.get();
+        Map<String, String> mdc = MDC.getCopyOfContextMap();
+        if (context == null) {
+            return task;
+        }
+        return () -> {
+            CURRENT.set(context);
+            if (mdc != null) {
+                MDC.setContextMap(mdc);
+            }
+            try {
+                return task.get();
+            } finally {
+                CURRENT.remove();
+                MDC.clear();
+            }
+        };
+    }
+
+    // ==================== Servlet wrappers ====================
+
+    /**
+     * Wraps the request so JSP forwards and includes are timed as the view phase.
+     */
+    public static HttpServletRequest timeViews(HttpServletRequest req, Context context) {
+        return new HttpServletRequestWrapper(req) {
+            @Override
+            public RequestDispatcher getRequestDispatcher(String path) {
+                RequestDispatcher dispatcher = super.getRequestDispatcher(path);
+                return dispatcher == null ? null : new TimedDispatcher(dispatcher, context);
+            }
+        };
+    }
+
+    /**
+     * Wraps the response so a Server-Timing header is set just before it starts committing
+     * (first body write, redirect or error page), or at the end for empty responses. The
+     * view phase is still to come at that point, so the header covers everything before it.
+     */
+    public static HttpServletResponse withServerTiming(HttpServletResponse resp, Context context) {
+        return SERVER_TIMING ? new ServerTimingResponse(resp, context) : resp;
+    }
+
+    /**
+     * Sets the Server-Timing header on a response that has not written anything.
+     */
+    public static void finishServerTiming(HttpServletResponse resp) {
+        if (resp instanceof ServerTimingResponse timed) {
+            timed.addTiming();
+        }
+    }
+
+    private static final class TimedDispatcher implements RequestDispatcher {
+        private final RequestDispatcher delegate;
+        private final Context context;
+
+        TimedDispatcher(RequestDispatcher delegate, Context context) {
+            this.delegate = delegate;
+            this.context = context;
+        }
+
+        @Override
+        public void forward(ServletRequest request, ServletResponse response) throws ServletException, IOException {
+            long start = System.nanoTime();
+            try {
+                delegate.forward(request, response);
+            } finally {
+                context.viewNanos += System.nanoTime() - start;
+            }
+        }
+
+        @Override
+        public void include(ServletRequest request, ServletResponse response) throws ServletException, IOException {
+            long start = System.nanoTime();
+            try {
+                delegate.include(request, response);
+            } finally {
+                context.viewNanos += System.nanoTime() - start;
+            }
+        }
+    }
+
+    private static final class ServerTimingResponse extends HttpServletResponseWrapper {
+        private final Context context;
+        private boolean timingSet;
+
+        ServerTimingResponse(HttpServletResponse resp, Context context) {
+            super(resp);
+            this.context = context;
+        }
+
+        void addTiming() {
+            if (!timingSet && !isCommitted()) {
+                timingSet = true;
+                setHeader("Server-Timing", context.serverTiming());
+            }
+        }
+
+        @Override
+        public PrintWriter getWriter() throws IOException {
+            addTiming();
+            return super.getWriter();
+        }
+
+        @Override
+        public ServletOutputStream getOutputStream() throws IOException {
+            addTiming();
+            return super.getOutputStream();
+        }
+
+        @Override
+        public void sendRedirect(String location) throws IOException {
+            addTiming();
+            super.sendRedirect(location);
+        }
+
+        @Override
+        public void sendError(int sc) throws IOException {
+            addTiming();
+            super.sendError(sc);
+        }
+
+        @Override
+        public void sendError(int sc, String msg) throws IOException {
+            addTiming();
+            super.sendError(sc, msg);
+        }
+
+        @Override
+        public void flushBuffer() throws IOException {
+            addTiming();
+            super.flushBuffer();
+        }
+    }
+
+    // ==================== Exposition ====================
+
+    /**
+     * Appends per-servlet request latency, phase totals, JDBC calls and rows in the
+     * Prometheus text format.
+     */
+    public static void writePrometheus(StringBuilder out) {
+        Map<String, ServletStats> servlets = new TreeMap<>(SERVLETS);
+
+        out.append("# HELP expense_http_request_seconds Request wall time by servlet\n");
+        out.append("# TYPE expense_http_request_seconds histogram\n");
+        servlets.forEach((name, stats) ->
+                stats.latency.writePrometheus(out, "expense_http_request_seconds", "servlet=\"" + name + "\""));
+
+        out.append("# HELP expense_http_request_phase_seconds_total Request time by servlet and phase\n");
+        out.append("# TYPE expense_http_request_phase_seconds_total counter\n");
+        servlets.forEach((name, stats) -> {
+            writePhase(out, name, "auth", stats.authNanos);
+            writePhase(out, name, "db", stats.dbNanos);
+            writePhase(out, name, "app", stats.appNanos);
+            writePhase(out, name, "view", stats.viewNanos);
+        });
+
+        out.append("# HELP expense_http_request_db_calls_total JDBC statement executions by servlet\n");
+        out.append("# TYPE expense_http_request_db_calls_total counter\n");
+        servlets.forEach((name, stats) -> out.append("expense_http_request_db_calls_total{servlet=\"").append(name)
+                .append("\"} ").append(stats.dbCalls.sum()).append('\n'));
+
+        out.append("# HELP expense_http_request_db_rows_total Rows read from query results by servlet\n");
+        out.append("# TYPE expense_http_request_db_rows_total counter\n");
+        servlets.forEach((name, stats) -> out.append("expense_http_request_db_rows_total{servlet=\"").append(name)
+                .append("\"} ").append(stats.rows.sum()).append('\n'));
+    }
+
+    private static void writePhase(StringBuilder out, String servlet, String phase, LongAdder nanos) {
+        out.append("expense_http_request_phase_seconds_total{servlet=\"").append(servlet)
+                .append("\",phase=\"").append(phase).append("\"} ").append(nanos.sum() / 1e9).append('\n');
+    }
+
+    private static String millis(long nanos) {
+        return String.format(Locale.ROOT, "%.1f", nanos / 1e6);
+    }
+}
@@ -0,0 +1,48 @@
+package com.expensetracker.util;
+
+import com.expensetracker.repository.SpendingRollupRepository;
+
+import java.util.List;
+
+/**
+ * Rebuilds the spend rollup tables from the expenses table.
+ *
+ * Usage (uses the same config.properties / environment variables as the app):
+ *   java -cp "WEB-INF/classes:WEB-INF/lib/*" com.expensetracker.util.RollupBackfill            # all users
+ *   java -cp "WEB-INF/classes:WEB-INF/lib/*" com.expensetracker.util.RollupBackfill 42 57      # selected users
+ *
+ * Each user is rebuilt in its own transaction, so the command can be re-run safely
+ * while the application is serving traffic.
+ */
+public final class RollupBackfill {
+
+    private RollupBackfill() {}
+
+    public static void main(String[] args) {
+        SpendingRollupRepository rollupRepository = new SpendingRollupRepository();
+        int failures = 0;
+
+        try {
+            List<Long> userIds = args.length > 0
+                    ? java.util.Arrays.stream(args).map(Long::valueOf).toList()
+                    : rollupRepository.findUserIdsToRebuild();
+
+            System.out.println("Rebuilding spend rollups for " + userIds.size() + " user(s)...");
+            for (Long userId : userIds) {
+                try {
+                    rollupRepository.rebuildForUser(userId);
+                } catch (RuntimeException e) {
+                    failures++;
+                    System.err.println("❌ Rollup rebuild failed for user " + userId + ": " + e.getMessage());
+                }
+            }
+            System.out.println("✅ Rollup rebuild finished (" + failures + " failure(s))");
+        } finally {
+            HikariCPDataSource.close();
+        }
+
+        if (failures > 0) {
+            System.exit(1);
+        }
+    }
+}
@@ -0,0 +1,202 @@
+package com.expensetracker.util;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+/**
+ * HMAC-signed session cookies for running several nodes without sticky sessions.
+ *
+ * A token carries the user id (0 before login), the email verification flag, the CSRF secret
+ * and an expiry: {@code <key id>.<payload>.<signature>}, payload and signature base64url.
+ * Any node holding the key can rebuild the session from it (see AuthService.restoreSession).
+ *
+ * Keys come from security.session.keys as {@code id:base64secret} pairs, comma separated.
+ * The first key signs; all of them verify, so a new key is rolled out by putting it first and
+ * dropping the old one after a session timeout, by which point every live token has been
+ * re-signed. Tokens cannot be revoked before they expire, so the lifetime is the (sliding)
+ * security.session.timeout.minutes.
+ */
+public final class SessionTokens {
+
+    private static final Logger log = LoggerFactory.getLogger(SessionTokens.class);
+
+    public static final String COOKIE_NAME = "session_token";
+    private static final String ALGORITHM = "HmacSHA256";
+
+    private static final SessionTokens INSTANCE = fromConfig();
+
+    // Key id -> MAC initialised with that key; cloned per use since Mac is not thread-safe
+    private final Map<String, Mac> keys;
+    private final String signingKeyId;
+    private final long ttlMillis;
+    private final LongSupplier clock;
+
+    SessionTokens(Map<String, byte[]> secrets, long ttl, TimeUnit unit, LongSupplier clock) {
+        this.keys = new LinkedHashMap<>();
+        secrets.forEach((id, secret) -> keys.put(id, newMac(secret)));
+        this.signingKeyId = secrets.keySet().iterator().next();
+        this.ttlMillis = unit.toMillis(ttl);
+        this.clock = clock;
+    }
+
+    /**
+     * The configured instance, or null when stateless sessions are off.
+     */
+    public static SessionTokens get() {
+        return INSTANCE;
+    }
+
+    // ==================== Tokens ====================
+
+    public String issue(long userId, boolean emailVerified, String csrfToken) {
+        long expiresAt = clock.getAsLong() + ttlMillis;
+        String payload = userId + ":" + (emailVerified ? 1 : 0) + ":" + csrfToken + ":" + expiresAt;
+        String signed = signingKeyId + "." + encode(payload.getBytes(StandardCharsets.UTF_8));
+        return signed + "." + encode(sign(keys.get(signingKeyId), signed));
+    }
+
+    /**
+     * @return the claims of a well-formed, correctly signed and unexpired token, otherwise null
+     */
+    public Claims verify(String token) {
+        if (token == null) {
+            return null;
+        }
+        int firstDot = token.indexOf('.');
+        int lastDot = token.lastIndexOf('.');
+        if (firstDot <= 0 || lastDot == firstDot) {
+            return null;
+        }
+        String keyId = token.substring(0, firstDot);
+        Mac mac = keys.get(keyId);
+        if (mac == null) {
+            return null; // Retired key
+        }
+
+        try {
+            Base64.Decoder decoder = Base64.getUrlDecoder();
+            byte[] expected = sign(mac, token.substring(0, lastDot));
+            if (!MessageDigest.isEqual(expected, decoder.decode(token.substring(lastDot + 1)))) {
+                return null;
+            }
+            String payload = new String(decoder.decode(token.substring(firstDot + 1, lastDot)), StandardCharsets.UTF_8);
+            String[] parts = payload.split(":", -1);
+            if (parts.length != 4) {
+                return null;
+            }
+            long expiresAt = Long.parseLong(parts[3]);
+            if (expiresAt <= clock.getAsLong()) {
+                return null;
+            }
+            return new Claims(keyId, Long.parseLong(parts[0]), "1".equals(parts[1]), parts[2], expiresAt);
+        } catch (IllegalArgumentException e) {
+            return null; // Bad base64 or number: tampered or truncated
+        }
+    }
+
+    /**
+     * True once half the lifetime has passed or the token was signed with an older key,
+     * so active users keep a fresh token and key rotation completes within one timeout.
+     */
+    public boolean needsRefresh(Claims claims) {
+        return !claims.getKeyId().equals(signingKeyId)
+                || claims.getExpiresAt() - clock.getAsLong() < ttlMillis / 2;
+    }
+
+    public long getTtlMillis() {
+        return ttlMillis;
+    }
+
+    public static final class Claims {
+        private final String keyId;
+        private final long userId;
+        private final boolean emailVerified;
+        private final String csrfToken;
+        private final long expiresAt;
+
+        Claims(String keyId, long userId, boolean emailVerified, String csrfToken, long expiresAt) {
+            this.keyId = keyId;
+            this.userId = userId;
+            this.emailVerified = emailVerified;
+            this.csrfToken = csrfToken;
+            this.expiresAt = expiresAt;
+        }
+
+        public String getKeyId() { return keyId; }
+        public long getUserId() { return userId; }
+        public boolean isEmailVerified() { return emailVerified; }
+        public String getCsrfToken() { return csrfToken; }
+        public long getExpiresAt() { return expiresAt; }
+    }
+
+    // ==================== Internals ====================
+
+    private static SessionTokens fromConfig() {
+        if (!ConfigLoader.getBoolean("security.session.stateless", false)) {
+            return null;
+        }
+        Map<String, byte[]> secrets = new LinkedHashMap<>();
+        for (String entry : ConfigLoader.get("security.session.keys", "").split(",")) {
+            int colon = entry.indexOf(':');
+            if (colon <= 0) {
+                continue;
+            }
+            String keyId = entry.substring(0, colon).trim();
+            byte[] secret;
+            try {
+                secret = Base64.getDecoder().decode(entry.substring(colon + 1).trim());
+            } catch (IllegalArgumentException e) {
+                log.error("Session key '{}' is not valid base64, ignoring it", keyId);
+                continue;
+            }
+            if (secret.length < 32) {
+                log.error("Session key '{}' is shorter than 32 bytes, ignoring it", keyId);
+                continue;
+            }
+            secrets.put(keyId, secret);
+        }
+        if (secrets.isEmpty()) {
+            log.error("security.session.stateless is on but security.session.keys has no usable key; using container sessions only");
+            return null;
+        }
+        log.info("Stateless sessions enabled, signing with key '{}' ({} verification keys)",
+                secrets.keySet().iterator().next(), secrets.size());
+        return new SessionTokens(secrets, ConfigLoader.getInt("security.session.timeout.minutes", 30),
+                TimeUnit.MINUTES, System::currentTimeMillis);
+    }
+
+    private static Mac newMac(byte[] secret) {
+        try {
+            Mac mac = Mac.getInstance(ALGORITHM);
+            mac.init(new SecretKeySpec(secret, ALGORITHM));
+            return mac;
+        } catch (GeneralSecurityException e) {
+            throw new RuntimeException("HMAC-SHA256 not available", e);
+        }
+    }
+
+    private static byte[] sign(Mac prototype, String data) {
+        Mac mac;
+        try {
+            mac = (Mac) prototype.clone(); // Keeps the initialised key; cheaper than getInstance + init
+        } catch (CloneNotSupportedException e) {
+            throw new RuntimeException("HMAC provider does not support cloning", e);
+        }
+        return mac.doFinal(data.getBytes(StandardCharsets.US_ASCII));
+    }
+
+    private static String encode(byte[] bytes) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+    }
+}
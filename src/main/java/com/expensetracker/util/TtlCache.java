@@ -0,0 +1,248 @@
+package com.expensetracker.util;
+
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+import java.util.function.LongSupplier;
+import java.util.function.Predicate;
+import java.util.function.UnaryOperator;
+
+/**
+ * Small in-process read-through cache: bounded size (least recently used entry is
+ * evicted first) and a fixed time-to-live per entry.
+ *
+ * Loading happens outside the lock, so a slow loader never blocks readers of other
+ * keys. Two threads missing the same key at once may both load it; the last one wins.
+ * A value loaded while {@link #invalidate} ran for the same key is returned to its
+ * caller but not cached, so an invalidation is never undone by an in-flight load. This is
+ * tracked per key: writes to one key never stop loads of other keys from being cached.
+ */
+public final class TtlCache<K, V> {
+
+    private final int maxSize;
+    private final long ttlNanos;
+    private final LongSupplier clock;
+
+    private final LinkedHashMap<K, Entry<V>> entries = new LinkedHashMap<>(16, 0.75f, true);
+    // Keys with a load in flight; only these need to hear about invalidations
+    private final HashMap<K, Load> loading = new HashMap<>();
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    private static final class Entry<V> {
+        final V value;
+        final long loadedAt;
+        final long expiresAt;
+
+        Entry(V value, long loadedAt, long expiresAt) {
+            this.value = value;
+            this.loadedAt = loadedAt;
+            this.expiresAt = expiresAt;
+        }
+    }
+
+    // Loads in flight for one key; generation moves on whenever the key is invalidated
+    private static final class Load {
+        int loaders;
+        long generation;
+    }
+
+    public TtlCache(int maxSize, long ttl, TimeUnit unit) {
+        this(maxSize, ttl, unit, System::nanoTime);
+    }
+
+    TtlCache(int maxSize, long ttl, TimeUnit unit, LongSupplier clock) {
+        if (maxSize < 1) {
+            throw new IllegalArgumentException("maxSize must be positive");
+        }
+        this.maxSize = maxSize;
+        this.ttlNanos = unit.toNanos(ttl);
+        this.clock = clock;
+    }
+
+    /**
+     * Returns the cached value for the key, loading (and caching) it on a miss.
+     * Null values are returned but not cached.
+     */
+    public V get(K key, Function<? super K, ? extends V> loader) {
+        Load load;
+        long seenGeneration;
+        synchronized (this) {
+            Entry<V> entry = entries.get(key);
+            if (entry != null) {
+                if (clock.getAsLong() - entry.expiresAt < 0) {
+                    hits.increment();
+                    return entry.value;
+                }
+                entries.remove(key);
+                evictions.increment();
+            }
+            load = loading.computeIfAbsent(key, k -> new Load());
+            load.loaders++;
+            seenGeneration = load.generation;
+        }
+
+        misses.increment();
+        V value = null;
+        try {
+            value = loader.apply(key);
+        } finally {
+            synchronized (this) {
+                if (--load.loaders == 0) {
+                    loading.remove(key);
+                }
+                if (value != null && load.generation == seenGeneration) {
+                    long now = clock.getAsLong();
+                    entries.put(key, new Entry<>(value, now, now + ttlNanos));
+                    evictOverflow();
+                }
+            }
+        }
+        return value;
+    }
+
+    /**
+     * Returns the cached value without loading, or null on a miss (counted like {@link #get}).
+     */
+    public V getIfPresent(K key) {
+        synchronized (this) {
+            Entry<V> entry = entries.get(key);
+            if (entry != null) {
+                if (clock.getAsLong() - entry.expiresAt < 0) {
+                    hits.increment();
+                    return entry.value;
+                }
+                entries.remove(key);
+                evictions.increment();
+            }
+        }
+        misses.increment();
+        return null;
+    }
+
+    /**
+     * Caches a value computed outside {@link #get}, replacing any entry for the key.
+     */
+    public synchronized void put(K key, V value) {
+        long now = clock.getAsLong();
+        entries.put(key, new Entry<>(value, now, now + ttlNanos));
+        evictOverflow();
+    }
+
+    public synchronized void invalidate(K key) {
+        cancelLoad(key);
+        entries.remove(key);
+    }
+
+    public synchronized void invalidateAll() {
+        cancelAllLoads();
+        entries.clear();
+    }
+
+    /**
+     * Drops every entry whose value matches, for invalidations not keyed by the cache key
+     * (e.g. all entries belonging to one user). Scans the whole cache.
+     */
+    public synchronized void invalidateIf(Predicate<? super V> matches) {
+        cancelAllLoads(); // A value still loading cannot be tested yet
+        entries.values().removeIf(entry -> matches.test(entry.value));
+    }
+
+    /**
+     * Current reading of the cache clock; take it before a write that {@link #update} will patch in.
+     */
+    public long now() {
+        return clock.getAsLong();
+    }
+
+    /**
+     * Patches a cached value in place of invalidating it. Only an entry loaded before
+     * {@code writeStartedAt} (a {@link #now()} reading taken before the write began) can be
+     * missing the write, so only such an entry is patched; a newer one is dropped instead.
+     * In-flight loads are not cached, as with {@link #invalidate}. The entry keeps its expiry.
+     *
+     * The patch runs outside the lock, so an expensive one (a copy-on-write rebuild) never
+     * blocks other keys. If the entry changed meanwhile, a newer load is kept as is, while an
+     * entry another update patched from the same old value is dropped: the two patches cannot
+     * be merged.
+     */
+    public void update(K key, long writeStartedAt, UnaryOperator<V> patch) {
+        Entry<V> entry;
+        synchronized (this) {
+            cancelLoad(key);
+            entry = entries.get(key);
+            if (entry == null) {
+                return;
+            }
+            if (entry.loadedAt - writeStartedAt >= 0) {
+                entries.remove(key);
+                return;
+            }
+        }
+
+        V patched = patch.apply(entry.value);
+
+        synchronized (this) {
+            Entry<V> current = entries.get(key);
+            if (current == entry) {
+                entries.put(key, new Entry<>(patched, entry.loadedAt, entry.expiresAt));
+            } else if (current != null && current.loadedAt - writeStartedAt < 0) {
+                entries.remove(key);
+            }
+        }
+    }
+
+    // Loads of the key now in flight may have read the old data: don't cache their result
+    private void cancelLoad(K key) {
+        Load load = loading.get(key);
+        if (load != null) {
+            load.generation++;
+        }
+    }
+
+    private void cancelAllLoads() {
+        for (Load load : loading.values()) {
+            load.generation++;
+        }
+    }
+
+    private void evictOverflow() {
+        Iterator<Map.Entry<K, Entry<V>>> eldest = entries.entrySet().iterator();
+        while (entries.size() > maxSize && eldest.hasNext()) {
+            eldest.next();
+            eldest.remove();
+            evictions.increment();
+        }
+    }
+
+    // ==================== Metrics ====================
+
+    public long getHits() {
+        return hits.sum();
+    }
+
+    public long getMisses() {
+        return misses.sum();
+    }
+
+    /** Entries dropped because they expired or the cache was full (not explicit invalidations). */
+    public long getEvictions() {
+        return evictions.sum();
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    @Override
+    public String toString() {
+        return "TtlCache{size=" + size() + ", hits=" + getHits() + ", misses=" + getMisses()
+                + ", evictions=" + getEvictions() + "}";
+    }
+}
@@ -0,0 +1,50 @@
+-- V10__create_spending_rollups.sql
+-- Pre-aggregated spend per user/category, maintained by ExpenseRepository
+-- in the same transaction as every expense insert/update/delete.
+
+-- 1. Daily rollup (heatmap, partial-month budget windows)
+CREATE TABLE user_category_day_totals (
+    user_id       BIGINT        NOT NULL,
+    category_id   INT           NOT NULL,
+    expense_date  DATE          NOT NULL,
+    total         DECIMAL(14,2) NOT NULL DEFAULT 0,
+    txn_count     INT           NOT NULL DEFAULT 0,
+
+    PRIMARY KEY (user_id, category_id, expense_date),
+    INDEX idx_day_user_date (user_id, expense_date),
+
+    CONSTRAINT fk_day_totals_user FOREIGN KEY (user_id)
+        REFERENCES users(id) ON DELETE CASCADE,
+    CONSTRAINT fk_day_totals_category FOREIGN KEY (category_id)
+        REFERENCES categories(id) ON DELETE CASCADE
+
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci;
+
+-- 2. Monthly rollup (trends, full-month budget windows)
+CREATE TABLE user_category_month_totals (
+    user_id       BIGINT        NOT NULL,
+    category_id   INT           NOT NULL,
+    month_start   DATE          NOT NULL,
+    total         DECIMAL(14,2) NOT NULL DEFAULT 0,
+    txn_count     INT           NOT NULL DEFAULT 0,
+
+    PRIMARY KEY (user_id, category_id, month_start),
+    INDEX idx_month_user_month (user_id, month_start),
+
+    CONSTRAINT fk_month_totals_user FOREIGN KEY (user_id)
+        REFERENCES users(id) ON DELETE CASCADE,
+    CONSTRAINT fk_month_totals_category FOREIGN KEY (category_id)
+        REFERENCES categories(id) ON DELETE CASCADE
+
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci;
+
+-- 3. Backfill from existing expenses
+INSERT INTO user_category_day_totals (user_id, category_id, expense_date, total, txn_count)
+SELECT user_id, category_id, expense_date, SUM(amount), COUNT(*)
+FROM expenses
+GROUP BY user_id, category_id, expense_date;
+
+INSERT INTO user_category_month_totals (user_id, category_id, month_start, total, txn_count)
+SELECT user_id, category_id, DATE_FORMAT(expense_date, '%Y-%m-01'), SUM(amount), COUNT(*)
+FROM expenses
+GROUP BY user_id, category_id, DATE_FORMAT(expense_date, '%Y-%m-01');
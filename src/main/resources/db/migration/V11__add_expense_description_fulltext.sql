@@ -0,0 +1,5 @@
+-- V11__add_expense_description_fulltext.sql
+-- Replaces the unindexable LOWER(description) LIKE '%kw%' scan with an
+-- InnoDB FULLTEXT index (queried in BOOLEAN MODE with prefix terms, see DescriptionSearch).
+ALTER TABLE expenses
+    ADD FULLTEXT INDEX ft_expense_description (description);
@@ -0,0 +1,34 @@
+-- Background export jobs (POST /expenses/export/jobs).
+-- The id is a random UUID so job URLs cannot be guessed; every lookup is also scoped by user_id.
+CREATE TABLE export_jobs (
+    id CHAR(36) PRIMARY KEY,
+    user_id BIGINT NOT NULL,
+    format VARCHAR(8) NOT NULL,
+
+    -- Filters the export was requested with (all optional)
+    date_from DATE NULL,
+    date_to DATE NULL,
+    category_id INT NULL,
+    min_amount DECIMAL(10,2) NULL,
+    max_amount DECIMAL(10,2) NULL,
+    keyword VARCHAR(255) NULL,
+
+    -- QUEUED -> RUNNING -> DONE | FAILED
+    status VARCHAR(16) NOT NULL DEFAULT 'QUEUED',
+    file_path VARCHAR(512) NULL,
+    file_size BIGINT NULL,
+    row_count BIGINT NULL,
+    error_message VARCHAR(255) NULL,
+
+    created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    started_at TIMESTAMP NULL,
+    finished_at TIMESTAMP NULL,
+    expires_at TIMESTAMP NULL,
+
+    CONSTRAINT fk_export_job_user FOREIGN KEY (user_id) REFERENCES users(id) ON DELETE CASCADE
+);
+
+-- Per-user listing and concurrency checks
+CREATE INDEX idx_export_job_user_status ON export_jobs(user_id, status);
+-- Restart recovery and TTL cleanup
+CREATE INDEX idx_export_job_status_expires ON export_jobs(status, expires_at);
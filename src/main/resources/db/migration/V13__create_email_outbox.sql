@@ -0,0 +1,20 @@
+-- Outgoing mail (verification, password reset), sent by the background MailDispatcher.
+-- Rows are written before anything is sent, so queued mail survives a restart.
+CREATE TABLE email_outbox (
+    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    recipient VARCHAR(255) NOT NULL,
+    subject VARCHAR(255) NOT NULL,
+    html_body MEDIUMTEXT NOT NULL,
+
+    -- QUEUED -> SENDING -> SENT | FAILED (SENDING goes back to QUEUED for a retry)
+    status VARCHAR(16) NOT NULL DEFAULT 'QUEUED',
+    attempts INT NOT NULL DEFAULT 0,
+    next_attempt_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    last_error VARCHAR(255) NULL,
+
+    created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    sent_at TIMESTAMP NULL
+);
+
+-- Polling for due mail, restart recovery and cleanup of sent rows
+CREATE INDEX idx_email_outbox_status_next ON email_outbox(status, next_attempt_at);
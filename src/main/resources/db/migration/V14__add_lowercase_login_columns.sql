@@ -0,0 +1,10 @@
+-- V14__add_lowercase_login_columns.sql
+-- Login and password-reset lookups used LOWER(username) = LOWER(?), which cannot use
+-- idx_username / idx_email. Generated lowercase copies with their own indexes let
+-- UserRepository compare against a lowercased parameter instead.
+ALTER TABLE users
+    ADD COLUMN username_lower VARCHAR(50) GENERATED ALWAYS AS (LOWER(username)) VIRTUAL,
+    ADD COLUMN email_lower VARCHAR(100) GENERATED ALWAYS AS (LOWER(email)) VIRTUAL;
+
+CREATE INDEX idx_username_lower ON users(username_lower);
+CREATE INDEX idx_email_lower ON users(email_lower);
@@ -0,0 +1,5 @@
+-- V15__clear_finished_outbox_bodies.sql
+-- Sent and failed outbox rows are kept for mail.outbox.retention.days, but their bodies
+-- contain working verification and password-reset links. EmailOutboxRepository now blanks
+-- the body when a row finishes; this clears the rows finished before that.
+UPDATE email_outbox SET html_body = '' WHERE status IN ('SENT', 'FAILED');
@@ -75,7 +75,7 @@
                 <div id="statsGrid" class="stats-grid">
                     <div class="stat-box">
                         <div class="stat-label">Total Expenses</div>
-                        <div class="stat-value">${not empty expenses ? expenses.size() : 0}</div>
+                        <div class="stat-value">${dashboard.lifetimeCount}</div>
                     </div>
                 </div>
                 <div class="text-center mt-3">
@@ -247,7 +247,7 @@
                 <a href="expenses" class="text-success">View All →</a>
             </div>
             <c:choose>
-                <c:when test="${empty expenses}">
+                <c:when test="${empty recentExpenses}">
                     <div class="p-5 text-center text-muted">
                         <p>No expenses yet. Start tracking!</p>
                     </div>
@@ -265,7 +265,7 @@
                                 </tr>
                             </thead>
                             <tbody>
-                                <c:forEach var="exp" items="${expenses}" begin="0" end="4">
+                                <c:forEach var="exp" items="${recentExpenses}">
                                     <tr>
                                         <td>${exp.expenseDate}</td>
                                         <td><c:out value="${exp.description}"/></td>
@@ -301,26 +301,6 @@
     </div>
 </div>
 
-<!-- Hidden data containers for safe JavaScript parsing -->
-<div id="expensesData" style="display:none;">
-<c:forEach var="exp" items="${expenses}" varStatus="status">
-<div class="expense-item" 
-     data-date="${exp.expenseDate}" 
-     data-amount="${exp.amount}" 
-     data-category="${exp.categoryId}" 
-     data-description="<c:out value='${exp.description}'/>">
-</div>
-</c:forEach>
-</div>
-
-<div id="categoriesData" style="display:none;">
-<c:forEach var="cat" items="${categories}">
-<div class="category-item" 
-     data-id="${cat.id}" 
-     data-name="<c:out value='${cat.name}'/>">
-</div>
-</c:forEach>
-</div>
 <!-- Delete Expense Modal -->
 <div id="deleteModal" class="modal-overlay" style="display: none;">
     <div class="modal">
@@ -397,41 +377,26 @@
     Chart.defaults.color = colors.dark;
     Chart.defaults.borderColor = 'rgba(116, 124, 146, 0.1)';
 
-    // Parse expenses from DOM
-    const expenses = [];
-    const expenseElements = document.querySelectorAll('#expensesData .expense-item');
-    expenseElements.forEach(function(el) {
-        expenses.push({
-            date: el.getAttribute('data-date'),
-            amount: parseFloat(el.getAttribute('data-amount')) || 0,
-            categoryId: parseInt(el.getAttribute('data-category')) || 0,
-            description: el.getAttribute('data-description') || ''
-        });
-    });
-
-    // Parse categories from DOM
-    const categories = [];
-    const categoryElements = document.querySelectorAll('#categoriesData .category-item');
-    categoryElements.forEach(function(el) {
-        categories.push({
-            id: parseInt(el.getAttribute('data-id')) || 0,
-            name: el.getAttribute('data-name') || 'Unknown'
-        });
-    });
-
-    console.log('Loaded expenses:', expenses.length);
-    console.log('Loaded categories:', categories.length);
+    // Pre-aggregated by DashboardService (no raw expense list on the page)
+    const stats = {
+        lifetimeTotal: ${dashboard.lifetimeTotal},
+        lifetimeCount: ${dashboard.lifetimeCount},
+        currentMonthTotal: ${dashboard.currentMonthTotal},
+        averageExpense: ${dashboard.averageExpense},
+        categoriesUsed: ${dashboard.categoriesUsed}
+    };
+    const pieData = { labels: ${pieLabels}, data: ${pieData} };
+    const monthData = { labels: ${monthLabels}, data: ${monthData}, counts: ${monthCounts} };
 
-    function getCategoryName(categoryId) {
-        const category = categories.find(function(cat) {
-            return cat.id === categoryId;
-        });
-        return category ? category.name : 'Unknown';
+    function escapeHtml(text) {
+        const div = document.createElement('div');
+        div.textContent = text;
+        return div.innerHTML;
     }
 
     // Calculate statistics
     function calculateStats() {
-        if (expenses.length === 0) {
+        if (stats.lifetimeCount === 0) {
             document.getElementById('statsGrid').innerHTML = 
                 '<p class="text-center text-muted p-4">Add expenses to see analytics!</p>';
             document.getElementById('topCategories').innerHTML = 
@@ -439,44 +404,22 @@
             return;
         }
 
-        const now = new Date();
-        const currentMonth = now.getMonth();
-        const currentYear = now.getFullYear();
-
-        let totalExpenses = 0;
-        let thisMonthExpenses = 0;
-        const categorySet = new Set();
-        let maxExpense = 0;
-
-        expenses.forEach(function(exp) {
-            totalExpenses += exp.amount;
-            categorySet.add(exp.categoryId);
-            if (exp.amount > maxExpense) maxExpense = exp.amount;
-
-            const expDate = new Date(exp.date);
-            if (expDate.getMonth() === currentMonth && expDate.getFullYear() === currentYear) {
-                thisMonthExpenses += exp.amount;
-            }
-        });
-
-        const avgExpense = expenses.length > 0 ? (totalExpenses / expenses.length) : 0;
-
         const statsHTML = 
             '<div class="stat-box">' +
                 '<div class="stat-label">Total Expenses</div>' +
-                '<div class="stat-value">₹' + totalExpenses.toLocaleString('en-IN', {maximumFractionDigits: 2}) + '</div>' +
+                '<div class="stat-value">₹' + stats.lifetimeTotal.toLocaleString('en-IN', {maximumFractionDigits: 2}) + '</div>' +
             '</div>' +
             '<div class="stat-box">' +
                 '<div class="stat-label">This Month</div>' +
-                '<div class="stat-value">₹' + thisMonthExpenses.toLocaleString('en-IN', {maximumFractionDigits: 2}) + '</div>' +
+                '<div class="stat-value">₹' + stats.currentMonthTotal.toLocaleString('en-IN', {maximumFractionDigits: 2}) + '</div>' +
             '</div>' +
             '<div class="stat-box">' +
                 '<div class="stat-label">Average Expense</div>' +
-                '<div class="stat-value">₹' + avgExpense.toLocaleString('en-IN', {maximumFractionDigits: 2}) + '</div>' +
+                '<div class="stat-value">₹' + stats.averageExpense.toLocaleString('en-IN', {maximumFractionDigits: 2}) + '</div>' +
             '</div>' +
             '<div class="stat-box">' +
                 '<div class="stat-label">Categories Used</div>' +
-                '<div class="stat-value">' + categorySet.size + '</div>' +
+                '<div class="stat-value">' + stats.categoriesUsed + '</div>' +
             '</div>';
 
         document.getElementById('statsGrid').innerHTML = statsHTML;
@@ -487,27 +430,9 @@
         const ctxPie = document.getElementById('pieChart');
         if (!ctxPie) return;
 
-        if (expenses.length === 0) {
-            document.getElementById('pieChartEmpty').style.display = 'block';
-            ctxPie.style.display = 'none';
-            return;
-        }
-
-        const now = new Date();
-        const currentMonth = now.getMonth();
-        const currentYear = now.getFullYear();
-        const categoryTotals = {};
-
-        expenses.forEach(function(exp) {
-            const expDate = new Date(exp.date);
-            if (expDate.getMonth() === currentMonth && expDate.getFullYear() === currentYear) {
-                const catName = getCategoryName(exp.categoryId);
-                categoryTotals[catName] = (categoryTotals[catName] || 0) + exp.amount;
-            }
-        });
-
-        const labels = Object.keys(categoryTotals);
-        const data = Object.values(categoryTotals);
+        // Already sorted highest first
+        const labels = pieData.labels;
+        const data = pieData.data;
 
         if (labels.length === 0) {
             document.getElementById('pieChartEmpty').style.display = 'block';
@@ -520,8 +445,6 @@
         // Create top categories list
         const sortedCategories = labels.map(function(label, i) {
             return { label: label, value: data[i] };
-        }).sort(function(a, b) {
-            return b.value - a.value;
         });
 
         const total = data.reduce(function(a, b) { return a + b; }, 0);
@@ -533,7 +456,7 @@
                 '<div style="display: flex; align-items: center; justify-content: space-between; padding: 0.75rem; background: #f8f8f8; border-radius: 8px;">' +
                     '<div style="display: flex; align-items: center; gap: 0.75rem;">' +
                         '<div style="width: 12px; height: 12px; background: ' + chartColors[index % chartColors.length] + '; border-radius: 3px;"></div>' +
-                        '<span style="font-weight: 600; color: var(--shadow-grey);">' + cat.label + '</span>' +
+                        '<span style="font-weight: 600; color: var(--shadow-grey);">' + escapeHtml(cat.label) + '</span>' +
                     '</div>' +
                     '<div style="text-align: right;">' +
                         '<div style="font-weight: 700; color: var(--deep-space-blue);">₹' + cat.value.toLocaleString('en-IN', {maximumFractionDigits: 2}) + '</div>' +
@@ -596,124 +519,11 @@
         const ctxBar = document.getElementById('barChart');
         if (!ctxBar) return;
 
-        if (expenses.length === 0) {
-            document.getElementById('barChartEmpty').style.display = 'block';
-            ctxBar.style.display = 'none';
-            return;
-        }
-
-        // ✅ BULLETPROOF: Generate last 6 months with consistent keys
-        const monthlyData = [];
-        const now = new Date();
-        
-        for (let i = 5; i >= 0; i--) {
-            const date = new Date(now.getFullYear(), now.getMonth() - i, 1);
-            const year = date.getFullYear();
-            const month = date.getMonth(); // 0-11
-            
-            // Consistent key format: "2025-01" (YYYY-MM with zero-padding)
-            const monthKey = year + '-' + String(month + 1).padStart(2, '0');
-            const monthLabel = date.toLocaleDateString('en-US', { month: 'short', year: 'numeric' });
-            
-            monthlyData.push({
-                key: monthKey,      // "2025-01"
-                label: monthLabel,  // "Jan 2025"
-                total: 0,
-                count: 0            // Track number of expenses for debugging
-            });
-        }
-
-        console.log('📊 Bar Chart: Generated month buckets:', monthlyData.map(m => m.key));
-
-        // ✅ BULLETPROOF: Parse expense dates with multiple fallback strategies
-        function parseExpenseDate(dateString) {
-            if (!dateString) {
-                console.warn('⚠️ Empty date string encountered');
-                return null;
-            }
-
-            // Strategy 1: Direct YYYY-MM-DD format (most common)
-            // Input: "2025-01-15" → Output: "2025-01"
-            if (/^\d{4}-\d{2}-\d{2}$/.test(dateString)) {
-                return dateString.substring(0, 7);
-            }
-
-            // Strategy 2: Single-digit month/day (e.g., "2025-1-5")
-            // Input: "2025-1-5" → Output: "2025-01"
-            if (/^\d{4}-\d{1,2}-\d{1,2}$/.test(dateString)) {
-                const parts = dateString.split('-');
-                const year = parts[0];
-                const month = parts[1].padStart(2, '0');
-                return year + '-' + month;
-            }
-
-            // Strategy 3: ISO datetime (e.g., "2025-01-15T10:30:00")
-            // Input: "2025-01-15T10:30:00" → Output: "2025-01"
-            if (dateString.includes('T')) {
-                const datePart = dateString.split('T')[0];
-                if (/^\d{4}-\d{2}-\d{2}$/.test(datePart)) {
-                    return datePart.substring(0, 7);
-                }
-            }
-
-            // Strategy 4: JavaScript Date object fallback
-            // Try to parse as Date and extract year-month
-            try {
-                const date = new Date(dateString);
-                if (!isNaN(date.getTime())) {
-                    const year = date.getFullYear();
-                    const month = String(date.getMonth() + 1).padStart(2, '0');
-                    return year + '-' + month;
-                }
-            } catch (e) {
-                console.error('❌ Failed to parse date:', dateString, e);
-            }
-
-            console.error('❌ Unrecognized date format:', dateString);
-            return null;
-        }
-
-        // ✅ Aggregate expenses into correct month buckets
-        let processedCount = 0;
-        let skippedCount = 0;
-
-        expenses.forEach(function(exp) {
-            const monthKey = parseExpenseDate(exp.date);
-            
-            if (!monthKey) {
-                console.warn('⚠️ Skipping expense with invalid date:', exp);
-                skippedCount++;
-                return;
-            }
-
-            // Find matching month bucket
-            const monthData = monthlyData.find(m => m.key === monthKey);
-            
-            if (monthData) {
-                monthData.total += exp.amount;
-                monthData.count++;
-                processedCount++;
-                console.log('✅ Added ₹' + exp.amount + ' to ' + monthKey + ' (Description: ' + exp.description + ')');
-            } else {
-                // Expense is outside the 6-month window (older or future)
-                console.log('ℹ️ Expense outside date range:', exp.date, '→', monthKey);
-            }
-        });
-
-        console.log('📊 Bar Chart Summary:');
-        console.log('   - Total expenses processed:', processedCount);
-        console.log('   - Expenses skipped (invalid dates):', skippedCount);
-        console.log('   - Monthly totals:', monthlyData);
-
-        // ✅ Prepare chart data
-        const labels = monthlyData.map(m => m.label);
-        const data = monthlyData.map(m => m.total);
-        const counts = monthlyData.map(m => m.count);
-
-        console.log('📊 Chart Data:');
-        console.log('   Labels:', labels);
-        console.log('   Amounts:', data);
-        console.log('   Counts:', counts);
+        // One bucket per month, oldest first (month rollup)
+        const labels = monthData.labels;
+        const data = monthData.data;
+        const counts = monthData.counts;
+        const processedCount = counts.reduce(function(a, b) { return a + b; }, 0);
 
         // ✅ Show warning if no data in visible range
         if (processedCount === 0) {
@@ -721,7 +531,7 @@
             ctxBar.style.display = 'none';
             document.getElementById('barChartEmpty').innerHTML = 
                 '<p class="text-center text-muted p-4">No expenses in the last 6 months.<br>' +
-                '<small>Total expenses in system: ' + expenses.length + '</small></p>';
+                '<small>Total expenses in system: ' + stats.lifetimeCount + '</small></p>';
             return;
         }
 
@@ -891,10 +701,10 @@ document.addEventListener('DOMContentLoaded', function() {
     new Chart(ctx, {
         type: 'line',
         data: {
-            // Last 7 days or weeks labels
-            labels: ['M', 'T', 'W', 'T', 'F', 'S', 'S'], 
+            // Last 7 days, from the day rollup
+            labels: ${sparklineLabels},
             datasets: [{
-                data: [120, 190, 30, 50, 20, 300, 150], // Inject your live data array here
+                data: ${sparklineData},
                 borderColor: '#546236', // var(--olive-leaf)
                 borderWidth: 2,
                 backgroundColor: gradient,
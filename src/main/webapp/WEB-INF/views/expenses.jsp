@@ -241,7 +241,7 @@
                             </a>
                             
                             <!-- Previous Page -->
-                            <a href="?page=${currentPage - 1}${filterParams}" 
+                            <a href="?page=${currentPage - 1}${not empty prevCursor ? '&cursor='.concat(prevCursor) : ''}${filterParams}" 
                                class="${!hasPrevious ? 'disabled' : ''}"
                                title="Previous Page">
                                 ‹ Prev
@@ -261,7 +261,7 @@
                             </c:forEach>
                             
                             <!-- Next Page -->
-                            <a href="?page=${currentPage + 1}${filterParams}" 
+                            <a href="?page=${currentPage + 1}${not empty nextCursor ? '&cursor='.concat(nextCursor) : ''}${filterParams}" 
                                class="${!hasNext ? 'disabled' : ''}"
                                title="Next Page">
                                 Next ›
@@ -367,6 +367,7 @@ function handleSort(column) {
     urlParams.set('sortBy', column);
     urlParams.set('sortOrder', newOrder);
     urlParams.set('page', '1'); // Always reset to page 1 when sorting changes
+    urlParams.delete('cursor');
     
     // Reload page
     window.location.search = urlParams.toString();
@@ -377,6 +378,7 @@ function changePageSize(newSize) {
     const urlParams = new URLSearchParams(window.location.search);
     urlParams.set('pageSize', newSize);
     urlParams.set('page', '1'); // Reset to page 1
+    urlParams.delete('cursor');
     window.location.search = urlParams.toString();
 }
 
@@ -0,0 +1,62 @@
+package com.expensetracker.repository;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DescriptionSearchTest {
+
+    @Test
+    void testToBooleanQuery_PrefixTermsAreRequired() {
+        assertEquals("+coff* +beans*", DescriptionSearch.toBooleanQuery("Coff beans"));
+    }
+
+    @Test
+    void testToBooleanQuery_StripsOperatorsAndStopwords() {
+        assertEquals("+uber* +airport*", DescriptionSearch.toBooleanQuery("-uber* to the \"airport\" (+)"));
+    }
+
+    @Test
+    void testToBooleanQuery_NoIndexableWords() {
+        assertNull(DescriptionSearch.toBooleanQuery("tv"));
+        assertNull(DescriptionSearch.toBooleanQuery("  "));
+        assertNull(DescriptionSearch.toBooleanQuery(null));
+    }
+
+    @Test
+    void testAppendKeywordFilter_FallsBackToLikeForShortWords() {
+        StringBuilder where = new StringBuilder("WHERE user_id = ?");
+        List<Object> params = new ArrayList<>();
+
+        DescriptionSearch.appendKeywordFilter(where, params, " TV ");
+
+        assertTrue(where.toString().endsWith("LOWER(description) LIKE ?"));
+        assertEquals(List.of("%tv%"), params);
+    }
+
+    @Test
+    void testAppendKeywordFilter_KeepsShortWordsBesideTheFullTextMatch() {
+        StringBuilder where = new StringBuilder("WHERE user_id = ?");
+        List<Object> params = new ArrayList<>();
+
+        DescriptionSearch.appendKeywordFilter(where, params, "TV stand for the tv", true);
+
+        assertEquals("WHERE user_id = ? AND MATCH(description) AGAINST (? IN BOOLEAN MODE)"
+                + " AND LOWER(description) LIKE ?", where.toString());
+        assertEquals(List.of("+stand*", "%tv%"), params);
+    }
+
+    @Test
+    void testAppendKeywordFilter_BlankKeywordAddsNothing() {
+        StringBuilder where = new StringBuilder("WHERE user_id = ?");
+        List<Object> params = new ArrayList<>();
+
+        DescriptionSearch.appendKeywordFilter(where, params, "   ");
+
+        assertEquals("WHERE user_id = ?", where.toString());
+        assertTrue(params.isEmpty());
+    }
+}
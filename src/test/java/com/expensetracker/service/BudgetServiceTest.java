@@ -0,0 +1,80 @@
+package com.expensetracker.service;
+
+import com.expensetracker.dto.BudgetWindow;
+import com.expensetracker.model.Budget;
+import com.expensetracker.repository.BudgetRepository;
+import com.expensetracker.repository.CategoryRepository;
+import com.expensetracker.repository.ExpenseRepository;
+import com.expensetracker.repository.SpendingRollupRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class BudgetServiceTest {
+
+    private BudgetRepository budgetRepository;
+    private SpendingRollupRepository rollupRepository;
+    private BudgetService budgetService;
+
+    @BeforeEach
+    void setUp() {
+        budgetRepository = mock(BudgetRepository.class);
+        rollupRepository = mock(SpendingRollupRepository.class);
+        budgetService = new BudgetService(budgetRepository, mock(CategoryRepository.class),
+                mock(ExpenseRepository.class), rollupRepository);
+    }
+
+    private Budget budget(long id, int categoryId, String amount, LocalDate start, LocalDate end, boolean recurring) {
+        Budget budget = new Budget(1L, categoryId, new BigDecimal(amount), start);
+        budget.setId(id);
+        budget.setPeriodEnd(end);
+        budget.setRecurring(recurring);
+        return budget;
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testGetActiveBudgets_ReadsAllWindowsInOneQuery() {
+        LocalDate today = LocalDate.now();
+        LocalDate fixedStart = today.minusMonths(3);
+        Budget recurring = budget(10L, 1, "200.00", today.minusYears(1), null, true);
+        Budget fixed = budget(11L, 2, "100.00", fixedStart, null, false);
+        when(budgetRepository.findActiveByUserId(1L)).thenReturn(List.of(recurring, fixed));
+        when(rollupRepository.sumAmountByBudgetWindows(eq(1L), anyList()))
+                .thenReturn(Map.of(10L, new BigDecimal("50.00")));
+
+        List<Budget> budgets = budgetService.getActiveBudgets(1L);
+
+        ArgumentCaptor<List<BudgetWindow>> windows = ArgumentCaptor.forClass(List.class);
+        verify(rollupRepository, times(1)).sumAmountByBudgetWindows(eq(1L), windows.capture());
+        verify(rollupRepository, never()).sumAmountByCategoryAndDateRange(any(), any(), any(), any());
+
+        BudgetWindow monthly = windows.getValue().get(0);
+        assertEquals(today.withDayOfMonth(1), monthly.getStart());
+        assertEquals(today, monthly.getEnd());
+        BudgetWindow period = windows.getValue().get(1);
+        assertEquals(fixedStart, period.getStart());
+        assertEquals(2, period.getCategoryId());
+
+        assertEquals(new BigDecimal("50.00"), budgets.get(0).getSpentAmount());
+        assertEquals(25.0, budgets.get(0).getPercentageUsed(), 0.001);
+        assertEquals(BigDecimal.ZERO, budgets.get(1).getSpentAmount());
+    }
+
+    @Test
+    void testGetActiveBudgets_NoBudgets() {
+        when(budgetRepository.findActiveByUserId(1L)).thenReturn(List.of());
+        when(rollupRepository.sumAmountByBudgetWindows(eq(1L), anyList())).thenReturn(Map.of());
+
+        assertTrue(budgetService.getActiveBudgets(1L).isEmpty());
+    }
+}
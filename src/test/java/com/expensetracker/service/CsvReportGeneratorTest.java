@@ -0,0 +1,53 @@
+package com.expensetracker.service;
+
+import com.expensetracker.model.Expense;
+import org.junit.jupiter.api.Test;
+
+import java.io.StringWriter;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CsvReportGeneratorTest {
+
+    private final CsvReportGenerator generator = new CsvReportGenerator();
+
+    private Expense expense(String date, String description, String amount, int categoryId) {
+        return new Expense(1L, description, new BigDecimal(amount), categoryId, LocalDate.parse(date));
+    }
+
+    @Test
+    void testGenerate_RunningTotalsResetEachMonth() throws Exception {
+        List<Expense> expenses = List.of(
+                expense("2024-01-05", "Groceries", "60.00", 1),
+                expense("2024-01-20", "Dinner \"out\"", "50.50", 1),
+                expense("2024-01-21", "Bus", "2.5", 2),
+                expense("2024-02-01", "Groceries", "10.00", 1));
+
+        StringWriter out = new StringWriter();
+        long rows = generator.generate(out, expenses.iterator(),
+                Map.of(1, "Food", 2, "Travel, local"), Map.of(1, new BigDecimal("100.00")));
+
+        String nl = System.lineSeparator();
+        String expected = "\ufeff" + CsvReportGenerator.HEADER + nl
+                + "2024-01-05,\"Groceries\",Food,60.00,100.00,60.00,40.00,60.00%" + nl
+                + "2024-01-20,\"Dinner \"\"out\"\"\",Food,50.50,100.00,110.50,-10.50,EXCEEDED (110.50%)" + nl
+                + "2024-01-21,\"Bus\",\"Travel, local\",2.50,N/A,N/A,N/A,N/A" + nl
+                + "2024-02-01,\"Groceries\",Food,10.00,100.00,10.00,90.00,10.00%" + nl;
+
+        assertEquals(4, rows);
+        assertEquals(expected, out.toString());
+    }
+
+    @Test
+    void testGenerate_EmptyExportHasHeaderOnly() throws Exception {
+        StringWriter out = new StringWriter();
+        long rows = generator.generate(out, List.<Expense>of().iterator(), Map.of(), Map.of());
+
+        assertEquals(0, rows);
+        assertEquals("\ufeff" + CsvReportGenerator.HEADER + System.lineSeparator(), out.toString());
+    }
+}
@@ -0,0 +1,119 @@
+package com.expensetracker.service;
+
+import com.expensetracker.dto.DailyCategoryTotal;
+import com.expensetracker.dto.DashboardData;
+import com.expensetracker.model.Budget;
+import com.expensetracker.model.Category;
+import com.expensetracker.repository.BudgetRepository;
+import com.expensetracker.repository.CategoryRepository;
+import com.expensetracker.repository.ExpenseRepository;
+import com.expensetracker.repository.SpendingRollupRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class DashboardServiceTest {
+
+    private ExpenseRepository expenseRepository;
+    private CategoryRepository categoryRepository;
+    private BudgetRepository budgetRepository;
+    private SpendingRollupRepository rollupRepository;
+    private ExecutorService executor;
+    private DashboardService dashboardService;
+
+    private final LocalDate today = LocalDate.now();
+    private final LocalDate monthStart = today.withDayOfMonth(1);
+
+    @BeforeEach
+    void setUp() {
+        expenseRepository = mock(ExpenseRepository.class);
+        categoryRepository = mock(CategoryRepository.class);
+        budgetRepository = mock(BudgetRepository.class);
+        rollupRepository = mock(SpendingRollupRepository.class);
+        executor = Executors.newFixedThreadPool(4);
+        dashboardService = new DashboardService(expenseRepository, categoryRepository, budgetRepository,
+                rollupRepository, executor);
+
+        Category food = new Category("Food", 1L, true);
+        food.setId(1);
+        Category travel = new Category("Travel", 1L, true);
+        travel.setId(2);
+        when(categoryRepository.findAllByUserId(1L)).thenReturn(List.of(food, travel));
+        when(expenseRepository.findRecentByUserId(1L, 5)).thenReturn(List.of());
+        when(budgetRepository.findActiveByUserId(1L)).thenReturn(List.of());
+        when(rollupRepository.sumAmountByBudgetWindows(eq(1L), anyList())).thenReturn(Map.of());
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    private DailyCategoryTotal row(LocalDate date, int categoryId, String total, int count) {
+        return new DailyCategoryTotal(date, categoryId, new BigDecimal(total), count);
+    }
+
+    @Test
+    void testGetDashboard_AggregatesFromRollups() {
+        when(rollupRepository.findLifetimeCategoryTotals(1L)).thenReturn(List.of(
+                row(monthStart.minusMonths(8), 1, "900.00", 6),
+                row(monthStart.minusMonths(2), 2, "300.00", 2)));
+        when(rollupRepository.findDailyCategoryTotals(1L, monthStart.minusMonths(1), today)).thenReturn(List.of(
+                row(monthStart.minusMonths(1), 1, "100.00", 1),  // last month, counted for the trend
+                row(monthStart, 1, "50.00", 1),
+                row(today, 2, "100.00", 2)));
+        when(rollupRepository.findMonthlyCategoryTotals(1L, monthStart.minusMonths(5), monthStart)).thenReturn(List.of(
+                row(monthStart.minusMonths(1), 1, "400.00", 3),
+                row(monthStart, 1, "50.00", 1),
+                row(monthStart, 2, "100.00", 2)));
+
+        DashboardData data = dashboardService.getDashboard(1L);
+
+        assertEquals(new BigDecimal("1200.00"), data.getLifetimeTotal());
+        assertEquals(8, data.getLifetimeCount());
+        assertEquals(new BigDecimal("150.00"), data.getAverageExpense());
+        assertEquals(2, data.getCategoriesUsed());
+
+        assertEquals(new BigDecimal("150.00"), data.getCurrentMonthTotal());
+        assertEquals(new BigDecimal("100.00"), data.getPreviousPeriodTotal());
+        assertEquals(50.0, data.getTrendPercentage(), 0.001);
+        assertEquals("Travel", data.getCurrentMonthByCategory().get(0).getCategoryName());
+        assertEquals(2, data.getCurrentMonthByCategory().size());
+
+        assertEquals(6, data.getMonthlyTotals().size());
+        assertEquals(new BigDecimal("150.00"), data.getMonthlyTotals().get(5).getAmount());
+        assertEquals(List.of(0, 0, 0, 0, 3, 3), data.getMonthlyCounts());
+        assertEquals(7, data.getRecentDailyTotals().size());
+        assertEquals(new BigDecimal("100.00"), data.getRecentDailyTotals().get(6).getAmount());
+
+        verify(expenseRepository, never()).findByUserIdAndFilters(any(), any(), any(), any(), any(), any(), any());
+    }
+
+    @Test
+    void testGetDashboard_OrdersBudgetsByShareUsed() {
+        Budget safe = new Budget(1L, 1, new BigDecimal("1000.00"), monthStart);
+        safe.setId(1L);
+        Budget over = new Budget(1L, 2, new BigDecimal("100.00"), monthStart);
+        over.setId(2L);
+        when(budgetRepository.findActiveByUserId(1L)).thenReturn(List.of(safe, over));
+        when(rollupRepository.sumAmountByBudgetWindows(eq(1L), anyList()))
+                .thenReturn(Map.of(1L, new BigDecimal("100.00"), 2L, new BigDecimal("150.00")));
+
+        DashboardData data = dashboardService.getDashboard(1L);
+
+        assertEquals(List.of(over, safe), data.getTopBudgets());
+        assertEquals(BigDecimal.ZERO, data.getLifetimeTotal());
+        assertEquals(0.0, data.getTrendPercentage());
+    }
+}
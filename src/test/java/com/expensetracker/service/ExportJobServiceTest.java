@@ -0,0 +1,89 @@
+package com.expensetracker.service;
+
+import com.expensetracker.dto.ExportFilter;
+import com.expensetracker.model.ExportJob;
+import com.expensetracker.repository.ExportJobRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class ExportJobServiceTest {
+
+    @TempDir
+    Path exportDir;
+
+    private ExportJobRepository jobRepo;
+    private ExportService exportService;
+    private ExportJobService service;
+
+    @BeforeEach
+    void setUp() {
+        jobRepo = mock(ExportJobRepository.class);
+        exportService = mock(ExportService.class);
+        service = new ExportJobService(jobRepo, exportService, exportDir, 1, 10, 2, Duration.ofMinutes(60));
+    }
+
+    @AfterEach
+    void tearDown() {
+        service.shutdown();
+    }
+
+    @Test
+    void testSubmit_RendersFileAndMarksDone() throws Exception {
+        when(jobRepo.countActiveByUserId(1L)).thenReturn(0);
+        when(jobRepo.markRunning(anyString())).thenReturn(true);
+        when(jobRepo.findById(anyString())).thenAnswer(inv ->
+                Optional.of(new ExportJob(inv.getArgument(0), 1L, "csv", new ExportFilter())));
+        when(exportService.writeCsv(eq(1L), any(), any())).thenAnswer(inv -> {
+            inv.getArgument(2, OutputStream.class).write("a,b\n".getBytes(StandardCharsets.UTF_8));
+            return 1L;
+        });
+
+        ExportJob job = service.submit(1L, "CSV", new ExportFilter());
+
+        assertEquals("csv", job.getFormat());
+        verify(jobRepo).save(job);
+        verify(jobRepo, timeout(2000)).markDone(eq(job.getId()), anyString(), eq(4L), eq(1L), any());
+        assertTrue(Files.exists(exportDir.resolve(job.getId() + ".csv")));
+        assertFalse(Files.exists(exportDir.resolve(job.getId() + ".part")));
+    }
+
+    @Test
+    void testSubmit_RejectsWhenUserHasTooManyActiveJobs() {
+        when(jobRepo.countActiveByUserId(1L)).thenReturn(2);
+
+        assertThrows(IllegalStateException.class, () -> service.submit(1L, "pdf", new ExportFilter()));
+        verify(jobRepo, never()).save(any());
+    }
+
+    @Test
+    void testSubmit_RejectsUnknownFormat() {
+        assertThrows(IllegalArgumentException.class, () -> service.submit(1L, "xlsx", new ExportFilter()));
+        verifyNoInteractions(jobRepo);
+    }
+
+    @Test
+    void testCleanupExpired_DeletesFileAndRecord() throws Exception {
+        Path file = Files.writeString(exportDir.resolve("old.csv"), "x");
+        ExportJob expired = new ExportJob("old", 1L, "csv", new ExportFilter());
+        expired.setFilePath(file.toString());
+        when(jobRepo.findExpired(any())).thenReturn(List.of(expired));
+        when(jobRepo.deleteById("old")).thenReturn(true);
+
+        assertEquals(1, service.cleanupExpired());
+        assertFalse(Files.exists(file));
+    }
+}
@@ -0,0 +1,247 @@
+package com.expensetracker.service;
+
+import com.expensetracker.model.OutboxEmail;
+import com.expensetracker.repository.EmailOutboxRepository;
+import jakarta.mail.internet.InternetAddress;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MailDispatcherTest {
+
+    private FakeSmtpServer smtp;
+    private MailDispatcher dispatcher;
+
+    @AfterEach
+    void tearDown() throws IOException {
+        if (dispatcher != null) {
+            dispatcher.shutdown();
+        }
+        if (smtp != null) {
+            smtp.close();
+        }
+    }
+
+    @Test
+    void testSubmit_SendsQueuedMailOverOneSmtpConnection() throws Exception {
+        smtp = new FakeSmtpServer();
+        InMemoryOutbox outbox = new InMemoryOutbox();
+        dispatcher = new MailDispatcher(outbox, settings(smtp.getPort()), 1000, 50, 3,
+                Duration.ofSeconds(30), Duration.ofMillis(200));
+        dispatcher.start(0, 7);
+
+        int messages = 500;
+        for (int i = 0; i < messages; i++) {
+            dispatcher.submit("user" + i + "@example.com", "Verify " + i, "<p>Hello</p>");
+        }
+        long deadline = System.nanoTime() + Duration.ofSeconds(30).toNanos();
+        while (dispatcher.getSentCount() < messages && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+
+        assertEquals(messages, dispatcher.getSentCount());
+        assertEquals(messages, smtp.getMessages());
+        assertEquals(messages / 100, smtp.getConnections()); // Renewed every mail.smtp.max.per.connection
+        assertTrue(outbox.rows.values().stream().allMatch(e -> e.getStatus() == OutboxEmail.Status.SENT));
+    }
+
+    @Test
+    void testSendBatch_SmtpDownSchedulesRetryThenFails() throws Exception {
+        int closedPort;
+        try (ServerSocket socket = new ServerSocket(0)) {
+            closedPort = socket.getLocalPort();
+        }
+        InMemoryOutbox outbox = new InMemoryOutbox();
+        dispatcher = new MailDispatcher(outbox, settings(closedPort), 10, 10, 2,
+                Duration.ofSeconds(30), Duration.ofMillis(200));
+        OutboxEmail email = outbox.save(new OutboxEmail("user@example.com", "Reset", "<p>Hi</p>"));
+
+        LocalDateTime before = LocalDateTime.now();
+        dispatcher.sendBatch(List.of(email.getId()));
+
+        assertEquals(OutboxEmail.Status.QUEUED, email.getStatus());
+        assertEquals(1, email.getAttempts());
+        assertNotNull(email.getLastError());
+        assertFalse(email.getNextAttemptAt().isBefore(before.plusSeconds(30)));
+
+        // Not due yet: the claim skips it
+        dispatcher.sendBatch(List.of(email.getId()));
+        assertEquals(1, email.getAttempts());
+
+        email.setNextAttemptAt(LocalDateTime.now());
+        dispatcher.sendBatch(List.of(email.getId()));
+        assertEquals(OutboxEmail.Status.FAILED, email.getStatus());
+        assertEquals(2, email.getAttempts());
+    }
+
+    private static MailDispatcher.SmtpSettings settings(int port) throws Exception {
+        return new MailDispatcher.SmtpSettings("localhost", port, "", "",
+                new InternetAddress("noreply@example.com", "ExpenseTracker"), 100, Duration.ofSeconds(30));
+    }
+
+    // ==================== Fakes ====================
+
+    /** The outbox table, in memory, with the same claim semantics. */
+    private static class InMemoryOutbox extends EmailOutboxRepository {
+        final Map<Long, OutboxEmail> rows = new ConcurrentHashMap<>();
+        private final AtomicLong ids = new AtomicLong();
+
+        @Override
+        public OutboxEmail save(OutboxEmail email) {
+            email.setId(ids.incrementAndGet());
+            email.setCreatedAt(LocalDateTime.now());
+            email.setNextAttemptAt(LocalDateTime.now());
+            rows.put(email.getId(), email);
+            return email;
+        }
+
+        @Override
+        public synchronized Optional<OutboxEmail> claim(long id) {
+            OutboxEmail email = rows.get(id);
+            if (email == null || email.getStatus() != OutboxEmail.Status.QUEUED
+                    || email.getNextAttemptAt().isAfter(LocalDateTime.now())) {
+                return Optional.empty();
+            }
+            email.setStatus(OutboxEmail.Status.SENDING);
+            email.setAttempts(email.getAttempts() + 1);
+            return Optional.of(email);
+        }
+
+        @Override
+        public void markSent(long id) {
+            rows.get(id).setStatus(OutboxEmail.Status.SENT);
+        }
+
+        @Override
+        public void markRetry(long id, LocalDateTime nextAttemptAt, String error) {
+            OutboxEmail email = rows.get(id);
+            email.setStatus(OutboxEmail.Status.QUEUED);
+            email.setNextAttemptAt(nextAttemptAt);
+            email.setLastError(error);
+        }
+
+        @Override
+        public void markFailed(long id, String error) {
+            rows.get(id).setStatus(OutboxEmail.Status.FAILED);
+            rows.get(id).setLastError(error);
+        }
+
+        @Override
+        public List<Long> findDueIds(LocalDateTime now, int limit) {
+            List<Long> due = new ArrayList<>();
+            rows.values().stream()
+                    .filter(e -> e.getStatus() == OutboxEmail.Status.QUEUED && !e.getNextAttemptAt().isAfter(now))
+                    .limit(limit)
+                    .forEach(e -> due.add(e.getId()));
+            return due;
+        }
+
+        @Override
+        public int requeueInterrupted() {
+            return 0;
+        }
+
+        @Override
+        public int deleteFinishedBefore(LocalDateTime cutoff) {
+            return 0;
+        }
+    }
+
+    /** Just enough SMTP to accept mail: counts connections and messages. */
+    private static class FakeSmtpServer implements AutoCloseable {
+        private final ServerSocket serverSocket;
+        private final AtomicInteger connections = new AtomicInteger();
+        private final AtomicInteger messages = new AtomicInteger();
+
+        FakeSmtpServer() throws IOException {
+            serverSocket = new ServerSocket(0);
+            Thread acceptor = new Thread(this::acceptLoop, "fake-smtp");
+            acceptor.setDaemon(true);
+            acceptor.start();
+        }
+
+        int getPort() {
+            return serverSocket.getLocalPort();
+        }
+
+        int getConnections() {
+            return connections.get();
+        }
+
+        int getMessages() {
+            return messages.get();
+        }
+
+        private void acceptLoop() {
+            while (!serverSocket.isClosed()) {
+                try {
+                    Socket socket = serverSocket.accept();
+                    connections.incrementAndGet();
+                    Thread handler = new Thread(() -> serve(socket), "fake-smtp-session");
+                    handler.setDaemon(true);
+                    handler.start();
+                } catch (IOException e) {
+                    return; // Closed
+                }
+            }
+        }
+
+        private void serve(Socket socket) {
+            try (socket;
+                 BufferedReader in = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.US_ASCII));
+                 Writer out = new OutputStreamWriter(socket.getOutputStream(), StandardCharsets.US_ASCII)) {
+                reply(out, "220 localhost fake ESMTP");
+                String line;
+                while ((line = in.readLine()) != null) {
+                    String command = line.length() >= 4 ? line.substring(0, 4).toUpperCase() : line.toUpperCase();
+                    switch (command) {
+                        case "DATA" -> {
+                            reply(out, "354 End data with <CR><LF>.<CR><LF>");
+                            while ((line = in.readLine()) != null && !line.equals(".")) {
+                                // Message body
+                            }
+                            messages.incrementAndGet();
+                            reply(out, "250 OK queued");
+                        }
+                        case "QUIT" -> {
+                            reply(out, "221 Bye");
+                            return;
+                        }
+                        default -> reply(out, "250 OK"); // EHLO, MAIL, RCPT, RSET, NOOP
+                    }
+                }
+            } catch (IOException e) {
+                // Client went away
+            }
+        }
+
+        private static void reply(Writer out, String line) throws IOException {
+            out.write(line + "\r\n");
+            out.flush();
+        }
+
+        @Override
+        public void close() throws IOException {
+            serverSocket.close();
+        }
+    }
+}
@@ -0,0 +1,202 @@
+package com.expensetracker.service;
+
+import com.expensetracker.dto.CategoryPerformance;
+import com.expensetracker.dto.CategorySummary;
+import com.expensetracker.dto.DailyCategoryTotal;
+import com.expensetracker.dto.PeriodTotals;
+import com.expensetracker.dto.ReportData;
+import com.expensetracker.model.Category;
+import com.expensetracker.model.Expense;
+import com.expensetracker.repository.BudgetRepository;
+import com.expensetracker.repository.CategoryRepository;
+import com.expensetracker.repository.ExpenseRepository;
+import com.expensetracker.repository.SpendingRollupRepository;
+import com.expensetracker.util.ExpenseSnapshot;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+class ReportServiceTest {
+
+    @Mock
+    private ExpenseRepository expenseRepository;
+
+    @Mock
+    private CategoryRepository categoryRepository;
+
+    @Mock
+    private BudgetRepository budgetRepository;
+
+    @Mock
+    private SpendingRollupRepository rollupRepository;
+
+    @InjectMocks
+    private ReportService reportService;
+
+    private final Long USER_ID = 1L;
+    private final LocalDate START = LocalDate.of(2024, 1, 1);   // Monday
+    private final LocalDate END = LocalDate.of(2024, 1, 7);     // Sunday
+    private final LocalDate PREV_START = LocalDate.of(2023, 12, 25);
+    private final LocalDate PREV_END = LocalDate.of(2023, 12, 31);
+
+    @BeforeEach
+    void setUp() {
+        Category food = new Category("Food", USER_ID, true);
+        food.setId(1);
+        Category travel = new Category("Travel", USER_ID, true);
+        travel.setId(2);
+        when(categoryRepository.findAllByUserId(USER_ID)).thenReturn(List.of(food, travel));
+    }
+
+    @Test
+    void testCustomReport_FoldsAggregateRows() {
+        // Arrange
+        when(expenseRepository.findPeriodCategoryTotals(USER_ID, START, END, PREV_START, PREV_END, null))
+                .thenReturn(new PeriodTotals(List.of(
+                        new DailyCategoryTotal(START, 1, new BigDecimal("30.00"), 2),
+                        new DailyCategoryTotal(START, 2, new BigDecimal("100.00"), 1),
+                        new DailyCategoryTotal(END, 1, new BigDecimal("20.50"), 1)),
+                        List.of(new DailyCategoryTotal(PREV_START, 1, new BigDecimal("75.25"), 3))));
+        Expense top = new Expense(USER_ID, "Flight", new BigDecimal("100.00"), 2, START);
+        top.setId(7L);
+        when(expenseRepository.findTopExpensesByAmount(USER_ID, START, END, null, 10)).thenReturn(List.of(top));
+
+        // Act
+        ReportData report = reportService.generateCustomReport(USER_ID, START, END, null);
+
+        // Assert
+        assertEquals(new BigDecimal("150.50"), report.getTotalSpending());
+        assertEquals(4, report.getTransactionCount());
+        assertEquals(new BigDecimal("21.50"), report.getAveragePerDay());
+
+        List<CategorySummary> breakdown = report.getCategoryBreakdown();
+        assertEquals("Travel", breakdown.get(0).getName());
+        assertEquals(new BigDecimal("50.50"), breakdown.get(1).getTotal());
+        assertEquals(3, breakdown.get(1).getTransactionCount());
+
+        assertEquals(7, report.getTrendData().size());
+        assertEquals(new BigDecimal("130.00"), report.getTrendData().get(0).getAmount());
+        assertEquals(BigDecimal.ZERO, report.getTrendData().get(3).getAmount());
+        assertEquals(new BigDecimal("20.50"), report.getDayOfWeekDistribution().get("Sunday"));
+        assertEquals(2, report.getDayOfWeekDistribution().size());
+
+        assertEquals(1, report.getTopExpenses().size());
+        assertEquals("Travel", report.getTopExpenses().get(0).getCategoryName());
+
+        assertEquals(LocalDate.of(2023, 12, 25), report.getComparison().getPreviousStartDate());
+        assertEquals(new BigDecimal("75.25"), report.getComparison().getPreviousTotal());
+        assertEquals(100.0, report.getComparison().getPercentageChange(), 0.0001);
+        assertEquals(new BigDecimal("75.25"), report.getComparison().getAbsoluteChange());
+        verify(expenseRepository, never()).findByUserIdAndFilters(any(), any(), any(), any(), any(), any(), any());
+    }
+
+    @Test
+    void testCustomReport_NoExpenses() {
+        // Arrange
+        when(expenseRepository.findPeriodCategoryTotals(USER_ID, START, END, PREV_START, PREV_END, 1))
+                .thenReturn(new PeriodTotals());
+
+        // Act
+        ReportData report = reportService.generateCustomReport(USER_ID, START, END, 1);
+
+        // Assert
+        assertEquals(BigDecimal.ZERO, report.getTotalSpending());
+        assertEquals("Food", report.getCategoryName());
+        assertTrue(report.getCategoryBreakdown().isEmpty());
+        assertTrue(report.getTopExpenses().isEmpty());
+        assertEquals(0.0, report.getComparison().getPercentageChange(), 0.0001);
+        verify(expenseRepository, never()).findTopExpensesByAmount(any(), any(), any(), any(), anyInt());
+    }
+
+    @Test
+    void testPredefinedReport_ComparesWithSameCategoryInOneQuery() {
+        // Arrange
+        LocalDate monthStart = LocalDate.now().withDayOfMonth(1);
+        LocalDate today = LocalDate.now();
+        when(expenseRepository.findPeriodCategoryTotals(USER_ID, monthStart, today,
+                monthStart.minusMonths(1), today.minusMonths(1), 2))
+                .thenReturn(new PeriodTotals(
+                        List.of(new DailyCategoryTotal(monthStart, 2, new BigDecimal("50.00"), 1)),
+                        List.of(new DailyCategoryTotal(monthStart.minusMonths(1), 2, new BigDecimal("200.00"), 4))));
+
+        // Act
+        ReportData report = reportService.generatePredefinedReportWithCategory(USER_ID, "this_month", 2);
+
+        // Assert
+        assertEquals("Travel", report.getCategoryName());
+        assertEquals(new BigDecimal("200.00"), report.getComparison().getPreviousTotal());
+        assertEquals(-75.0, report.getComparison().getPercentageChange(), 0.0001);
+        assertEquals(new BigDecimal("-150.00"), report.getComparison().getAbsoluteChange());
+        verify(expenseRepository, times(1)).findPeriodCategoryTotals(any(), any(), any(), any(), any(), any());
+        verify(expenseRepository, never()).findByUserIdAndFilters(any(), any(), any(), any(), any(), any(), any());
+    }
+
+    @Test
+    void testCategoryPerformance_ScansCachedSnapshot() {
+        // Arrange: buckets before, in and after the previous and current windows
+        ExpenseSnapshot snapshot = ExpenseSnapshot.EMPTY
+                .withDelta(PREV_START.minusDays(1), 1, 99_900, 1)
+                .withDelta(PREV_START, 1, 4_000, 2)
+                .withDelta(START, 1, 3_000, 1)
+                .withDelta(END, 2, 9_000, 3)
+                .withDelta(END.plusDays(1), 2, 99_900, 1);
+        when(rollupRepository.findSnapshot(USER_ID)).thenReturn(snapshot);
+
+        // Act
+        List<CategoryPerformance> performance = reportService.generateCategoryPerformanceReport(USER_ID, START, END);
+
+        // Assert
+        assertEquals("Travel", performance.get(0).getCategoryName());
+        assertEquals(new BigDecimal("90.00"), performance.get(0).getTotalSpent());
+        assertEquals(75.0, performance.get(0).getPercentOfTotal(), 0.0001);
+        assertEquals(BigDecimal.ZERO, performance.get(0).getPreviousPeriodSpent());
+
+        CategoryPerformance food = performance.get(1);
+        assertEquals(new BigDecimal("30.00"), food.getTotalSpent());
+        assertEquals(new BigDecimal("40.00"), food.getPreviousPeriodSpent());
+        assertEquals(-25.0, food.getChangePercent(), 0.0001);
+        verify(expenseRepository, never()).findPeriodCategoryTotals(any(), any(), any(), any(), any(), any());
+    }
+
+    @Test
+    void testCustomReport_LongRangeFetchesTopRowsConcurrently() {
+        // Arrange: a year-long range is above the default parallel threshold
+        LocalDate yearStart = LocalDate.of(2023, 1, 1);
+        LocalDate yearEnd = LocalDate.of(2023, 12, 31);
+        when(expenseRepository.findPeriodCategoryTotals(USER_ID, yearStart, yearEnd,
+                LocalDate.of(2022, 1, 1), LocalDate.of(2022, 12, 31), null))
+                .thenReturn(new PeriodTotals(
+                        List.of(new DailyCategoryTotal(yearEnd, 2, new BigDecimal("80.00"), 1)), List.of()));
+        Expense top = new Expense(USER_ID, "Train", new BigDecimal("80.00"), 2, yearEnd);
+        when(expenseRepository.findTopExpensesByAmount(USER_ID, yearStart, yearEnd, null, 10)).thenAnswer(invocation -> {
+            assertTrue(Thread.currentThread().isVirtual());
+            return List.of(top);
+        });
+
+        // Act
+        ReportData report = reportService.generateCustomReport(USER_ID, yearStart, yearEnd, null);
+
+        // Assert
+        assertEquals(new BigDecimal("80.00"), report.getTotalSpending());
+        assertEquals(365, report.getTrendData().size());
+        assertEquals(1, report.getTopExpenses().size());
+        assertEquals(100.0, report.getTopExpenses().get(0).getPercentageOfTotal(), 0.0001);
+        verify(expenseRepository, times(1)).findTopExpensesByAmount(any(), any(), any(), any(), anyInt());
+    }
+}
@@ -97,6 +97,20 @@ class UserServiceTest {
         assertEquals(testUser.getId(), loggedIn.getId());
     }
 
+    @Test
+    void testLogin_UpgradesHashMadeWithOlderCost() {
+        // setUp hashes with the library default cost (10); the configured cost is 12
+        String oldHash = testUser.getPassword();
+        when(userRepository.findByUsernameIgnoreCase(eq("testuser"))).thenReturn(Optional.of(testUser));
+
+        userService.login("testuser", "SecurePass1!");
+
+        ArgumentCaptor<String> newHash = ArgumentCaptor.forClass(String.class);
+        verify(userRepository, timeout(5000)).updatePasswordIfUnchanged(eq(1L), eq(oldHash), newHash.capture());
+        assertTrue(newHash.getValue().startsWith("$2a$12$"));
+        assertTrue(BCrypt.checkpw("SecurePass1!", newHash.getValue()));
+    }
+
     @Test
     void testLogin_WrongPassword() {
         when(userRepository.findByUsernameIgnoreCase(eq("testuser"))).thenReturn(Optional.of(testUser));
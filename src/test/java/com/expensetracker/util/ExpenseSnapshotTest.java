@@ -0,0 +1,62 @@
+package com.expensetracker.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ExpenseSnapshotTest {
+
+    private static final LocalDate DAY = LocalDate.of(2024, 3, 10);
+
+    @Test
+    void testWithDelta_InsertsBucketsInDayThenCategoryOrder() {
+        ExpenseSnapshot snapshot = ExpenseSnapshot.EMPTY
+                .withDelta(DAY.plusDays(1), 1, 500, 1)
+                .withDelta(DAY, 2, 300, 1)
+                .withDelta(DAY, 1, 200, 1);
+
+        assertEquals(3, snapshot.size());
+        assertEquals(DAY.toEpochDay(), snapshot.epochDay(0));
+        assertEquals(1, snapshot.categoryId(0));
+        assertEquals(2, snapshot.categoryId(1));
+        assertEquals(DAY.plusDays(1).toEpochDay(), snapshot.epochDay(2));
+        assertEquals(500, snapshot.cents(2));
+        assertEquals(0, ExpenseSnapshot.EMPTY.size()); // Copies, never mutates
+    }
+
+    @Test
+    void testWithDelta_PatchesAndRemovesLikeTheRollup() {
+        ExpenseSnapshot snapshot = ExpenseSnapshot.EMPTY
+                .withDelta(DAY, 1, 200, 1)
+                .withDelta(DAY, 1, 300, 1);
+        assertEquals(500, snapshot.cents(0));
+        assertEquals(2, snapshot.count(0));
+
+        // Amount edit: same bucket, count unchanged
+        ExpenseSnapshot edited = snapshot.withDelta(DAY, 1, -50, 0);
+        assertEquals(450, edited.cents(0));
+        assertEquals(2, edited.count(0));
+        assertEquals(500, snapshot.cents(0));
+
+        ExpenseSnapshot emptied = edited.withDelta(DAY, 1, -200, -1).withDelta(DAY, 1, -250, -1);
+        assertEquals(0, emptied.size());
+
+        // Removing from a bucket that is not there leaves the snapshot alone
+        assertSame(snapshot, snapshot.withDelta(DAY, 9, -100, -1));
+    }
+
+    @Test
+    void testFirstRowOnOrAfter_FindsRangeStart() {
+        ExpenseSnapshot snapshot = ExpenseSnapshot.EMPTY
+                .withDelta(DAY, 1, 100, 1)
+                .withDelta(DAY, 2, 100, 1)
+                .withDelta(DAY.plusDays(5), 1, 100, 1);
+
+        assertEquals(0, snapshot.firstRowOnOrAfter(DAY.minusDays(30)));
+        assertEquals(0, snapshot.firstRowOnOrAfter(DAY));
+        assertEquals(2, snapshot.firstRowOnOrAfter(DAY.plusDays(1)));
+        assertEquals(3, snapshot.firstRowOnOrAfter(DAY.plusDays(6)));
+    }
+}
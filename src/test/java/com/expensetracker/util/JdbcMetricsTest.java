@@ -0,0 +1,136 @@
+package com.expensetracker.util;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class JdbcMetricsTest {
+
+    private Connection raw;
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        raw = DriverManager.getConnection("jdbc:h2:mem:jdbc_metrics_test", "sa", "");
+        try (Statement st = raw.createStatement()) {
+            st.execute("CREATE TABLE items (id INT PRIMARY KEY)");
+            st.execute("INSERT INTO items VALUES (1), (2), (3)");
+        }
+    }
+
+    @AfterEach
+    void tearDown() throws SQLException {
+        try (Statement st = raw.createStatement()) {
+            st.execute("DROP TABLE items");
+        }
+        raw.close();
+    }
+
+    @Test
+    void testInstrument_NamesQueryAfterCallerAndCountsRows() throws SQLException {
+        Connection conn = JdbcMetrics.instrument(raw);
+        try (PreparedStatement ps = conn.prepareStatement("SELECT id FROM items WHERE id >= ?")) {
+            ps.setInt(1, 2);
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    assertTrue(rs.getInt(1) >= 2);
+                }
+            }
+        }
+
+        String label = "query=\"JdbcMetricsTest.testInstrument_NamesQueryAfterCallerAndCountsRows\"";
+        String text = render();
+        assertTrue(text.contains("expense_db_query_seconds_count{" + label + "} 1\n"), text);
+        assertTrue(text.contains("expense_db_query_rows_total{" + label + "} 2\n"), text);
+        assertTrue(text.contains("expense_db_query_errors_total{" + label + "} 0\n"), text);
+        assertTrue(conn.isWrapperFor(Connection.class));
+    }
+
+    @Test
+    void testInstrument_PrepareCallKeepsCallableStatement() throws SQLException {
+        Connection conn = JdbcMetrics.instrument(raw);
+        try (CallableStatement cs = conn.prepareCall("SELECT COUNT(*) FROM items");
+             ResultSet rs = cs.executeQuery()) {
+            assertTrue(rs.next());
+            assertEquals(3, rs.getInt(1));
+        }
+
+        String label = "query=\"JdbcMetricsTest.testInstrument_PrepareCallKeepsCallableStatement\"";
+        assertTrue(render().contains("expense_db_query_rows_total{" + label + "} 1\n"));
+    }
+
+    @Test
+    void testInstrument_CountsFailedExecutions() throws SQLException {
+        Connection conn = JdbcMetrics.instrument(raw);
+        try (Statement st = conn.createStatement()) {
+            assertThrows(SQLException.class, () -> st.executeQuery("SELECT nope FROM items"));
+        }
+
+        String text = render();
+        assertTrue(text.contains("expense_db_query_errors_total{query=\"JdbcMetricsTest.testInstrument_CountsFailedExecutions\"} 1\n"), text);
+    }
+
+    @Test
+    void testLatencyHistogram_BucketsAreCumulative() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        histogram.record(2_000_000L);     // 2 ms
+        histogram.record(300_000_000L);   // 300 ms
+
+        StringBuilder out = new StringBuilder();
+        histogram.writePrometheus(out, "t", "");
+        String text = out.toString();
+
+        assertEquals(2, histogram.getCount());
+        assertTrue(text.contains("t_bucket{le=\"0.001\"} 0\n"), text);
+        assertTrue(text.contains("t_bucket{le=\"0.005\"} 1\n"), text);
+        assertTrue(text.contains("t_bucket{le=\"0.5\"} 2\n"), text);
+        assertTrue(text.contains("t_bucket{le=\"+Inf\"} 2\n"), text);
+        assertTrue(text.contains("t_count 2\n"), text);
+    }
+
+    @Test
+    void testLatencyHistogram_UpperBoundsAreInclusive() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        histogram.record(5_000_000L);     // Exactly 5 ms
+        histogram.record(5_000_001L);     // Just over
+
+        StringBuilder out = new StringBuilder();
+        histogram.writePrometheus(out, "t", "");
+        String text = out.toString();
+
+        assertTrue(text.contains("t_bucket{le=\"0.001\"} 0\n"), text);
+        assertTrue(text.contains("t_bucket{le=\"0.005\"} 1\n"), text);
+        assertTrue(text.contains("t_bucket{le=\"0.01\"} 2\n"), text);
+    }
+
+    @Test
+    void testLatencyHistogram_SubMillisecondBuckets() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        histogram.record(80_000L);        // 0.08 ms
+        histogram.record(400_000L);       // 0.4 ms
+
+        StringBuilder out = new StringBuilder();
+        histogram.writePrometheus(out, "t", "");
+        String text = out.toString();
+
+        assertTrue(text.contains("t_bucket{le=\"0.0001\"} 1\n"), text);
+        assertTrue(text.contains("t_bucket{le=\"0.00025\"} 1\n"), text);
+        assertTrue(text.contains("t_bucket{le=\"0.0005\"} 2\n"), text);
+        assertTrue(text.contains("t_bucket{le=\"10\"} 2\n"), text);
+    }
+
+    private static String render() {
+        StringBuilder out = new StringBuilder();
+        JdbcMetrics.writePrometheus(out);
+        return out.toString();
+    }
+}
@@ -0,0 +1,79 @@
+package com.expensetracker.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LocalRateLimitStoreTest {
+
+    private final AtomicLong now = new AtomicLong(1_000_000L); // Start of a 1000 ms window
+
+    @Test
+    void testTryAcquire_LimitsWithinTheWindowAndSlidesOut() {
+        LocalRateLimitStore store = new LocalRateLimitStore(1000, now::get);
+
+        for (int i = 0; i < 5; i++) {
+            assertEquals(0, store.tryAcquire("login:ip:1.2.3.4", 5, 1000));
+        }
+        long retryAfter = store.tryAcquire("login:ip:1.2.3.4", 5, 1000);
+        assertTrue(retryAfter > 0 && retryAfter <= 2000, "retry after " + retryAfter);
+        assertEquals(0, store.tryAcquire("login:ip:5.6.7.8", 5, 1000)); // Other keys unaffected
+
+        // Halfway into the next window the previous 5 still weigh 2.5: three more fit, not four
+        now.addAndGet(1500);
+        for (int i = 0; i < 3; i++) {
+            assertEquals(0, store.tryAcquire("login:ip:1.2.3.4", 5, 1000));
+        }
+        assertTrue(store.tryAcquire("login:ip:1.2.3.4", 5, 1000) > 0);
+
+        now.addAndGet(2000);
+        assertEquals(0, store.tryAcquire("login:ip:1.2.3.4", 5, 1000));
+    }
+
+    @Test
+    void testTryAcquire_ConcurrentAttemptsNeverExceedTheLimit() throws Exception {
+        LocalRateLimitStore store = new LocalRateLimitStore(1000, now::get);
+        AtomicInteger allowed = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+        List<Thread> threads = new ArrayList<>();
+        for (int t = 0; t < 8; t++) {
+            Thread thread = new Thread(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    return;
+                }
+                for (int i = 0; i < 1000; i++) {
+                    if (store.tryAcquire("forgot:account:a@example.com", 100, 1000) == 0) {
+                        allowed.incrementAndGet();
+                    }
+                }
+            });
+            thread.start();
+            threads.add(thread);
+        }
+        start.countDown();
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        assertEquals(100, allowed.get());
+    }
+
+    @Test
+    void testTryAcquire_MemoryIsBoundedUnderDistinctKeys() {
+        LocalRateLimitStore store = new LocalRateLimitStore(160, now::get);
+
+        for (int i = 0; i < 10_000; i++) {
+            store.tryAcquire("login:ip:10.0." + (i / 256) + "." + (i % 256), 5, 1000);
+        }
+
+        assertTrue(store.size() <= 160 + 16, "size " + store.size()); // One in-flight insert per stripe
+    }
+}
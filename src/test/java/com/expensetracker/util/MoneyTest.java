@@ -0,0 +1,56 @@
+package com.expensetracker.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MoneyTest {
+
+    @Test
+    void testToCents_MatchesBigDecimalAcrossRange() {
+        Random random = new Random(42);
+        for (int i = 0; i < 100_000; i++) {
+            // Up to DECIMAL(14,2), both signs, plus the fast path's upper edge
+            long cents = i == 0 ? 99_999_999_999_999L : random.nextLong() % 100_000_000_000_000L;
+            BigDecimal amount = BigDecimal.valueOf(cents, 2);
+            assertEquals(cents, Money.toCents(amount), amount.toPlainString());
+        }
+        assertEquals(250, Money.toCents(new BigDecimal("2.5")));
+        assertEquals(700, Money.toCents(new BigDecimal("7")));
+        assertEquals(1_000_000_000_000_000L, Money.toCents(new BigDecimal("10000000000000.00")));
+        assertThrows(ArithmeticException.class, () -> Money.toCents(new BigDecimal("1.005")));
+    }
+
+    @Test
+    void testSum_IdenticalToBigDecimalAdd() {
+        Random random = new Random(7);
+        BigDecimal expected = BigDecimal.ZERO;
+        long cents = 0;
+        for (int i = 0; i < 10_000; i++) {
+            BigDecimal amount = BigDecimal.valueOf(random.nextInt(1_000_000), 2);
+            expected = expected.add(amount);
+            cents += Money.toCents(amount);
+        }
+        assertEquals(expected, Money.fromCents(cents)); // equals() also compares scale
+    }
+
+    @Test
+    void testToPlainString_MatchesBigDecimal() {
+        for (long cents : new long[] { 0, 5, -5, 99, 100, -100, 11050, -1050, 123_456_789_01L }) {
+            assertEquals(BigDecimal.valueOf(cents, 2).toPlainString(), Money.toPlainString(cents));
+        }
+    }
+
+    @Test
+    void testDivideToHundredths_RoundsHalfUp() {
+        long[][] cases = { { 11050, 10000 }, { 1, 3 }, { 2, 3 }, { 1, 8 }, { -1, 8 }, { 5, -3 }, { 0, 7 }, { 12345, 6789 } };
+        for (long[] c : cases) {
+            BigDecimal expected = BigDecimal.valueOf(c[0]).divide(BigDecimal.valueOf(c[1]), 2, RoundingMode.HALF_UP);
+            assertEquals(expected, Money.fromCents(Money.divideToHundredths(c[0], c[1])), c[0] + "/" + c[1]);
+        }
+    }
+}
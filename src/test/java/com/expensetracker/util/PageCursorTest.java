@@ -0,0 +1,42 @@
+package com.expensetracker.util;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PageCursorTest {
+
+    @Test
+    void testEncodeDecode_RoundTrip() {
+        PageCursor cursor = new PageCursor(PageCursor.Direction.PREVIOUS, "description", "ASC",
+                "Coffee | beans, 500g", 1234L, 7, 5321L, -42);
+
+        String token = cursor.encode();
+        PageCursor decoded = PageCursor.decode(token);
+
+        assertTrue(token.matches("[A-Za-z0-9_-]+"), "token must be URL-safe");
+        assertNotNull(decoded);
+        assertEquals(PageCursor.Direction.PREVIOUS, decoded.getDirection());
+        assertEquals("description", decoded.getSortColumn());
+        assertEquals("ASC", decoded.getSortOrder());
+        assertEquals("Coffee | beans, 500g", decoded.getLastValue());
+        assertEquals(1234L, decoded.getLastId());
+        assertEquals(7, decoded.getPage());
+        assertEquals(5321L, decoded.getTotalItems());
+        assertEquals(-42, decoded.getFilterHash());
+    }
+
+    @Test
+    void testDecode_InvalidTokens() {
+        assertNull(PageCursor.decode(null));
+        assertNull(PageCursor.decode(""));
+        assertNull(PageCursor.decode("not base64 !!"));
+        assertNull(PageCursor.decode("AAAA"));
+    }
+
+    @Test
+    void testDecode_RejectsInvalidPage() {
+        String token = new PageCursor(PageCursor.Direction.NEXT, "amount", "DESC", "10.00", 1L, 0, 10L, 0).encode();
+        assertNull(PageCursor.decode(token));
+    }
+}
@@ -0,0 +1,87 @@
+package com.expensetracker.util;
+
+import org.junit.jupiter.api.Test;
+import org.mindrot.jbcrypt.BCrypt;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PasswordHasherTest {
+
+    @Test
+    void testHashAndVerify_UseConfiguredCost() {
+        String hash = PasswordHasher.hash("SecurePass1!");
+
+        assertTrue(hash.startsWith("$2a$12$"));
+        assertTrue(PasswordHasher.verify("SecurePass1!", hash));
+        assertFalse(PasswordHasher.verify("WrongPass1!", hash));
+        assertFalse(PasswordHasher.needsRehash(hash));
+
+        StringBuilder out = new StringBuilder();
+        PasswordHasher.writePrometheus(out);
+        assertTrue(out.toString().contains("expense_password_hash_seconds_count{op=\"verify\"}"), out.toString());
+        assertTrue(out.toString().contains("expense_password_queue_depth 0\n"), out.toString());
+    }
+
+    @Test
+    void testNeedsRehash_ComparesCostOnly() {
+        assertTrue(PasswordHasher.needsRehash(BCrypt.hashpw("pw", BCrypt.gensalt(10))));
+        assertFalse(PasswordHasher.needsRehash(null));
+        assertFalse(PasswordHasher.needsRehash("not-a-bcrypt-hash"));
+    }
+
+    @Test
+    void testRun_RejectsFastWhenThreadsAndQueueAreFull() throws Exception {
+        PasswordHasher.HashPool pool = new PasswordHasher.HashPool(1, 1, 10_000);
+        CountDownLatch release = new CountDownLatch(1);
+        LatencyHistogram timing = new LatencyHistogram();
+        Thread running = new Thread(() -> pool.run(timing, () -> release.await(10, TimeUnit.SECONDS)));
+        Thread queued = new Thread(() -> pool.run(timing, () -> release.await(10, TimeUnit.SECONDS)));
+        try {
+            running.start();
+            while (pool.executor.getActiveCount() < 1) {
+                Thread.sleep(5);
+            }
+            queued.start();
+            while (pool.executor.getQueue().size() < 1) {
+                Thread.sleep(5);
+            }
+
+            long start = System.nanoTime();
+            RejectedExecutionException e = assertThrows(RejectedExecutionException.class,
+                    () -> pool.run(timing, () -> "never runs"));
+            assertEquals(PasswordHasher.BUSY_MESSAGE, e.getMessage());
+            assertTrue(System.nanoTime() - start < 1_000_000_000L, "rejection waited for the pool");
+            assertEquals(1, pool.rejected.sum());
+        } finally {
+            release.countDown();
+            running.join();
+            queued.join();
+            pool.shutdownNow();
+        }
+        assertEquals(2, timing.getCount());
+    }
+
+    @Test
+    void testRun_GivesUpAfterTheTimeout() {
+        PasswordHasher.HashPool pool = new PasswordHasher.HashPool(1, 1, 100);
+        CountDownLatch release = new CountDownLatch(1);
+        try {
+            RejectedExecutionException e = assertThrows(RejectedExecutionException.class,
+                    () -> pool.run(new LatencyHistogram(), () -> release.await(10, TimeUnit.SECONDS)));
+            assertEquals(PasswordHasher.BUSY_MESSAGE, e.getMessage());
+            assertEquals(1, pool.rejected.sum());
+        } finally {
+            release.countDown();
+            pool.shutdownNow();
+        }
+    }
+
+    @Test
+    void testVerify_MalformedHashSurfacesAsIllegalArgument() {
+        assertThrows(IllegalArgumentException.class, () -> PasswordHasher.verify("pw", "$9z$broken"));
+    }
+}
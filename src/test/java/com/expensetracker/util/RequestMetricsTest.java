@@ -0,0 +1,105 @@
+package com.expensetracker.util;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.startsWith;
+import static org.mockito.Mockito.*;
+
+class RequestMetricsTest {
+
+    private Connection conn;
+    private HttpServletRequest req;
+    private HttpServletResponse resp;
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        conn = JdbcMetrics.instrument(DriverManager.getConnection("jdbc:h2:mem:request_metrics_test", "sa", ""));
+        try (Statement st = conn.createStatement()) {
+            st.execute("CREATE TABLE items (id INT PRIMARY KEY)");
+            st.execute("INSERT INTO items VALUES (1), (2), (3)");
+        }
+        req = mock(HttpServletRequest.class);
+        resp = mock(HttpServletResponse.class);
+        when(req.getMethod()).thenReturn("GET");
+        when(req.getServletPath()).thenReturn("/items");
+    }
+
+    @AfterEach
+    void tearDown() throws SQLException {
+        try (Statement st = conn.createStatement()) {
+            st.execute("DROP TABLE items");
+        }
+        conn.close();
+    }
+
+    @Test
+    void testRequest_CountsQueriesAndRowsIncludingPropagatedTasks() throws Exception {
+        RequestMetrics.Context context = RequestMetrics.begin("ItemsServlet", req);
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            assertEquals(3, countRows());
+            int fromWorker = CompletableFuture.supplyAsync(RequestMetrics.propagate(this::countRows), executor).join();
+            assertEquals(3, fromWorker);
+
+            assertEquals(2, context.getDbCalls());
+            assertEquals(6, context.getRows());
+        } finally {
+            executor.shutdown();
+            RequestMetrics.end(context, resp);
+        }
+
+        assertNull(RequestMetrics.current());
+        countRows(); // Outside a request: not attributed to anyone
+        assertEquals(2, context.getDbCalls());
+
+        StringBuilder out = new StringBuilder();
+        RequestMetrics.writePrometheus(out);
+        assertTrue(out.toString().contains("expense_http_request_db_calls_total{servlet=\"ItemsServlet\"} 2\n"), out.toString());
+        assertTrue(out.toString().contains("expense_http_request_seconds_count{servlet=\"ItemsServlet\"} 1\n"), out.toString());
+    }
+
+    @Test
+    void testServerTiming_SetBeforeTheBodyIsWritten() throws Exception {
+        RequestMetrics.Context context = RequestMetrics.begin("TimingServlet", req);
+        try {
+            countRows();
+            HttpServletResponse timed = RequestMetrics.withServerTiming(resp, context);
+            timed.getWriter();
+            RequestMetrics.finishServerTiming(timed); // Already set: not sent twice
+        } finally {
+            RequestMetrics.end(context, resp);
+        }
+
+        verify(resp, times(1)).setHeader(eq("Server-Timing"), startsWith("auth;dur="));
+        verify(resp).setHeader(eq("Server-Timing"), contains("desc=\"1 queries, 3 rows\""));
+    }
+
+    private int countRows() {
+        try (PreparedStatement ps = conn.prepareStatement("SELECT id FROM items");
+             ResultSet rs = ps.executeQuery()) {
+            int count = 0;
+            while (rs.next()) {
+                count++;
+            }
+            return count;
+        } catch (SQLException e) {
+            throw new RuntimeException(e);
+        }
+    }
+}
@@ -0,0 +1,62 @@
+package com.expensetracker.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SessionTokensTest {
+
+    private final AtomicLong now = new AtomicLong(1_700_000_000_000L);
+
+    private SessionTokens tokens(String... keyIds) {
+        Map<String, byte[]> secrets = new LinkedHashMap<>();
+        for (String id : keyIds) {
+            secrets.put(id, ("secret-for-key-" + id + "-padded-to-32-bytes").getBytes(StandardCharsets.UTF_8));
+        }
+        return new SessionTokens(secrets, 30, TimeUnit.MINUTES, now::get);
+    }
+
+    @Test
+    void testVerify_RoundTripsAndRejectsTamperingAndExpiry() {
+        SessionTokens tokens = tokens("k1");
+        String token = tokens.issue(42, true, "csrf-abc");
+
+        SessionTokens.Claims claims = tokens.verify(token);
+        assertNotNull(claims);
+        assertEquals(42, claims.getUserId());
+        assertTrue(claims.isEmailVerified());
+        assertEquals("csrf-abc", claims.getCsrfToken());
+        assertFalse(tokens.needsRefresh(claims));
+
+        // Another user's id under the same signature
+        String forged = tokens.issue(7, true, "csrf-abc");
+        String mixed = forged.substring(0, forged.lastIndexOf('.')) + token.substring(token.lastIndexOf('.'));
+        assertNull(tokens.verify(mixed));
+        assertNull(tokens.verify(token.substring(0, token.length() - 2)));
+        assertNull(tokens.verify("garbage"));
+
+        now.addAndGet(TimeUnit.MINUTES.toMillis(20));
+        assertTrue(tokens.needsRefresh(tokens.verify(token)));
+        now.addAndGet(TimeUnit.MINUTES.toMillis(10));
+        assertNull(tokens.verify(token));
+    }
+
+    @Test
+    void testVerify_RotatedKeyStillVerifiesUntilRetired() {
+        String oldToken = tokens("k1").issue(42, false, "csrf");
+
+        SessionTokens rotated = tokens("k2", "k1");
+        SessionTokens.Claims claims = rotated.verify(oldToken);
+        assertNotNull(claims);
+        assertTrue(rotated.needsRefresh(claims)); // Re-signed with k2 on the next response
+        assertEquals("k2", rotated.verify(rotated.issue(42, false, "csrf")).getKeyId());
+
+        assertNull(tokens("k2").verify(oldToken));
+    }
+}
@@ -0,0 +1,149 @@
+package com.expensetracker.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TtlCacheTest {
+
+    private final AtomicLong now = new AtomicLong();
+    private final AtomicInteger loads = new AtomicInteger();
+
+    private String load(Integer key) {
+        loads.incrementAndGet();
+        return "v" + key;
+    }
+
+    @Test
+    void testGet_HitsUntilTtlExpires() {
+        TtlCache<Integer, String> cache = new TtlCache<>(10, 5, TimeUnit.SECONDS, now::get);
+
+        assertEquals("v1", cache.get(1, this::load));
+        assertEquals("v1", cache.get(1, this::load));
+        assertEquals(1, loads.get());
+
+        now.addAndGet(TimeUnit.SECONDS.toNanos(5));
+        assertEquals("v1", cache.get(1, this::load));
+
+        assertEquals(2, loads.get());
+        assertEquals(1, cache.getHits());
+        assertEquals(2, cache.getMisses());
+        assertEquals(1, cache.getEvictions());
+    }
+
+    @Test
+    void testGet_EvictsLeastRecentlyUsedWhenFull() {
+        TtlCache<Integer, String> cache = new TtlCache<>(2, 1, TimeUnit.MINUTES, now::get);
+
+        cache.get(1, this::load);
+        cache.get(2, this::load);
+        cache.get(1, this::load); // 1 is now most recently used
+        cache.get(3, this::load); // evicts 2
+
+        assertEquals(2, cache.size());
+        assertEquals(1, cache.getEvictions());
+
+        cache.get(1, this::load);
+        assertEquals(3, loads.get());
+        cache.get(2, this::load);
+        assertEquals(4, loads.get());
+    }
+
+    @Test
+    void testInvalidate_DuringLoadIsNotOverwritten() {
+        TtlCache<Integer, String> cache = new TtlCache<>(10, 1, TimeUnit.MINUTES, now::get);
+
+        String loaded = cache.get(1, key -> {
+            cache.invalidate(key); // e.g. a rename committed while the old list was being read
+            return "stale";
+        });
+
+        assertEquals("stale", loaded);
+        assertEquals(0, cache.size());
+        assertEquals("v1", cache.get(1, this::load));
+    }
+
+    @Test
+    void testInvalidate_OtherKeyDoesNotStopLoadFromBeingCached() {
+        TtlCache<Integer, String> cache = new TtlCache<>(10, 1, TimeUnit.MINUTES, now::get);
+        cache.get(2, this::load);
+
+        String loaded = cache.get(1, key -> {
+            cache.invalidate(2); // A write for another user while 1 was loading
+            cache.update(3, cache.now(), v -> v + "+");
+            return load(key);
+        });
+
+        assertEquals("v1", loaded);
+        assertEquals("v1", cache.getIfPresent(1));
+        assertNull(cache.getIfPresent(2));
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    void testUpdate_PatchesOnlyEntriesLoadedBeforeTheWrite() {
+        TtlCache<Integer, String> cache = new TtlCache<>(10, 1, TimeUnit.MINUTES, now::get);
+
+        cache.get(1, this::load);
+        now.incrementAndGet();
+        long writeStartedAt = cache.now();
+        now.incrementAndGet();
+        cache.get(2, this::load); // loaded after the write began: may already contain it
+
+        cache.update(1, writeStartedAt, v -> v + "+");
+        cache.update(2, writeStartedAt, v -> v + "+");
+        cache.update(3, writeStartedAt, v -> v + "+"); // not cached: nothing to patch
+
+        assertEquals("v1+", cache.get(1, this::load));
+        assertEquals("v2", cache.get(2, this::load));
+        assertEquals(3, loads.get());
+        assertEquals(2, cache.size());
+    }
+
+    @Test
+    void testUpdate_PatchesOutsideTheLockAndDropsConflictingPatches() {
+        TtlCache<Integer, String> cache = new TtlCache<>(10, 1, TimeUnit.MINUTES, now::get);
+        cache.get(1, this::load);
+        cache.get(2, this::load);
+        now.incrementAndGet();
+        long writeStartedAt = cache.now();
+
+        cache.update(1, writeStartedAt, v -> {
+            assertFalse(Thread.holdsLock(cache));
+            return v + "+";
+        });
+        // A second write patches key 2 while the first is still building its patch
+        cache.update(2, writeStartedAt, v -> {
+            cache.update(2, writeStartedAt, inner -> inner + "#");
+            return v + "+";
+        });
+
+        assertEquals("v1+", cache.getIfPresent(1));
+        assertNull(cache.getIfPresent(2)); // Neither patch alone is complete
+    }
+
+    @Test
+    void testPutAndInvalidateIf_DropOnlyMatchingValues() {
+        TtlCache<Integer, String> cache = new TtlCache<>(10, 5, TimeUnit.SECONDS, now::get);
+
+        assertNull(cache.getIfPresent(1));
+        cache.put(1, "alice");
+        cache.put(2, "bob");
+        cache.put(3, "alice");
+        assertEquals("alice", cache.getIfPresent(1));
+
+        cache.invalidateIf("alice"::equals);
+        assertNull(cache.getIfPresent(1));
+        assertNull(cache.getIfPresent(3));
+        assertEquals("bob", cache.getIfPresent(2));
+
+        now.addAndGet(TimeUnit.SECONDS.toNanos(5));
+        assertNull(cache.getIfPresent(2));
+        assertEquals(0, cache.size());
+        assertEquals(0, loads.get());
+    }
+}